@@ -0,0 +1,83 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EmbeddedEncoding;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of encoding and decoding embedded property values in each of the available encodings, for both a
+ * single primitive value (the most common case) and a map of mixed values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmbeddedEncodingBenchmark {
+
+    private static final JavaType VALUE_TYPE = new ObjectMapper().getTypeFactory().constructType(InstancePropertyValue.class);
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public EmbeddedEncoding encoding;
+
+    @Param({"primitive", "map"})
+    public String shape;
+
+    private InstancePropertyValue value;
+    private Object encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        if (shape.equals("map")) {
+            InstanceProperties properties = new InstanceProperties();
+            for (int i = 0; i < 10; i++) {
+                properties.setProperty("name" + i, primitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "A Simple Term " + i));
+                properties.setProperty("count" + i, primitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_LONG, (long) i));
+                properties.setProperty("when" + i, primitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_DATE, new Date().getTime()));
+            }
+            MapPropertyValue map = new MapPropertyValue();
+            map.setMapValues(properties);
+            value = map;
+        } else {
+            value = primitive(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "A Simple Term");
+        }
+        encoded = encoding.encode(value);
+    }
+
+    /**
+     * Serialize the value, as on every write of a property.
+     * @return the encoded value
+     * @throws IOException on any error
+     */
+    @Benchmark
+    public Object encode() throws IOException {
+        return encoding.encode(value);
+    }
+
+    /**
+     * Deserialize the value, as on every read of a property.
+     * @return the decoded value
+     * @throws IOException on any error
+     */
+    @Benchmark
+    public InstancePropertyValue decode() throws IOException {
+        return encoding.decode(encoded, VALUE_TYPE);
+    }
+
+    private static PrimitivePropertyValue primitive(PrimitiveDefCategory category, Object value) {
+        PrimitivePropertyValue ppv = new PrimitivePropertyValue();
+        ppv.setPrimitiveDefCategory(category);
+        ppv.setPrimitiveValue(value);
+        ppv.setTypeName(category.getName());
+        ppv.setTypeGUID(category.getGUID());
+        return ppv;
+    }
+
+}
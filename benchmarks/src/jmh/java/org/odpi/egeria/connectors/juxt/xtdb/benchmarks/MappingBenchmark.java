@@ -0,0 +1,168 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.benchmarks;
+
+import clojure.lang.IPersistentMap;
+import clojure.lang.PersistentHashMap;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.PropertyKeywords;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
+import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.openjdk.jmh.annotations.*;
+import xtdb.api.XtdbDocument;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures round trips through the mapping layer, between Egeria's representation of metadata instances and XTDB's,
+ * for realistic instances: an entity with a value for every one of its (inherited) properties, including maps and
+ * arrays, several classifications (one of which holds nested maps, arrays and structs) and a relationship with
+ * properties. Run with the GC profiler (as the build does by default) to also compare the allocation rate of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MappingBenchmark {
+
+    private static final String ENTITY_TYPE = "CSVFile";
+    private static final String[] CLASSIFICATIONS = {
+            "Confidentiality", "Criticality", "Retention", "SecurityTags", "AssetZoneMembership"
+    };
+    private static final String RELATIONSHIP_TYPE = "SemanticAssignment";
+
+    // Mapping never needs a running node, only the type definitions
+    private final XtdbOMRSRepositoryConnector xtdb = new XtdbOMRSRepositoryConnector();
+
+    private EntityDetail entity;
+    private Relationship relationship;
+    private Map<String, EntityProxy> entityProxies;
+    private Map<PropertyKeywords, InstancePropertyValue> values;
+    private XtdbDocument entityDoc;
+    private XtdbDocument relationshipDoc;
+    private IPersistentMap valuesDoc;
+
+    @Setup(Level.Trial)
+    public void setup() throws InvalidParameterException, IOException {
+        OpenMetadataTypes.register();
+        entity = OpenMetadataTypes.getEntity(ENTITY_TYPE, CLASSIFICATIONS);
+        EntityDetail term = OpenMetadataTypes.getEntity("GlossaryTerm", "Confidentiality");
+        relationship = OpenMetadataTypes.getRelationship(RELATIONSHIP_TYPE, entity, term);
+        entityProxies = new HashMap<>();
+        entityProxies.put(EntityProxyMapping.getReference(entity.getGUID()), relationship.getEntityOneProxy());
+        entityProxies.put(EntityProxyMapping.getReference(term.getGUID()), relationship.getEntityTwoProxy());
+        values = new LinkedHashMap<>();
+        Map<String, PropertyKeywords> keywords = TypeDefCache.getAllPropertyKeywordsForTypeDef(entity.getType().getTypeDefGUID());
+        for (Map.Entry<String, InstancePropertyValue> entry : entity.getProperties().getInstanceProperties().entrySet()) {
+            values.put(keywords.get(entry.getKey()), entry.getValue());
+        }
+        entityDoc = entityToXtdb();
+        relationshipDoc = relationshipToXtdb();
+        valuesDoc = propertyValuesToXtdb();
+    }
+
+    /**
+     * Map an entity (with its classifications) to XTDB, as on every write of an entity.
+     * @return the XTDB document
+     */
+    @Benchmark
+    public XtdbDocument entityToXtdb() {
+        return new EntityDetailMapping(xtdb, entity).toXTDB();
+    }
+
+    /**
+     * Map an entity (with its classifications) from XTDB, reading every one of its property values.
+     * @return the entity
+     */
+    @Benchmark
+    public EntityDetail entityFromXtdb() {
+        EntityDetail detail = new EntityDetailMapping(xtdb, entityDoc).toEgeria();
+        readAll(detail.getProperties());
+        for (Classification classification : detail.getClassifications()) {
+            readAll(classification.getProperties());
+        }
+        return detail;
+    }
+
+    /**
+     * Map a relationship to XTDB, as on every write of a relationship.
+     * @return the XTDB document
+     */
+    @Benchmark
+    public XtdbDocument relationshipToXtdb() {
+        return new RelationshipMapping(xtdb, relationship).toXTDB();
+    }
+
+    /**
+     * Map a relationship from XTDB (with its entity proxies already retrieved), reading every one of its property
+     * values.
+     * @return the relationship
+     */
+    @Benchmark
+    public Relationship relationshipFromXtdb() {
+        Relationship mapped = new RelationshipMapping(xtdb, relationshipDoc, null, entityProxies).toEgeria();
+        readAll(mapped.getProperties());
+        return mapped;
+    }
+
+    /**
+     * Map only an entity's classifications to XTDB, as on every classification or declassification of an entity.
+     * @return the XTDB document
+     */
+    @Benchmark
+    public XtdbDocument classificationsToXtdb() {
+        XtdbDocument.Builder builder = XtdbDocument.builder(entityDoc.getId());
+        new ClassificationMapping(xtdb, entity.getClassifications()).addToXtdbDoc(builder);
+        return builder.build();
+    }
+
+    /**
+     * Map only an entity's classifications from XTDB, reading every one of their property values.
+     * @return the classifications
+     */
+    @Benchmark
+    public List<Classification> classificationsFromXtdb() {
+        List<Classification> classifications = new ClassificationMapping(xtdb, entityDoc).toEgeria();
+        for (Classification classification : classifications) {
+            readAll(classification.getProperties());
+        }
+        return classifications;
+    }
+
+    /**
+     * Map each of an entity's property values to XTDB individually, as on every update of an entity's properties
+     * within a transaction function.
+     * @return the XTDB document
+     * @throws InvalidParameterException if any value cannot be mapped
+     * @throws IOException on any error serializing a value
+     */
+    @Benchmark
+    public IPersistentMap propertyValuesToXtdb() throws InvalidParameterException, IOException {
+        IPersistentMap doc = PersistentHashMap.EMPTY;
+        for (Map.Entry<PropertyKeywords, InstancePropertyValue> entry : values.entrySet()) {
+            doc = InstancePropertyValueMapping.addInstancePropertyValueToDoc(doc, entry.getKey(), entry.getValue());
+        }
+        return doc;
+    }
+
+    /**
+     * Map each of an entity's property values from XTDB individually, as within a transaction function.
+     * @return the property values
+     * @throws IOException on any error deserializing a value
+     */
+    @Benchmark
+    public InstanceProperties propertyValuesFromXtdb() throws IOException {
+        return InstancePropertiesMapping.getFromMap(entity.getType(), valuesDoc);
+    }
+
+    private static void readAll(InstanceProperties properties) {
+        if (properties != null) {
+            // Lazily-mapped properties are only deserialized once they are all retrieved
+            properties.getInstanceProperties();
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.benchmarks;
+
+import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
+import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.frameworks.auditlog.ComponentDevelopmentStatus;
+import org.odpi.openmetadata.opentypes.OpenMetadataTypesArchive;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLogDestination;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentManager;
+
+import java.util.*;
+
+/**
+ * Utilities for benchmarking against the full open metadata type system, without needing a running repository:
+ * registering every type definition, and generating instances with a value for every property of their type.
+ */
+final class OpenMetadataTypes {
+
+    static final String METADATA_COLLECTION_ID = "b2718e8e-8d49-4c6a-a6b4-1d3b2a1f0e11";
+    static final String REPOSITORY_NAME = "benchmark";
+
+    private static boolean registered = false;
+    private static OMRSAuditLog auditLog = null;
+    private static OMRSRepositoryContentManager contentManager = null;
+
+    private OpenMetadataTypes() {
+        // Only static utilities
+    }
+
+    /**
+     * Register every type definition from the open metadata types archive, both with the connector's cache and with a
+     * repository content manager, so that their instances can be mapped and searched. Only the supertypes and the
+     * properties (those the type definition does not already have) from any type definition patches are applied, as
+     * nothing else in a patch affects either.
+     * @throws InvalidParameterException if any type definition cannot be registered
+     */
+    static synchronized void register() throws InvalidParameterException {
+        if (registered) {
+            return;
+        }
+        OMRSAuditLogDestination destination = new OMRSAuditLogDestination(REPOSITORY_NAME, "XTDB", "ODPi", new ArrayList<>());
+        auditLog = new OMRSAuditLog(destination, -1, ComponentDevelopmentStatus.SAMPLE, REPOSITORY_NAME, "Benchmarking of the connector", null);
+        contentManager = new OMRSRepositoryContentManager(REPOSITORY_NAME, auditLog);
+        OpenMetadataArchiveTypeStore types = new OpenMetadataTypesArchive().getOpenMetadataArchive().getArchiveTypeStore();
+        for (AttributeTypeDef attributeTypeDef : types.getAttributeTypeDefs()) {
+            TypeDefCache.addAttributeTypeDef(attributeTypeDef);
+            contentManager.addAttributeTypeDef(REPOSITORY_NAME, attributeTypeDef);
+        }
+        for (TypeDef typeDef : types.getNewTypeDefs()) {
+            TypeDefCache.addTypeDef(typeDef);
+            contentManager.addTypeDef(REPOSITORY_NAME, typeDef);
+        }
+        if (types.getTypeDefPatches() != null) {
+            for (TypeDefPatch patch : types.getTypeDefPatches()) {
+                TypeDef typeDef = TypeDefCache.getTypeDef(patch.getTypeDefGUID());
+                if (typeDef != null && patch.getSuperType() != null) {
+                    typeDef.setSuperType(patch.getSuperType());
+                    TypeDefCache.addTypeDef(typeDef);
+                }
+                if (typeDef != null && patch.getPropertyDefinitions() != null) {
+                    List<TypeDefAttribute> properties = new ArrayList<>();
+                    Set<String> names = new HashSet<>();
+                    if (typeDef.getPropertiesDefinition() != null) {
+                        for (TypeDefAttribute property : typeDef.getPropertiesDefinition()) {
+                            properties.add(property);
+                            names.add(property.getAttributeName());
+                        }
+                    }
+                    for (TypeDefAttribute property : patch.getPropertyDefinitions()) {
+                        if (names.add(property.getAttributeName())) {
+                            properties.add(property);
+                        }
+                    }
+                    typeDef.setPropertiesDefinition(properties);
+                    TypeDefCache.addTypeDef(typeDef);
+                }
+            }
+        }
+        registered = true;
+    }
+
+    /**
+     * Retrieve a connector that can be used to map instances and build queries for any registered type, without
+     * being started. Any problems it reports are written to an audit log without any destinations, rather than being
+     * logged as errors.
+     * @return XtdbOMRSRepositoryConnector
+     * @throws InvalidParameterException if any type definition cannot be registered
+     */
+    static XtdbOMRSRepositoryConnector getConnector() throws InvalidParameterException {
+        register();
+        XtdbOMRSRepositoryConnector connector = new XtdbOMRSRepositoryConnector();
+        connector.setRepositoryName(REPOSITORY_NAME);
+        connector.setAuditLog(auditLog);
+        connector.setMetadataCollectionId(METADATA_COLLECTION_ID);
+        connector.setRepositoryHelper(new OMRSRepositoryContentHelper(contentManager));
+        return connector;
+    }
+
+    /**
+     * Retrieve the instance type for the named type definition.
+     * @param category of the type definition
+     * @param typeName of the type definition
+     * @return InstanceType
+     */
+    static InstanceType getType(TypeDefCategory category, String typeName) {
+        try {
+            return TypeDefCache.getInstanceType(category, typeName);
+        } catch (TypeErrorException e) {
+            throw new IllegalStateException("Type is not registered: " + typeName, e);
+        }
+    }
+
+    /**
+     * Retrieve every property defined for the named type, including those inherited from its supertypes.
+     * @param typeName of the type definition
+     * @return {@code List<TypeDefAttribute>}
+     */
+    static List<TypeDefAttribute> getAllProperties(String typeName) {
+        List<TypeDefAttribute> all = new ArrayList<>();
+        TypeDef typeDef = TypeDefCache.getTypeDefByName(typeName);
+        while (typeDef != null) {
+            if (typeDef.getPropertiesDefinition() != null) {
+                all.addAll(typeDef.getPropertiesDefinition());
+            }
+            TypeDefLink superType = typeDef.getSuperType();
+            typeDef = superType == null ? null : TypeDefCache.getTypeDef(superType.getGUID());
+        }
+        return all;
+    }
+
+    /**
+     * Generate a value for every property of the named type. Any map whose values can be of any type is given a
+     * nested map, array and struct, in addition to primitive values.
+     * @param typeName of the type definition
+     * @return InstanceProperties
+     */
+    static InstanceProperties getProperties(String typeName) {
+        InstanceProperties properties = new InstanceProperties();
+        for (TypeDefAttribute attribute : getAllProperties(typeName)) {
+            InstancePropertyValue value = getValue(attribute.getAttributeName(), attribute.getAttributeType());
+            if (value != null) {
+                properties.setProperty(attribute.getAttributeName(), value);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Create an entity of the named type, with a value for every property and with the named classifications.
+     * @param typeName of the entity
+     * @param classificationNames of the classifications to add to the entity
+     * @return EntityDetail
+     */
+    static EntityDetail getEntity(String typeName, String... classificationNames) {
+        EntityDetail entity = new EntityDetail();
+        setHeader(entity, getType(TypeDefCategory.ENTITY_DEF, typeName));
+        entity.setProperties(getProperties(typeName));
+        List<Classification> classifications = new ArrayList<>();
+        for (String classificationName : classificationNames) {
+            Classification classification = new Classification();
+            setHeader(classification, getType(TypeDefCategory.CLASSIFICATION_DEF, classificationName));
+            classification.setName(classificationName);
+            classification.setClassificationOrigin(ClassificationOrigin.ASSIGNED);
+            classification.setProperties(getProperties(classificationName));
+            classifications.add(classification);
+        }
+        entity.setClassifications(classifications);
+        return entity;
+    }
+
+    /**
+     * Create a proxy for the provided entity.
+     * @param entity for which to create a proxy
+     * @return EntityProxy
+     */
+    static EntityProxy getProxy(EntityDetail entity) {
+        EntityProxy proxy = new EntityProxy(entity);
+        InstanceProperties uniqueProperties = new InstanceProperties();
+        uniqueProperties.setProperty("qualifiedName", entity.getProperties().getPropertyValue("qualifiedName"));
+        proxy.setUniqueProperties(uniqueProperties);
+        return proxy;
+    }
+
+    /**
+     * Create a relationship of the named type between the provided entities, with a value for every property.
+     * @param typeName of the relationship
+     * @param one entity at the first end of the relationship
+     * @param two entity at the second end of the relationship
+     * @return Relationship
+     */
+    static Relationship getRelationship(String typeName, EntityDetail one, EntityDetail two) {
+        Relationship relationship = new Relationship();
+        setHeader(relationship, getType(TypeDefCategory.RELATIONSHIP_DEF, typeName));
+        relationship.setEntityOneProxy(getProxy(one));
+        relationship.setEntityTwoProxy(getProxy(two));
+        relationship.setProperties(getProperties(typeName));
+        return relationship;
+    }
+
+    private static void setHeader(InstanceAuditHeader header, InstanceType type) {
+        if (header instanceof InstanceHeader) {
+            InstanceHeader instanceHeader = (InstanceHeader) header;
+            instanceHeader.setGUID(UUID.randomUUID().toString());
+            instanceHeader.setInstanceURL("https://localhost:9443/instances/" + instanceHeader.getGUID());
+        }
+        Date now = new Date();
+        header.setType(type);
+        header.setStatus(InstanceStatus.ACTIVE);
+        header.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        header.setMetadataCollectionId(METADATA_COLLECTION_ID);
+        header.setMetadataCollectionName("benchmark");
+        header.setCreatedBy("benchmark");
+        header.setUpdatedBy("benchmark");
+        header.setMaintainedBy(List.of("benchmark", "steward"));
+        header.setCreateTime(now);
+        header.setUpdateTime(now);
+        header.setVersion(3L);
+    }
+
+    private static InstancePropertyValue getValue(String name, AttributeTypeDef attributeType) {
+        switch (attributeType.getCategory()) {
+            case PRIMITIVE:
+                return getPrimitive(name, ((PrimitiveDef) attributeType).getPrimitiveDefCategory());
+            case ENUM_DEF:
+                EnumDef enumDef = (EnumDef) attributeType;
+                List<EnumElementDef> elements = enumDef.getElementDefs();
+                EnumElementDef element = elements.get(elements.size() - 1);
+                EnumPropertyValue epv = new EnumPropertyValue();
+                epv.setTypeGUID(enumDef.getGUID());
+                epv.setTypeName(enumDef.getName());
+                epv.setOrdinal(element.getOrdinal());
+                epv.setSymbolicName(element.getValue());
+                epv.setDescription(element.getDescription());
+                return epv;
+            case COLLECTION:
+                CollectionDef collectionDef = (CollectionDef) attributeType;
+                List<PrimitiveDefCategory> arguments = collectionDef.getArgumentTypes();
+                switch (collectionDef.getCollectionDefCategory()) {
+                    case OM_COLLECTION_ARRAY:
+                        return getArray(name, arguments.get(0), 5);
+                    case OM_COLLECTION_MAP:
+                        PrimitiveDefCategory valueCategory = arguments.get(1);
+                        InstanceProperties values = new InstanceProperties();
+                        for (int i = 0; i < 5; i++) {
+                            values.setProperty(name + "Key" + i, getPrimitive(name + i, valueCategory));
+                        }
+                        if (valueCategory == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_UNKNOWN) {
+                            values.setProperty("nestedMap", getNestedMap(name));
+                            values.setProperty("nestedArray", getArray(name, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, 3));
+                            values.setProperty("nestedStruct", getNestedStruct(name));
+                        }
+                        MapPropertyValue mpv = new MapPropertyValue();
+                        mpv.setMapValues(values);
+                        return mpv;
+                    default:
+                        return null;
+                }
+            default:
+                return null;
+        }
+    }
+
+    private static MapPropertyValue getNestedMap(String name) {
+        InstanceProperties values = new InstanceProperties();
+        values.setProperty("count", getPrimitive(name, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT));
+        values.setProperty("label", getPrimitive(name, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING));
+        values.setProperty("values", getArray(name, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_LONG, 3));
+        MapPropertyValue mpv = new MapPropertyValue();
+        mpv.setMapValues(values);
+        return mpv;
+    }
+
+    private static StructPropertyValue getNestedStruct(String name) {
+        InstanceProperties attributes = new InstanceProperties();
+        attributes.setProperty("identifier", getPrimitive(name, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING));
+        attributes.setProperty("validFrom", getPrimitive(name, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_DATE));
+        attributes.setProperty("scores", getNestedMap(name));
+        StructPropertyValue spv = new StructPropertyValue();
+        spv.setAttributes(attributes);
+        return spv;
+    }
+
+    private static ArrayPropertyValue getArray(String name, PrimitiveDefCategory category, int count) {
+        ArrayPropertyValue apv = new ArrayPropertyValue();
+        apv.setArrayCount(count);
+        for (int i = 0; i < count; i++) {
+            apv.setArrayValue(i, getPrimitive(name + i, category));
+        }
+        return apv;
+    }
+
+    private static PrimitivePropertyValue getPrimitive(String name, PrimitiveDefCategory category) {
+        Object value;
+        switch (category) {
+            case OM_PRIMITIVE_TYPE_BOOLEAN:
+                value = true;
+                break;
+            case OM_PRIMITIVE_TYPE_BYTE:
+                value = (byte) 7;
+                break;
+            case OM_PRIMITIVE_TYPE_CHAR:
+                value = 'x';
+                break;
+            case OM_PRIMITIVE_TYPE_SHORT:
+                value = (short) 42;
+                break;
+            case OM_PRIMITIVE_TYPE_INT:
+                value = 42;
+                break;
+            case OM_PRIMITIVE_TYPE_LONG:
+            case OM_PRIMITIVE_TYPE_DATE:
+                value = 1_650_000_000_000L;
+                break;
+            case OM_PRIMITIVE_TYPE_FLOAT:
+                value = 4.2f;
+                break;
+            case OM_PRIMITIVE_TYPE_DOUBLE:
+                value = 4.2;
+                break;
+            default:
+                // Strings (and any value of unknown type) are the most common, so give them a realistic length
+                category = PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING;
+                value = "A realistic value for the " + name + " property of a benchmark instance";
+                break;
+        }
+        PrimitivePropertyValue ppv = new PrimitivePropertyValue();
+        ppv.setPrimitiveDefCategory(category);
+        ppv.setPrimitiveValue(value);
+        ppv.setTypeName(category.getName());
+        ppv.setTypeGUID(category.getGUID());
+        return ppv;
+    }
+
+}
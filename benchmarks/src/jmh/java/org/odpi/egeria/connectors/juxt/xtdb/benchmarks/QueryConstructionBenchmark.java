@@ -0,0 +1,223 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.benchmarks;
+
+import clojure.lang.IPersistentCollection;
+import clojure.lang.IPersistentMap;
+import clojure.lang.Keyword;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.TextConditionBuilder;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.XtdbQuery;
+import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of queries over the full open metadata type system, for representative property,
+ * classification, text and sequencing criteria: from no type filter at all (every entity type) through to a single
+ * leaf type. As the builders expand the set of types into or-joins over every property that could match, the size
+ * of each query that is built is also reported (as the number of clauses and of elements within it).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryConstructionBenchmark {
+
+    private static final String NAMESPACE = EntityDetailMapping.ENTITY_PROPERTIES_NS;
+    private static final String SEARCH_TEXT = ".*\\Qcustomer\\E.*";
+    private static final Keyword WHERE = Keyword.intern("where");
+
+    @Param({"none", "Referenceable", "Asset", "DataStore", "CSVFile"})
+    public String typeFilter;
+
+    private XtdbOMRSRepositoryConnector xtdb;
+    private Set<String> typeNames;
+    private SearchProperties searchProperties;
+    private SearchClassifications searchClassifications;
+    private QuerySize propertiesSize;
+    private QuerySize classificationsSize;
+    private QuerySize textSize;
+    private QuerySize sequencingSize;
+
+    /**
+     * The size of the query last built by a benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class QuerySize {
+
+        public long clauses;
+        public long elements;
+
+        private void set(QuerySize size) {
+            clauses = size.clauses;
+            elements = size.elements;
+        }
+
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws InvalidParameterException {
+        xtdb = OpenMetadataTypes.getConnector();
+        // As the search operations do, search every entity type if there is no type filter
+        typeNames = TypeDefCache.getSubtypeNames(typeFilter.equals("none") ? "OpenMetadataRoot" : typeFilter);
+
+        // (qualifiedName matches ... and name = ... and (description matches ... or displayName matches ...))
+        SearchProperties nested = new SearchProperties();
+        nested.setMatchCriteria(MatchCriteria.ANY);
+        nested.setConditions(List.of(
+                condition("description", PropertyComparisonOperator.LIKE, string(SEARCH_TEXT)),
+                condition("displayName", PropertyComparisonOperator.LIKE, string(SEARCH_TEXT))
+        ));
+        PropertyCondition nestedCondition = new PropertyCondition();
+        nestedCondition.setNestedConditions(nested);
+        searchProperties = new SearchProperties();
+        searchProperties.setMatchCriteria(MatchCriteria.ALL);
+        searchProperties.setConditions(List.of(
+                condition("qualifiedName", PropertyComparisonOperator.LIKE, string(SEARCH_TEXT)),
+                condition("name", PropertyComparisonOperator.EQ, string("Customer accounts")),
+                nestedCondition
+        ));
+
+        // Confidentiality (level >= 2) or Retention (any)
+        SearchProperties level = new SearchProperties();
+        level.setMatchCriteria(MatchCriteria.ALL);
+        PrimitivePropertyValue two = new PrimitivePropertyValue();
+        two.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT);
+        two.setPrimitiveValue(2);
+        level.setConditions(List.of(condition("level", PropertyComparisonOperator.GTE, two)));
+        ClassificationCondition confidentiality = new ClassificationCondition();
+        confidentiality.setName("Confidentiality");
+        confidentiality.setMatchProperties(level);
+        ClassificationCondition retention = new ClassificationCondition();
+        retention.setName("Retention");
+        searchClassifications = new SearchClassifications();
+        searchClassifications.setMatchCriteria(MatchCriteria.ANY);
+        searchClassifications.setConditions(List.of(confidentiality, retention));
+
+        propertiesSize = getSize(buildPropertyConditions());
+        classificationsSize = getSize(buildClassificationConditions());
+        textSize = getSize(buildWildcardTextCondition());
+        sequencingSize = getSize(buildPropertySequencing());
+    }
+
+    /**
+     * Build a query for the search properties, as on every find by property value.
+     * @param size into which to report the size of the query
+     * @return the query
+     */
+    @Benchmark
+    public IPersistentMap propertyConditions(QuerySize size) {
+        size.set(propertiesSize);
+        return buildPropertyConditions();
+    }
+
+    /**
+     * Build a query for the search classifications, as on every find by classification.
+     * @param size into which to report the size of the query
+     * @return the query
+     */
+    @Benchmark
+    public IPersistentMap classificationConditions(QuerySize size) {
+        size.set(classificationsSize);
+        return buildClassificationConditions();
+    }
+
+    /**
+     * Build a query matching text against every string property, as on every find by property value without a
+     * Lucene index.
+     * @param size into which to report the size of the query
+     * @return the query
+     */
+    @Benchmark
+    public IPersistentMap wildcardTextCondition(QuerySize size) {
+        size.set(textSize);
+        return buildWildcardTextCondition();
+    }
+
+    /**
+     * Build a query sequenced by a property defined by many types, as on every search sequenced by property.
+     * @param size into which to report the size of the query
+     * @return the query
+     */
+    @Benchmark
+    public IPersistentMap propertySequencing(QuerySize size) {
+        size.set(sequencingSize);
+        return buildPropertySequencing();
+    }
+
+    private IPersistentMap buildPropertyConditions() {
+        XtdbQuery query = new XtdbQuery();
+        query.addPropertyConditions(searchProperties, NAMESPACE, typeNames, xtdb, false, true);
+        return query.getQuery();
+    }
+
+    private IPersistentMap buildClassificationConditions() {
+        XtdbQuery query = new XtdbQuery();
+        query.addClassificationConditions(searchClassifications, typeNames, xtdb, false, true);
+        return query.getQuery();
+    }
+
+    private IPersistentMap buildWildcardTextCondition() {
+        XtdbQuery query = new XtdbQuery();
+        query.addConditions(TextConditionBuilder.buildWildcardTextCondition(SEARCH_TEXT, xtdb, typeNames, NAMESPACE, false, true, query));
+        return query.getQuery();
+    }
+
+    private IPersistentMap buildPropertySequencing() {
+        XtdbQuery query = new XtdbQuery();
+        query.addSequencing(SequencingOrder.PROPERTY_ASCENDING, "name", NAMESPACE, typeNames, xtdb);
+        query.addDocIdTieBreaker();
+        return query.getQuery();
+    }
+
+    private static QuerySize getSize(IPersistentMap query) {
+        QuerySize size = new QuerySize();
+        Object where = query.valAt(WHERE);
+        size.clauses = where instanceof Collection ? ((Collection<?>) where).size() : 0;
+        size.elements = countElements(query);
+        return size;
+    }
+
+    private static long countElements(Object structure) {
+        long count = 0;
+        if (structure instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) structure).entrySet()) {
+                count += countElements(entry.getKey()) + countElements(entry.getValue());
+            }
+        } else if (structure instanceof IPersistentCollection && structure instanceof Collection) {
+            for (Object element : (Collection<?>) structure) {
+                count += countElements(element);
+            }
+        } else {
+            count = 1;
+        }
+        return count;
+    }
+
+    private static PropertyCondition condition(String property, PropertyComparisonOperator operator, InstancePropertyValue value) {
+        PropertyCondition condition = new PropertyCondition();
+        condition.setProperty(property);
+        condition.setOperator(operator);
+        condition.setValue(value);
+        return condition;
+    }
+
+    private static PrimitivePropertyValue string(String value) {
+        PrimitivePropertyValue ppv = new PrimitivePropertyValue();
+        ppv.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        ppv.setPrimitiveValue(value);
+        return ppv;
+    }
+
+}
@@ -0,0 +1,92 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.benchmarks;
+
+import clojure.lang.PersistentVector;
+import org.odpi.egeria.connectors.juxt.xtdb.readops.ResultPager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming de-duplication and paging of query results against the previous list-based approach, for
+ * a range of page sizes. Each set of results includes some duplicates (as a query that matches on multiple values of
+ * the same document would produce).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResultPagerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int pageSize;
+
+    private List<List<?>> unordered;
+    private List<List<?>> ordered;
+
+    @Setup
+    public void setup() {
+        int total = pageSize * 2;
+        ordered = new ArrayList<>(total + total / 4);
+        for (int i = 0; i < total; i++) {
+            List<?> tuple = PersistentVector.create("e_" + UUID.nameUUIDFromBytes(Integer.toString(i).getBytes()));
+            ordered.add(tuple);
+            if (i % 4 == 0) {
+                ordered.add(tuple);
+            }
+        }
+        unordered = new ArrayList<>(ordered);
+        Collections.shuffle(unordered, new Random(42));
+    }
+
+    /**
+     * The list-based approach that was used prior to the streaming pager.
+     * @return the page of results
+     */
+    @Benchmark
+    public Collection<List<?>> legacyContains() {
+        return legacyDeduplicateAndPage(unordered.iterator(), 0, pageSize);
+    }
+
+    /**
+     * Streaming with hash-based de-duplication, as used for any results not sorted by document ID.
+     * @return the page of results
+     */
+    @Benchmark
+    public Collection<List<?>> streamingHashed() {
+        return ResultPager.page(unordered.iterator(), 0, pageSize, false);
+    }
+
+    /**
+     * Streaming with adjacent-only de-duplication, as used for results sorted by document ID.
+     * @return the page of results
+     */
+    @Benchmark
+    public Collection<List<?>> streamingOrdered() {
+        return ResultPager.page(ordered.iterator(), 0, pageSize, true);
+    }
+
+    private static Collection<List<?>> legacyDeduplicateAndPage(Iterator<List<?>> results, int fromElement, int pageSize) {
+        List<List<?>> pageOfResults = new ArrayList<>();
+        Set<List<?>> skippedResults = new HashSet<>();
+        int currentIndex = 0;
+        int lastResultIndex = (fromElement + pageSize);
+        while (results.hasNext()) {
+            List<?> next = results.next();
+            if (currentIndex >= lastResultIndex) {
+                break;
+            } else if (currentIndex >= fromElement) {
+                if (!pageOfResults.contains(next)) {
+                    pageOfResults.add(next);
+                    currentIndex++;
+                }
+            } else if (!skippedResults.contains(next)) {
+                skippedResults.add(next);
+                currentIndex++;
+            }
+        }
+        return pageOfResults;
+    }
+
+}
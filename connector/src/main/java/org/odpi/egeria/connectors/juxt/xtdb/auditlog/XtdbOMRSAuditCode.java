@@ -212,6 +212,28 @@ public enum XtdbOMRSAuditCode implements AuditLogMessageSet {
                     "but find that they are not sorted as expected. Correct the calling code to either provide a valid name of the property " +
                     "by which results should be sorted, change the type restrictions so that the property is valid for those types, or change " +
                     "the sorting approach to one that is not based on properties."),
+    INVALID_METRICS_REGISTRY("OMRS-XTDB-REPOSITORY-0027",
+            OMRSAuditLogRecordSeverity.ERROR,
+            "Unable to create the configured metrics registry {0}: {1}.",
+            "The connector will continue to record its metrics into the default (in-memory) registry instead.",
+            "Check that the configured class implements MetricsRegistry, has a public no-argument constructor, and is " +
+                    "available on the classpath of the server."),
+    SLOW_QUERY("OMRS-XTDB-REPOSITORY-0028",
+            OMRSAuditLogRecordSeverity.PERFMON,
+            "A query for {0} took {1} ms ({2} rows read, {3} returned; build {4} ms, execute {5} ms, fetch {6} ms, page {7} ms) in {8}: {9} with {10}",
+            "The query took longer than the slow query threshold, so it has been recorded for further analysis.",
+            "If the same queries are recorded repeatedly, review the searches being made through the originating operation " +
+                    "for more selective criteria (or smaller pages), or the indexing of the repository."),
+    SLOW_QUERIES_DROPPED("OMRS-XTDB-REPOSITORY-0029",
+            OMRSAuditLogRecordSeverity.PERFMON,
+            "{0} further slow queries were recorded, but overwritten before they could be written to the audit log.",
+            "More slow queries were recorded between writes to the audit log than the slow query log can hold.",
+            "Increase the slowQueryLogSize or slowQueryThreshold, or reduce the slowQueryLogInterval, to capture all of them."),
+    CONFLICTING_CONFIGURATION("OMRS-XTDB-REPOSITORY-0030",
+            OMRSAuditLogRecordSeverity.ERROR,
+            "The {0} configured for repository {1} ({2}) conflicts with the {0} already in use by another repository on this platform ({3}).",
+            "The setting applies to every XTDB repository running on the same platform, so this repository will continue with the setting already in use.",
+            "Configure every XTDB repository on the same platform with the same value for this setting, or run the repository on a separate platform."),
     ;
 
     private final String logMessageId;
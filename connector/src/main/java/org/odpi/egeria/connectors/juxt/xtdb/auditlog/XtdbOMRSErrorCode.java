@@ -126,6 +126,10 @@ public enum XtdbOMRSErrorCode implements ExceptionMessageSet {
             "Attempt to save classification on entity with GUID {0} as a reference copy in its home collection in repository {1}",
             "The system is unable to perform the request because it is not possible to save reference copies of classifications homed in this same collection.",
             "Correct the caller's code and retry the request."),
+    INVALID_CONTINUATION_TOKEN(400, "OMRS-XTDB-REPOSITORY-400-026",
+            "The continuation token provided for a paged search in repository {0} is not valid for the search: {1}",
+            "The system is unable to continue the search from the position given by the token.",
+            "Only pass tokens exactly as they were returned by the previous page of the same search, or start the search again without a token."),
     ENTITY_NOT_KNOWN(404, "OMRS-XTDB-REPOSITORY-404-001",
             "The repository does not contain any entity with the GUID {0}",
             "The XTDB repository is unable to find any entity with the provided GUID.",
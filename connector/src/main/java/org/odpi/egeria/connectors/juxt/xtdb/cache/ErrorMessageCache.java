@@ -2,37 +2,157 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.egeria.connectors.juxt.xtdb.cache;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A thread-safe way of capturing errors for a given transaction for error-handling purposes across threads.
  * (Basically so we can still throw meaningful errors back to API calls even though the back-end processing
  * happens in a different thread, asynchronously, from the API call itself.)
+ *
+ * Errors are only held for a bounded number of transactions, and for a bounded time: when writes are asynchronous
+ * (and for transactions submitted by other nodes) nothing ever retrieves the error, so without these bounds every
+ * failed transaction would pin its exception (and stack trace) in memory for the life of the node. The number of
+ * failed transactions is also counted for each transaction function, whether or not their errors are ever retrieved.
  */
 public class ErrorMessageCache {
 
-    private static final ConcurrentMap<Long, Exception> map = new ConcurrentHashMap<>();
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final long DEFAULT_TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(5);
+
+    private static final Map<Long, Failure> map = new LinkedHashMap<>(64, 0.75f, false);
+    private static final Map<String, Long> failures = new TreeMap<>();
+
+    private static int maxEntries = DEFAULT_MAX_ENTRIES;
+    private static long timeToLive = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIME_TO_LIVE);
+    private static long evictions = 0;
+
+    private ErrorMessageCache() {}
+
+    /**
+     * Set the maximum number of transactions for which to hold errors, evicting the oldest errors as needed to fit
+     * within it.
+     * @param maximum number of transactions: 0 or less holds no errors at all (they are still counted)
+     */
+    public static synchronized void setMaximumEntries(int maximum) {
+        maxEntries = Math.max(maximum, 0);
+        evict(System.nanoTime());
+    }
+
+    /**
+     * Set the length of time for which to hold each error, evicting any that have already been held for longer.
+     * @param milliseconds for which to hold each error
+     */
+    public static synchronized void setTimeToLive(long milliseconds) {
+        timeToLive = TimeUnit.MILLISECONDS.toNanos(Math.max(milliseconds, 0));
+        evict(System.nanoTime());
+    }
 
     /**
      * Add an error for a given transaction.
      * @param txId transaction for which to add the error
+     * @param functionName of the transaction function that raised the error
      * @param error error to record
      * @return Exception error that was added
      */
-    public static Exception add(Long txId, Exception error) {
-        map.put(txId, error);
+    public static synchronized Exception add(Long txId, String functionName, Exception error) {
+        long now = System.nanoTime();
+        String function = functionName == null ? "" : functionName;
+        failures.merge(function, 1L, Long::sum);
+        // Re-adding an error for the same transaction should make it the newest, rather than keep the old position
+        map.remove(txId);
+        map.put(txId, new Failure(error, function, now));
+        evict(now);
         return error;
     }
 
     /**
      * Retrieve any error for the given transaction.
      * @param txId transaction for which to retrieve error
-     * @return Exception if there was any error, or null if there was no error
+     * @return Exception if there was any error, or null if there was no error (or it is no longer held)
      */
-    public static Exception get(Long txId) {
+    public static synchronized Exception get(Long txId) {
+        evict(System.nanoTime());
         // Also remove the error once we've thrown it, to minimize memory usage
-        return map.remove(txId);
+        Failure failure = map.remove(txId);
+        return failure == null ? null : failure.error;
+    }
+
+    /**
+     * Discard any error for the given transaction, and no longer count it as a failed transaction: for a transaction
+     * that is to be re-submitted, so that its failure is only recorded once. (The failure can only be un-counted if
+     * its error is still held.)
+     * @param txId transaction for which to discard the error
+     */
+    public static synchronized void discard(Long txId) {
+        Failure failure = map.remove(txId);
+        if (failure != null) {
+            failures.computeIfPresent(failure.functionName, (k, v) -> v > 1 ? v - 1 : null);
+        }
+    }
+
+    /**
+     * Retrieve the number of transactions for which errors are currently held.
+     * @return int
+     */
+    public static synchronized int size() {
+        return map.size();
+    }
+
+    /**
+     * Retrieve the number of errors that have been evicted (because they were held for too long, or to make space for
+     * newer errors) without ever having been retrieved.
+     * @return long
+     */
+    public static synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Retrieve the number of failed transactions, by the transaction function that raised their error.
+     * @return {@code Map<String, Long>} of counts, keyed by transaction function name
+     */
+    public static synchronized Map<String, Long> getFailedTransactions() {
+        return new TreeMap<>(failures);
+    }
+
+    /**
+     * Evict any errors that have been held for too long, and then the oldest errors until the cache fits within its
+     * maximum.
+     * @param now current time (from {@link System#nanoTime()})
+     */
+    private static void evict(long now) {
+        Iterator<Failure> oldest = map.values().iterator();
+        // Errors are held in the order they were added, so we need only check from the oldest until one has not expired
+        while (oldest.hasNext()) {
+            Failure failure = oldest.next();
+            if (map.size() > maxEntries || now - failure.added > timeToLive) {
+                oldest.remove();
+                evictions++;
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * An error, the transaction function that raised it, and when it was added.
+     */
+    private static final class Failure {
+
+        private final Exception error;
+        private final String functionName;
+        private final long added;
+
+        private Failure(Exception error, String functionName, long added) {
+            this.error = error;
+            this.functionName = functionName;
+            this.added = added;
+        }
+
     }
 
 }
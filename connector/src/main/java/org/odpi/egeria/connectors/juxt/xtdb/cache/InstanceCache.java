@@ -0,0 +1,201 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe, bounded cache of metadata instances that have already been translated from their XTDB documents,
+ * keyed by the content of each document: its ID along with the version and update time of the instance it holds,
+ * which change whenever its content does. Since such a key identifies exactly one content, and never changes meaning,
+ * a cached instance is valid for any point in time at which XTDB holds a document with that same key: popular
+ * instances therefore only need to be translated once, no matter how often (or as of which times) they are read. The
+ * key is taken from the document itself, so it needs no further round-trip to XTDB beyond retrieving the document.
+ *
+ * The cache is bounded by the total weight of the instances it holds (the number of attributes in the document each
+ * was translated from), evicting the least-recently used instances first. Cached instances are shared, so they must
+ * never be handed out directly: callers should only ever hand out copies of them.
+ */
+public class InstanceCache {
+
+    public static final long DEFAULT_MAX_WEIGHT = 1_000_000L;
+
+    private static final Map<Key, Entry> instances = new LinkedHashMap<>(256, 0.75f, true);
+
+    private static long maxWeight = DEFAULT_MAX_WEIGHT;
+    private static long weight = 0;
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private InstanceCache() {}
+
+    /**
+     * Set the maximum total weight of the instances to cache, evicting any instances needed to fit within it.
+     * @param maximum total weight (number of document attributes) of instances to cache: 0 or less disables caching
+     */
+    public static synchronized void setMaximumWeight(long maximum) {
+        maxWeight = Math.max(maximum, 0);
+        evict();
+    }
+
+    /**
+     * Retrieve the maximum total weight of the instances to cache.
+     * @return long
+     */
+    public static synchronized long getMaximumWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Indicates whether any instances will be cached.
+     * @return boolean
+     */
+    public static synchronized boolean isEnabled() {
+        return maxWeight > 0;
+    }
+
+    /**
+     * Retrieve the cached instance of the provided form that was translated from the document with the provided
+     * content key. Note that the instance returned is shared, and must therefore only be copied.
+     * @param form of the instance (for example, an EntityDetail or an EntityProxy translated from the same document)
+     * @param contentKey of the document from which the instance was translated
+     * @param <T> form of the instance
+     * @return T the cached instance, or null if there is none
+     */
+    public static synchronized <T> T get(Class<T> form, Object contentKey) {
+        if (contentKey == null) {
+            return null;
+        }
+        Entry entry = instances.get(new Key(form, contentKey));
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return form.cast(entry.instance);
+    }
+
+    /**
+     * Cache the provided instance of the provided form, translated from the document with the provided content key.
+     * Note that the instance is shared once cached, and must therefore not be handed out (only copies of it).
+     * @param form of the instance
+     * @param contentKey of the document from which the instance was translated
+     * @param instance translated from the document
+     * @param instanceWeight of the instance (number of attributes in the document from which it was translated)
+     * @param <T> form of the instance
+     */
+    public static synchronized <T> void put(Class<T> form, Object contentKey, T instance, int instanceWeight) {
+        if (contentKey == null || instance == null || instanceWeight > maxWeight) {
+            return;
+        }
+        Entry previous = instances.put(new Key(form, contentKey), new Entry(instance, instanceWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += instanceWeight;
+        evict();
+    }
+
+    /**
+     * Retrieve the number of retrievals for which an instance was cached.
+     * @return long
+     */
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Retrieve the number of retrievals for which no instance was cached.
+     * @return long
+     */
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Retrieve the number of instances currently cached.
+     * @return int
+     */
+    public static synchronized int size() {
+        return instances.size();
+    }
+
+    /**
+     * Retrieve the total weight of the instances currently cached.
+     * @return long
+     */
+    public static synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Remove all cached instances and reset the hit and miss counters. (Instances must be cleared whenever the type
+     * definitions they were translated with change, as the same document could then translate differently.)
+     */
+    public static synchronized void clear() {
+        instances.clear();
+        weight = 0;
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * Evict the least-recently used instances until the cache fits within its maximum weight.
+     */
+    private static void evict() {
+        Iterator<Entry> eldest = instances.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Identifies a cached instance by its form and the content key of the document from which it was translated.
+     */
+    private static final class Key {
+
+        private final Class<?> form;
+        private final Object contentKey;
+
+        Key(Class<?> form, Object contentKey) {
+            this.form = form;
+            this.contentKey = contentKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key that = (Key) o;
+            return form == that.form && contentKey.equals(that.contentKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(form, contentKey);
+        }
+
+    }
+
+    /**
+     * A cached instance, along with its weight.
+     */
+    private static final class Entry {
+
+        private final Object instance;
+        private final int weight;
+
+        Entry(Object instance, int weight) {
+            this.instance = instance;
+            this.weight = weight;
+        }
+
+    }
+
+}
@@ -17,6 +17,8 @@ public class PropertyKeywords {
     private final String simpleName;
     private final String embeddedPath;
     private final String searchablePath;
+    private final Keyword embeddedKeyword;
+    private final Keyword searchableKeyword;
 
     public PropertyKeywords(String namespace,
                             String typeName,
@@ -26,6 +28,9 @@ public class PropertyKeywords {
         this.simpleName = propertyName;
         embeddedPath = getSerializedPropertyKeyword(namespace, propertyName);
         searchablePath = getSearchableValueKeyword(namespace, typeName, propertyName);
+        // Intern the keywords once, up-front, as they are needed for every value of the property that is mapped
+        embeddedKeyword = Keyword.intern(embeddedPath);
+        searchableKeyword = Keyword.intern(searchablePath);
     }
 
     /**
@@ -41,7 +46,7 @@ public class PropertyKeywords {
      * @return Keyword
      */
     public Keyword getEmbeddedKeyword() {
-        return Keyword.intern(embeddedPath);
+        return embeddedKeyword;
     }
 
     /**
@@ -57,7 +62,7 @@ public class PropertyKeywords {
      * @return Keyword
      */
     public Keyword getSearchableKeyword() {
-        return Keyword.intern(searchablePath);
+        return searchableKeyword;
     }
 
     /**
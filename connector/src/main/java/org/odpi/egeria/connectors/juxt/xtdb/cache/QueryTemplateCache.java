@@ -0,0 +1,84 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.cache;
+
+import clojure.lang.IPersistentMap;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe, bounded cache of parameterised query templates, keyed by their shape. Since every literal of a
+ * parameterised query is bound through its inputs, two searches that differ only in the values they search for share
+ * the same template: handing XTDB the same (already-hashed) template instance each time allows it to re-use the query
+ * plan it compiled for the first of them, rather than re-planning the query.
+ */
+public class QueryTemplateCache {
+
+    private static final int MAX_TEMPLATES = 512;
+
+    private static final Map<IPersistentMap, IPersistentMap> templates = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<IPersistentMap, IPersistentMap> eldest) {
+                    return size() > MAX_TEMPLATES;
+                }
+            });
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private QueryTemplateCache() {}
+
+    /**
+     * Retrieve the cached template with the same shape as the provided template, caching the provided template if
+     * there is not yet any with its shape.
+     * @param template parameterised query whose cached equivalent should be retrieved
+     * @return IPersistentMap giving the cached template
+     */
+    public static IPersistentMap intern(IPersistentMap template) {
+        IPersistentMap cached = templates.putIfAbsent(template, template);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return template;
+        }
+        hits.incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Retrieve the number of queries whose shape was already cached.
+     * @return long
+     */
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Retrieve the number of queries whose shape was not yet cached.
+     * @return long
+     */
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Retrieve the number of templates currently cached.
+     * @return int
+     */
+    public static int size() {
+        return templates.size();
+    }
+
+    /**
+     * Remove all cached templates and reset the hit and miss counters.
+     */
+    public static void clear() {
+        templates.clear();
+        hits.set(0);
+        misses.set(0);
+    }
+
+}
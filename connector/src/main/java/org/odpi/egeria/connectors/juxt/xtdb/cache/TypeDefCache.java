@@ -13,7 +13,6 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorExceptio
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
 
 /**
  * A shadow cache of all typeDef information.
@@ -31,6 +30,10 @@ public class TypeDefCache {
     private static final ConcurrentMap<String, String> nameToGUID = new ConcurrentHashMap<>();
     private static final ConcurrentMap<String, InstanceType> knownInstanceTypes = new ConcurrentHashMap<>();
 
+    // Index of the type hierarchy: discarded whenever a type changes, and only rebuilt when it is next needed (so that
+    // loading a large number of types at startup does not rebuild it for every one of them)
+    private static volatile TypeLattice lattice = null;
+
     /**
      * Cache the provided type definition for use across threads.
      * @param typeDef the type definition to cache
@@ -40,6 +43,7 @@ public class TypeDefCache {
         knownTypeDefs.put(typeDef.getGUID(), typeDef);
         nameToGUID.put(typeDef.getName(), typeDef.getGUID());
         cacheTypeDefDetails(typeDef);
+        invalidateLattice();
     }
 
     /**
@@ -74,6 +78,7 @@ public class TypeDefCache {
         if (removed != null) {
             nameToGUID.remove(removed.getName());
             uncacheTypeDefDetails(removed);
+            invalidateLattice();
         }
     }
 
@@ -103,53 +108,42 @@ public class TypeDefCache {
     }
 
     /**
-     * Return the map of properties to qualified property keywords for the provided type definition.
-     * @param typeDefGUID for which to retrieve qualified property keywords
-     * @return {@code Map<String, PropertyMapping>} keyed by unqualified property name with the qualified property keywords as the value
+     * Retrieve a list of all supertypes of the provided type definition.
+     * @param typeDefGUID unique identifier of the type definition for which to retrieve all supertypes
+     * @return {@code List<TypeDefLink>} of all supertypes (nearest first), shared and unmodifiable
      */
-    private static Map<String, PropertyKeywords> getPropertyKeywords(String typeDefGUID) {
-        return typeDefToPropertyKeywords.get(typeDefGUID);
+    public static List<TypeDefLink> getAllSuperTypes(String typeDefGUID) {
+        List<TypeDefLink> supers = getLattice().getAllSuperTypes(typeDefGUID);
+        return supers == null ? Collections.emptyList() : supers;
     }
 
     /**
-     * Retrieve a list of all supertypes of the provided type definition.
-     * @param typeDefGUID unique identifier of the type definition for which to retrieve all supertypes
-     * @return {@code List<TypeDefLink>} of all supertypes
+     * Retrieve the names of the provided type definition and all of its subtypes.
+     * @param typeDefName name of the type definition for which to retrieve all subtypes
+     * @return {@code Set<String>} of type definition names (including the provided type), shared and unmodifiable, or
+     *         null if the type definition is not known
      */
-    public static List<TypeDefLink> getAllSuperTypes(String typeDefGUID) {
-        List<TypeDefLink> supers = new ArrayList<>();
-        TypeDef start = getTypeDef(typeDefGUID);
-        if (start != null) {
-            TypeDefLink superTypeLink = start.getSuperType();
-            while (superTypeLink != null) {
-                TypeDef superType = getTypeDef(superTypeLink.getGUID());
-                supers.add(superTypeLink);
-                superTypeLink = superType.getSuperType();
-            }
-        }
-        return Collections.unmodifiableList(supers);
+    public static Set<String> getSubtypeNames(String typeDefName) {
+        return typeDefName == null ? null : getLattice().getSubtypeNames(typeDefName);
+    }
+
+    /**
+     * Retrieve the names of all type definitions of the provided category.
+     * @param category of type definition for which to retrieve the names
+     * @return {@code Set<String>} of type definition names, shared and unmodifiable
+     */
+    public static Set<String> getTypeDefNamesForCategory(TypeDefCategory category) {
+        return getLattice().getTypeDefNames(category);
     }
 
     /**
      * Retrieve a map of all property keywords for the provided type definition.
      * @param typeDefGUID unique identifier of the type definition for which to retrieve all properties
-     * @return {@code Map<String, PropertyKeywords>} keyed by unqualified (simple) property name with the qualified property keywords as the value
+     * @return {@code Map<String, PropertyKeywords>} keyed by unqualified (simple) property name with the qualified property keywords as the value (shared and unmodifiable)
      */
     public static Map<String, PropertyKeywords> getAllPropertyKeywordsForTypeDef(String typeDefGUID) {
-        Map<String, PropertyKeywords> map = new LinkedHashMap<>();
-        List<TypeDefLink> supers = getAllSuperTypes(typeDefGUID);
-        for (int i = supers.size(); i > 0; i--) {
-            TypeDefLink typeDefLink = supers.get(i - 1);
-            Map<String, PropertyKeywords> superMap = getPropertyKeywords(typeDefLink.getGUID());
-            if (superMap != null) {
-                map.putAll(superMap);
-            }
-        }
-        Map<String, PropertyKeywords> direct = getPropertyKeywords(typeDefGUID);
-        if (direct != null) {
-            map.putAll(direct);
-        }
-        return Collections.unmodifiableMap(map);
+        Map<String, PropertyKeywords> map = getLattice().getAllPropertyKeywords(typeDefGUID);
+        return map == null ? Collections.emptyMap() : map;
     }
 
     /**
@@ -159,8 +153,7 @@ public class TypeDefCache {
      * @return PropertyKeywords
      */
     public static PropertyKeywords getPropertyKeywords(String typeDefGUID, String propertyName) {
-        Map<String, PropertyKeywords> map = getAllPropertyKeywordsForTypeDef(typeDefGUID);
-        return map.get(propertyName);
+        return getAllPropertyKeywordsForTypeDef(typeDefGUID).get(propertyName);
     }
 
     /**
@@ -180,26 +173,7 @@ public class TypeDefCache {
             return false;
         }
 
-        if (actualTypeName.equals(expectedTypeName)) {
-            return true;
-        }
-
-        // Now look for matches in superTypes...
-        String typeDefGUID = nameToGUID.get(actualTypeName);
-        TypeDef typeDef = knownTypeDefs.get(typeDefGUID);
-        TypeDefLink superTypeLink = typeDef.getSuperType();
-
-        while (superTypeLink != null) {
-            TypeDef superTypeDef = knownTypeDefs.get(superTypeLink.getGUID());
-            if (expectedTypeName.equals(superTypeLink.getName())) {
-                // Short-circuit if we find a match
-                return true;
-            }
-            superTypeLink = superTypeDef.getSuperType();
-        }
-
-        // If we've fallen through to here, there was no match, so return false
-        return false;
+        return actualTypeName.equals(expectedTypeName) || getLattice().isTypeOf(actualTypeName, expectedTypeName);
 
     }
 
@@ -301,19 +275,16 @@ public class TypeDefCache {
             if (validEntityDefs == null || validEntityDefs.isEmpty()) {
                 return true;
             }
-            Set<String> validEntityNames = validEntityDefs.stream().map(TypeDefLink::getName).collect(Collectors.toSet());
-
-            // Build a set of the entity types that we are setting up against
-            TypeDef entityDef = getTypeDefByName(entityTypeName);
-            if (entityDef == null) {
+            if (getTypeDefByName(entityTypeName) == null) {
                 return false;
             }
-            List<TypeDefLink> actualEntityDefs = new ArrayList<>(getAllSuperTypes(entityDef.getGUID()));
-            actualEntityDefs.add(entityDef);
-            Set<String> actualEntityNames = actualEntityDefs.stream().map(TypeDefLink::getName).collect(Collectors.toSet());
-
-            // Check if there is any overlap between the two sets
-            return !Collections.disjoint(validEntityNames, actualEntityNames);
+            // Check if the entity is of any of the valid types
+            for (TypeDefLink validEntityDef : validEntityDefs) {
+                if (isTypeOf(entityTypeName, validEntityDef.getName())) {
+                    return true;
+                }
+            }
+            return false;
 
         }
 
@@ -321,6 +292,34 @@ public class TypeDefCache {
 
     }
 
+    /**
+     * Retrieve the index of the type hierarchy, building it if the type definitions have changed since it was last used.
+     * @return TypeLattice
+     */
+    private static TypeLattice getLattice() {
+        TypeLattice current = lattice;
+        if (current == null) {
+            synchronized (TypeDefCache.class) {
+                current = lattice;
+                if (current == null) {
+                    current = new TypeLattice(knownTypeDefs, typeDefToPropertyKeywords);
+                    lattice = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Discard the index of the type hierarchy, following a change to the type definitions. (Synchronized with the
+     * building of the index, so that an index built concurrently from the previous type definitions is not retained.)
+     * Any instances already translated using the previous type definitions are discarded as well.
+     */
+    private static synchronized void invalidateLattice() {
+        lattice = null;
+        InstanceCache.clear();
+    }
+
     /**
      * Indicates whether the provided category of type definition matches that of the provided type definition.
      * @param category to match
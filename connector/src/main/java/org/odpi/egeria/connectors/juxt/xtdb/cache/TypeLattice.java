@@ -0,0 +1,185 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.cache;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+
+import java.util.*;
+
+/**
+ * An immutable index of the type hierarchy across a fixed set of type definitions. Each type is assigned an ordinal,
+ * and its ancestors and descendants are captured as bitsets of those ordinals, so that subtype checks are a single
+ * bit lookup. The closures are also captured as shared, unmodifiable collections of names and supertype links, so
+ * that they can be handed out repeatedly without being re-computed or copied. Likewise, the properties of each type are
+ * flattened (together with all those it inherits from its supertypes) into a single, unmodifiable table.
+ *
+ * The index is never updated in place: whenever the set of type definitions changes, a new index is built.
+ * @see TypeDefCache
+ */
+final class TypeLattice {
+
+    private final Map<String, Integer> ordinalByName;
+    private final Map<String, Integer> ordinalByGUID;
+    private final BitSet[] ancestors;
+    private final List<List<TypeDefLink>> superTypes;
+    private final List<Set<String>> descendantNames;
+    private final Map<TypeDefCategory, Set<String>> namesByCategory;
+    private final List<Map<String, PropertyKeywords>> allProperties;
+
+    /**
+     * Build the index for the provided type definitions. Both maps may be concurrently modified while the index is
+     * built: each is copied once up-front, and the index is built only from those copies.
+     * @param typeDefs keyed by unique identifier (GUID)
+     * @param directProperties the properties defined directly by each type definition, keyed by unique identifier (GUID)
+     */
+    TypeLattice(Map<String, TypeDef> typeDefs, Map<String, Map<String, PropertyKeywords>> directProperties) {
+
+        TypeDef[] types = new ArrayList<>(typeDefs.values()).toArray(new TypeDef[0]);
+        Map<String, Map<String, PropertyKeywords>> properties = new HashMap<>(directProperties);
+        int size = types.length;
+        ordinalByName = new HashMap<>(size * 2);
+        ordinalByGUID = new HashMap<>(size * 2);
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            ordinalByName.put(types[ordinal].getName(), ordinal);
+            ordinalByGUID.put(types[ordinal].getGUID(), ordinal);
+        }
+
+        // Walk each type's supertype chain once, recording its ancestors (itself included)
+        ancestors = new BitSet[size];
+        superTypes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BitSet bits = new BitSet(size);
+            bits.set(i);
+            List<TypeDefLink> supers = new ArrayList<>();
+            TypeDefLink superTypeLink = types[i].getSuperType();
+            // (the bitset also guards against any cycle in a malformed hierarchy)
+            while (superTypeLink != null) {
+                supers.add(superTypeLink);
+                Integer superOrdinal = ordinalByGUID.get(superTypeLink.getGUID());
+                if (superOrdinal == null || bits.get(superOrdinal)) {
+                    break;
+                }
+                bits.set(superOrdinal);
+                superTypeLink = types[superOrdinal].getSuperType();
+            }
+            ancestors[i] = bits;
+            superTypes.add(Collections.unmodifiableList(supers));
+        }
+
+        // Invert the ancestors to give the descendants (itself included) of each type
+        BitSet[] descendants = new BitSet[size];
+        for (int i = 0; i < size; i++) {
+            descendants[i] = new BitSet(size);
+        }
+        for (int i = 0; i < size; i++) {
+            BitSet bits = ancestors[i];
+            for (int a = bits.nextSetBit(0); a >= 0; a = bits.nextSetBit(a + 1)) {
+                descendants[a].set(i);
+            }
+        }
+        descendantNames = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            descendantNames.add(toNames(types, descendants[i]));
+        }
+
+        Map<TypeDefCategory, BitSet> byCategory = new EnumMap<>(TypeDefCategory.class);
+        for (int i = 0; i < size; i++) {
+            TypeDefCategory category = types[i].getCategory();
+            if (category != null) {
+                byCategory.computeIfAbsent(category, k -> new BitSet(size)).set(i);
+            }
+        }
+        namesByCategory = new EnumMap<>(TypeDefCategory.class);
+        for (Map.Entry<TypeDefCategory, BitSet> entry : byCategory.entrySet()) {
+            namesByCategory.put(entry.getKey(), toNames(types, entry.getValue()));
+        }
+
+        // Flatten the properties of each type, from the root-most supertype down (so that any property redefined by a
+        // subtype overrides that of its supertype)
+        allProperties = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, PropertyKeywords> map = new LinkedHashMap<>();
+            List<TypeDefLink> supers = superTypes.get(i);
+            for (int s = supers.size(); s > 0; s--) {
+                Map<String, PropertyKeywords> superMap = properties.get(supers.get(s - 1).getGUID());
+                if (superMap != null) {
+                    map.putAll(superMap);
+                }
+            }
+            Map<String, PropertyKeywords> direct = properties.get(types[i].getGUID());
+            if (direct != null) {
+                map.putAll(direct);
+            }
+            allProperties.add(Collections.unmodifiableMap(map));
+        }
+
+    }
+
+    /**
+     * Indicates whether the first type is the same as, or a subtype of, the second type.
+     * @param actualTypeName name of the type to check
+     * @param expectedTypeName name of the type it is expected to be
+     * @return boolean, false if either type is not known
+     */
+    boolean isTypeOf(String actualTypeName, String expectedTypeName) {
+        Integer actual = ordinalByName.get(actualTypeName);
+        Integer expected = ordinalByName.get(expectedTypeName);
+        return actual != null && expected != null && ancestors[actual].get(expected);
+    }
+
+    /**
+     * Retrieve the supertypes of the provided type, nearest first.
+     * @param typeDefGUID unique identifier of the type
+     * @return {@code List<TypeDefLink>} of all supertypes, or null if the type is not known
+     */
+    List<TypeDefLink> getAllSuperTypes(String typeDefGUID) {
+        Integer ordinal = ordinalByGUID.get(typeDefGUID);
+        return ordinal == null ? null : superTypes.get(ordinal);
+    }
+
+    /**
+     * Retrieve all properties of the provided type, including those inherited from its supertypes.
+     * @param typeDefGUID unique identifier of the type
+     * @return {@code Map<String, PropertyKeywords>} keyed by property name, or null if the type is not known
+     */
+    Map<String, PropertyKeywords> getAllPropertyKeywords(String typeDefGUID) {
+        Integer ordinal = ordinalByGUID.get(typeDefGUID);
+        return ordinal == null ? null : allProperties.get(ordinal);
+    }
+
+    /**
+     * Retrieve the names of the provided type and all of its subtypes.
+     * @param typeDefName name of the type
+     * @return {@code Set<String>} of names, or null if the type is not known
+     */
+    Set<String> getSubtypeNames(String typeDefName) {
+        Integer ordinal = ordinalByName.get(typeDefName);
+        return ordinal == null ? null : descendantNames.get(ordinal);
+    }
+
+    /**
+     * Retrieve the names of all types of the provided category.
+     * @param category of type definition
+     * @return {@code Set<String>} of names
+     */
+    Set<String> getTypeDefNames(TypeDefCategory category) {
+        return namesByCategory.getOrDefault(category, Collections.emptySet());
+    }
+
+    /**
+     * Translate the provided bitset of ordinals into an unmodifiable set of type names.
+     * @param types indexed by ordinal
+     * @param bits of ordinals
+     * @return {@code Set<String>} of names
+     */
+    private static Set<String> toNames(TypeDef[] types, BitSet bits) {
+        Set<String> names = new HashSet<>(bits.cardinality() * 2);
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            names.add(types[i].getName());
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+}
@@ -0,0 +1,105 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.cache;
+
+import clojure.lang.IPersistentMap;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread-safe way of handing the documents written by a given transaction back to the API call that submitted it.
+ * (The transaction functions build the exact document that is persisted, in the thread that indexes the transaction:
+ * handing it across means the API call can return what was written without having to read it back again.)
+ *
+ * Documents are only held for a bounded number of transactions: every node indexes every transaction, including
+ * those submitted by other nodes (and those replayed when the node starts), so many documents will never be claimed.
+ * Any document that is not (or is no longer) held must simply be read back from the repository instead.
+ */
+public class WrittenDocumentCache {
+
+    public static final int DEFAULT_MAX_TRANSACTIONS = 1024;
+
+    private static final Map<Long, Map<String, IPersistentMap>> map = new LinkedHashMap<>(64, 0.75f, false);
+
+    private static int maxTransactions = DEFAULT_MAX_TRANSACTIONS;
+
+    private WrittenDocumentCache() {}
+
+    /**
+     * Set the maximum number of transactions for which to hold written documents, discarding the documents of the
+     * oldest transactions as needed to fit within it.
+     * @param maximum number of transactions: 0 or less disables the hand-off entirely
+     */
+    public static synchronized void setMaximumTransactions(int maximum) {
+        maxTransactions = Math.max(maximum, 0);
+        evict();
+    }
+
+    /**
+     * Add a document written by a given transaction.
+     * @param txId transaction that is writing the document
+     * @param doc document being written (in its entirety)
+     * @return IPersistentMap the document that was added
+     */
+    public static synchronized IPersistentMap add(Long txId, IPersistentMap doc) {
+        if (txId != null && doc != null && maxTransactions > 0) {
+            Object docId = doc.valAt(Constants.XTDB_PK);
+            if (docId instanceof String) {
+                // Any later write of the same document within the same transaction replaces the earlier one, as that
+                // is what will have been persisted once the transaction commits
+                map.computeIfAbsent(txId, k -> new HashMap<>()).put((String) docId, doc);
+                evict();
+            }
+        }
+        return doc;
+    }
+
+    /**
+     * Retrieve the document written by the given transaction for the given ID.
+     * @param txId transaction that wrote the document
+     * @param docId of the document
+     * @return IPersistentMap the document that was written, or null if it is not held
+     */
+    public static synchronized IPersistentMap get(Long txId, String docId) {
+        // Also remove the document once it has been retrieved, to minimize memory usage
+        Map<String, IPersistentMap> docs = map.get(txId);
+        if (docs == null) {
+            return null;
+        }
+        IPersistentMap doc = docs.remove(docId);
+        if (docs.isEmpty()) {
+            map.remove(txId);
+        }
+        return doc;
+    }
+
+    /**
+     * Discard any documents held for the given transaction: for example, because it did not commit, so that none of
+     * its documents were actually written.
+     * @param txId transaction for which to discard the documents
+     */
+    public static synchronized void discard(Long txId) {
+        map.remove(txId);
+    }
+
+    /**
+     * Retrieve the number of transactions for which documents are currently held.
+     * @return int
+     */
+    public static synchronized int size() {
+        return map.size();
+    }
+
+    /**
+     * Discard the documents of the oldest transactions until the cache fits within its maximum.
+     */
+    private static void evict() {
+        while (map.size() > maxTransactions) {
+            map.remove(map.keySet().iterator().next());
+        }
+    }
+
+}
@@ -4,15 +4,13 @@ package org.odpi.egeria.connectors.juxt.xtdb.mapping;
 
 import clojure.lang.IPersistentMap;
 import clojure.lang.Keyword;
-import clojure.lang.PersistentHashMap;
+import clojure.lang.PersistentArrayMap;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * General utilities for the mapping of any instance data.
@@ -22,7 +20,11 @@ public abstract class AbstractMapping {
     protected final XtdbOMRSRepositoryConnector xtdbConnector;
 
     protected static final ObjectMapper mapper = new ObjectMapper();
-    private static final Keyword EMBEDDED_JSON = Keyword.intern("json");
+
+    // Encoding used to write embedded values (any of the encodings can always be read)
+    private static volatile EmbeddedEncoding embeddedEncoding = EmbeddedEncoding.JSON;
+    // Number of connectors relying on the encoding configured for the JVM as a whole
+    private static int encodingUsers = 0;
 
     /**
      * Default constructor.
@@ -39,6 +41,52 @@ public abstract class AbstractMapping {
         this.xtdbConnector = xtdbConnector;
     }
 
+    /**
+     * Set the encoding to use when writing embedded serialized forms. (Embedded forms are self-describing, so values
+     * that were written with any encoding can still be read irrespective of this setting.)
+     * @param encoding to use for writing
+     */
+    static void setEmbeddedEncoding(EmbeddedEncoding encoding) {
+        embeddedEncoding = encoding == null ? EmbeddedEncoding.JSON : encoding;
+    }
+
+    /**
+     * Configure the encoding to use when writing embedded serialized forms, on behalf of a connector. As embedded
+     * values are mapped statically, the encoding applies to every connector in the JVM: it can only be changed while
+     * no other connector is relying on it, and a connector that successfully configures it must release it again
+     * when it is disconnected.
+     * @param encoding to use for writing
+     * @return boolean true if the encoding is now in use, or false if another connector relies on a different one
+     * @see #releaseEmbeddedEncoding()
+     */
+    public static synchronized boolean configureEmbeddedEncoding(EmbeddedEncoding encoding) {
+        EmbeddedEncoding requested = encoding == null ? EmbeddedEncoding.JSON : encoding;
+        if (encodingUsers > 0 && requested != embeddedEncoding) {
+            return false;
+        }
+        embeddedEncoding = requested;
+        encodingUsers++;
+        return true;
+    }
+
+    /**
+     * Release the encoding configured on behalf of a connector, once that connector no longer relies on it.
+     * @see #configureEmbeddedEncoding(EmbeddedEncoding)
+     */
+    public static synchronized void releaseEmbeddedEncoding() {
+        if (encodingUsers > 0) {
+            encodingUsers--;
+        }
+    }
+
+    /**
+     * Retrieve the encoding used when writing embedded serialized forms.
+     * @return EmbeddedEncoding
+     */
+    public static EmbeddedEncoding getEmbeddedEncoding() {
+        return embeddedEncoding;
+    }
+
     /**
      * Construct a string representation of a keyword.
      * @param name of the keyword
@@ -66,24 +114,20 @@ public abstract class AbstractMapping {
     }
 
     /**
-     * Retrieve an embedded JSON-serialized form of a given object. This will prevent the object from being searchable,
+     * Retrieve an embedded serialized form of a given object. This will prevent the object from being searchable,
      * but provides an efficient means to store structured information.
      * @param xtdbConnector connectivity to the repository
      * @param type name of the type into which the value is being serialized
      * @param property name of the property for which the value is being serialized
-     * @param value to JSON-serialize
+     * @param value to serialize
      * @return IPersistentMap giving the embedded serialized form
+     * @see EmbeddedEncoding
      */
     protected static IPersistentMap getEmbeddedSerializedForm(XtdbOMRSRepositoryConnector xtdbConnector, String type, String property, Object value) {
         IPersistentMap subMap = null;
         if (value != null) {
             try {
-                // Serialize the value into JSON (via Jackson)
-                String json = mapper.writeValueAsString(value);
-                // Create a new map {:json "serialized-json-string"}
-                Map<Keyword, String> map = new HashMap<>();
-                map.put(EMBEDDED_JSON, json);
-                subMap = PersistentHashMap.create(map);
+                subMap = getEmbeddedSerializedForm(value);
             } catch (IOException e) {
                 xtdbConnector.logProblem(AbstractMapping.class.getName(),
                         "getEmbeddedSerializedForm",
@@ -98,21 +142,19 @@ public abstract class AbstractMapping {
     }
 
     /**
-     * Retrieve an embedded JSON-serialized form of a given object. This will prevent the object from being searchable,
+     * Retrieve an embedded serialized form of a given object. This will prevent the object from being searchable,
      * but provides an efficient means to store structured information.
-     * @param value to JSON-serialize
+     * @param value to serialize
      * @return IPersistentMap giving the embedded serialized form
      * @throws IOException on any issue serializing the value
+     * @see EmbeddedEncoding
      */
     protected static IPersistentMap getEmbeddedSerializedForm(Object value) throws IOException {
         IPersistentMap subMap = null;
         if (value != null) {
-            // Serialize the value into JSON (via Jackson)
-            String json = mapper.writeValueAsString(value);
-            // Create a new map {:json "serialized-json-string"}
-            Map<Keyword, String> map = new HashMap<>();
-            map.put(EMBEDDED_JSON, json);
-            subMap = PersistentHashMap.create(map);
+            // Serialize the value (via Jackson) and create a new map, eg. {:json "serialized-json-string"}
+            EmbeddedEncoding encoding = embeddedEncoding;
+            subMap = PersistentArrayMap.EMPTY.assoc(encoding.getKeyword(), encoding.encode(value));
         }
         return subMap;
     }
@@ -123,28 +165,24 @@ public abstract class AbstractMapping {
      * @param xtdbConnector connectivity to the repository
      * @param type name of the type from which the value is being deserialized
      * @param property name of the property from which the value is being deserialized
-     * @param embedded value to JSON-deserialize
+     * @param embedded value to deserialize
      * @param javaType the type of value to deserialize
      * @param <T> type of value to deserialize
      * @return the deserialized value
      */
     protected static <T> T getDeserializedValue(XtdbOMRSRepositoryConnector xtdbConnector, String type, String property, IPersistentMap embedded, JavaType javaType) {
-        // There must be the ":json" keyword in the map for it to be an embedded serialized form
         T deserialized = null;
-        if (embedded != null && embedded.containsKey(EMBEDDED_JSON)) {
-            String value = (String) embedded.valAt(EMBEDDED_JSON);
-            try {
-                deserialized = mapper.readValue(value, javaType);
-            } catch (IOException e) {
-                xtdbConnector.logProblem(AbstractMapping.class.getName(),
-                        "getEmbeddedSerializedForm",
-                        XtdbOMRSAuditCode.DESERIALIZATION_FAILURE,
-                        e,
-                        property,
-                        type,
-                        javaType.getTypeName(),
-                        e.getClass().getName());
-            }
+        try {
+            deserialized = getDeserializedValue(embedded, javaType);
+        } catch (IOException e) {
+            xtdbConnector.logProblem(AbstractMapping.class.getName(),
+                    "getEmbeddedSerializedForm",
+                    XtdbOMRSAuditCode.DESERIALIZATION_FAILURE,
+                    e,
+                    property,
+                    type,
+                    javaType.getTypeName(),
+                    e.getClass().getName());
         }
         return deserialized;
     }
@@ -152,7 +190,7 @@ public abstract class AbstractMapping {
     /**
      * Retrieve the deserialized value given an embedded form. This will prevent the object from being searchable,
      * but provides an efficient means to retrieve structured information.
-     * @param embedded value to JSON-deserialize
+     * @param embedded value to deserialize
      * @param javaType the type of value to deserialize
      * @param <T> type of value to deserialize
      * @return the deserialized value
@@ -160,11 +198,11 @@ public abstract class AbstractMapping {
      */
     protected static <T> T getDeserializedValue(IPersistentMap embedded,
                                                 JavaType javaType) throws IOException {
-        // There must be the ":json" keyword in the map for it to be an embedded serialized form
+        // There must be one of the encoding keywords (eg. ":json") in the map for it to be an embedded serialized form
         T deserialized = null;
-        if (embedded != null && embedded.containsKey(EMBEDDED_JSON)) {
-            String value = (String) embedded.valAt(EMBEDDED_JSON);
-            deserialized = mapper.readValue(value, javaType);
+        EmbeddedEncoding encoding = EmbeddedEncoding.of(embedded);
+        if (encoding != null) {
+            deserialized = encoding.decode(embedded.valAt(encoding.getKeyword()), javaType);
         }
         return deserialized;
     }
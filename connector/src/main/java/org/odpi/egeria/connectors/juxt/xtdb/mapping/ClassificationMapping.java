@@ -264,6 +264,29 @@ public class ClassificationMapping extends InstanceAuditHeaderMapping {
         }
     }
 
+    /**
+     * Retrieve the version and update time of every classification in the provided document, in the order in which
+     * the classifications are listed. Updating a classification changes only these (and the latest classification
+     * change), not the version or update time of the entity itself.
+     * @param doc of the entity
+     * @return {@code List<Object>} of each classification's name, version and update time
+     */
+    public static List<Object> getClassificationVersions(IPersistentMap doc) {
+        IPersistentVector classificationNames = (IPersistentVector) doc.valAt(Keyword.intern(NAMESPACE));
+        if (classificationNames == null) {
+            return Collections.emptyList();
+        }
+        List<Object> versions = new ArrayList<>();
+        for (int i = 0; i < classificationNames.length(); i++) {
+            String classificationName = (String) classificationNames.nth(i);
+            String qualifiedNamespace = getNamespaceForClassification(classificationName);
+            versions.add(classificationName);
+            versions.add(doc.valAt(Keyword.intern(getKeyword(qualifiedNamespace, InstanceAuditHeaderMapping.N_VERSION))));
+            versions.add(doc.valAt(Keyword.intern(getKeyword(qualifiedNamespace, InstanceAuditHeaderMapping.N_UPDATE_TIME))));
+        }
+        return versions;
+    }
+
     /**
      * Map from XTDB to Egeria.
      * @return {@code List<Classification>}
@@ -328,6 +351,21 @@ public class ClassificationMapping extends InstanceAuditHeaderMapping {
 
     }
 
+    /**
+     * Create a copy of the provided classification that can be modified independently of it.
+     * @param classification to copy
+     * @return Classification
+     */
+    public static Classification copy(Classification classification) {
+        if (classification == null) {
+            return null;
+        }
+        Classification copy = new Classification(classification);
+        copyMutableValues(copy);
+        copy.setProperties(InstancePropertiesMapping.copy(classification.getProperties()));
+        return copy;
+    }
+
     /**
      * Translate the provided XTDB representation into an Egeria representation.
      * @param doc from which to map
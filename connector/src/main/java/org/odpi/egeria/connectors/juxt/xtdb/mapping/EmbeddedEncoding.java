@@ -0,0 +1,130 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.mapping;
+
+import clojure.lang.IPersistentMap;
+import clojure.lang.Keyword;
+import clojure.lang.PersistentArrayMap;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
+
+import java.io.IOException;
+
+/**
+ * The encodings that can be used to serialize structured values into an embedded (non-searchable) form. Each
+ * encoding stores its serialized value under its own keyword in the embedded map, so that the embedded form is
+ * self-describing: values can always be read back, irrespective of the encoding currently configured for writing.
+ * <ul>
+ *     <li>JSON: <code>{:json "serialized-json-string"}</code></li>
+ *     <li>SMILE: <code>{:smile #bytes[...]}</code> (binary JSON)</li>
+ *     <li>CBOR: <code>{:cbor #bytes[...]}</code></li>
+ * </ul>
+ */
+public enum EmbeddedEncoding {
+
+    JSON("json", new ObjectMapper()),
+    SMILE("smile", new ObjectMapper(new SmileFactory())),
+    CBOR("cbor", new ObjectMapper(new CBORFactory()));
+
+    private final String name;
+    private final Keyword keyword;
+    private final ObjectMapper mapper;
+
+    EmbeddedEncoding(String name, ObjectMapper mapper) {
+        this.name = name;
+        this.keyword = Keyword.intern(name);
+        this.mapper = mapper;
+    }
+
+    /**
+     * Retrieve the name of the encoding, as used in configuration.
+     * @return String
+     */
+    public String getName() { return name; }
+
+    /**
+     * Retrieve the keyword under which values in this encoding are embedded.
+     * @return Keyword
+     */
+    public Keyword getKeyword() { return keyword; }
+
+    /**
+     * Serialize the provided value using this encoding.
+     * @param value to serialize
+     * @return Object giving the serialized form (a String for JSON, otherwise a byte array)
+     * @throws IOException on any issue serializing the value
+     */
+    public Object encode(Object value) throws IOException {
+        long start = System.nanoTime();
+        Object encoded = this == JSON ? mapper.writeValueAsString(value) : mapper.writeValueAsBytes(value);
+        ConnectorMetrics.record(ConnectorMetrics.MAPPING_ENCODE, start);
+        return encoded;
+    }
+
+    /**
+     * Deserialize the provided value from this encoding.
+     * @param encoded value to deserialize (a String for JSON, otherwise a byte array)
+     * @param javaType the type of value to deserialize
+     * @param <T> type of value to deserialize
+     * @return the deserialized value
+     * @throws IOException on any issue deserializing the value
+     */
+    public <T> T decode(Object encoded, JavaType javaType) throws IOException {
+        long start = System.nanoTime();
+        T value = encoded instanceof String ? mapper.readValue((String) encoded, javaType) : mapper.readValue((byte[]) encoded, javaType);
+        ConnectorMetrics.record(ConnectorMetrics.MAPPING_DECODE, start);
+        return value;
+    }
+
+    /**
+     * Convert the provided embedded form into this encoding, without needing to know the type of the value it holds.
+     * @param embedded form of a serialized value
+     * @return IPersistentMap giving the embedded form in this encoding (or the provided map itself, if it is already
+     *         in this encoding or is not an embedded serialized form at all)
+     * @throws IOException on any issue converting the value
+     */
+    public IPersistentMap transcode(IPersistentMap embedded) throws IOException {
+        EmbeddedEncoding current = of(embedded);
+        if (current == null || current == this) {
+            return embedded;
+        }
+        Object encoded = embedded.valAt(current.keyword);
+        JsonNode tree = encoded instanceof String ? current.mapper.readTree((String) encoded) : current.mapper.readTree((byte[]) encoded);
+        return PersistentArrayMap.EMPTY.assoc(keyword, encode(tree));
+    }
+
+    /**
+     * Retrieve the encoding with the provided name.
+     * @param name of the encoding (case-insensitive)
+     * @return EmbeddedEncoding, or null if there is no encoding with that name
+     */
+    public static EmbeddedEncoding fromName(String name) {
+        for (EmbeddedEncoding encoding : values()) {
+            if (encoding.name.equalsIgnoreCase(name)) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retrieve the encoding used by the provided embedded form.
+     * @param embedded form of a serialized value
+     * @return EmbeddedEncoding, or null if the map is not an embedded serialized form
+     */
+    public static EmbeddedEncoding of(IPersistentMap embedded) {
+        if (embedded != null) {
+            for (EmbeddedEncoding encoding : values()) {
+                if (embedded.containsKey(encoding.keyword)) {
+                    return encoding;
+                }
+            }
+        }
+        return null;
+    }
+
+}
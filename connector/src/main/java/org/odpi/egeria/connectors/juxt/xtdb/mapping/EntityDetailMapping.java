@@ -5,6 +5,7 @@ package org.odpi.egeria.connectors.juxt.xtdb.mapping;
 import clojure.lang.IPersistentMap;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
 import xtdb.api.XtdbDocument;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 
@@ -45,8 +46,10 @@ public class EntityDetailMapping extends EntitySummaryMapping {
     @Override
     public EntityDetail toEgeria() {
         if (instanceHeader == null && xtdbDoc != null) {
+            long start = System.nanoTime();
             instanceHeader = new EntityDetail();
             fromDoc();
+            ConnectorMetrics.record(ConnectorMetrics.MAPPING + "EntityDetail", start);
         }
         if (instanceHeader != null) {
             return (EntityDetail) instanceHeader;
@@ -97,6 +100,22 @@ public class EntityDetailMapping extends EntitySummaryMapping {
         }
     }
 
+    /**
+     * Create a copy of the provided entity that can be modified independently of it.
+     * @param detail to copy
+     * @return EntityDetail
+     */
+    public static EntityDetail copy(EntityDetail detail) {
+        if (detail == null) {
+            return null;
+        }
+        EntityDetail copy = new EntityDetail(detail);
+        copyMutableValues(copy);
+        copyClassifications(copy);
+        copy.setProperties(InstancePropertiesMapping.copy(detail.getProperties()));
+        return copy;
+    }
+
     /**
      * Translate the provided GUID into a XTDB reference.
      * @param guid to translate
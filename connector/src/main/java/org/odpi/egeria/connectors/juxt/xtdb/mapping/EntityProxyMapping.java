@@ -10,6 +10,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
 import xtdb.api.XtdbDocument;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
@@ -62,8 +63,10 @@ public class EntityProxyMapping extends EntitySummaryMapping {
     @Override
     public EntityProxy toEgeria() {
         if (instanceHeader == null && xtdbDoc != null) {
+            long start = System.nanoTime();
             instanceHeader = new EntityProxy();
             fromDoc();
+            ConnectorMetrics.record(ConnectorMetrics.MAPPING + "EntityProxy", start);
         }
         if (instanceHeader != null) {
             return (EntityProxy) instanceHeader;
@@ -155,6 +158,22 @@ public class EntityProxyMapping extends EntitySummaryMapping {
         }
     }
 
+    /**
+     * Create a copy of the provided entity proxy that can be modified independently of it.
+     * @param proxy to copy
+     * @return EntityProxy
+     */
+    public static EntityProxy copy(EntityProxy proxy) {
+        if (proxy == null) {
+            return null;
+        }
+        EntityProxy copy = new EntityProxy(proxy);
+        copyMutableValues(copy);
+        copyClassifications(copy);
+        copy.setUniqueProperties(InstancePropertiesMapping.copy(proxy.getUniqueProperties()));
+        return copy;
+    }
+
     /**
      * Retrieve the canonical reference to the entity summary with the specified GUID.
      * @param guid of the entity summary to reference
@@ -6,11 +6,13 @@ import clojure.lang.IPersistentMap;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
 import xtdb.api.XtdbDocument;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -48,8 +50,10 @@ public class EntitySummaryMapping extends InstanceHeaderMapping {
      */
     public EntitySummary toEgeria() {
         if (instanceHeader == null && xtdbDoc != null) {
+            long start = System.nanoTime();
             instanceHeader = new EntitySummary();
             fromDoc();
+            ConnectorMetrics.record(ConnectorMetrics.MAPPING + "EntitySummary", start);
         }
         if (instanceHeader != null) {
             return (EntitySummary) instanceHeader;
@@ -95,6 +99,22 @@ public class EntitySummaryMapping extends InstanceHeaderMapping {
         es.setClassifications(classifications);
     }
 
+    /**
+     * Give the provided (shallow) copy of an entity its own copy of each of its classifications, so that they can be
+     * modified without affecting the entity from which it was copied.
+     * @param copy of an entity, as created by its copy constructor
+     */
+    protected static void copyClassifications(EntitySummary copy) {
+        List<Classification> classifications = copy.getClassifications();
+        if (classifications != null) {
+            List<Classification> copies = new ArrayList<>(classifications.size());
+            for (Classification classification : classifications) {
+                copies.add(ClassificationMapping.copy(classification));
+            }
+            copy.setClassifications(copies);
+        }
+    }
+
     /**
      * Retrieve the canonical reference to the entity summary with the specified GUID.
      * @param guid of the entity summary to reference
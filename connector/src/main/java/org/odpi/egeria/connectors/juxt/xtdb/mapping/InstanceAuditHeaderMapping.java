@@ -35,8 +35,8 @@ public abstract class InstanceAuditHeaderMapping extends AbstractMapping {
     private static final String N_UPDATED_BY = "updatedBy";
     private static final String N_MAINTAINED_BY = "maintainedBy";
     private static final String N_CREATE_TIME = "createTime";
-    private static final String N_UPDATE_TIME = "updateTime";
-    private static final String N_VERSION = "version";
+    static final String N_UPDATE_TIME = "updateTime";
+    static final String N_VERSION = "version";
     private static final String N_CURRENT_STATUS = "currentStatus";
     private static final String N_STATUS_ON_DELETE = "statusOnDelete";
     private static final String N_MAPPING_PROPERTIES = "mappingProperties";
@@ -222,6 +222,23 @@ public abstract class InstanceAuditHeaderMapping extends AbstractMapping {
 
     }
 
+    /**
+     * Give the provided (shallow) copy of an audit header its own copy of each of its mutable values, so that it can
+     * be modified without affecting the header from which it was copied.
+     * @param copy of an audit header, as created by its copy constructor
+     */
+    protected static void copyMutableValues(InstanceAuditHeader copy) {
+        if (copy.getType() != null) {
+            copy.setType(new InstanceType(copy.getType()));
+        }
+        if (copy.getMaintainedBy() != null) {
+            copy.setMaintainedBy(new ArrayList<>(copy.getMaintainedBy()));
+        }
+        if (copy.getMappingProperties() != null) {
+            copy.setMappingProperties(new HashMap<>(copy.getMappingProperties()));
+        }
+    }
+
     /**
      * Retrieve the instance type details from the provided XTDB document map.
      * @param doc for the XTDB document
@@ -8,6 +8,7 @@ import org.odpi.egeria.connectors.juxt.xtdb.txnfn.AbstractTransactionFunction;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
 import xtdb.api.XtdbDocument;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
@@ -70,7 +71,9 @@ public class InstanceHeaderMapping extends InstanceAuditHeaderMapping {
      */
     public XtdbDocument toXTDB() {
         if (xtdbDoc == null && instanceHeader != null) {
+            long start = System.nanoTime();
             xtdbDoc = toDoc().build();
+            ConnectorMetrics.record(ConnectorMetrics.MAPPING_TO_XTDB, start);
         }
         return xtdbDoc;
     }
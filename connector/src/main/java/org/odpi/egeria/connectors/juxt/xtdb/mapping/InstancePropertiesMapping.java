@@ -28,7 +28,7 @@ public class InstancePropertiesMapping {
     /**
      * Retrieve the instance property values from the provided XTDB document.
      * NOTE: whether empty or null, the instance properties will always be returned back from the XTDB representation
-     * as an empty set of properties (not null).
+     * as an empty set of properties (not null). The values themselves are only deserialized as they are accessed.
      * @param xtdbConnector connectivity to the repository
      * @param type of the Egeria instance from which we are retrieving the values
      * @param xtdbDoc from which to retrieve the values
@@ -41,24 +41,43 @@ public class InstancePropertiesMapping {
         Set<String> validProperties = TypeDefCache.getAllPropertyKeywordsForTypeDef(type.getTypeDefGUID()).keySet();
         String namespace = TypeDefCache.getPropertyNamespaceForType(type.getTypeDefGUID());
 
-        // Iterate through each of the properties this instance could contain and add them to the map of values
+        // Defer deserializing each of the properties this instance could contain until it is actually accessed
         if (!validProperties.isEmpty()) {
-            Map<String, InstancePropertyValue> values = new TreeMap<>();
-            for (String propertyName : validProperties) {
-                InstancePropertyValue value = InstancePropertyValueMapping.getInstancePropertyValueFromDoc(xtdbConnector, xtdbDoc, namespace, propertyName);
-                if (value != null) {
-                    values.put(propertyName, value);
-                }
-            }
-            InstanceProperties ip = new InstanceProperties();
-            ip.setInstanceProperties(values);
-            return ip;
+            return new LazyInstanceProperties(xtdbConnector, xtdbDoc, namespace, validProperties);
         }
 
         return null;
 
     }
 
+    /**
+     * Create a copy of the provided instance properties that can be modified independently of them (including each
+     * of their values).
+     * @param properties to copy
+     * @return InstanceProperties
+     */
+    public static InstanceProperties copy(InstanceProperties properties) {
+        if (properties == null) {
+            return null;
+        }
+        if (properties instanceof LazyInstanceProperties) {
+            InstanceProperties copy = ((LazyInstanceProperties) properties).copy();
+            if (copy != null) {
+                return copy;
+            }
+        }
+        InstanceProperties copy = new InstanceProperties(properties);
+        Iterator<String> propertyNames = properties.getPropertyNames();
+        while (propertyNames.hasNext()) {
+            String propertyName = propertyNames.next();
+            InstancePropertyValue value = properties.getPropertyValue(propertyName);
+            if (value != null) {
+                copy.setProperty(propertyName, value.cloneFromSubclass());
+            }
+        }
+        return copy;
+    }
+
     /**
      * Translate the provided XTDB representation into an Egeria representation.
      * @param type of the Egeria instance from which we are retrieving the values
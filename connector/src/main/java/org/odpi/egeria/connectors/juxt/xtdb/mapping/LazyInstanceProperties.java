@@ -0,0 +1,261 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.mapping;
+
+import clojure.lang.IPersistentMap;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.PropertyKeywords;
+import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
+import xtdb.api.XtdbDocument;
+
+import java.util.*;
+
+/**
+ * InstanceProperties that are backed by the XTDB document from which they were retrieved, and only deserialize the
+ * value of each property when it is first accessed. Callers that only need an instance's header (its GUID, type,
+ * status and so on) therefore never pay the cost of deserializing its properties, and callers that only need a few
+ * properties only pay for those.
+ *
+ * The names of the properties that are set can be determined without deserializing any values, so iterating the
+ * properties remains cheap. (Counting them does deserialize each value, as a value that cannot be deserialized is not
+ * counted.) Any operation that needs (or could change) the complete set of values first materializes all of them,
+ * after which these behave exactly as any other InstanceProperties.
+ *
+ * A copy of these properties shares the document (and any values already deserialized from it) with the original,
+ * but is handed its own clone of each value as it is accessed: copies can therefore be modified independently of
+ * one another, and never deserialize the same value more than once.
+ */
+@JsonTypeName("InstanceProperties")
+public class LazyInstanceProperties extends InstanceProperties {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient XtdbOMRSRepositoryConnector xtdbConnector;
+    private transient XtdbDocument xtdbDoc;
+    private transient String namespace;
+    private transient SortedSet<String> names;
+    private transient Map<String, InstancePropertyValue> decoded;
+    private transient LazyInstanceProperties origin;
+
+    /**
+     * Create a new set of properties backed by the provided document.
+     * @param xtdbConnector connectivity to the repository
+     * @param xtdbDoc from which to retrieve the values
+     * @param namespace by which the properties are qualified
+     * @param validProperties names of all the properties the instance's type could contain
+     */
+    LazyInstanceProperties(XtdbOMRSRepositoryConnector xtdbConnector,
+                           XtdbDocument xtdbDoc,
+                           String namespace,
+                           Set<String> validProperties) {
+        super();
+        this.xtdbConnector = xtdbConnector;
+        this.xtdbDoc = xtdbDoc;
+        this.namespace = namespace;
+        this.names = new TreeSet<>();
+        for (String propertyName : validProperties) {
+            // Only a property with an embedded (serialized) value is set: anything else means the property is not set
+            Object embedded = xtdbDoc.get(PropertyKeywords.getSerializedPropertyKeyword(namespace, propertyName));
+            if (embedded instanceof IPersistentMap) {
+                names.add(propertyName);
+            }
+        }
+        this.decoded = new HashMap<>();
+    }
+
+    /**
+     * Create a new copy of the provided properties, which will clone the values of the provided properties as they
+     * are accessed.
+     * @param origin the (not yet materialized) properties to copy
+     */
+    private LazyInstanceProperties(LazyInstanceProperties origin) {
+        super();
+        this.xtdbDoc = origin.xtdbDoc;
+        this.names = origin.names;
+        this.decoded = new HashMap<>();
+        this.origin = origin;
+    }
+
+    /**
+     * Create a copy of these properties that can be modified independently of them, and is itself lazily
+     * materialized.
+     * @return LazyInstanceProperties that are a copy of these, or null if these have already been materialized
+     * @see InstancePropertiesMapping#copy(InstanceProperties)
+     */
+    synchronized LazyInstanceProperties copy() {
+        if (isMaterialized()) {
+            return null;
+        }
+        // Always copy from the properties that are backed directly by the document, so that values are only ever
+        // deserialized once irrespective of how many copies are made (or copies are made of copies)
+        return new LazyInstanceProperties(origin == null ? this : origin);
+    }
+
+    /**
+     * Indicates whether all the values have been deserialized (or were never backed by a document).
+     * @return boolean
+     */
+    synchronized boolean isMaterialized() {
+        return xtdbDoc == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized InstancePropertyValue getPropertyValue(String propertyName) {
+        if (isMaterialized()) {
+            return super.getPropertyValue(propertyName);
+        }
+        return decode(propertyName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Iterator<String> getPropertyNames() {
+        if (isMaterialized()) {
+            return super.getPropertyNames();
+        }
+        return Collections.unmodifiableSet(names).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int getPropertyCount() {
+        if (isMaterialized()) {
+            return super.getPropertyCount();
+        }
+        int count = 0;
+        for (String propertyName : names) {
+            if (decode(propertyName) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized Map<String, InstancePropertyValue> getInstanceProperties() {
+        materialize();
+        return super.getInstanceProperties();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void setInstanceProperties(Map<String, InstancePropertyValue> instanceProperties) {
+        discard();
+        super.setInstanceProperties(instanceProperties);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void setProperty(String newPropertyName, InstancePropertyValue newPropertyValue) {
+        materialize();
+        super.setProperty(newPropertyName, newPropertyValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString() {
+        materialize();
+        return super.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object objectToCompare) {
+        // Only ever hold the lock of one of the objects being compared at a time (comparing also accesses the other
+        // object's synchronized accessors, so holding this object's lock throughout could deadlock against a
+        // comparison in the opposite direction)
+        synchronized (this) {
+            materialize();
+        }
+        return super.equals(objectToCompare);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized int hashCode() {
+        materialize();
+        return super.hashCode();
+    }
+
+    /**
+     * Replace this object with plain InstanceProperties when it is serialized, as the document backing it cannot be.
+     * @return InstanceProperties with all values materialized
+     */
+    protected Object writeReplace() {
+        return new InstanceProperties(this);
+    }
+
+    /**
+     * Retrieve the value of the provided property, deserializing it if this is the first time it has been accessed.
+     * @param propertyName of the property
+     * @return InstancePropertyValue, or null if the property is not set
+     */
+    private InstancePropertyValue decode(String propertyName) {
+        if (!names.contains(propertyName)) {
+            return null;
+        }
+        if (!decoded.containsKey(propertyName)) {
+            InstancePropertyValue value;
+            if (origin == null) {
+                value = InstancePropertyValueMapping.getInstancePropertyValueFromDoc(xtdbConnector, xtdbDoc, namespace, propertyName);
+            } else {
+                value = origin.getPropertyValue(propertyName);
+                value = value == null ? null : value.cloneFromSubclass();
+            }
+            decoded.put(propertyName, value);
+        }
+        return decoded.get(propertyName);
+    }
+
+    /**
+     * Deserialize all the values that have not yet been deserialized, and release the document backing them.
+     */
+    private void materialize() {
+        if (!isMaterialized()) {
+            Map<String, InstancePropertyValue> values = new TreeMap<>();
+            for (String propertyName : names) {
+                InstancePropertyValue value = decode(propertyName);
+                if (value != null) {
+                    values.put(propertyName, value);
+                }
+            }
+            super.setInstanceProperties(values);
+            discard();
+        }
+    }
+
+    /**
+     * Release the document backing the values (and any values already deserialized from it).
+     */
+    private void discard() {
+        xtdbConnector = null;
+        xtdbDoc = null;
+        namespace = null;
+        names = null;
+        decoded = null;
+        origin = null;
+    }
+
+}
@@ -11,10 +11,14 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterE
 import xtdb.api.XtdbDocument;
 import xtdb.api.IXtdbDatasource;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Maps the properties of Relationships between persistence and objects.
@@ -29,6 +33,7 @@ public class RelationshipMapping extends InstanceHeaderMapping {
     public static final String ENTITY_PROXIES = getKeyword(N_ENTITY_PROXIES);
 
     private IXtdbDatasource db;
+    private Map<String, EntityProxy> entityProxies;
 
     /**
      * Construct a mapping from a Relationship (to map to a XTDB representation).
@@ -53,6 +58,24 @@ public class RelationshipMapping extends InstanceHeaderMapping {
         this.db = db;
     }
 
+    /**
+     * Construct a mapping from a XTDB map (to map to an Egeria representation), using already-retrieved entity
+     * proxies for either end of the relationship.
+     * @param xtdbConnector connectivity to XTDB
+     * @param xtdbDoc from which to map
+     * @param db an open database connection for a point-in-time appropriate to the mapping
+     * @param entityProxies already-retrieved entity proxies, keyed by reference (each is copied, so they can be
+     *                      shared across relationships; any proxy not included will be retrieved from the database)
+     * @see #getEntityProxyReferences(XtdbDocument)
+     */
+    public RelationshipMapping(XtdbOMRSRepositoryConnector xtdbConnector,
+                               XtdbDocument xtdbDoc,
+                               IXtdbDatasource db,
+                               Map<String, EntityProxy> entityProxies) {
+        this(xtdbConnector, xtdbDoc, db);
+        this.entityProxies = entityProxies;
+    }
+
     /**
      * Map from XTDB to Egeria.
      * @return EntityDetail
@@ -60,8 +83,10 @@ public class RelationshipMapping extends InstanceHeaderMapping {
      */
     public Relationship toEgeria() {
         if (instanceHeader == null && xtdbDoc != null) {
+            long start = System.nanoTime();
             instanceHeader = new Relationship();
             fromDoc();
+            ConnectorMetrics.record(ConnectorMetrics.MAPPING + "Relationship", start);
         }
         if (instanceHeader != null) {
             return (Relationship) instanceHeader;
@@ -139,9 +164,48 @@ public class RelationshipMapping extends InstanceHeaderMapping {
      * @return EntityProxy
      */
     private EntityProxy getEntityProxyFromRef(String ref) {
+        EntityProxy entityProxy = entityProxies == null ? null : entityProxies.get(ref);
+        if (entityProxy != null) {
+            return EntityProxyMapping.copy(entityProxy);
+        }
         return GetEntity.proxyByRef(xtdbConnector, db, ref);
     }
 
+    /**
+     * Retrieve the references to the entity proxies at either end of the provided relationship.
+     * @param xtdbDoc of the relationship
+     * @return {@code List<String>} of references to the entity proxies (empty if they cannot be determined)
+     */
+    public static List<String> getEntityProxyReferences(XtdbDocument xtdbDoc) {
+        List<String> refs = new ArrayList<>();
+        Object proxies = xtdbDoc == null ? null : xtdbDoc.get(ENTITY_PROXIES);
+        if (proxies instanceof IPersistentVector) {
+            IPersistentVector v = (IPersistentVector) proxies;
+            for (int i = 0; i < v.length(); i++) {
+                refs.add((String) v.nth(i));
+            }
+        }
+        return refs;
+    }
+
+    /**
+     * Create a copy of the provided relationship that can be modified independently of it (including the entity
+     * proxies at either end of it).
+     * @param relationship to copy
+     * @return Relationship
+     */
+    public static Relationship copy(Relationship relationship) {
+        if (relationship == null) {
+            return null;
+        }
+        Relationship copy = new Relationship(relationship);
+        copyMutableValues(copy);
+        copy.setProperties(InstancePropertiesMapping.copy(relationship.getProperties()));
+        copy.setEntityOneProxy(EntityProxyMapping.copy(relationship.getEntityOneProxy()));
+        copy.setEntityTwoProxy(EntityProxyMapping.copy(relationship.getEntityTwoProxy()));
+        return copy;
+    }
+
     /**
      * Retrieve the canonical reference to the relationship with the specified GUID.
      * @param guid of the relationship to reference
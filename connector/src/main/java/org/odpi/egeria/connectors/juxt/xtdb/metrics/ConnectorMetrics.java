@@ -0,0 +1,238 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Records the timings of the connector's operations into the configured registry. Timings are recorded at three
+ * levels, each under its own prefix:
+ * <ul>
+ *     <li><code>omrs.</code> every operation of the metadata collection, end-to-end</li>
+ *     <li><code>readops.</code> and <code>txnfn.</code> every read operation and transaction function</li>
+ *     <li><code>query.</code> and <code>mapping.</code> the phases within those: building a search query, opening
+ *         it against XTDB, fetching its results from the cursor, de-duplicating and paging those results, and
+ *         translating between documents and instances (including serializing and deserializing the embedded values)</li>
+ * </ul>
+ * Like the caches, the metrics are shared by every connector in the same JVM: the mapping layer and transaction
+ * functions that are timed are themselves static. The number of failed transactions (and of their errors that are held
+ * or were discarded unreported) are also made available alongside the timings.
+ */
+public class ConnectorMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectorMetrics.class);
+
+    public static final String OMRS = "omrs.";
+    public static final String READOPS = "readops.";
+    public static final String TXNFN = "txnfn.";
+    public static final String QUERY_BUILD = "query.build";
+    public static final String QUERY_EXECUTE = "query.execute";
+    public static final String QUERY_FETCH = "query.fetch";
+    public static final String QUERY_PAGE = "query.page";
+    public static final String MAPPING = "mapping.";
+    public static final String MAPPING_TO_XTDB = "mapping.toXTDB";
+    public static final String MAPPING_ENCODE = "mapping.encode";
+    public static final String MAPPING_DECODE = "mapping.decode";
+
+    public static final String OBJECT_NAME = "org.odpi.egeria.connectors.juxt.xtdb:type=ConnectorMetrics";
+
+    private static volatile MetricsRegistry registry = new HistogramMetricsRegistry();
+    // Name of the registry configured for the JVM as a whole, and the number of connectors relying on it
+    private static String registryName = HistogramMetricsRegistry.class.getName();
+    private static int registryUsers = 0;
+
+    private ConnectorMetrics() {
+        // Nothing to do: only static methods
+    }
+
+    /**
+     * Set the registry into which to record all timings.
+     * @param metricsRegistry to record into, or null to record nothing at all
+     */
+    public static void setRegistry(MetricsRegistry metricsRegistry) {
+        registry = metricsRegistry;
+    }
+
+    /**
+     * Configure the registry into which to record all timings, on behalf of a connector. As the metrics are shared
+     * by every connector in the JVM, the registry can only be changed while no other connector is relying on it, and
+     * a connector that successfully configures it must release it again when it is disconnected.
+     * @param name of the registry (as configured for the connector), or null for the default (in-memory) registry
+     * @param factory from which to create the registry, if it is not already in use
+     * @return boolean true if the registry is now in use, or false if another connector relies on a different one
+     * @see #releaseRegistry()
+     */
+    public static synchronized boolean configureRegistry(String name, Supplier<MetricsRegistry> factory) {
+        String requested = name == null ? HistogramMetricsRegistry.class.getName() : name;
+        if (!requested.equals(registryName)) {
+            if (registryUsers > 0) {
+                return false;
+            }
+            registry = name == null ? new HistogramMetricsRegistry() : factory.get();
+            registryName = requested;
+        }
+        registryUsers++;
+        return true;
+    }
+
+    /**
+     * Release the registry configured on behalf of a connector, once that connector no longer relies on it.
+     * @see #configureRegistry(String, Supplier)
+     */
+    public static synchronized void releaseRegistry() {
+        if (registryUsers > 0) {
+            registryUsers--;
+        }
+    }
+
+    /**
+     * Retrieve the name of the registry configured for the JVM as a whole.
+     * @return String
+     */
+    public static synchronized String getRegistryName() {
+        return registryName;
+    }
+
+    /**
+     * Retrieve the registry into which all timings are recorded.
+     * @return MetricsRegistry, or null if nothing is being recorded
+     */
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Retrieve a snapshot of the statistics of every operation recorded so far.
+     * @return {@code Map<String, OperationStatistics>} keyed by operation name
+     */
+    public static Map<String, OperationStatistics> getStatistics() {
+        MetricsRegistry current = registry;
+        return current == null ? Collections.emptyMap() : current.getStatistics();
+    }
+
+    /**
+     * Start timing an operation.
+     * @param name of the operation
+     * @return OperationTimer to close once the operation is complete
+     */
+    public static OperationTimer start(String name) {
+        return new OperationTimer(registry, name);
+    }
+
+    /**
+     * Retrieve the name of the outermost operation being timed on the current thread: for work done within a
+     * metadata collection operation, that operation (for example, <code>omrs.findEntities</code>).
+     * @return String name of the operation, or null if no operation is being timed
+     */
+    public static String getCurrentOperation() {
+        return OperationTimer.getCurrentOperation();
+    }
+
+    /**
+     * Record the successful completion of a phase of an operation.
+     * @param name of the phase
+     * @param startNanos when the phase started (from {@link System#nanoTime()})
+     */
+    public static void record(String name, long startNanos) {
+        MetricsRegistry current = registry;
+        if (current != null) {
+            current.record(name, System.nanoTime() - startNanos, false);
+        }
+    }
+
+    /**
+     * Record the successful completion of a phase of an operation that has already been timed.
+     * @param name of the phase
+     * @param elapsedNanos time taken by the phase
+     */
+    public static void recordElapsed(String name, long elapsedNanos) {
+        MetricsRegistry current = registry;
+        if (current != null) {
+            current.record(name, elapsedNanos, false);
+        }
+    }
+
+    /**
+     * Register the metrics for access through JMX, unless they are already registered.
+     */
+    public static synchronized void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MBean(), name);
+            }
+        } catch (JMException e) {
+            log.warn("Unable to register the connector's metrics with JMX.", e);
+        }
+    }
+
+    /**
+     * Exposes whichever registry is current through JMX.
+     */
+    private static class MBean implements ConnectorMetricsMXBean {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Map<String, OperationStatistics> getStatistics() {
+            return ConnectorMetrics.getStatistics();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String[] getSummary() {
+            return ConnectorMetrics.getStatistics().values().stream().map(OperationStatistics::toString).toArray(String[]::new);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getHeldErrors() {
+            return ErrorMessageCache.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getDiscardedErrors() {
+            return ErrorMessageCache.getEvictions();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Map<String, Long> getFailedTransactions() {
+            return ErrorMessageCache.getFailedTransactions();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void reset() {
+            MetricsRegistry current = registry;
+            if (current != null) {
+                current.reset();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,47 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface through which the connector's metrics can be read over JMX.
+ */
+public interface ConnectorMetricsMXBean {
+
+    /**
+     * Retrieve a snapshot of the statistics of every operation recorded so far.
+     * @return {@code Map<String, OperationStatistics>} keyed by operation name
+     */
+    Map<String, OperationStatistics> getStatistics();
+
+    /**
+     * Retrieve a summary of the statistics of every operation recorded so far, one line per operation.
+     * @return String[]
+     */
+    String[] getSummary();
+
+    /**
+     * Retrieve the number of failed transactions whose errors are currently held, waiting to be reported.
+     * @return int
+     */
+    int getHeldErrors();
+
+    /**
+     * Retrieve the number of errors of failed transactions that were discarded without ever being reported.
+     * @return long
+     */
+    long getDiscardedErrors();
+
+    /**
+     * Retrieve the number of failed transactions so far, by the transaction function that raised their error.
+     * @return {@code Map<String, Long>} keyed by transaction function name
+     */
+    Map<String, Long> getFailedTransactions();
+
+    /**
+     * Discard everything recorded so far.
+     */
+    void reset();
+
+}
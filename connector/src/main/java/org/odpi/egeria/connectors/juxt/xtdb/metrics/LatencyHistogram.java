@@ -0,0 +1,125 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of the latencies of a single operation. Latencies are counted into logarithmic buckets, four
+ * to each power of two, so any percentile is accurate to within 25% irrespective of the range of the latencies while
+ * the histogram itself remains a fixed (small) size.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Create a new, empty histogram.
+     * @param name of the operation whose latencies it counts
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Count a single latency.
+     * @param nanos that the operation took
+     * @param failed true if the operation failed, otherwise false
+     */
+    public void record(long nanos, boolean failed) {
+        long value = Math.max(nanos, 0);
+        count.increment();
+        if (failed) {
+            errors.increment();
+        }
+        totalNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+        buckets.incrementAndGet(getBucket(value));
+    }
+
+    /**
+     * Retrieve a snapshot of the statistics counted so far. (As counting continues concurrently, the statistics are
+     * only approximately consistent with each other.)
+     * @return OperationStatistics
+     */
+    public OperationStatistics getStatistics() {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        long n = count.sum();
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        return new OperationStatistics(name,
+                n,
+                errors.sum(),
+                n == 0 ? 0 : toMillis(totalNanos.sum()) / n,
+                toMillis(maxNanos.get()),
+                toMillis(getPercentile(snapshot, total, 0.50)),
+                toMillis(getPercentile(snapshot, total, 0.95)),
+                toMillis(getPercentile(snapshot, total, 0.99)),
+                elapsedSeconds > 0 ? n / elapsedSeconds : 0);
+    }
+
+    /**
+     * Retrieve the bucket into which the provided latency is counted.
+     * @param nanos latency to count
+     * @return int index of the bucket
+     */
+    static int getBucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Retrieve the largest latency that would be counted into the provided bucket.
+     * @param bucket index of the bucket
+     * @return long latency in nanoseconds
+     */
+    static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long width = 1L << (magnitude - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + sub) * width) + width - 1;
+    }
+
+    private static long getPercentile(long[] snapshot, long total, double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return getUpperBound(i);
+            }
+        }
+        return getUpperBound(snapshot.length - 1);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+}
@@ -0,0 +1,34 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import java.util.Map;
+
+/**
+ * Destination for the timings recorded by the connector. Any implementation must be thread-safe, as timings are
+ * recorded concurrently by every thread using the connector (including those running transaction functions), and
+ * must have a public no-argument constructor to be configured through the connector's configurationProperties.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Record a single timing.
+     * @param name of the operation (or phase of an operation) that was timed
+     * @param nanos that the operation took
+     * @param failed true if the operation failed, otherwise false
+     */
+    void record(String name, long nanos, boolean failed);
+
+    /**
+     * Retrieve a snapshot of the statistics recorded so far.
+     * @return {@code Map<String, OperationStatistics>} keyed by operation name (empty if nothing has been recorded,
+     *         or if this registry only passes the timings on elsewhere)
+     */
+    Map<String, OperationStatistics> getStatistics();
+
+    /**
+     * Discard everything recorded so far.
+     */
+    void reset();
+
+}
@@ -0,0 +1,125 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import javax.management.ConstructorParameters;
+
+/**
+ * Snapshot of the statistics recorded for a single operation (or phase of an operation). All latencies are in
+ * milliseconds, and the percentiles are approximate (see {@link LatencyHistogram}).
+ */
+public class OperationStatistics {
+
+    private final String name;
+    private final long count;
+    private final long errors;
+    private final double meanMillis;
+    private final double maxMillis;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+    private final double throughput;
+
+    /**
+     * Create a new snapshot of statistics.
+     * @param name of the operation
+     * @param count of the times the operation has been run
+     * @param errors count of the times the operation has failed
+     * @param meanMillis mean latency
+     * @param maxMillis maximum latency
+     * @param p50Millis median latency
+     * @param p95Millis 95th percentile latency
+     * @param p99Millis 99th percentile latency
+     * @param throughput mean number of operations per second
+     */
+    @ConstructorParameters({"name", "count", "errors", "meanMillis", "maxMillis", "p50Millis", "p95Millis", "p99Millis", "throughput"})
+    public OperationStatistics(String name,
+                               long count,
+                               long errors,
+                               double meanMillis,
+                               double maxMillis,
+                               double p50Millis,
+                               double p95Millis,
+                               double p99Millis,
+                               double throughput) {
+        this.name = name;
+        this.count = count;
+        this.errors = errors;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+        this.throughput = throughput;
+    }
+
+    /**
+     * Retrieve the name of the operation.
+     * @return String
+     */
+    public String getName() { return name; }
+
+    /**
+     * Retrieve the number of times the operation has been run.
+     * @return long
+     */
+    public long getCount() { return count; }
+
+    /**
+     * Retrieve the number of times the operation has failed.
+     * @return long
+     */
+    public long getErrors() { return errors; }
+
+    /**
+     * Retrieve the proportion of the times the operation has been run that it failed.
+     * @return double between 0 and 1
+     */
+    public double getErrorRate() { return count == 0 ? 0 : (double) errors / count; }
+
+    /**
+     * Retrieve the mean latency of the operation.
+     * @return double milliseconds
+     */
+    public double getMeanMillis() { return meanMillis; }
+
+    /**
+     * Retrieve the maximum latency of the operation.
+     * @return double milliseconds
+     */
+    public double getMaxMillis() { return maxMillis; }
+
+    /**
+     * Retrieve the median latency of the operation.
+     * @return double milliseconds
+     */
+    public double getP50Millis() { return p50Millis; }
+
+    /**
+     * Retrieve the 95th percentile latency of the operation.
+     * @return double milliseconds
+     */
+    public double getP95Millis() { return p95Millis; }
+
+    /**
+     * Retrieve the 99th percentile latency of the operation.
+     * @return double milliseconds
+     */
+    public double getP99Millis() { return p99Millis; }
+
+    /**
+     * Retrieve the mean number of times the operation has been run per second, since its statistics were started.
+     * @return double
+     */
+    public double getThroughput() { return throughput; }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d, errors=%d, mean=%.3fms, p50=%.3fms, p95=%.3fms, p99=%.3fms, max=%.3fms, %.1f/s",
+                name, count, errors, meanMillis, p50Millis, p95Millis, p99Millis, maxMillis, throughput);
+    }
+
+}
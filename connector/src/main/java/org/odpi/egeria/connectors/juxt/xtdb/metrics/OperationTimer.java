@@ -0,0 +1,81 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+/**
+ * Times a single run of an operation, for use in a try-with-resources block. The operation is recorded as having
+ * failed unless it is marked as succeeded before the timer is closed, so any exception thrown out of the block is
+ * counted as an error without needing to be caught:
+ * <code>
+ * try (OperationTimer timer = ConnectorMetrics.start(name)) {
+ *     ...
+ *     return timer.succeeded(result);
+ * }
+ * </code>
+ */
+public class OperationTimer implements AutoCloseable {
+
+    // The outermost operation running on each thread, for attributing the work done within it
+    private static final ThreadLocal<String> OPERATION = new ThreadLocal<>();
+
+    private final MetricsRegistry registry;
+    private final String name;
+    private final long startNanos;
+    private final boolean outermost;
+    private boolean succeeded = false;
+
+    /**
+     * Start timing an operation.
+     * @param registry into which to record the timing (if null, nothing will be recorded)
+     * @param name of the operation
+     */
+    OperationTimer(MetricsRegistry registry, String name) {
+        this.registry = registry;
+        this.name = name;
+        this.startNanos = registry == null ? 0 : System.nanoTime();
+        this.outermost = OPERATION.get() == null;
+        if (outermost) {
+            OPERATION.set(name);
+        }
+    }
+
+    /**
+     * Retrieve the name of the outermost operation being timed on the current thread.
+     * @return String name of the operation, or null if no operation is being timed
+     */
+    static String getCurrentOperation() {
+        return OPERATION.get();
+    }
+
+    /**
+     * Mark the operation as having succeeded.
+     */
+    public void succeeded() {
+        succeeded = true;
+    }
+
+    /**
+     * Mark the operation as having succeeded, with the provided result.
+     * @param result of the operation
+     * @param <T> type of the result
+     * @return T the result itself
+     */
+    public <T> T succeeded(T result) {
+        succeeded = true;
+        return result;
+    }
+
+    /**
+     * Stop timing the operation, and record the timing.
+     */
+    @Override
+    public void close() {
+        if (outermost) {
+            OPERATION.remove();
+        }
+        if (registry != null) {
+            registry.record(name, System.nanoTime() - startNanos, !succeeded);
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+
+/**
+ * Profiles a single run of a query through its phases: building the query, running (opening) it, fetching its
+ * results from the cursor and de-duplicating and paging those results. As XTDB evaluates a query lazily, most of the
+ * work of running it is done as its results are fetched, so the time spent within the cursor is measured separately
+ * from the time spent de-duplicating and paging what it returns. The time taken by each phase is recorded into the
+ * connector's metrics, and if the query as a whole takes longer than the slow query threshold it is also recorded
+ * (with its datalog and the rows it read) into the slow query log.
+ */
+public class QueryProfile {
+
+    private final SlowQueryLog slowQueryLog;
+    private final String source;
+    private final long startNanos;
+    private long builtNanos;
+    private long executedNanos;
+    private long fetchNanos = 0;
+    private Object query;
+    private Object[] args;
+    private long rowsRead = 0;
+
+    /**
+     * Start profiling a query.
+     * @param slowQueryLog into which to record the query if it is slow (if null, only the metrics are recorded)
+     * @param source the read operation running the query
+     */
+    public QueryProfile(SlowQueryLog slowQueryLog, String source) {
+        this.slowQueryLog = slowQueryLog;
+        this.source = source;
+        this.startNanos = System.nanoTime();
+        this.builtNanos = startNanos;
+        this.executedNanos = startNanos;
+    }
+
+    /**
+     * Mark the query as built.
+     * @param query that was built
+     * @param args for the query
+     */
+    public void built(Object query, Object[] args) {
+        builtNanos = System.nanoTime();
+        executedNanos = builtNanos;
+        this.query = query;
+        this.args = args;
+        ConnectorMetrics.record(ConnectorMetrics.QUERY_BUILD, startNanos);
+    }
+
+    /**
+     * Mark the query as run (for a lazily-evaluated query: opened).
+     */
+    public void executed() {
+        executedNanos = System.nanoTime();
+        ConnectorMetrics.record(ConnectorMetrics.QUERY_EXECUTE, builtNanos);
+    }
+
+    /**
+     * Count each row read through the provided iterator (typically an open cursor) over the query's results, and time
+     * how long is spent fetching them.
+     * @param rows over which to iterate
+     * @param <T> type of each row
+     * @return {@code Iterator<T>} through which to read the rows
+     */
+    public <T> Iterator<T> count(Iterator<T> rows) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                long start = System.nanoTime();
+                try {
+                    return rows.hasNext();
+                } finally {
+                    fetchNanos += System.nanoTime() - start;
+                }
+            }
+            @Override
+            public T next() {
+                long start = System.nanoTime();
+                try {
+                    T row = rows.next();
+                    rowsRead++;
+                    return row;
+                } finally {
+                    fetchNanos += System.nanoTime() - start;
+                }
+            }
+        };
+    }
+
+    /**
+     * Mark the query's results as paged, completing the query.
+     * @param rowsReturned number of rows returned once the results were de-duplicated and paged
+     */
+    public void paged(long rowsReturned) {
+        long pagedNanos = System.nanoTime();
+        ConnectorMetrics.recordElapsed(ConnectorMetrics.QUERY_FETCH, fetchNanos);
+        ConnectorMetrics.recordElapsed(ConnectorMetrics.QUERY_PAGE, pagedNanos - executedNanos - fetchNanos);
+        complete(pagedNanos, rowsRead, rowsReturned);
+    }
+
+    /**
+     * Mark the query as complete, for a query whose results are all returned at once.
+     * @param rows returned by the query
+     */
+    public void completed(Collection<?> rows) {
+        long now = System.nanoTime();
+        if (slowQueryLog != null && slowQueryLog.isSlow(now - startNanos)) {
+            // Only count the distinct rows when they will be recorded
+            complete(now, rows.size(), new HashSet<>(rows).size());
+        }
+    }
+
+    private void complete(long endNanos, long read, long returned) {
+        if (slowQueryLog != null && slowQueryLog.isSlow(endNanos - startNanos)) {
+            String operation = ConnectorMetrics.getCurrentOperation();
+            slowQueryLog.add(new SlowQuery(new Date(),
+                    operation == null ? source : operation,
+                    source,
+                    String.valueOf(query),
+                    args == null ? "[]" : Arrays.deepToString(args),
+                    read,
+                    returned,
+                    toMillis(builtNanos - startNanos),
+                    toMillis(executedNanos - builtNanos),
+                    toMillis(fetchNanos),
+                    toMillis(endNanos - executedNanos - fetchNanos),
+                    toMillis(endNanos - startNanos)));
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+}
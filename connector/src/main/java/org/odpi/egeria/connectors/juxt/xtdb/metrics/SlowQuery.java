@@ -0,0 +1,148 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import java.util.Date;
+
+/**
+ * Record of a single query that took longer than the slow query threshold to run. All timings are in milliseconds.
+ */
+public class SlowQuery {
+
+    private final Date recordedAt;
+    private final String operation;
+    private final String source;
+    private final String query;
+    private final String bindings;
+    private final long rowsRead;
+    private final long rowsReturned;
+    private final double buildMillis;
+    private final double executeMillis;
+    private final double fetchMillis;
+    private final double pageMillis;
+    private final double totalMillis;
+
+    /**
+     * Create a new record of a slow query.
+     * @param recordedAt when the query completed
+     * @param operation the operation from which the query originated (for example, <code>omrs.findEntities</code>)
+     * @param source the read operation that ran the query
+     * @param query the query itself (datalog)
+     * @param bindings the values bound to the query's arguments
+     * @param rowsRead number of rows read from the query's results, before de-duplication
+     * @param rowsReturned number of rows returned, after de-duplication (and paging)
+     * @param buildMillis time taken to build the query
+     * @param executeMillis time taken to run (open) the query
+     * @param fetchMillis time taken to fetch the query's results from its cursor
+     * @param pageMillis time taken to de-duplicate and page the query's results, once fetched
+     * @param totalMillis time taken overall
+     */
+    public SlowQuery(Date recordedAt,
+                     String operation,
+                     String source,
+                     String query,
+                     String bindings,
+                     long rowsRead,
+                     long rowsReturned,
+                     double buildMillis,
+                     double executeMillis,
+                     double fetchMillis,
+                     double pageMillis,
+                     double totalMillis) {
+        this.recordedAt = recordedAt;
+        this.operation = operation;
+        this.source = source;
+        this.query = query;
+        this.bindings = bindings;
+        this.rowsRead = rowsRead;
+        this.rowsReturned = rowsReturned;
+        this.buildMillis = buildMillis;
+        this.executeMillis = executeMillis;
+        this.fetchMillis = fetchMillis;
+        this.pageMillis = pageMillis;
+        this.totalMillis = totalMillis;
+    }
+
+    /**
+     * Retrieve when the query completed.
+     * @return Date
+     */
+    public Date getRecordedAt() { return recordedAt; }
+
+    /**
+     * Retrieve the operation from which the query originated.
+     * @return String
+     */
+    public String getOperation() { return operation; }
+
+    /**
+     * Retrieve the read operation that ran the query.
+     * @return String
+     */
+    public String getSource() { return source; }
+
+    /**
+     * Retrieve the query itself.
+     * @return String
+     */
+    public String getQuery() { return query; }
+
+    /**
+     * Retrieve the values bound to the query's arguments.
+     * @return String
+     */
+    public String getBindings() { return bindings; }
+
+    /**
+     * Retrieve the number of rows read from the query's results, before de-duplication.
+     * @return long
+     */
+    public long getRowsRead() { return rowsRead; }
+
+    /**
+     * Retrieve the number of rows returned, after de-duplication (and paging).
+     * @return long
+     */
+    public long getRowsReturned() { return rowsReturned; }
+
+    /**
+     * Retrieve the time taken to build the query.
+     * @return double
+     */
+    public double getBuildMillis() { return buildMillis; }
+
+    /**
+     * Retrieve the time taken to run (open) the query: for a lazily-evaluated query, most of its evaluation is
+     * instead included in the time taken to fetch its results.
+     * @return double
+     */
+    public double getExecuteMillis() { return executeMillis; }
+
+    /**
+     * Retrieve the time taken to fetch the query's results from its cursor (including XTDB's lazy evaluation of them).
+     * @return double
+     */
+    public double getFetchMillis() { return fetchMillis; }
+
+    /**
+     * Retrieve the time taken to de-duplicate and page the query's results, once fetched.
+     * @return double
+     */
+    public double getPageMillis() { return pageMillis; }
+
+    /**
+     * Retrieve the time taken overall.
+     * @return double
+     */
+    public double getTotalMillis() { return totalMillis; }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("%.3fms for %s (%s): %d rows read, %d returned (build=%.3fms, execute=%.3fms, fetch=%.3fms, page=%.3fms): %s with %s",
+                totalMillis, operation, source, rowsRead, rowsReturned, buildMillis, executeMillis, fetchMillis, pageMillis, query, bindings);
+    }
+
+}
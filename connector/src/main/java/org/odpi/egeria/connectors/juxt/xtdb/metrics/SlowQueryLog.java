@@ -0,0 +1,95 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded ring of the most recent queries that took longer than a threshold to run. Once the ring is full, each
+ * newly-recorded query overwrites the oldest. Queries remain in the ring (for reading in-process) after they have
+ * been taken for writing out, and any that are overwritten before they could be taken are counted instead.
+ */
+public class SlowQueryLog {
+
+    public static final long DEFAULT_THRESHOLD = 1000;
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private final long thresholdNanos;
+    private final SlowQuery[] ring;
+    private long recorded = 0;
+    private long taken = 0;
+    private long dropped = 0;
+
+    /**
+     * Create a new, empty log.
+     * @param thresholdMillis the number of milliseconds a query must take to be recorded (if negative, no queries
+     *                        are recorded at all)
+     * @param capacity the maximum number of queries to hold
+     */
+    public SlowQueryLog(long thresholdMillis, int capacity) {
+        this.thresholdNanos = thresholdMillis < 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.ring = new SlowQuery[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Indicates whether a query that took the provided time to run should be recorded.
+     * @param nanos that the query took
+     * @return boolean true if the query is slow, otherwise false
+     */
+    public boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * Record a slow query, overwriting the oldest query held if the log is already full.
+     * @param query to record
+     */
+    public synchronized void add(SlowQuery query) {
+        if (recorded - taken >= ring.length) {
+            // The oldest query is about to be overwritten without ever having been taken
+            taken++;
+            dropped++;
+        }
+        ring[(int) (recorded % ring.length)] = query;
+        recorded++;
+    }
+
+    /**
+     * Retrieve all the queries currently held, oldest first.
+     * @return {@code List<SlowQuery>}
+     */
+    public synchronized List<SlowQuery> getQueries() {
+        return getSince(Math.max(recorded - ring.length, 0));
+    }
+
+    /**
+     * Take the queries that have been recorded since they were last taken, oldest first.
+     * @return {@code List<SlowQuery>}
+     */
+    public synchronized List<SlowQuery> takeQueries() {
+        List<SlowQuery> queries = getSince(taken);
+        taken = recorded;
+        return queries;
+    }
+
+    /**
+     * Take the number of queries that were overwritten before they could be taken, since this was last taken.
+     * @return long
+     */
+    public synchronized long takeDropped() {
+        long count = dropped;
+        dropped = 0;
+        return count;
+    }
+
+    private List<SlowQuery> getSince(long sequence) {
+        List<SlowQuery> queries = new ArrayList<>((int) (recorded - sequence));
+        for (long i = sequence; i < recorded; i++) {
+            queries.add(ring[(int) (i % ring.length)]);
+        }
+        return queries;
+    }
+
+}
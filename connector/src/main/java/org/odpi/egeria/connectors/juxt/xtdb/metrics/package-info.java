@@ -0,0 +1,8 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+/**
+ * Records the latency, throughput and errors of the connector's own operations (and of the phases within them), so
+ * they can be read in-process or through JMX.
+ */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
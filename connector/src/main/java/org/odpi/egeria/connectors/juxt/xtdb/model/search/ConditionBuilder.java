@@ -77,6 +77,29 @@ public class ConditionBuilder {
                                                                       XtdbOMRSRepositoryConnector xtdbConnector,
                                                                       boolean luceneEnabled,
                                                                       boolean luceneRegexes) {
+        return buildPropertyConditions(searchProperties, namespace, orNested, typeNames, xtdbConnector, luceneEnabled, luceneRegexes, null);
+    }
+
+    /**
+     * Retrieve a set of translated XTDB conditions appropriate to the provided Egeria conditions.
+     * @param searchProperties to translate
+     * @param namespace by which to qualify properties
+     * @param orNested true iff searchProperties is a set of conditions nested inside an OR (match criteria = ANY)
+     * @param typeNames of all of the types we are including in the search
+     * @param xtdbConnector connectivity to the repository
+     * @param luceneEnabled indicates whether Lucene search index is configured (true) or not (false)
+     * @param luceneRegexes indicates whether unquoted regexes should be treated as Lucene compatible (true) or not (false)
+     * @param query into which the conditions will be added, through which to bind any literal values (or null to embed them directly)
+     * @return {@code List<IPersistentCollection>}
+     */
+    public static List<IPersistentCollection> buildPropertyConditions(SearchProperties searchProperties,
+                                                                      String namespace,
+                                                                      boolean orNested,
+                                                                      Set<String> typeNames,
+                                                                      XtdbOMRSRepositoryConnector xtdbConnector,
+                                                                      boolean luceneEnabled,
+                                                                      boolean luceneRegexes,
+                                                                      XtdbQuery query) {
         final String methodName = "buildPropertyConditions";
         if (searchProperties != null) {
             List<PropertyCondition> propertyConditions = searchProperties.getConditions();
@@ -91,7 +114,8 @@ public class ConditionBuilder {
                             typeNames,
                             xtdbConnector,
                             luceneEnabled,
-                            luceneRegexes
+                            luceneRegexes,
+                            query
                     );
                     if (xtdbConditions != null && !xtdbConditions.isEmpty()) {
                         allConditions.add(xtdbConditions);
@@ -185,6 +209,7 @@ public class ConditionBuilder {
      * @param xtdbConnector connectivity to the repository
      * @param luceneEnabled indicates whether Lucene search index is configured (true) or not (false)
      * @param luceneRegexes indicates whether unquoted regexes should be treated as Lucene compatible (true) or not (false)
+     * @param query into which the conditions will be added, through which to bind any literal values (or null to embed them directly)
      * @return {@code List<IPersistentCollection>} of the conditions
      */
     static List<IPersistentCollection> buildConditionForPropertyRef(Keyword propertyRef,
@@ -193,7 +218,8 @@ public class ConditionBuilder {
                                                                     Symbol variable,
                                                                     XtdbOMRSRepositoryConnector xtdbConnector,
                                                                     boolean luceneEnabled,
-                                                                    boolean luceneRegexes) {
+                                                                    boolean luceneRegexes,
+                                                                    XtdbQuery query) {
 
         final String methodName = "buildConditionForPropertyRef";
         List<IPersistentCollection> propertyConditions = new ArrayList<>();
@@ -201,13 +227,13 @@ public class ConditionBuilder {
 
         if (comparator.equals(PropertyComparisonOperator.EQ)) {
             // For equality we can compare directly to the value and short-circuit any additional processing
-            propertyConditions.add(getEqualsConditions(xtdbConnector, propertyRef, value));
+            propertyConditions.add(getEqualsConditions(xtdbConnector, propertyRef, value, query));
             return propertyConditions;
         } else {
             Symbol predicate = getPredicateForOperator(xtdbConnector, comparator);
             if (REGEX_OPERATOR.equals(predicate)) {
                 // This method already handles wrapping, if needed, so we can return its results directly
-                return TextConditionBuilder.buildRegexConditions(propertyRef, value, variable, xtdbConnector, luceneEnabled, luceneRegexes);
+                return TextConditionBuilder.buildRegexConditions(propertyRef, value, variable, xtdbConnector, luceneEnabled, luceneRegexes, query);
             } else if (IN_OPERATOR.equals(predicate)) {
                 // For the IN comparison, we need an extra condition to setup the set to compare against
                 // [(hash-set 1 2 3) las]    - needed for lists, to ensure the list is a unique set of keys to check against
@@ -217,7 +243,9 @@ public class ConditionBuilder {
                 Object toCompare = InstancePropertyValueMapping.getValueForComparison(xtdbConnector, value);
                 if (toCompare instanceof List) {
                     // add all elements of the array to the list
-                    forceSet.addAll((List<?>)toCompare);
+                    for (Object element : (List<?>) toCompare) {
+                        forceSet.add(bind(query, element));
+                    }
                 }
                 List<Object> set = new ArrayList<>();
                 set.add(PersistentList.create(forceSet));
@@ -240,7 +268,7 @@ public class ConditionBuilder {
                 // The null predicates only expect a single argument, so do not bother attempting to add
                 // this third argument if the predicate is null-related
                 if (!predicate.equals(IS_NULL_OPERATOR) && !predicate.equals(NOT_NULL_OPERATOR)) {
-                    predicateComparison.add(InstancePropertyValueMapping.getValueForComparison(xtdbConnector, value));
+                    predicateComparison.add(bind(query, InstancePropertyValueMapping.getValueForComparison(xtdbConnector, value)));
                 }
                 clauseConditions.add(PersistentVector.create(PersistentList.create(predicateComparison)));
             } else {
@@ -273,15 +301,17 @@ public class ConditionBuilder {
      * @param xtdbConnector connectivity to the repository
      * @param luceneEnabled indicates whether Lucene search index is configured (true) or not (false)
      * @param luceneRegexes indicates whether unquoted regexes should be treated as Lucene compatible (true) or not (false)
+     * @param query into which the conditions will be added, through which to bind any literal values (or null to embed them directly)
      * @return {@code List<IPersistentCollection>} giving the appropriate XTDB query condition(s)
-     * @see #buildPropertyConditions(SearchProperties, String, boolean, Set, XtdbOMRSRepositoryConnector, boolean, boolean)
+     * @see #buildPropertyConditions(SearchProperties, String, boolean, Set, XtdbOMRSRepositoryConnector, boolean, boolean, XtdbQuery)
      */
     private static List<IPersistentCollection> getSinglePropertyCondition(PropertyCondition singleCondition,
                                                                           String namespace,
                                                                           Set<String> typeNames,
                                                                           XtdbOMRSRepositoryConnector xtdbConnector,
                                                                           boolean luceneEnabled,
-                                                                          boolean luceneRegexes) {
+                                                                          boolean luceneRegexes,
+                                                                          XtdbQuery query) {
         final String methodName = "getSinglePropertyCondition";
         SearchProperties nestedConditions = singleCondition.getNestedConditions();
         if (nestedConditions != null) {
@@ -294,7 +324,8 @@ public class ConditionBuilder {
                     typeNames,
                     xtdbConnector,
                     luceneEnabled,
-                    luceneRegexes
+                    luceneRegexes,
+                    query
             );
         } else {
             // Otherwise, parse through and process a single value condition
@@ -312,7 +343,8 @@ public class ConditionBuilder {
                         Symbol.intern(simpleName),
                         xtdbConnector,
                         luceneEnabled,
-                        luceneRegexes
+                        luceneRegexes,
+                        query
                 );
             } else {
                 // Any others we should assume are InstanceProperties.
@@ -367,7 +399,8 @@ public class ConditionBuilder {
                                 Symbol.intern(simpleName),
                                 xtdbConnector,
                                 luceneEnabled,
-                                luceneRegexes
+                                luceneRegexes,
+                                query
                         );
                         allPropertyConditions = new ArrayList<>(conditionsForOneProperty);
                     }
@@ -403,7 +436,8 @@ public class ConditionBuilder {
                             qualifiedSearchProperties,
                             xtdbConnector,
                             luceneEnabled,
-                            luceneRegexes
+                            luceneRegexes,
+                            query
                     );
                     if (conditionAggregator.size() == 1) {
                         // If there is only a single condition, we can just add it directly:
@@ -448,6 +482,7 @@ public class ConditionBuilder {
      * @param xtdbConnector connectivity to the repository
      * @param luceneEnabled indicates whether Lucene search index is configured (true) or not (false)
      * @param luceneRegexes indicates whether unquoted regexes should be treated as Lucene compatible (true) or not (false)
+     * @param query into which the conditions will be added, through which to bind any literal values (or null to embed them directly)
      * @return {@code List<List<IPersistentCollection>>} giving the appropriate XTDB query condition(s)
      */
     private static List<List<IPersistentCollection>> getFallbackConditions(String simpleName,
@@ -456,7 +491,8 @@ public class ConditionBuilder {
                                                                            Set<Keyword> qualifiedSearchProperties,
                                                                            XtdbOMRSRepositoryConnector xtdbConnector,
                                                                            boolean luceneEnabled,
-                                                                           boolean luceneRegexes) {
+                                                                           boolean luceneRegexes,
+                                                                           XtdbQuery query) {
 
         List<List<IPersistentCollection>> allConditionsForProperty = new ArrayList<>();
 
@@ -475,7 +511,8 @@ public class ConditionBuilder {
                     symbolForVariable,
                     xtdbConnector,
                     luceneEnabled,
-                    luceneRegexes
+                    luceneRegexes,
+                    query
             );
             allConditionsForProperty.add(conditionsForOneProperty);
         }
@@ -489,10 +526,22 @@ public class ConditionBuilder {
      * @param xtdbConnector connectivity to the repository
      * @param propertyRef whose value should be compared
      * @param value to compare against
+     * @param query through which to bind the value (or null to embed it directly)
      * @return IPersistentCollection giving the conditions
      */
-    private static IPersistentCollection getEqualsConditions(XtdbOMRSRepositoryConnector xtdbConnector, Keyword propertyRef, InstancePropertyValue value) {
-        return PersistentVector.create(XtdbQuery.DOC_ID, propertyRef, InstancePropertyValueMapping.getValueForComparison(xtdbConnector, value));
+    private static IPersistentCollection getEqualsConditions(XtdbOMRSRepositoryConnector xtdbConnector, Keyword propertyRef, InstancePropertyValue value, XtdbQuery query) {
+        return PersistentVector.create(XtdbQuery.DOC_ID, propertyRef, bind(query, InstancePropertyValueMapping.getValueForComparison(xtdbConnector, value)));
+    }
+
+    /**
+     * Retrieve the form by which to refer to the provided literal value within a condition.
+     * @param query through which to bind the value (or null to embed it directly)
+     * @param value to refer to
+     * @return Object giving the parameter to which the value is bound, or the value itself
+     * @see XtdbQuery#bind(Object)
+     */
+    static Object bind(XtdbQuery query, Object value) {
+        return query == null ? value : query.bind(value);
     }
 
     /**
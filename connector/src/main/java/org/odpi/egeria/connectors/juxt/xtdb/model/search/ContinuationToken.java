@@ -0,0 +1,258 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.model.search;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import xtdb.api.DBBasis;
+import xtdb.api.TransactionInstant;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Captures the position reached by a keyset-paged search, so that the next page can be retrieved by resuming the
+ * query immediately after that position rather than re-running it and skipping over all the earlier results.
+ *
+ * The position is the sort value and document ID of the last result returned, along with the database basis (valid
+ * time and transaction) against which the first page was run, so that every page is read from the same snapshot. When
+ * the last sort value cannot be used for resuming (for example, it is null) the token instead falls back to the
+ * number of results returned so far, as an offset into the same snapshot. Each token is also bound to the criteria of
+ * the search that issued it, so that it cannot be used to continue a different search.
+ *
+ * Tokens are exchanged with callers only in their opaque, encoded string form.
+ * @see XtdbQuery#addKeysetConditions(Object, String, boolean)
+ */
+public class ContinuationToken {
+
+    private static final byte VERSION = 2;
+
+    private static final byte NO_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte DOUBLE_VALUE = 3;
+    private static final byte DATE_VALUE = 4;
+
+    // Longer sort values fall back to an offset, to keep tokens small (and within the limits of modified UTF-8)
+    private static final int MAX_STRING_LENGTH = 1024;
+
+    private final DBBasis basis;
+    private final SequencingOrder sequencingOrder;
+    private final int criteria;
+    private final boolean keyed;
+    private final Object lastSortValue;
+    private final String lastDocRef;
+    private final int returned;
+
+    private ContinuationToken(DBBasis basis,
+                              SequencingOrder sequencingOrder,
+                              int criteria,
+                              boolean keyed,
+                              Object lastSortValue,
+                              String lastDocRef,
+                              int returned) {
+        this.basis = basis;
+        this.sequencingOrder = sequencingOrder;
+        this.criteria = criteria;
+        this.keyed = keyed;
+        this.lastSortValue = lastSortValue;
+        this.lastDocRef = lastDocRef;
+        this.returned = returned;
+    }
+
+    /**
+     * Create a token to continue from the last result of a page.
+     * @param basis of the database against which the page was retrieved
+     * @param sequencingOrder by which the results are sorted
+     * @param criteria hash of the criteria of the search
+     * @param lastResult the last result tuple of the page: document ID first, followed by the sort value (if any)
+     * @param returned total number of results returned so far, including this page
+     * @return ContinuationToken
+     */
+    public static ContinuationToken after(DBBasis basis,
+                                          SequencingOrder sequencingOrder,
+                                          int criteria,
+                                          List<?> lastResult,
+                                          int returned) {
+        String docRef = (String) lastResult.get(0);
+        if (lastResult.size() < 2) {
+            return new ContinuationToken(basis, sequencingOrder, criteria, true, null, docRef, returned);
+        }
+        Object sortValue = lastResult.get(1);
+        boolean keyed = getValueType(sortValue) != NO_VALUE;
+        return new ContinuationToken(basis, sequencingOrder, criteria, keyed, keyed ? sortValue : null, docRef, returned);
+    }
+
+    /**
+     * Retrieve the database basis from which every page should be read.
+     * @return DBBasis
+     */
+    public DBBasis getBasis() { return basis; }
+
+    /**
+     * Retrieve the sequencing of the search for which the token was created.
+     * @return SequencingOrder
+     */
+    public SequencingOrder getSequencingOrder() { return sequencingOrder; }
+
+    /**
+     * Retrieve the hash of the criteria of the search for which the token was created.
+     * @return int
+     * @see #hashCriteria(Object...)
+     */
+    public int getCriteria() { return criteria; }
+
+    /**
+     * Indicates whether the next page can be resumed directly after the last result (true), or must instead skip
+     * over the number of results returned so far (false).
+     * @return boolean
+     */
+    public boolean isKeyed() { return keyed; }
+
+    /**
+     * Retrieve the sort value of the last result returned (only applicable if keyed).
+     * @return Object
+     */
+    public Object getLastSortValue() { return lastSortValue; }
+
+    /**
+     * Retrieve the document ID of the last result returned.
+     * @return String
+     */
+    public String getLastDocRef() { return lastDocRef; }
+
+    /**
+     * Retrieve the total number of results returned so far.
+     * @return int
+     */
+    public int getReturned() { return returned; }
+
+    /**
+     * Indicates whether the sort value is sequenced in descending order.
+     * @return boolean
+     */
+    public boolean isDescending() {
+        return sequencingOrder == SequencingOrder.LAST_UPDATE_RECENT
+                || sequencingOrder == SequencingOrder.CREATION_DATE_RECENT
+                || sequencingOrder == SequencingOrder.PROPERTY_DESCENDING;
+    }
+
+    /**
+     * Encode the token into its opaque string form.
+     * @return String
+     */
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(basis.getValidTime().getTime());
+            TransactionInstant tx = basis.getTransactionInstant();
+            out.writeLong(tx == null || tx.getId() == null ? -1 : tx.getId());
+            out.writeLong(tx == null || tx.getTime() == null ? -1 : tx.getTime().getTime());
+            out.writeByte(sequencingOrder == null ? -1 : sequencingOrder.ordinal());
+            out.writeInt(criteria);
+            out.writeBoolean(keyed);
+            writeValue(out, lastSortValue);
+            out.writeUTF(lastDocRef);
+            out.writeInt(returned);
+        } catch (IOException e) {
+            // Cannot happen when writing to memory
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decode a token from its opaque string form.
+     * @param token to decode
+     * @return ContinuationToken, or null if no token was provided
+     * @throws IllegalArgumentException if the provided string is not a valid token
+     */
+    public static ContinuationToken decode(String token) throws IllegalArgumentException {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported continuation token version.");
+            }
+            Date validTime = new Date(in.readLong());
+            long txId = in.readLong();
+            long txTime = in.readLong();
+            TransactionInstant tx = txId < 0 ? null : TransactionInstant.factory(txId, txTime < 0 ? null : new Date(txTime));
+            byte order = in.readByte();
+            SequencingOrder sequencingOrder = order < 0 ? null : SequencingOrder.values()[order];
+            int criteria = in.readInt();
+            boolean keyed = in.readBoolean();
+            Object lastSortValue = readValue(in);
+            String lastDocRef = in.readUTF();
+            int returned = in.readInt();
+            return new ContinuationToken(new DBBasis(validTime, tx), sequencingOrder, criteria, keyed, lastSortValue, lastDocRef, returned);
+        } catch (IOException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid continuation token.", e);
+        }
+    }
+
+    /**
+     * Hash the provided search criteria, to bind a token to the search that issued it. The hash is derived from the
+     * string form of the criteria (rather than their hash codes, some of which vary between JVMs) so that a token
+     * remains valid for the same search on any server and across restarts.
+     * @param criteria of the search
+     * @return int hash of the criteria
+     */
+    public static int hashCriteria(Object... criteria) {
+        return Arrays.deepToString(criteria).hashCode();
+    }
+
+    private static byte getValueType(Object value) {
+        if (value instanceof String && ((String) value).length() <= MAX_STRING_LENGTH) {
+            return STRING_VALUE;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return LONG_VALUE;
+        } else if (value instanceof Double || value instanceof Float) {
+            return DOUBLE_VALUE;
+        } else if (value instanceof Date) {
+            return DATE_VALUE;
+        }
+        return NO_VALUE;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        byte type = getValueType(value);
+        out.writeByte(type);
+        switch (type) {
+            case STRING_VALUE:
+                out.writeUTF((String) value);
+                break;
+            case LONG_VALUE:
+                out.writeLong(((Number) value).longValue());
+                break;
+            case DOUBLE_VALUE:
+                out.writeDouble(((Number) value).doubleValue());
+                break;
+            case DATE_VALUE:
+                out.writeLong(((Date) value).getTime());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        switch (in.readByte()) {
+            case STRING_VALUE:
+                return in.readUTF();
+            case LONG_VALUE:
+                return in.readLong();
+            case DOUBLE_VALUE:
+                return in.readDouble();
+            case DATE_VALUE:
+                return new Date(in.readLong());
+            default:
+                return null;
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.model.search;
+
+import java.util.List;
+
+/**
+ * A single page of results from a keyset-paged search, along with the opaque token from which to retrieve the next
+ * page (if there may be more results).
+ * @param <T> type of the results
+ * @see ContinuationToken
+ */
+public class SearchPage<T> {
+
+    private final List<T> results;
+    private final String continuationToken;
+
+    /**
+     * Create a new page of results.
+     * @param results the results in this page
+     * @param continuationToken from which to retrieve the next page, or null if there are no further results
+     */
+    public SearchPage(List<T> results, String continuationToken) {
+        this.results = results;
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * Retrieve the results in this page.
+     * @return {@code List<T>}
+     */
+    public List<T> getResults() { return results; }
+
+    /**
+     * Retrieve the token from which to retrieve the next page of results.
+     * @return String giving the opaque token, or null if there are no further results
+     */
+    public String getContinuationToken() { return continuationToken; }
+
+    /**
+     * Indicates whether there may be further results beyond this page.
+     * @return boolean
+     */
+    public boolean hasMore() { return continuationToken != null; }
+
+}
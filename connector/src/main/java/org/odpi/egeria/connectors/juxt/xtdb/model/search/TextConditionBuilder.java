@@ -69,6 +69,28 @@ public class TextConditionBuilder {
                                                                          String namespace,
                                                                          boolean luceneEnabled,
                                                                          boolean luceneRegexes) {
+        return buildWildcardTextCondition(regexCriteria, xtdbConnector, typesToInclude, namespace, luceneEnabled, luceneRegexes, null);
+    }
+
+    /**
+     * Add conditions to the search to find any text field that matches the supplied criteria (without a separate Lucene
+     * index).
+     * @param regexCriteria defining what should be matched
+     * @param xtdbConnector connectivity to the repository
+     * @param typesToInclude defining which type definitions should be included in the search (to limit the properties)
+     * @param namespace by which to qualify the properties
+     * @param luceneEnabled indicates whether Lucene search index is configured (true) or not (false)
+     * @param luceneRegexes indicates whether unquoted regexes should be treated as Lucene compatible (true) or not (false)
+     * @param query into which the conditions will be added, through which to bind any literal values (or null to embed them directly)
+     * @return {@code List<IPersistentCollection>} of condition(s) for the text matching
+     */
+    public static List<IPersistentCollection> buildWildcardTextCondition(String regexCriteria,
+                                                                         XtdbOMRSRepositoryConnector xtdbConnector,
+                                                                         Set<String> typesToInclude,
+                                                                         String namespace,
+                                                                         boolean luceneEnabled,
+                                                                         boolean luceneRegexes,
+                                                                         XtdbQuery query) {
 
         final String methodName = "addWildcardTextCondition";
         log.info("Falling back to a non-Lucene wildcard text condition (likely to be slow!): {}", regexCriteria);
@@ -121,7 +143,8 @@ public class TextConditionBuilder {
                         variable,
                         xtdbConnector,
                         luceneEnabled,
-                        luceneRegexes
+                        luceneRegexes,
+                        query
                 );
                 and.addAll(propertyConditions);
                 or.add(PersistentList.create(and));
@@ -137,7 +160,8 @@ public class TextConditionBuilder {
                         variable,
                         xtdbConnector,
                         luceneEnabled,
-                        luceneRegexes
+                        luceneRegexes,
+                        query
                 );
                 conditions.addAll(propertyConditions);
             }
@@ -162,6 +186,27 @@ public class TextConditionBuilder {
                                                                            Set<String> typesToInclude,
                                                                            String namespace,
                                                                            boolean luceneRegexes) {
+        return buildWildcardLuceneCondition(regexCriteria, xtdbConnector, typesToInclude, namespace, luceneRegexes, null);
+    }
+
+    /**
+     * Adds conditions to the search to find any text field that matches the supplied criteria (leveraging a separate
+     * Lucene index). (The Lucene search string itself is always embedded directly, as the Lucene predicates expect a
+     * literal query string.)
+     * @param regexCriteria defining what should be matched
+     * @param xtdbConnector connectivity to the repository
+     * @param typesToInclude defining which type definitions should be included in the search (to limit the properties)
+     * @param namespace by which to qualify the properties
+     * @param luceneRegexes indicates whether unquoted regexes should be treated as Lucene compatible (true) or not (false)
+     * @param query into which the conditions will be added, through which to bind any literal values (or null to embed them directly)
+     * @return {@code List<IPersistentCollection>} of condition(s) for the text matching
+     */
+    public static List<IPersistentCollection> buildWildcardLuceneCondition(String regexCriteria,
+                                                                           XtdbOMRSRepositoryConnector xtdbConnector,
+                                                                           Set<String> typesToInclude,
+                                                                           String namespace,
+                                                                           boolean luceneRegexes,
+                                                                           XtdbQuery query) {
 
         final OMRSRepositoryHelper repositoryHelper = xtdbConnector.getRepositoryHelper();
 
@@ -180,7 +225,8 @@ public class TextConditionBuilder {
                         typesToInclude,
                         namespace,
                         true,
-                        luceneRegexes
+                        luceneRegexes,
+                        query
                 );
             } else {
                 // Otherwise, it is some Lucene-supported search clause so we can run it directly via Lucene
@@ -284,6 +330,27 @@ public class TextConditionBuilder {
                                                             XtdbOMRSRepositoryConnector xtdbConnector,
                                                             boolean luceneEnabled,
                                                             boolean luceneRegexes) {
+        return buildRegexConditions(propertyRef, value, variable, xtdbConnector, luceneEnabled, luceneRegexes, null);
+    }
+
+    /**
+     * Retrieve the optimal regular expression query conditions for the provided inputs.
+     * @param propertyRef to compare
+     * @param value against which to compare
+     * @param variable to which to compare
+     * @param xtdbConnector connectivity to the repository
+     * @param luceneEnabled indicates whether Lucene search index is configured (true) or not (false)
+     * @param luceneRegexes indicates whether unquoted regexes should be treated as Lucene compatible (true) or not (false)
+     * @param query into which the conditions will be added, through which to bind any literal values (or null to embed them directly)
+     * @return {@code List<IPersistentCollection>} of the conditions
+     */
+    static List<IPersistentCollection> buildRegexConditions(Keyword propertyRef,
+                                                            InstancePropertyValue value,
+                                                            Symbol variable,
+                                                            XtdbOMRSRepositoryConnector xtdbConnector,
+                                                            boolean luceneEnabled,
+                                                            boolean luceneRegexes,
+                                                            XtdbQuery query) {
 
         final String methodName = "buildRegexConditions";
         List<IPersistentCollection> propertyConditions = new ArrayList<>();
@@ -301,7 +368,7 @@ public class TextConditionBuilder {
                 // If we are looking for an exact match, we will short-circuit out of this clause-based
                 // query and just do an equality condition -- should be faster
                 String unqualifiedLiteralString = repositoryHelper.getUnqualifiedLiteralString(regexSearchString);
-                propertyConditions.add(getEqualsConditions(propertyRef, unqualifiedLiteralString));
+                propertyConditions.add(getEqualsConditions(propertyRef, unqualifiedLiteralString, query));
                 return propertyConditions;
             } else if (luceneEnabled) {
                 // If Lucene is enabled, use it's search clauses here rather than reverting straight to a full Java regex
@@ -330,7 +397,7 @@ public class TextConditionBuilder {
             IPersistentVector enforceNonNullStringValue = PersistentVector.create(PersistentList.create(forceString), nonNullStringVar);
             clauseConditions.add(enforceNonNullStringValue);
             //  [(re-matches #"regex" s_variable)] - for a regex-based (string) predicate
-            List<Object> predicateComparison = getRegexCondition(regexSearchString, nonNullStringVar, repositoryHelper);
+            List<Object> predicateComparison = getRegexCondition(regexSearchString, nonNullStringVar, repositoryHelper, query);
             clauseConditions.add(PersistentVector.create(PersistentList.create(predicateComparison)));
             // No need to wrap anything here, will be handled by calling method(s)
             propertyConditions.add(propertyToVariable);
@@ -353,11 +420,13 @@ public class TextConditionBuilder {
      * @param regexSearchString regular expression to match against
      * @param variable whose value should be compared against
      * @param repositoryHelper through which we can introspect regular expressions
+     * @param query through which to bind the value to match (or null to embed it directly)
      * @return {@code List<Object>} of the condition
      */
     private static List<Object> getRegexCondition(String regexSearchString,
                                                   Symbol variable,
-                                                  OMRSRepositoryHelper repositoryHelper) {
+                                                  OMRSRepositoryHelper repositoryHelper,
+                                                  XtdbQuery query) {
         List<Object> predicateComparison = new ArrayList<>();
         // The equality case should already have been handled before coming into this method: we will now use
         // Clojure's built-in string comparisons for simple regexes (startsWith, contains, endsWith), and only
@@ -366,20 +435,20 @@ public class TextConditionBuilder {
         if (repositoryHelper.isStartsWithRegex(regexSearchString, false)) {
             predicateComparison.add(STARTS_WITH);
             predicateComparison.add(variable);
-            predicateComparison.add(repositoryHelper.getUnqualifiedLiteralString(regexSearchString));
+            predicateComparison.add(ConditionBuilder.bind(query, repositoryHelper.getUnqualifiedLiteralString(regexSearchString)));
         } else if (repositoryHelper.isContainsRegex(regexSearchString, false)) {
             predicateComparison.add(CONTAINS);
             predicateComparison.add(variable);
-            predicateComparison.add(repositoryHelper.getUnqualifiedLiteralString(regexSearchString));
+            predicateComparison.add(ConditionBuilder.bind(query, repositoryHelper.getUnqualifiedLiteralString(regexSearchString)));
         } else if (repositoryHelper.isEndsWithRegex(regexSearchString, false)) {
             predicateComparison.add(ENDS_WITH);
             predicateComparison.add(variable);
-            predicateComparison.add(repositoryHelper.getUnqualifiedLiteralString(regexSearchString));
+            predicateComparison.add(ConditionBuilder.bind(query, repositoryHelper.getUnqualifiedLiteralString(regexSearchString)));
         } else {
             // For all other regexes, we need a (predicate #"value" variable) pattern, so compile one
             Pattern regex = Pattern.compile(regexSearchString);
             predicateComparison.add(ConditionBuilder.REGEX_OPERATOR);
-            predicateComparison.add(regex);
+            predicateComparison.add(ConditionBuilder.bind(query, regex));
             predicateComparison.add(variable);
         }
         return predicateComparison;
@@ -499,10 +568,11 @@ public class TextConditionBuilder {
      * Retrieve conditions to match where the provided property's value equals the provided string value.
      * @param propertyRef whose value should be compared
      * @param value to compare against
+     * @param query through which to bind the value (or null to embed it directly)
      * @return IPersistentCollection giving the conditions
      */
-    private static IPersistentCollection getEqualsConditions(Keyword propertyRef, String value) {
-        return PersistentVector.create(XtdbQuery.DOC_ID, propertyRef, value);
+    private static IPersistentCollection getEqualsConditions(Keyword propertyRef, String value, XtdbQuery query) {
+        return PersistentVector.create(XtdbQuery.DOC_ID, propertyRef, ConditionBuilder.bind(query, value));
     }
 
 }
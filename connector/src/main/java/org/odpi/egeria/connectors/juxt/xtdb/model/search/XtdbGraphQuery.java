@@ -9,6 +9,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,6 +19,8 @@ import java.util.List;
 public class XtdbGraphQuery extends XtdbQuery {
 
     public static final Symbol RELATIONSHIP = Symbol.intern("r");
+    public static final Symbol ROOT_ENTITY = Symbol.intern("root");
+    private static final Symbol ROOT_ENTITIES = Symbol.intern("roots");
     private static final Keyword ENTITY_PROXIES = Keyword.intern(RelationshipMapping.ENTITY_PROXIES);
 
     /**
@@ -27,6 +30,14 @@ public class XtdbGraphQuery extends XtdbQuery {
         super();
     }
 
+    /**
+     * Constructor for a new query.
+     * @param parameterised true to bind literal values through the inputs of the query, false to embed them directly
+     */
+    public XtdbGraphQuery(boolean parameterised) {
+        super(parameterised);
+    }
+
     /**
      * Add condition(s) to limit the resulting relationships by the provided lists.
      * @param rootEntityGUID by which to narrow the relationships
@@ -45,6 +56,44 @@ public class XtdbGraphQuery extends XtdbQuery {
         addStatusLimiters(limitResultsByStatus, RELATIONSHIP);
     }
 
+    /**
+     * Add condition(s) to limit the resulting relationships to those related to any of the provided entities, so that
+     * the immediate neighbors of all of them can be found by a single query. For a parameterised query the root
+     * entities are bound as a collection through the inputs of the query, so the same template is used irrespective
+     * of how many root entities there are.
+     * @param rootEntityGUIDs by which to narrow the relationships (any one of which must be related)
+     * @param relationshipTypeGUIDs of relationship type definition GUIDs by which to limit the results
+     * @param limitResultsByStatus of relationship statuses by which to limit the results
+     */
+    public void addRelationshipLimiters(Collection<String> rootEntityGUIDs, List<String> relationshipTypeGUIDs, List<InstanceStatus> limitResultsByStatus) {
+        addFindElement(RELATIONSHIP);
+        List<String> rootRefs = new ArrayList<>(rootEntityGUIDs.size());
+        for (String rootEntityGUID : rootEntityGUIDs) {
+            rootRefs.add(EntitySummaryMapping.getReference(rootEntityGUID));
+        }
+        // [r :entityProxies e] [r :entityProxies root]
+        conditions.add(getRelatedToCondition());
+        conditions.add(PersistentVector.create(RELATIONSHIP, ENTITY_PROXIES, ROOT_ENTITY));
+        // :in [[root ...]]   ;; or if not parameterised:
+        // [(hash-set "e_..." "e_..." ...) roots] [(contains? roots root)]
+        conditions.addAll(getCollectionMembershipConditions(ROOT_ENTITIES, ROOT_ENTITY, rootRefs));
+        if (relationshipTypeGUIDs != null && !relationshipTypeGUIDs.isEmpty()) {
+            // [r :type.guids ...]
+            conditions.addAll(getTypeCondition(RELATIONSHIP, TypeDefCategory.RELATIONSHIP_DEF, null, relationshipTypeGUIDs));
+        }
+        addStatusLimiters(limitResultsByStatus, RELATIONSHIP);
+    }
+
+    /**
+     * Include the root entity through which each result was found in the results, so that each tuple in the results
+     * is of the form [e r root]. Only applicable to queries limited to related entities through a collection of root
+     * entities.
+     * @see #addRelationshipLimiters(Collection, List, List)
+     */
+    public void addRootEntityToResults() {
+        addFindElement(ROOT_ENTITY);
+    }
+
     /**
      * Add condition(s) to limit the resulting entities by the provided criteria.
      * @param entityTypeGUIDs entity type definitions by which to limit
@@ -76,7 +125,7 @@ public class XtdbGraphQuery extends XtdbQuery {
 
         if (limitByClassifications.size() == 1) {
             // If we need only match a single classification, add it directly
-            classificationConditions.add(PersistentVector.create(DOC_ID, classificationsRef, limitByClassifications.get(0)));
+            classificationConditions.add(PersistentVector.create(DOC_ID, classificationsRef, bind(limitByClassifications.get(0))));
         } else {
 
             // Otherwise, create a set of conditions looking up against a hash-set
@@ -84,19 +133,8 @@ public class XtdbGraphQuery extends XtdbQuery {
             Symbol classificationVar = Symbol.intern("classification");
             // [e :classifications classification]
             classificationConditions.add(PersistentVector.create(DOC_ID, classificationsRef, classificationVar));
-
-            List<Object> set = new ArrayList<>();
-            set.add(ConditionBuilder.SET_OPERATOR);
-            set.addAll(limitByClassifications);
-            // [(hash-set "..." "..." ...) cf]
-            classificationConditions.add(PersistentVector.create(PersistentList.create(set), setVar));
-
-            List<Object> contains = new ArrayList<>();
-            contains.add(Symbol.intern("contains?"));
-            contains.add(setVar);
-            contains.add(classificationVar);
-            // [(contains? cf classification)]
-            classificationConditions.add(PersistentVector.create(PersistentList.create(contains)));
+            // [(hash-set "..." "..." ...) cf] [(contains? cf classification)]
+            classificationConditions.addAll(getSetMembershipConditions(setVar, classificationVar, limitByClassifications));
 
         }
 
@@ -118,7 +156,7 @@ public class XtdbGraphQuery extends XtdbQuery {
      * @return PersistentVector for the condition
      */
     protected PersistentVector getRelatedToCondition(String literal) {
-        return PersistentVector.create(RELATIONSHIP, ENTITY_PROXIES, literal);
+        return PersistentVector.create(RELATIONSHIP, ENTITY_PROXIES, bind(literal));
     }
 
 }
@@ -4,6 +4,7 @@ package org.odpi.egeria.connectors.juxt.xtdb.model.search;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.QueryTemplateCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
@@ -16,6 +17,11 @@ import java.util.*;
 
 /**
  * Captures the structure of a query against XTDB.
+ *
+ * A parameterised query binds its literal values (GUIDs, ordinals, strings to compare against, etc) through the
+ * query's inputs rather than embedding them in its conditions, so that the resulting query depends only on its shape
+ * (the types searched, the operators of its conditions and its sequencing). Such queries are retrieved as a cached
+ * template, and must be run with the arguments retrieved through {@link #getArgs()}.
  */
 public class XtdbQuery {
 
@@ -29,22 +35,128 @@ public class XtdbQuery {
     public static final Keyword SORT_ASCENDING = Keyword.intern("asc");
     public static final Keyword SORT_DESCENDING = Keyword.intern("desc");
 
+    // Keyset paging
+    private static final Symbol KEYSET_RESULT = Symbol.intern("kr");
+    private static final Symbol KEYSET_LAST = Symbol.intern("kl");
+    private static final Symbol KEYSET_COMPARISON = Symbol.intern("kc");
+    private static final Symbol KEYSET_NUMBER = Symbol.intern("kn");
+    private static final Symbol KEYSET_STRING = Symbol.intern("ks");
+    private static final Symbol KEYSET_DATE = Symbol.intern("kd");
+    private static final Symbol VECTOR = Symbol.intern("vector");
+    private static final Symbol COMPARE = Symbol.intern("compare");
+    private static final Symbol POSITIVE = Symbol.intern("pos?");
+    private static final Symbol IS_NUMBER = Symbol.intern("number?");
+    private static final Symbol IS_STRING = Symbol.intern("string?");
+    private static final Symbol IS_DATE = Symbol.intern("inst?");
+
+    // Parameters (bound through the inputs of the query)
+    private static final String PARAMETER_PREFIX = "?p";
+    private static final Symbol ELLIPSIS = Symbol.intern("...");
+    private static final Object[] NO_ARGS = new Object[0];
+
     private IPersistentMap query;
     private final List<Symbol> findElements;
     protected final List<IPersistentCollection> conditions;
     protected final List<IPersistentCollection> rules;
     private final List<IPersistentVector> sequencing;
+    private final boolean parameterised;
+    private final Map<Symbol, Object> parameters;
+    private final Set<Symbol> collections;
+    private Object[] args;
 
     /**
      * Default constructor for a new query.
      */
     public XtdbQuery() {
+        this(false);
+    }
+
+    /**
+     * Constructor for a new query.
+     * @param parameterised true to bind literal values through the inputs of the query, false to embed them directly
+     */
+    public XtdbQuery(boolean parameterised) {
         query = PersistentArrayMap.EMPTY;
         findElements = new ArrayList<>();
         findElements.add(DOC_ID); // Always have the DocID itself as the first element, to ease parsing of results
         conditions = new ArrayList<>();
         rules = new ArrayList<>();
         sequencing = new ArrayList<>();
+        this.parameterised = parameterised;
+        parameters = new LinkedHashMap<>();
+        collections = new HashSet<>();
+        args = NO_ARGS;
+    }
+
+    /**
+     * Indicates whether the literal values of this query are bound through its inputs (true) or embedded directly in
+     * its conditions (false).
+     * @return boolean
+     */
+    public boolean isParameterised() {
+        return parameterised;
+    }
+
+    /**
+     * Retrieve the form by which to refer to the provided literal value within a condition: for a parameterised query
+     * this is a new input parameter bound to the value, otherwise it is simply the value itself.
+     * @param value to refer to
+     * @return Object giving the parameter (Symbol) or the value itself
+     */
+    public Object bind(Object value) {
+        if (!parameterised || value == null) {
+            return value;
+        }
+        Symbol parameter = Symbol.intern(PARAMETER_PREFIX + parameters.size());
+        parameters.put(parameter, value);
+        return parameter;
+    }
+
+    /**
+     * Retrieve the conditions needed to match the value of the provided variable to any of the provided values.
+     * @param setVar variable to which to assign the set of values
+     * @param variable whose value should be one of the provided values
+     * @param values any one of which should be matched
+     * @return {@code List<IPersistentCollection>} of the condition(s)
+     */
+    protected List<IPersistentCollection> getSetMembershipConditions(Symbol setVar, Symbol variable, Collection<?> values) {
+        List<IPersistentCollection> setConditions = new ArrayList<>();
+        List<Object> forceSet = new ArrayList<>();
+        forceSet.add(ConditionBuilder.SET_OPERATOR);
+        for (Object value : values) {
+            // Each member is bound individually (rather than the set as a whole), so that the members can still be
+            // embedded back into any nested clauses
+            forceSet.add(bind(value));
+        }
+        // [(hash-set "..." "..." ...) setVar]
+        setConditions.add(PersistentVector.create(PersistentList.create(forceSet), setVar));
+        List<Object> contains = new ArrayList<>();
+        contains.add(ConditionBuilder.IN_OPERATOR);
+        contains.add(setVar);
+        contains.add(variable);
+        // [(contains? setVar variable)]
+        setConditions.add(PersistentVector.create(PersistentList.create(contains)));
+        return setConditions;
+    }
+
+    /**
+     * Retrieve the conditions needed to match the value of the provided variable to any of the provided values. For a
+     * parameterised query the variable itself is bound to the collection of values through the inputs of the query
+     * (:in [[variable ...]]), so that no conditions are needed and the query's template does not depend on the number
+     * of values; otherwise this is the same as {@link #getSetMembershipConditions(Symbol, Symbol, Collection)}. Note
+     * that the variable must therefore be used within the top-level conditions of the query.
+     * @param setVar variable to which to assign the set of values (if not parameterised)
+     * @param variable whose value should be one of the provided values
+     * @param values any one of which should be matched
+     * @return {@code List<IPersistentCollection>} of the condition(s)
+     */
+    protected List<IPersistentCollection> getCollectionMembershipConditions(Symbol setVar, Symbol variable, Collection<?> values) {
+        if (!parameterised) {
+            return getSetMembershipConditions(setVar, variable, values);
+        }
+        parameters.put(variable, PersistentVector.create(values));
+        collections.add(variable);
+        return Collections.emptyList();
     }
 
     /**
@@ -62,7 +174,7 @@ public class XtdbQuery {
      * @return PersistentVector for the condition
      */
     protected PersistentVector getReferenceCondition(Keyword property, String reference) {
-        return PersistentVector.create(DOC_ID, property, reference);
+        return PersistentVector.create(DOC_ID, property, bind(reference));
     }
 
     /**
@@ -93,7 +205,7 @@ public class XtdbQuery {
             // If subtypes were specified, search only for those (explicitly)
             if (subtypeLimits.size() == 1) {
                 // If there is only one, set a condition against that directly
-                typeConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.TYPE_DEF_GUIDS), subtypeLimits.get(0)));
+                typeConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.TYPE_DEF_GUIDS), bind(subtypeLimits.get(0))));
             } else {
 
                 // If there are multiple, build a hash-set against which to compare
@@ -101,28 +213,17 @@ public class XtdbQuery {
                 Symbol typeVar = Symbol.intern("types");
                 // [e :type.guids types]
                 typeConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.TYPE_DEF_GUIDS), typeVar));
-
-                List<Object> set = new ArrayList<>();
-                set.add(ConditionBuilder.SET_OPERATOR);
-                set.addAll(subtypeLimits);
-                // [(hash-set "..." "..." ...) tf]
-                typeConditions.add(PersistentVector.create(PersistentList.create(set), setVar));
-
-                List<Object> contains = new ArrayList<>();
-                contains.add(Symbol.intern("contains?"));
-                contains.add(setVar);
-                contains.add(typeVar);
-                // [(contains? tf types)]
-                typeConditions.add(PersistentVector.create(PersistentList.create(contains)));
+                // [(hash-set "..." "..." ...) tf] [(contains? tf types)]
+                typeConditions.addAll(getSetMembershipConditions(setVar, typeVar, subtypeLimits));
 
             }
         } else if (typeGuid != null) {
             // Otherwise, if there is a typeGuid, search for any matches against the typeGuid exactly or where it is a supertype
-            typeConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.TYPE_DEF_GUIDS), typeGuid));
+            typeConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.TYPE_DEF_GUIDS), bind(typeGuid)));
         } else {
             // If a type GUID has not even been provided, then fallback to only limiting based on whether we want
             // instances of entities or relationships (but leave out if we have type GUIDs, as this is otherwise redundant)
-            typeConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.TYPE_DEF_CATEGORY), category.getOrdinal()));
+            typeConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.TYPE_DEF_CATEGORY), bind(category.getOrdinal())));
         }
         return typeConditions;
     }
@@ -159,7 +260,8 @@ public class XtdbQuery {
                 typeNames,
                 xtdbConnector,
                 luceneEnabled,
-                luceneRegexes
+                luceneRegexes,
+                this
         );
         addConditions(xtdbConditions);
     }
@@ -212,7 +314,7 @@ public class XtdbQuery {
                     String classificationName = condition.getName();
                     // TODO: if there are multiple classification names, is there a risk this is interpreted as an AND
                     //  that the entity needs to possess ALL of these classifications (irrespective of the MatchCriteria)?
-                    allConditions.add(PersistentVector.create(DOC_ID, Keyword.intern(namespace), classificationName));
+                    allConditions.add(PersistentVector.create(DOC_ID, Keyword.intern(namespace), bind(classificationName)));
                     String qualifiedNamespace = ClassificationMapping.getNamespaceForClassification(namespace, classificationName);
                     List<IPersistentCollection> matchConditions = ConditionBuilder.buildPropertyConditions(
                             condition.getMatchProperties(),
@@ -221,7 +323,8 @@ public class XtdbQuery {
                             typeNames,
                             xtdbConnector,
                             luceneEnabled,
-                            luceneRegexes
+                            luceneRegexes,
+                            this
                     );
                     if (matchConditions != null) {
                         allConditions.addAll(matchConditions);
@@ -279,26 +382,15 @@ public class XtdbQuery {
         if (!ordinals.isEmpty()) {
             if (ordinals.size() == 1) {
                 // If there is only a single status, set it as the sole condition
-                statusConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.CURRENT_STATUS), ordinals.get(0)));
+                statusConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.CURRENT_STATUS), bind(ordinals.get(0))));
             } else {
                 // Otherwise, create a set of conditions looking up against a hash-set
                 Symbol setVar = Symbol.intern("sf");
                 Symbol statusVar = Symbol.intern("status");
                 // [e :currentStatus status]
                 statusConditions.add(PersistentVector.create(variable, Keyword.intern(InstanceAuditHeaderMapping.CURRENT_STATUS), statusVar));
-
-                List<Object> set = new ArrayList<>();
-                set.add(ConditionBuilder.SET_OPERATOR);
-                set.addAll(ordinals);
-                // [(hash-set 1 2 ...) sf]
-                statusConditions.add(PersistentVector.create(PersistentList.create(set), setVar));
-
-                List<Object> contains = new ArrayList<>();
-                contains.add(Symbol.intern("contains?"));
-                contains.add(setVar);
-                contains.add(statusVar);
-                // [(contains? sf status)]
-                statusConditions.add(PersistentVector.create(PersistentList.create(contains)));
+                // [(hash-set 1 2 ...) sf] [(contains? sf status)]
+                statusConditions.addAll(getSetMembershipConditions(setVar, statusVar, ordinals));
 
             }
         }
@@ -417,14 +509,85 @@ public class XtdbQuery {
     }
 
     /**
-     * Retrieve the query object, as ready-to-be-submitted to XTDB API's query method.
+     * Ensure the results are totally ordered by also sorting on the document ID after any other sequencing. This is
+     * necessary for keyset paging, so that the last result of one page uniquely identifies where the next page starts.
+     * (If there is no other sequencing, this will order the results by document ID alone.)
+     */
+    public void addDocIdTieBreaker() {
+        boolean alreadySorted = false;
+        for (IPersistentVector sort : sequencing) {
+            if (DOC_ID.equals(sort.nth(0))) {
+                alreadySorted = true;
+                break;
+            }
+        }
+        if (!alreadySorted) {
+            sequencing.add(PersistentVector.create(DOC_ID, SORT_ASCENDING));
+        }
+    }
+
+    /**
+     * Add the conditions necessary to resume a keyset-paged query immediately after the provided position, rather
+     * than re-running the query and skipping over the earlier results. Requires the results to be totally ordered.
+     * @param lastSortValue the value of the sort element of the last result already returned (ignored if the query is
+     *                      not sequenced by anything other than document ID)
+     * @param lastDocRef the document ID of the last result already returned
+     * @param descending true if the sort element is sequenced in descending order, otherwise false
+     * @see #addDocIdTieBreaker()
+     */
+    public void addKeysetConditions(Object lastSortValue, String lastDocRef, boolean descending) {
+        Symbol sortElement = getSortElement();
+        if (sortElement == null) {
+            // [(compare e "last") kc]
+            conditions.add(PersistentVector.create(PersistentList.create(Arrays.asList(COMPARE, DOC_ID, bind(lastDocRef))), KEYSET_COMPARISON));
+        } else {
+            // Compare the [sort-value doc-id] pairs lexicographically, swapping the sort values when descending so
+            // that the sort element and the document ID (always ascending) can be compared in a single predicate.
+            // The kind of each sort value is compared ahead of the value itself, so that values of different types
+            // (for a property defined differently by different types) are never compared directly with each other
+            //  [(number? sp) kn]  [(string? sp) ks]  [(inst? sp) kd]
+            //  [(vector kn ks kd sp e) kr]  [(vector last-kn last-ks last-kd "last-sp" "last-e") kl]  [(compare kr kl) kc]
+            conditions.add(PersistentVector.create(PersistentList.create(Arrays.asList(IS_NUMBER, sortElement)), KEYSET_NUMBER));
+            conditions.add(PersistentVector.create(PersistentList.create(Arrays.asList(IS_STRING, sortElement)), KEYSET_STRING));
+            conditions.add(PersistentVector.create(PersistentList.create(Arrays.asList(IS_DATE, sortElement)), KEYSET_DATE));
+            List<Object> result = Arrays.asList(VECTOR, KEYSET_NUMBER, KEYSET_STRING, KEYSET_DATE, sortElement);
+            List<Object> last = Arrays.asList(VECTOR,
+                    bind(lastSortValue instanceof Number),
+                    bind(lastSortValue instanceof String),
+                    bind(lastSortValue instanceof Date),
+                    bind(lastSortValue));
+            List<Object> left = new ArrayList<>(descending ? last : result);
+            List<Object> right = new ArrayList<>(descending ? result : last);
+            left.add(DOC_ID);
+            right.add(bind(lastDocRef));
+            conditions.add(PersistentVector.create(PersistentList.create(left), KEYSET_RESULT));
+            conditions.add(PersistentVector.create(PersistentList.create(right), KEYSET_LAST));
+            conditions.add(PersistentVector.create(PersistentList.create(Arrays.asList(COMPARE, KEYSET_RESULT, KEYSET_LAST)), KEYSET_COMPARISON));
+        }
+        // [(pos? kc)]
+        conditions.add(PersistentVector.create(PersistentList.create(Arrays.asList(POSITIVE, KEYSET_COMPARISON))));
+    }
+
+    /**
+     * Retrieve the element (other than the document ID) by which the results are sequenced, if any. This will always
+     * be the second element of each result, given only a single sequencing can be applied.
+     * @return Symbol of the sort element, or null if the query is not sequenced by anything other than document ID
+     */
+    public Symbol getSortElement() {
+        return findElements.size() > 1 ? findElements.get(1) : null;
+    }
+
+    /**
+     * Retrieve the query object, as ready-to-be-submitted to XTDB API's query method (along with any arguments from
+     * {@link #getArgs()}).
      * @return IPersistentMap containing the query
      */
     public IPersistentMap getQuery() {
+        List<IPersistentCollection> where = parameterised ? getTemplateConditions() : conditions;
         // Add the elements to be found:  :find [ e ... ]
         query = query.assoc(Keyword.intern("find"), PersistentVector.create(findElements));
         // Add the conditions to the query:  :where [[ ... condition ...], [ ... condition ... ], ... ]
-        query = query.assoc(Keyword.intern("where"), PersistentVector.create(conditions));
+        query = query.assoc(Keyword.intern("where"), PersistentVector.create(where));
         // Add the rules information to the query:  :rules [[ ... ]]
         if (rules != null && !rules.isEmpty()) {
             query = query.assoc(Keyword.intern("rules"), PersistentVector.create(rules));
@@ -433,9 +596,94 @@ public class XtdbQuery {
         if (sequencing != null && !sequencing.isEmpty()) {
             query = query.assoc(Keyword.intern("order-by"), PersistentVector.create(sequencing));
         }
+        if (parameterised) {
+            // Add the parameters through which the literal values are bound:  :in [ ?p0 ... [v ...] ... ]
+            List<Object> inputs = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            for (IPersistentCollection condition : where) {
+                collectParameters(condition, inputs, values);
+            }
+            if (!inputs.isEmpty()) {
+                query = query.assoc(Keyword.intern("in"), PersistentVector.create(inputs));
+            }
+            args = values.toArray();
+            query = QueryTemplateCache.intern(query);
+        }
         return query;
     }
 
+    /**
+     * Retrieve the arguments to bind to the inputs of the query, in the order they are defined by the query. Only
+     * applicable once the query has been retrieved through {@link #getQuery()}.
+     * @return Object[] of arguments (empty if the query is not parameterised)
+     */
+    public Object[] getArgs() {
+        return args;
+    }
+
+    /**
+     * Retrieve the conditions of a parameterised query. Parameters can only be bound at the top level of the
+     * conditions: the clauses within an or-join or not-join only see the variables they explicitly join on, so any
+     * literal values within these (or any other nested clauses) are embedded back into them directly.
+     * @return {@code List<IPersistentCollection>} of the conditions
+     */
+    private List<IPersistentCollection> getTemplateConditions() {
+        List<IPersistentCollection> where = new ArrayList<>(conditions.size());
+        for (IPersistentCollection condition : conditions) {
+            if (condition instanceof IPersistentList) {
+                where.add((IPersistentCollection) embedParameters(condition));
+            } else {
+                where.add(condition);
+            }
+        }
+        return where;
+    }
+
+    /**
+     * Replace any parameters within the provided form with the literal values to which they are bound.
+     * @param form in which to replace parameters
+     * @return Object giving the form with the values embedded
+     */
+    private Object embedParameters(Object form) {
+        if (form instanceof Symbol && parameters.containsKey(form)) {
+            return parameters.get(form);
+        } else if (form instanceof IPersistentList || form instanceof IPersistentVector) {
+            List<Object> embedded = new ArrayList<>();
+            for (Object element : (List<?>) form) {
+                embedded.add(embedParameters(element));
+            }
+            return form instanceof IPersistentList ? PersistentList.create(embedded) : PersistentVector.create(embedded);
+        }
+        return form;
+    }
+
+    /**
+     * Retrieve the input through which the provided parameter is bound: a collection is bound (as a whole) through a
+     * collection binding [v ...], and any other value through a scalar binding.
+     * @param parameter for which to retrieve the input
+     * @return Object giving the input
+     */
+    private Object getInput(Symbol parameter) {
+        return collections.contains(parameter) ? PersistentVector.create(parameter, ELLIPSIS) : parameter;
+    }
+
+    /**
+     * Collect the parameters (and the values to which they are bound) used within the provided form.
+     * @param form in which to find parameters
+     * @param inputs to which to add the parameters found
+     * @param values to which to add the values of the parameters found (in the same order as the inputs)
+     */
+    private void collectParameters(Object form, List<Object> inputs, List<Object> values) {
+        if (form instanceof Symbol && parameters.containsKey(form) && !inputs.contains(getInput((Symbol) form))) {
+            inputs.add(getInput((Symbol) form));
+            values.add(parameters.get(form));
+        } else if (form instanceof IPersistentList || form instanceof IPersistentVector) {
+            for (Object element : (List<?>) form) {
+                collectParameters(element, inputs, values);
+            }
+        }
+    }
+
     /**
      * Add the specified symbol to the list of those that are discovered by the search conditions (if not already in
      * the list)
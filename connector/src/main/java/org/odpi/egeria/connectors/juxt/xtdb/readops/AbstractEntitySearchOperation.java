@@ -5,7 +5,9 @@ package org.odpi.egeria.connectors.juxt.xtdb.readops;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
-import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.ContinuationToken;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.SearchPage;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
@@ -14,9 +16,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import xtdb.api.IXtdb;
 import xtdb.api.IXtdbDatasource;
-import xtdb.api.XtdbDocument;
 
 import java.io.IOException;
 import java.util.*;
@@ -54,6 +54,41 @@ public abstract class AbstractEntitySearchOperation extends AbstractSearchOperat
                 userId);
     }
 
+    /**
+     * Create a new keyset-paged search operation.
+     * @param xtdb connectivity to XTDB
+     * @param entityTypeGUID unique identifier of a type definition by which to limit results
+     * @param continuation the position from which to continue the search (or null to retrieve the first page)
+     * @param limitResultsByStatus list of statuses by which to limit results
+     * @param matchClassifications classification criteria by which to limit results
+     * @param asOfTime the point-in-time for which to retrieve results (only applicable to the first page)
+     * @param sequencingProperty the name of the property by which to sort results (only applicable when sorting by property)
+     * @param sequencingOrder the mechanism to use for sorting results
+     * @param pageSize the number of results to include per page
+     * @param userId executing the search
+     */
+    protected AbstractEntitySearchOperation(XtdbOMRSRepositoryConnector xtdb,
+                                            String entityTypeGUID,
+                                            ContinuationToken continuation,
+                                            List<InstanceStatus> limitResultsByStatus,
+                                            SearchClassifications matchClassifications,
+                                            Date asOfTime,
+                                            String sequencingProperty,
+                                            SequencingOrder sequencingOrder,
+                                            int pageSize,
+                                            String userId) {
+        super(xtdb,
+                entityTypeGUID,
+                continuation,
+                limitResultsByStatus,
+                matchClassifications,
+                asOfTime,
+                sequencingProperty,
+                sequencingOrder,
+                pageSize,
+                userId);
+    }
+
     /**
      * Public interface through which to execute the search operation, which should populate the 'xtdbResults'
      * protected member of this class.
@@ -62,30 +97,42 @@ public abstract class AbstractEntitySearchOperation extends AbstractSearchOperat
      * @throws RepositoryErrorException on any error with the read operation, either closing the datasource or timing out
      */
     public List<EntityDetail> getResults() throws TypeErrorException, RepositoryErrorException {
-        if (existingDB != null) {
-            try {
-                Collection<List<?>> xtdbResults = runQuery(existingDB);
-                log.debug(Constants.FOUND_RESULTS, xtdbResults);
-                return translateResults(xtdbResults, existingDB);
-            } catch (TimeoutException e) {
-                throw new RepositoryTimeoutException(XtdbOMRSErrorCode.QUERY_TIMEOUT.getMessageDefinition(xtdb.getRepositoryName()),
-                        this.getClass().getName(), this.getClass().getName(), e);
-            }
-        } else {
-            List<EntityDetail> results;
-            IXtdb xtdbAPI = xtdb.getXtdbAPI();
-            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-                Collection<List<?>> xtdbResults = runQuery(db);
-                log.debug(Constants.FOUND_RESULTS, xtdbResults);
-                results = translateResults(xtdbResults, db);
-            } catch (IOException e) {
-                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                        this.getClass().getName(), this.getClass().getName(), e);
-            } catch (TimeoutException e) {
-                throw new RepositoryTimeoutException(XtdbOMRSErrorCode.QUERY_TIMEOUT.getMessageDefinition(""),
-                        this.getClass().getName(), this.getClass().getName(), e);
+        return getPage().getResults();
+    }
+
+    /**
+     * Execute the search operation, retrieving a single page of results along with the token from which to retrieve
+     * the next page (only when keyset paging).
+     * @return {@code SearchPage<EntityDetail>} page of results in Egeria form
+     * @throws TypeErrorException if a requested type for searching is not known to the repository
+     * @throws RepositoryErrorException on any error with the read operation, either closing the datasource or timing out
+     */
+    public SearchPage<EntityDetail> getPage() throws TypeErrorException, RepositoryErrorException {
+        try (OperationTimer timer = startTimer()) {
+            if (existingDB != null) {
+                try {
+                    Collection<List<?>> xtdbResults = runQuery(existingDB);
+                    log.debug(Constants.FOUND_RESULTS, xtdbResults);
+                    return timer.succeeded(new SearchPage<>(translateResults(xtdbResults, existingDB), getContinuationToken(existingDB, xtdbResults)));
+                } catch (TimeoutException e) {
+                    throw new RepositoryTimeoutException(XtdbOMRSErrorCode.QUERY_TIMEOUT.getMessageDefinition(xtdb.getRepositoryName()),
+                            this.getClass().getName(), this.getClass().getName(), e);
+                }
+            } else {
+                SearchPage<EntityDetail> results;
+                try (IXtdbDatasource db = openDatasource()) {
+                    Collection<List<?>> xtdbResults = runQuery(db);
+                    log.debug(Constants.FOUND_RESULTS, xtdbResults);
+                    results = new SearchPage<>(translateResults(xtdbResults, db), getContinuationToken(db, xtdbResults));
+                } catch (IOException e) {
+                    throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                            this.getClass().getName(), this.getClass().getName(), e);
+                } catch (TimeoutException e) {
+                    throw new RepositoryTimeoutException(XtdbOMRSErrorCode.QUERY_TIMEOUT.getMessageDefinition(""),
+                            this.getClass().getName(), this.getClass().getName(), e);
+                }
+                return timer.succeeded(results);
             }
-            return results;
         }
     }
 
@@ -101,31 +148,23 @@ public abstract class AbstractEntitySearchOperation extends AbstractSearchOperat
         List<EntityDetail> results = null;
         if (xtdbResults != null) {
             results = new ArrayList<>();
+            List<String> docRefs = new ArrayList<>();
             for (List<?> xtdbResult : xtdbResults) {
-                String docRef = (String) xtdbResult.get(0);
-                XtdbDocument xtdbDoc = getXtdbObjectByReference(db, docRef);
-                if (xtdbDoc == null) {
+                docRefs.add((String) xtdbResult.get(0));
+            }
+            Map<String, EntityDetail> entities = GetEntity.detailsByRefs(xtdb, db, docRefs);
+            for (String docRef : docRefs) {
+                EntityDetail ed = entities.get(docRef);
+                if (ed != null) {
+                    results.add(ed);
+                } else {
                     xtdb.logProblem(this.getClass().getName(),
                             methodName,
                             XtdbOMRSAuditCode.MAPPING_FAILURE,
                             null,
                             "entity",
                             docRef,
-                            "cannot be retrieved from XTDB");
-                } else {
-                    EntityDetailMapping edm = new EntityDetailMapping(xtdb, xtdbDoc);
-                    EntityDetail ed = edm.toEgeria();
-                    if (ed != null) {
-                        results.add(ed);
-                    } else {
-                        xtdb.logProblem(this.getClass().getName(),
-                                methodName,
-                                XtdbOMRSAuditCode.MAPPING_FAILURE,
-                                null,
-                                "entity",
-                                docRef,
-                                "cannot be mapped to EntityDetail");
-                    }
+                            "cannot be retrieved from XTDB or mapped to EntityDetail");
                 }
             }
         }
@@ -6,7 +6,10 @@ import clojure.lang.IPersistentMap;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntitySummaryMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceHeaderMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.QueryProfile;
 import org.odpi.egeria.connectors.juxt.xtdb.model.search.XtdbGraphQuery;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
@@ -14,9 +17,11 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import xtdb.api.IXtdbDatasource;
+import xtdb.api.XtdbDocument;
 
 import java.util.*;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
 
 /**
  * Base class that all graph operations should implement.
@@ -66,15 +71,54 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
             EntityNotKnownException,
             RepositoryErrorException {
 
-        final String methodName = "findNeighborhood";
-
         Set<List<?>> consolidated = new LinkedHashSet<>();
+        traverse(db,
+                entityTypeGUIDs,
+                relationshipTypeGUIDs,
+                limitResultsByClassification,
+                level,
+                nextGraph -> {
+                    // Add each subset of results into the consolidated set of results
+                    consolidated.addAll(nextGraph);
+                    return true;
+                });
 
         Set<String> entityGUIDsRetrieved = new HashSet<>();
         Set<String> relationshipGUIDsRetrieved = new HashSet<>();
+        entityGUIDsRetrieved.add(startEntityGUID);
+        return resultsToGraph(db, consolidated, entityGUIDsRetrieved, relationshipGUIDsRetrieved, includeRelationships);
+
+    }
+
+    /**
+     * Traverse the entities and relationships that radiate out from the supplied entity GUID, one level at a time,
+     * handing each level to the provided visitor as soon as it has been found (so that the traversal can stop as soon
+     * as the visitor has found all it needs). The results are scoped by the provided type GUIDs, other limiters, and
+     * the level.
+     * @param db already-opened point-in-time view of the datasource from which to retrieve
+     * @param entityTypeGUIDs list of entity types to include in the query results (null means include all)
+     * @param relationshipTypeGUIDs list of relationship types to include in the query results (null means include all)
+     * @param limitResultsByClassification list of classifications that must be present on all returned entities
+     * @param level the number of relationships out from the starting entity that
+     * @param visitor given the graph tuples [[:entityRef :relationshipRef]] of each level, and returning true to
+     *                continue on to the next level or false to stop the traversal
+     * @throws EntityNotKnownException if the starting point of the neighborhood traversals cannot be found in the repository
+     * @throws RepositoryErrorException if any issue closing open XTDB resources, or if the query runs longer than the defined threshold (default: 30s)
+     */
+    protected void traverse(IXtdbDatasource db,
+                            List<String> entityTypeGUIDs,
+                            List<String> relationshipTypeGUIDs,
+                            List<String> limitResultsByClassification,
+                            int level,
+                            Predicate<Set<List<?>>> visitor) throws
+            EntityNotKnownException,
+            RepositoryErrorException {
+
+        final String methodName = "traverse";
+
         Set<String> entityGUIDsVisited = new HashSet<>();
         Set<String> relationshipGUIDsVisited = new HashSet<>();
-        List<String> nextEntityGUIDs = new ArrayList<>();
+        Set<String> nextEntityGUIDs = new LinkedHashSet<>();
         nextEntityGUIDs.add(startEntityGUID);
 
         EntitySummary startingEntity = GetEntity.summaryByGuid(xtdb, db, startEntityGUID);
@@ -84,8 +128,6 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
                     this.getClass().getName(), methodName);
         }
 
-        entityGUIDsRetrieved.add(startEntityGUID);
-
         int levelTraversed = 0;
         int totalLevels = level;
         if (totalLevels < 0) {
@@ -93,49 +135,47 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
             // We will set a maximum...
             totalLevels = Constants.MAX_TRAVERSAL_DEPTH;
         }
-        if (totalLevels > 0) {
-
-            do {
-                Set<List<?>> nextGraph = getNextLevelNeighbors(db,
-                        nextEntityGUIDs,
-                        entityTypeGUIDs,
-                        relationshipTypeGUIDs,
-                        limitResultsByStatus,
-                        limitResultsByClassification,
-                        entityGUIDsVisited,
-                        relationshipGUIDsVisited);
-                entityGUIDsVisited.addAll(nextEntityGUIDs);
-                levelTraversed++;
-                // Add this subset of results into the consolidated set of results
-                consolidated.addAll(nextGraph);
-                // Retrieve the next set of entity GUIDs to traverse, but remove any already-visited ones from
-                // the list prior to iterating again
-                nextEntityGUIDs = getEntityGUIDsFromGraphResults(nextGraph);
-                nextEntityGUIDs.removeAll(entityGUIDsVisited);
-                // Once we either run out of GUIDs to traverse, or we've reached the desired level, we stop iterating
-            } while (!nextEntityGUIDs.isEmpty() && levelTraversed < totalLevels);
+        boolean proceed = totalLevels > 0;
+        while (proceed) {
+            // Traverse level-by-level: the entire frontier is expanded by a single query per level
+            entityGUIDsVisited.addAll(nextEntityGUIDs);
+            Set<List<?>> nextGraph = getNextLevelNeighbors(db,
+                    nextEntityGUIDs,
+                    entityTypeGUIDs,
+                    relationshipTypeGUIDs,
+                    limitResultsByStatus,
+                    limitResultsByClassification,
+                    entityGUIDsVisited,
+                    relationshipGUIDsVisited);
+            levelTraversed++;
+            // Hand this subset of results to the visitor
+            proceed = visitor.test(nextGraph);
+            // Retrieve the next set of entity GUIDs to traverse, but remove any already-visited ones from
+            // the list prior to iterating again
+            nextEntityGUIDs = getEntityGUIDsFromGraphResults(nextGraph);
+            nextEntityGUIDs.removeAll(entityGUIDsVisited);
+            // Once we either run out of GUIDs to traverse, or we've reached the desired level, we stop iterating
+            proceed = proceed && !nextEntityGUIDs.isEmpty() && levelTraversed < totalLevels;
         }
 
-        return resultsToGraph(db, consolidated, entityGUIDsRetrieved, relationshipGUIDsRetrieved, includeRelationships);
-
     }
 
     /**
-     * Find the entities and relationships that radiate out directly from the supplied list of entity GUIDs.
+     * Find the entities and relationships that radiate out directly from the supplied entity GUIDs, all at once.
      * The results are scoped by the provided type GUIDs, other limiters, and the level.
      * @param db already opened point-in-time view of the database
-     * @param startingPoints list of entity GUIDs from which we should start radiating outwards
+     * @param startingPoints entity GUIDs from which we should start radiating outwards (the frontier)
      * @param entityTypeGUIDs list of entity types to include in the query results (null means include all)
      * @param relationshipTypeGUIDs list of relationship types to include in the query results (null means include all)
      * @param limitResultsByStatus list of statuses to restrict results (null means include all)
      * @param limitResultsByClassification list of classifications that must be present on all returned entities
-     * @param entityGUIDsVisited set of unique identifiers of entities that have already been visited
+     * @param entityGUIDsVisited set of unique identifiers of entities that have already been visited (including the starting points)
      * @param relationshipGUIDsVisited set of unique identifiers of relationships that have already been visited
      * @return {@code Set<List<?>>} of the immediate neighbors of the specified starting point GUIDs, as graph tuples [[:entityRef :relationshipRef]]
      * @throws RepositoryTimeoutException if the query runs longer than the defined threshold (default: 30s)
      */
     protected Set<List<?>> getNextLevelNeighbors(IXtdbDatasource db,
-                                                 List<String> startingPoints,
+                                                 Collection<String> startingPoints,
                                                  List<String> entityTypeGUIDs,
                                                  List<String> relationshipTypeGUIDs,
                                                  List<InstanceStatus> limitResultsByStatus,
@@ -147,29 +187,29 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
         Set<List<?>> consolidated = new LinkedHashSet<>();
 
         try {
-            // Iterate through the provided starting entity starting points to retrieve the next level of neighbors
-            for (String entityGUID : startingPoints) {
-                // Results here will be a collection of tuples: [:entity/... :relationship/...]
-                Collection<List<?>> nextDegree = findDirectNeighbors(db,
-                        entityGUID,
-                        entityTypeGUIDs,
-                        relationshipTypeGUIDs,
-                        limitResultsByStatus,
-                        limitResultsByClassification);
-                log.debug("Found neighborhood results: {}", nextDegree);
-                for (List<?> candidateTuple : nextDegree) {
-                    String candidateEntityRef = getEntityRefFromGraphTuple(candidateTuple);
-                    String candidateRelationshipRef = getRelationshipRefFromGraphTuple(candidateTuple);
-                    String entityGuid = InstanceHeaderMapping.trimGuidFromReference(candidateEntityRef);
-                    String relationshipGuid = InstanceHeaderMapping.trimGuidFromReference(candidateRelationshipRef);
-                    if (!entityGUIDsVisited.contains(entityGuid) || !relationshipGUIDsVisited.contains(relationshipGuid)) {
-                        // If either the entity or the relationship has not been seen, add the tuple
-                        consolidated.add(candidateTuple);
-                        entityGUIDsVisited.add(entityGUID);
-                        relationshipGUIDsVisited.add(relationshipGuid);
-                    }
+            // Results here will be a collection of tuples, for all the starting points: [:entity/... :relationship/...]
+            Collection<List<?>> nextDegree = findDirectNeighbors(db,
+                    startingPoints,
+                    entityTypeGUIDs,
+                    relationshipTypeGUIDs,
+                    limitResultsByStatus,
+                    limitResultsByClassification);
+            log.debug("Found neighborhood results: {}", nextDegree);
+            Set<String> relationshipGUIDsFound = new HashSet<>();
+            for (List<?> candidateTuple : nextDegree) {
+                String candidateEntityRef = getEntityRefFromGraphTuple(candidateTuple);
+                String candidateRelationshipRef = getRelationshipRefFromGraphTuple(candidateTuple);
+                String entityGuid = InstanceHeaderMapping.trimGuidFromReference(candidateEntityRef);
+                String relationshipGuid = InstanceHeaderMapping.trimGuidFromReference(candidateRelationshipRef);
+                if (!entityGUIDsVisited.contains(entityGuid) || !relationshipGUIDsVisited.contains(relationshipGuid)) {
+                    // If either the entity or the relationship has not been seen, add the tuple
+                    consolidated.add(candidateTuple);
+                    relationshipGUIDsFound.add(relationshipGuid);
                 }
             }
+            // Only mark the relationships as visited once the whole level has been processed, so that both ends of
+            // a relationship between two entities on the frontier are retained
+            relationshipGUIDsVisited.addAll(relationshipGUIDsFound);
         } catch (TimeoutException e) {
             throw new RepositoryTimeoutException(XtdbOMRSErrorCode.QUERY_TIMEOUT.getMessageDefinition(xtdb.getRepositoryName()),
                     this.getClass().getName(), methodName, e);
@@ -180,9 +220,10 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
     }
 
     /**
-     * Find the immediate neighbors (1-degree separated entities and the relationships between) using the provided criteria.
+     * Find the immediate neighbors (1-degree separated entities and the relationships between) of any of the provided
+     * entities using the provided criteria, through a single query.
      * @param db already opened point-in-view of the database
-     * @param entityGUID of the entity for which to find immediate relationships
+     * @param entityGUIDs of the entities for which to find immediate relationships
      * @param entityTypeGUIDs of the entity type definitions by which to restrict entities in the results
      * @param relationshipTypeGUIDs of the relationship type definitions by which to restrict relationships in the results
      * @param limitResultsByStatus by which to limit relationships
@@ -191,17 +232,22 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
      * @throws TimeoutException if the query runs longer than the defined threshold (default: 30s)
      */
     protected Collection<List<?>> findDirectNeighbors(IXtdbDatasource db,
-                                                      String entityGUID,
+                                                      Collection<String> entityGUIDs,
                                                       List<String> entityTypeGUIDs,
                                                       List<String> relationshipTypeGUIDs,
                                                       List<InstanceStatus> limitResultsByStatus,
                                                       List<String> limitResultsByClassification) throws TimeoutException {
-        XtdbGraphQuery query = new XtdbGraphQuery();
-        query.addRelationshipLimiters(entityGUID, relationshipTypeGUIDs, limitResultsByStatus);
+        QueryProfile profile = startQuery();
+        XtdbGraphQuery query = new XtdbGraphQuery(true);
+        query.addRelationshipLimiters(entityGUIDs, relationshipTypeGUIDs, limitResultsByStatus);
         query.addEntityLimiters(entityTypeGUIDs, limitResultsByClassification, limitResultsByStatus);
         IPersistentMap q = query.getQuery();
+        profile.built(q, query.getArgs());
         log.debug(Constants.QUERY_WITH, q);
-        return db.query(q);
+        Collection<List<?>> results = db.query(q, query.getArgs());
+        profile.executed();
+        profile.completed(results);
+        return results;
     }
 
     /**
@@ -221,66 +267,72 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
 
         final String methodName = "resultsToGraph";
 
-        // Start the InstanceGraph off with the entity starting point that was requested
+        // Gather the distinct entities and relationships, in the order they were found, starting the InstanceGraph
+        // off with the entity starting point that was requested
         // (not clear if this is the intended logic, but follows other repository implementations)
-        InstanceGraph results = new InstanceGraph();
-        List<EntityDetail> entities = new ArrayList<>();
-        List<Relationship> relationships = new ArrayList<>();
-        try {
-            EntityDetail startingEntity = GetEntity.detailByGuid(xtdb, db, startEntityGUID);
-            entities.add(startingEntity);
-        } catch (EntityProxyOnlyException e) {
-            log.debug("Starting entity for traversals was only a proxy, not adding it to results: {}", startEntityGUID);
-        }
+        List<String> entityRefs = new ArrayList<>();
+        List<String> relationshipRefs = new ArrayList<>();
+        entityRefs.add(EntitySummaryMapping.getReference(startEntityGUID));
         entityGUIDsVisited.add(startEntityGUID);
-
         if (xtdbResults != null) {
-
             for (List<?> xtdbResult : xtdbResults) {
                 String entityRef = getEntityRefFromGraphTuple(xtdbResult);
-                String entityGuid = InstanceHeaderMapping.trimGuidFromReference(entityRef);
-                if (!entityGUIDsVisited.contains(entityGuid)) {
-                    try {
-                        EntityDetail entity = GetEntity.detailByRef(xtdb, db, entityRef);
-                        if (entity == null) {
-                            xtdb.logProblem(this.getClass().getName(),
-                                    methodName,
-                                    XtdbOMRSAuditCode.MAPPING_FAILURE,
-                                    null,
-                                    "entity",
-                                    entityRef,
-                                    "cannot be translated to EntityDetail");
-                        } else {
-                            entities.add(entity);
-                        }
-                    } catch (EntityProxyOnlyException e) {
-                        log.debug("Found only a proxy in graph traversal, not including in results: {}", entityGuid);
-                    }
-                    entityGUIDsVisited.add(entityGuid);
+                if (entityGUIDsVisited.add(InstanceHeaderMapping.trimGuidFromReference(entityRef))) {
+                    entityRefs.add(entityRef);
                 }
                 if (includeRelationships) {
                     String relationshipRef = getRelationshipRefFromGraphTuple(xtdbResult);
-                    String relationshipGuid = InstanceHeaderMapping.trimGuidFromReference(relationshipRef);
-                    if (!relationshipGUIDsVisited.contains(relationshipGuid)) {
-                        Relationship relationship = GetRelationship.byRef(xtdb, db, relationshipRef);
-                        relationshipGUIDsVisited.add(relationshipGuid);
-                        if (relationship == null) {
-                            xtdb.logProblem(this.getClass().getName(),
-                                    methodName,
-                                    XtdbOMRSAuditCode.MAPPING_FAILURE,
-                                    null,
-                                    "relationship",
-                                    relationshipRef,
-                                    "cannot be translated to Relationship");
-                        } else {
-                            relationships.add(relationship);
-                        }
+                    if (relationshipGUIDsVisited.add(InstanceHeaderMapping.trimGuidFromReference(relationshipRef))) {
+                        relationshipRefs.add(relationshipRef);
                     }
                 }
             }
+        }
+
+        // Then retrieve all of them at once: the documents retrieved for the entities are re-used for the proxies
+        // at either end of the relationships, so that each document is retrieved (at most) once
+        Map<String, XtdbDocument> retrieved = new HashMap<>();
+        Map<String, EntityDetail> entityDetails = GetEntity.detailsByRefs(xtdb, db, entityRefs, retrieved);
+        Map<String, Relationship> relationshipDetails = includeRelationships
+                ? GetRelationship.byRefs(xtdb, db, relationshipRefs, retrieved)
+                : Collections.emptyMap();
 
+        // Finally, translate them into the graph (in the order they were found)
+        List<EntityDetail> entities = new ArrayList<>();
+        for (String entityRef : entityRefs) {
+            EntityDetail entity = entityDetails.get(entityRef);
+            XtdbDocument entityDoc = retrieved.get(entityRef);
+            if (entity != null) {
+                entities.add(entity);
+            } else if (entityDoc != null && EntityProxyMapping.isOnlyAProxy(entityDoc)) {
+                log.debug("Found only a proxy in graph traversal, not including in results: {}", entityRef);
+            } else {
+                xtdb.logProblem(this.getClass().getName(),
+                        methodName,
+                        XtdbOMRSAuditCode.MAPPING_FAILURE,
+                        null,
+                        "entity",
+                        entityRef,
+                        "cannot be translated to EntityDetail");
+            }
+        }
+        List<Relationship> relationships = new ArrayList<>();
+        for (String relationshipRef : relationshipRefs) {
+            Relationship relationship = relationshipDetails.get(relationshipRef);
+            if (relationship != null) {
+                relationships.add(relationship);
+            } else {
+                xtdb.logProblem(this.getClass().getName(),
+                        methodName,
+                        XtdbOMRSAuditCode.MAPPING_FAILURE,
+                        null,
+                        "relationship",
+                        relationshipRef,
+                        "cannot be translated to Relationship");
+            }
         }
 
+        InstanceGraph results = new InstanceGraph();
         results.setEntities(entities);
         results.setRelationships(relationships);
         return results;
@@ -290,20 +342,17 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
     /**
      * Retrieve the unique set of entity GUIDs from the provided graph query results.
      * @param xtdbResults graph query results
-     * @return {@code List<String>}
+     * @return {@code Set<String>}
      */
-    private List<String> getEntityGUIDsFromGraphResults(Collection<List<?>> xtdbResults) {
-        List<String> list = new ArrayList<>();
+    private Set<String> getEntityGUIDsFromGraphResults(Collection<List<?>> xtdbResults) {
+        Set<String> guids = new LinkedHashSet<>();
         for (List<?> result : xtdbResults) {
             String entityRef = getEntityRefFromGraphTuple(result);
             if (entityRef != null) {
-                String guid = InstanceHeaderMapping.trimGuidFromReference(entityRef);
-                if (!list.contains(guid)) {
-                    list.add(guid);
-                }
+                guids.add(InstanceHeaderMapping.trimGuidFromReference(entityRef));
             }
         }
-        return list;
+        return guids;
     }
 
     /**
@@ -320,7 +369,7 @@ public abstract class AbstractGraphOperation extends AbstractReadOperation {
      * @param tuple graph query result
      * @return String reference for the relationship
      */
-    private String getRelationshipRefFromGraphTuple(List<?> tuple) {
+    protected String getRelationshipRefFromGraphTuple(List<?> tuple) {
         return tuple == null ? null : (String) tuple.get(1);
     }
 
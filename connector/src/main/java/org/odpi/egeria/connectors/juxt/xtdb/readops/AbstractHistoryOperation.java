@@ -6,6 +6,7 @@ import clojure.lang.IPersistentMap;
 import clojure.lang.Keyword;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.QueryProfile;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
@@ -21,6 +22,9 @@ import java.util.*;
  */
 public abstract class AbstractHistoryOperation extends AbstractReadOperation {
 
+    // How a history retrieval is recorded as a query (the reference is bound as its argument)
+    private static final String HISTORY_QUERY = "(xt/entity-history db reference :desc {:with-docs? true})";
+
     protected final String instanceGUID;
     protected final Date fromTime;
     protected final int fromElement;
@@ -73,14 +77,18 @@ public abstract class AbstractHistoryOperation extends AbstractReadOperation {
         // avoid the need to retrieve history that goes before the 'earliest' date and compare it, but does mean that
         // the results of our looping may need to reverse-order the resulting array if the sort order requested is
         // 'forward' (chronological)
+        QueryProfile profile = startQuery();
         HistoryOptions options = HistoryOptions.create(HistoryOptions.SortOrder.DESC).withDocs(true);
         List<XtdbDocument> results;
+        profile.built(HISTORY_QUERY, new Object[]{ reference });
 
         // try-with to ensure that the ICursor resource is closed, even if any exception is thrown
         try (ICursor<Map<Keyword, ?>> lazyCursor = db.openEntityHistory(reference, options)) {
+            profile.executed();
             // Note that here we will not pass-through the opened DB as this method will use the embedded document
             // retrieval in the response to see the point-in-time information for the metadata instance
-            results = getPreviousVersionsFromCursor(lazyCursor, earliest, order);
+            results = getPreviousVersionsFromCursor(profile.count(lazyCursor), earliest, order);
+            profile.paged(results.size());
         } catch (Exception e) {
             throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
                     this.getClass().getName(), methodName, e);
@@ -98,7 +106,7 @@ public abstract class AbstractHistoryOperation extends AbstractReadOperation {
      * @param order indicating either chronological (forward) or reverse-chronological (backward) ordering of results
      * @return {@code List<XtdbDocument>} with all versions of the XTDB object back to the earliest point specified
      */
-    private List<XtdbDocument> getPreviousVersionsFromCursor(ICursor<Map<Keyword, ?>> cursor,
+    private List<XtdbDocument> getPreviousVersionsFromCursor(Iterator<Map<Keyword, ?>> cursor,
                                                              Date earliest,
                                                              HistorySequencingOrder order) {
         List<XtdbDocument> results = new ArrayList<>();
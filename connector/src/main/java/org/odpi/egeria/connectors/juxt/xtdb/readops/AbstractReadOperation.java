@@ -2,17 +2,47 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
+import clojure.lang.IPersistentMap;
+import clojure.lang.Keyword;
+import clojure.lang.PersistentHashMap;
+import clojure.lang.PersistentVector;
+import clojure.lang.Symbol;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.InstanceCache;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.ClassificationMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.QueryProfile;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import xtdb.api.IXtdbDatasource;
 import xtdb.api.XtdbDocument;
 
-import java.util.Date;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * Base class that all read operations should implement.
  */
 public abstract class AbstractReadOperation {
 
+    // Projection used to pull back entire documents: [*]
+    private static final PersistentVector ALL_ATTRIBUTES = PersistentVector.create(Symbol.intern("*"));
+    private static final Keyword VERSION = Keyword.intern(InstanceAuditHeaderMapping.VERSION);
+    private static final Keyword UPDATE_TIME = Keyword.intern(InstanceAuditHeaderMapping.UPDATE_TIME);
+    private static final Keyword PROXY_ONLY = Keyword.intern(EntityProxyMapping.ENTITY_PROXY_ONLY_MARKER);
+    private static final Keyword LAST_CLASSIFICATION_CHANGE = Keyword.intern(ClassificationMapping.LAST_CLASSIFICATION_CHANGE);
+
+    // Name under which each read operation's timings are recorded
+    private static final ClassValue<String> METRIC_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return ConnectorMetrics.READOPS + type.getSimpleName();
+        }
+    };
+
     protected final XtdbOMRSRepositoryConnector xtdb;
     protected final Date asOfTime;
     protected final IXtdbDatasource existingDB;
@@ -41,6 +71,22 @@ public abstract class AbstractReadOperation {
         this.existingDB = existingDB;
     }
 
+    /**
+     * Start timing a run of this read operation.
+     * @return OperationTimer to close once the read operation is complete
+     */
+    protected OperationTimer startTimer() {
+        return ConnectorMetrics.start(METRIC_NAMES.get(getClass()));
+    }
+
+    /**
+     * Start profiling a query run by this read operation.
+     * @return QueryProfile through which to mark the phases of the query
+     */
+    protected QueryProfile startQuery() {
+        return new QueryProfile(xtdb.getSlowQueryLog(), getClass().getSimpleName());
+    }
+
     /**
      * Retrieve the requested reference's details from an already-open XTDB datasource.
      * @param db from which to retrieve the details
@@ -51,4 +97,175 @@ public abstract class AbstractReadOperation {
         return db.entity(reference);
     }
 
+    /**
+     * Retrieve the details of all the requested references from an already-open XTDB datasource, in a single
+     * round-trip rather than one lookup per reference.
+     * @param db from which to retrieve the details
+     * @param references indicating the primary keys of the XTDB objects to retrieve
+     * @return {@code Map<String, XtdbDocument>} of the objects' properties, keyed by reference (any references that
+     *         could not be found will not be included)
+     */
+    public static Map<String, XtdbDocument> getXtdbObjectsByReference(IXtdbDatasource db, Collection<String> references) {
+        Map<String, XtdbDocument> docs = new HashMap<>();
+        if (references != null && !references.isEmpty()) {
+            List<Map<Keyword, ?>> results = db.pullMany(ALL_ATTRIBUTES, new LinkedHashSet<>(references));
+            if (results != null) {
+                for (Map<Keyword, ?> result : results) {
+                    if (result != null && !result.isEmpty()) {
+                        IPersistentMap map = result instanceof IPersistentMap ? (IPersistentMap) result : PersistentHashMap.create(result);
+                        Object id = map.valAt(Constants.XTDB_PK);
+                        if (id instanceof String) {
+                            docs.put((String) id, XtdbDocument.factory(map));
+                        }
+                    }
+                }
+            }
+        }
+        return docs;
+    }
+
+    /**
+     * Retrieve the details of all the requested references from an already-open XTDB datasource, re-using any that
+     * have already been retrieved and retrieving the rest in a single round-trip.
+     * @param db from which to retrieve the details
+     * @param references indicating the primary keys of the XTDB objects to retrieve
+     * @param retrieved documents already retrieved from the same datasource, keyed by reference (any further
+     *                  documents retrieved will be added to it)
+     * @return {@code Map<String, XtdbDocument>} of the objects' properties, keyed by reference (any references that
+     *         could not be found will not be included)
+     */
+    public static Map<String, XtdbDocument> getXtdbObjectsByReference(IXtdbDatasource db,
+                                                                      Collection<String> references,
+                                                                      Map<String, XtdbDocument> retrieved) {
+        Map<String, XtdbDocument> docs = new HashMap<>();
+        List<String> toRetrieve = new ArrayList<>();
+        if (references != null) {
+            for (String reference : references) {
+                XtdbDocument xtdbDoc = retrieved.get(reference);
+                if (xtdbDoc != null) {
+                    docs.put(reference, xtdbDoc);
+                } else {
+                    toRetrieve.add(reference);
+                }
+            }
+        }
+        Map<String, XtdbDocument> xtdbDocs = getXtdbObjectsByReference(db, toRetrieve);
+        retrieved.putAll(xtdbDocs);
+        docs.putAll(xtdbDocs);
+        return docs;
+    }
+
+    /**
+     * Retrieve the key identifying the content of the provided (already-retrieved) document, by which the instances
+     * translated from it are cached. Any change to the content of an instance gives it a new version and update time,
+     * except for a change to one of an entity's classifications, which instead gives that classification a new version
+     * and update time (and the entity a new latest classification change). Together with the document's ID (and its
+     * form and size) these identify the content without any further round-trip to XTDB.
+     * @param xtdbDoc from which instances are translated
+     * @return Object giving the key, or null if there is no document (or no instances are being cached, in which case
+     *         there is no need for the key)
+     */
+    protected static Object getContentKey(XtdbDocument xtdbDoc) {
+        if (xtdbDoc == null || !InstanceCache.isEnabled()) {
+            return null;
+        }
+        IPersistentMap map = xtdbDoc.toMap();
+        return Arrays.asList(xtdbDoc.getId(),
+                map.valAt(VERSION),
+                map.valAt(UPDATE_TIME),
+                map.valAt(PROXY_ONLY),
+                map.count(),
+                map.valAt(LAST_CLASSIFICATION_CHANGE),
+                ClassificationMapping.getClassificationVersions(map));
+    }
+
+    /**
+     * Retrieve a copy of the cached instance translated from the document with the provided content key.
+     * @param form of the instance
+     * @param contentKey of the document from which the instance was translated
+     * @param copier to copy the cached instance
+     * @param <T> form of the instance
+     * @return T a copy of the cached instance, or null if there is none
+     */
+    protected static <T> T getCachedInstance(Class<T> form, Object contentKey, UnaryOperator<T> copier) {
+        T cached = InstanceCache.get(form, contentKey);
+        return cached == null ? null : copier.apply(cached);
+    }
+
+    /**
+     * Cache the provided instance translated from the document with the provided content key, and return a copy of
+     * it (so that the cached instance itself is never handed out).
+     * @param form of the instance
+     * @param contentKey of the document from which the instance was translated (if null, nothing will be cached)
+     * @param instance translated from the document
+     * @param xtdbDoc from which the instance was translated
+     * @param copier to copy the instance
+     * @param <T> form of the instance
+     * @return T a copy of the instance if it was cached, otherwise the instance itself
+     */
+    protected static <T> T cacheInstance(Class<T> form, Object contentKey, T instance, XtdbDocument xtdbDoc, UnaryOperator<T> copier) {
+        if (contentKey == null || instance == null) {
+            return instance;
+        }
+        InstanceCache.put(form, contentKey, instance, xtdbDoc.toMap().count());
+        return copier.apply(instance);
+    }
+
+    /**
+     * Retrieve the instances for all the requested references, retrieving their documents in a single round-trip and
+     * re-using any instances already translated from the same content (otherwise translating the documents).
+     * @param db from which to retrieve the details
+     * @param references indicating the primary keys of the XTDB objects to retrieve
+     * @param form of the instances
+     * @param translator to translate a document into an instance
+     * @param copier to copy an instance
+     * @param <T> form of the instances
+     * @return {@code Map<String, T>} of the instances, keyed by reference (any references that could not be found or
+     *         translated will not be included)
+     */
+    protected static <T> Map<String, T> getInstancesByReference(IXtdbDatasource db,
+                                                               Collection<String> references,
+                                                               Class<T> form,
+                                                               Function<XtdbDocument, T> translator,
+                                                               UnaryOperator<T> copier) {
+        return getInstancesByReference(db, references, form, translator, copier, new HashMap<>());
+    }
+
+    /**
+     * Retrieve the instances for all the requested references, re-using any documents that have already been
+     * retrieved and retrieving the rest in a single round-trip, and re-using any instances already translated from
+     * the same content (otherwise translating the documents).
+     * @param db from which to retrieve the details
+     * @param references indicating the primary keys of the XTDB objects to retrieve
+     * @param form of the instances
+     * @param translator to translate a document into an instance
+     * @param copier to copy an instance
+     * @param retrieved documents already retrieved from the same datasource, keyed by reference (any further
+     *                  documents retrieved will be added to it)
+     * @param <T> form of the instances
+     * @return {@code Map<String, T>} of the instances, keyed by reference (any references that could not be found or
+     *         translated will not be included)
+     */
+    protected static <T> Map<String, T> getInstancesByReference(IXtdbDatasource db,
+                                                               Collection<String> references,
+                                                               Class<T> form,
+                                                               Function<XtdbDocument, T> translator,
+                                                               UnaryOperator<T> copier,
+                                                               Map<String, XtdbDocument> retrieved) {
+        Map<String, T> instances = new HashMap<>();
+        Map<String, XtdbDocument> xtdbDocs = getXtdbObjectsByReference(db, references, retrieved);
+        for (Map.Entry<String, XtdbDocument> entry : xtdbDocs.entrySet()) {
+            XtdbDocument xtdbDoc = entry.getValue();
+            Object contentKey = getContentKey(xtdbDoc);
+            T instance = getCachedInstance(form, contentKey, copier);
+            if (instance == null) {
+                instance = cacheInstance(form, contentKey, translator.apply(xtdbDoc), xtdbDoc, copier);
+            }
+            if (instance != null) {
+                instances.put(entry.getKey(), instance);
+            }
+        }
+        return instances;
+    }
+
 }
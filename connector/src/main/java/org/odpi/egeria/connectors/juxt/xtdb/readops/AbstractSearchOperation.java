@@ -3,10 +3,12 @@
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
 import clojure.lang.IPersistentMap;
-import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.QueryProfile;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.ContinuationToken;
 import org.odpi.egeria.connectors.juxt.xtdb.model.search.TextConditionBuilder;
 import org.odpi.egeria.connectors.juxt.xtdb.model.search.XtdbQuery;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
@@ -21,6 +23,7 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import xtdb.api.ICursor;
+import xtdb.api.IXtdb;
 import xtdb.api.IXtdbDatasource;
 
 import java.io.IOException;
@@ -44,6 +47,11 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
     protected final SequencingOrder sequencingOrder;
     protected final int pageSize;
     protected final String userId;
+    protected final boolean keysetPaging;
+    protected final ContinuationToken continuation;
+
+    // Whether results remain beyond the page retrieved by a keyset-paged search
+    private boolean moreResults = false;
 
     /**
      * Create a new search operation.
@@ -78,6 +86,8 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
         this.sequencingOrder = sequencingOrder;
         this.pageSize = pageSize;
         this.userId = userId;
+        this.keysetPaging = false;
+        this.continuation = null;
     }
 
     /**
@@ -113,6 +123,96 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
         this.sequencingOrder = sequencingOrder;
         this.pageSize = pageSize;
         this.userId = userId;
+        this.keysetPaging = false;
+        this.continuation = null;
+    }
+
+    /**
+     * Create a new keyset-paged search operation, which will resume immediately after the position captured by the
+     * provided continuation (if any) and from the same point-in-time view of the database.
+     * @param xtdb connectivity to XTDB
+     * @param typeGUID unique identifier of a type definition by which to limit results
+     * @param continuation the position from which to continue the search (or null to retrieve the first page)
+     * @param limitResultsByStatus list of statuses by which to limit results
+     * @param matchClassifications classification criteria by which to limit results
+     * @param asOfTime the point-in-time for which to retrieve results (only applicable to the first page)
+     * @param sequencingProperty the name of the property by which to sort results (only applicable when sorting by property)
+     * @param sequencingOrder the mechanism to use for sorting results
+     * @param pageSize the number of results to include per page
+     * @param userId executing the search
+     */
+    protected AbstractSearchOperation(XtdbOMRSRepositoryConnector xtdb,
+                                      String typeGUID,
+                                      ContinuationToken continuation,
+                                      List<InstanceStatus> limitResultsByStatus,
+                                      SearchClassifications matchClassifications,
+                                      Date asOfTime,
+                                      String sequencingProperty,
+                                      SequencingOrder sequencingOrder,
+                                      int pageSize,
+                                      String userId) {
+        super(xtdb, asOfTime);
+        this.repositoryHelper = xtdb.getRepositoryHelper();
+        this.typeGUID = typeGUID;
+        // When the continuation cannot be resumed by its key, skip over the results already returned instead
+        this.fromElement = continuation == null || continuation.isKeyed() ? 0 : continuation.getReturned();
+        this.limitResultsByStatus = limitResultsByStatus;
+        this.matchClassifications = matchClassifications;
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder = sequencingOrder;
+        this.pageSize = pageSize;
+        this.userId = userId;
+        this.keysetPaging = true;
+        this.continuation = continuation;
+    }
+
+    /**
+     * Open a point-in-time view of the database against which to run the search: for a continued keyset-paged
+     * search this is the same view against which the first page was retrieved.
+     * @return IXtdbDatasource that must be closed by the caller
+     */
+    protected IXtdbDatasource openDatasource() {
+        IXtdb xtdbAPI = xtdb.getXtdbAPI();
+        if (continuation != null) {
+            return xtdbAPI.openDB(continuation.getBasis());
+        }
+        return asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime);
+    }
+
+    /**
+     * Indicates whether the continuation provided to this search (if any) was issued by a search with the same
+     * criteria, so that the position it captures is meaningful for this search.
+     * @return boolean true if there is no continuation or it was issued by an equivalent search, otherwise false
+     */
+    public boolean isContinuationOfSameSearch() {
+        return continuation == null || continuation.getCriteria() == getCriteriaHash();
+    }
+
+    /**
+     * Retrieve a hash of the criteria of the search, by which each continuation token is bound to the search that
+     * issued it. Searches with further criteria than those captured here must extend the hash with them.
+     * @return int hash of the search criteria
+     */
+    protected int getCriteriaHash() {
+        return ContinuationToken.hashCriteria(typeGUID, limitResultsByStatus, matchClassifications, sequencingProperty);
+    }
+
+    /**
+     * Retrieve the opaque token from which to continue a keyset-paged search after the provided page of results.
+     * @param db the datasource against which the page of results was retrieved
+     * @param page of results retrieved (after de-duplication and paging)
+     * @return String giving the continuation token, or null if not keyset-paging or there are no further results
+     */
+    protected String getContinuationToken(IXtdbDatasource db, Collection<List<?>> page) {
+        if (!keysetPaging || !moreResults || page == null || page.isEmpty()) {
+            return null;
+        }
+        List<?> last = null;
+        for (List<?> result : page) {
+            last = result;
+        }
+        int returned = (continuation == null ? 0 : continuation.getReturned()) + page.size();
+        return ContinuationToken.after(db.dbBasis(), sequencingOrder, getCriteriaHash(), last, returned).encode();
     }
 
     /**
@@ -158,7 +258,8 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
                                              int pageSize,
                                              String namespace,
                                              String userId) throws TypeErrorException, RepositoryErrorException {
-        XtdbQuery query = new XtdbQuery();
+        QueryProfile profile = startQuery();
+        XtdbQuery query = new XtdbQuery(true);
         updateQuery(query,
                 category,
                 typeGuid,
@@ -171,15 +272,9 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
                 namespace,
                 userId);
         IPersistentMap q = query.getQuery();
+        profile.built(q, query.getArgs());
         log.debug(Constants.QUERY_WITH, q);
-        Collection<List<?>> results;
-        try (ICursor<List<?>> searchCursor = db.openQuery(q)) {
-            results = deduplicateAndPage(searchCursor, fromElement, pageSize);
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    this.getClass().getName(), this.getClass().getName(), e);
-        }
-        return results;
+        return runPagedQuery(db, profile, q, query.getArgs(), fromElement, pageSize, sequencingOrder);
     }
 
     /**
@@ -210,7 +305,7 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
                                String userId) throws TypeErrorException {
         // Note that we will put the property search criteria first to optimise the search, which can more than double
         // the speed for very broad scenarios (where no type limiter is specified, or only Referenceable)
-        Set<String> completeTypeSet = getCompleteSetOfTypeNamesForSearch(userId, typeGuid, subtypeGuids, namespace);
+        Set<String> completeTypeSet = getCompleteSetOfTypeNamesForSearch(typeGuid, subtypeGuids, namespace);
         query.addPropertyConditions(matchProperties, namespace, completeTypeSet, xtdb, xtdb.isLuceneConfigured(), xtdb.expectsLuceneRegexes());
         query.addTypeCondition(category, typeGuid, subtypeGuids);
         query.addClassificationConditions(matchClassifications, completeTypeSet, xtdb, xtdb.isLuceneConfigured(), xtdb.expectsLuceneRegexes());
@@ -219,6 +314,7 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
         // operations only ever return a single type of instance (entity or relationship), and 'e' is therefore used
         // generally to represent either
         query.addStatusLimiters(limitResultsByStatus, XtdbQuery.DOC_ID);
+        addKeysetPaging(query);
     }
 
     /**
@@ -252,7 +348,8 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
                                                  int pageSize,
                                                  String namespace,
                                                  String userId) throws TypeErrorException, RepositoryErrorException {
-        XtdbQuery query = new XtdbQuery();
+        QueryProfile profile = startQuery();
+        XtdbQuery query = new XtdbQuery(true);
         updateTextQuery(query,
                 category,
                 typeGuid,
@@ -264,15 +361,9 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
                 namespace,
                 userId);
         IPersistentMap q = query.getQuery();
+        profile.built(q, query.getArgs());
         log.debug(Constants.QUERY_WITH, q);
-        Collection<List<?>> results;
-        try (ICursor<List<?>> searchCursor = db.openQuery(q)) {
-            results = deduplicateAndPage(searchCursor, fromElement, pageSize);
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    this.getClass().getName(), this.getClass().getName(), e);
-        }
-        return results;
+        return runPagedQuery(db, profile, q, query.getArgs(), fromElement, pageSize, sequencingOrder);
     }
 
     /**
@@ -301,11 +392,11 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
                                  String userId) throws TypeErrorException {
         // Note that we will put the search string criteria first to optimise the search, which can more than double
         // the speed for very broad scenarios (where no type limiter is specified, or only Referenceable)
-        Set<String> completeTypeSet = getCompleteSetOfTypeNamesForSearch(userId, typeGuid, null, namespace);
+        Set<String> completeTypeSet = getCompleteSetOfTypeNamesForSearch(typeGuid, null, namespace);
         if (xtdb.isLuceneConfigured()) {
-            query.addConditions(TextConditionBuilder.buildWildcardLuceneCondition(searchCriteria, xtdb, completeTypeSet, namespace, xtdb.expectsLuceneRegexes()));
+            query.addConditions(TextConditionBuilder.buildWildcardLuceneCondition(searchCriteria, xtdb, completeTypeSet, namespace, xtdb.expectsLuceneRegexes(), query));
         } else {
-            query.addConditions(TextConditionBuilder.buildWildcardTextCondition(searchCriteria, xtdb, completeTypeSet, namespace, false, xtdb.expectsLuceneRegexes()));
+            query.addConditions(TextConditionBuilder.buildWildcardTextCondition(searchCriteria, xtdb, completeTypeSet, namespace, false, xtdb.expectsLuceneRegexes(), query));
         }
         query.addTypeCondition(category, typeGuid, null);
         query.addClassificationConditions(matchClassifications, completeTypeSet, xtdb, xtdb.isLuceneConfigured(), xtdb.expectsLuceneRegexes());
@@ -314,134 +405,160 @@ public abstract class AbstractSearchOperation extends AbstractReadOperation {
         // operations only ever return a single type of instance (entity or relationship), and 'e' is therefore used
         // generally to represent either
         query.addStatusLimiters(limitResultsByStatus, XtdbQuery.DOC_ID);
+        addKeysetPaging(query);
     }
 
     /**
-     * Retrieve the complete list of type names that have been requested by the search.
-     * @param userId of the user running the query
+     * Update the provided query to page by keyset rather than by offset, if requested: this requires the results to
+     * be totally ordered, and (for any page after the first) resumes immediately after the last result already
+     * returned.
+     * @param query into which to add the sequencing and conditions
+     */
+    private void addKeysetPaging(XtdbQuery query) {
+        if (keysetPaging) {
+            query.addDocIdTieBreaker();
+            if (continuation != null && continuation.isKeyed()) {
+                query.addKeysetConditions(continuation.getLastSortValue(), continuation.getLastDocRef(), continuation.isDescending());
+            }
+        }
+    }
+
+    /**
+     * Retrieve the complete list of type names that have been requested by the search. Wherever possible the (shared,
+     * unmodifiable) closures precomputed by the TypeDefCache are returned directly, so the result must not be modified.
      * @param typeGuid provided to the search, to limit by type
      * @param subtypeGuids provided to the search, to limit to a set of subtypes
      * @param namespace by which properties will be qualified (allowing us to see whether the types should be for entities or relationships)
      * @return {@code Set<String>} of the names of all types and subtypes to include in the search
      * @throws TypeErrorException if a requested type for searching is not known to the repository
      */
-    private Set<String> getCompleteSetOfTypeNamesForSearch(String userId,
-                                                           String typeGuid,
+    private Set<String> getCompleteSetOfTypeNamesForSearch(String typeGuid,
                                                            List<String> subtypeGuids,
                                                            String namespace) throws TypeErrorException {
-        final String methodName = "getCompleteListOfTypeNamesForSearch";
-        Set<String> complete = new HashSet<>();
         if (namespace != null) {
             if (subtypeGuids != null && !subtypeGuids.isEmpty()) {
                 // If subtypes were specified, we can short-circuit to only considering those (and logic is the same
                 // across entity types and relationship types)
+                if (subtypeGuids.size() == 1) {
+                    return getTypeAndAllSubtypes(subtypeGuids.get(0), "subtypeGuids");
+                }
+                Set<String> complete = new HashSet<>();
                 for (String subtypeGuid : subtypeGuids) {
-                    String typeDefName = repositoryHelper.getTypeDef(xtdb.getRepositoryName(), "subtypeGuids", subtypeGuid, methodName).getName();
-                    addAllSubtypesToSet(complete, typeDefName);
+                    complete.addAll(getTypeAndAllSubtypes(subtypeGuid, "subtypeGuids"));
                 }
+                return complete;
             } else if (typeGuid != null) {
                 // Otherwise we need to consider all sub-types of the provided typeGuid
-                String typeDefName = repositoryHelper.getTypeDef(xtdb.getRepositoryName(), "typeGuid", typeGuid, methodName).getName();
-                addAllSubtypesToSet(complete, typeDefName);
+                return getTypeAndAllSubtypes(typeGuid, "typeGuid");
+            } else if (RelationshipMapping.RELATIONSHIP_PROPERTIES_NS.equals(namespace)) {
+                // Otherwise we need all relationship types...
+                return TypeDefCache.getTypeDefNamesForCategory(TypeDefCategory.RELATIONSHIP_DEF);
             } else {
-                // Otherwise we need to consider all types of the provided kind
-                if (RelationshipMapping.RELATIONSHIP_PROPERTIES_NS.equals(namespace)) {
-                    // We need all relationship types
-                    try {
-                        List<TypeDef> typeDefinitions = xtdb.getMetadataCollection().findTypeDefsByCategory(userId, TypeDefCategory.RELATIONSHIP_DEF);
-                        if (typeDefinitions != null) {
-                            for (TypeDef typeDef : typeDefinitions) {
-                                String typeDefName = typeDef.getName();
-                                addAllSubtypesToSet(complete, typeDefName);
-                            }
-                        }
-                    } catch (InvalidParameterException | RepositoryErrorException | UserNotAuthorizedException e) {
-                        xtdb.logProblem(this.getClass().getName(),
-                                methodName,
-                                XtdbOMRSAuditCode.UNEXPECTED_RUNTIME_ERROR,
-                                e,
-                                "unable to retrieve relationship typedefs",
-                                e.getClass().getName());
-                    }
-                } else {
-                    // Otherwise we need all entity types
-                    String typeDefName = "OpenMetadataRoot";
-                    addAllSubtypesToSet(complete, typeDefName);
-                }
+                // ... or all entity types
+                Set<String> complete = TypeDefCache.getSubtypeNames("OpenMetadataRoot");
+                return complete != null ? complete : getAllSubtypesFromRepository("OpenMetadataRoot");
             }
         }
-        return complete;
+        return Collections.emptySet();
+    }
+
+    /**
+     * Retrieve the names of the provided type definition and all of its subtypes.
+     * @param typeDefGUID unique identifier of the type definition
+     * @param parameterName by which the type definition was provided to the search
+     * @return {@code Set<String>} of the type definition's name and the names of all of its subtypes
+     * @throws TypeErrorException if the type definition is not known to the repository
+     */
+    private Set<String> getTypeAndAllSubtypes(String typeDefGUID, String parameterName) throws TypeErrorException {
+        final String methodName = "getCompleteListOfTypeNamesForSearch";
+        TypeDef typeDef = TypeDefCache.getTypeDef(typeDefGUID);
+        Set<String> subtypes = typeDef == null ? null : TypeDefCache.getSubtypeNames(typeDef.getName());
+        if (subtypes == null) {
+            // Not (yet) cached locally, so fall back to the repository helper (which will also validate the type)
+            String typeDefName = repositoryHelper.getTypeDef(xtdb.getRepositoryName(), parameterName, typeDefGUID, methodName).getName();
+            subtypes = getAllSubtypesFromRepository(typeDefName);
+        }
+        return subtypes;
     }
 
     /**
-     * Add the names of all subtypes of the provided typeDefName to the provided set of subtypes.
-     * @param subtypes to update with names of subtypes
+     * Retrieve the names of the provided type definition and all of its subtypes, from the repository helper.
      * @param typeDefName for which to retrieve all subtypes
+     * @return {@code Set<String>} of the type definition's name and the names of all of its subtypes
      */
-    private void addAllSubtypesToSet(Set<String> subtypes, String typeDefName) {
+    private Set<String> getAllSubtypesFromRepository(String typeDefName) {
+        Set<String> subtypes = new HashSet<>();
         subtypes.add(typeDefName);  // add the typedef itself, and then its subtypes
         List<String> subtypesList = repositoryHelper.getSubTypesOf(xtdb.getRepositoryName(), typeDefName);
         if (subtypesList != null) {
             subtypes.addAll(subtypesList);
         }
+        return subtypes;
+    }
+
+    /**
+     * Run the provided query, returning only the selected page of its de-duplicated results. The time taken to open
+     * the query and to page through its results are profiled separately: as XTDB evaluates a query lazily, paging
+     * includes the time taken to find each of the results that is pulled from the cursor.
+     * @param db the datasource against which to run the query
+     * @param profile of the query, already built
+     * @param q the query to run
+     * @param args for the query
+     * @param fromElement starting point for the page
+     * @param pageSize number of elements to include in the page
+     * @param sequencingOrder by which the results are sorted by the query
+     * @return {@code Collection<List<?>>} of only the single page of results specified
+     * @throws RepositoryErrorException if there is any issue iterating through the results
+     */
+    protected Collection<List<?>> runPagedQuery(IXtdbDatasource db,
+                                                QueryProfile profile,
+                                                IPersistentMap q,
+                                                Object[] args,
+                                                int fromElement,
+                                                int pageSize,
+                                                SequencingOrder sequencingOrder) throws RepositoryErrorException {
+        Collection<List<?>> results;
+        try (ICursor<List<?>> searchCursor = db.openQuery(q, args)) {
+            profile.executed();
+            results = deduplicateAndPage(profile.count(searchCursor), fromElement, pageSize, sequencingOrder);
+            profile.paged(results.size());
+        } catch (IOException e) {
+            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                    this.getClass().getName(), this.getClass().getName(), e);
+        }
+        return results;
     }
 
     /**
      * De-duplicate and return only the selected page of results from the provided collection of XTDB query results.
+     * Results are only pulled from the cursor until the page is full, and if the results are sequenced by document ID
+     * any duplicates will be adjacent and are collapsed by comparing only against the previous result. When keyset
+     * paging, one result beyond the page is also retrieved (and then dropped) to determine whether any results remain.
      * @param results from a XTDB query
      * @param fromElement starting point for the page
      * @param pageSize number of elements to include in the page
+     * @param sequencingOrder by which the results were sorted by the query
      * @return {@code Collection<List<?>>} of only the single page of results specified
+     * @see ResultPager
      */
-    protected Collection<List<?>> deduplicateAndPage(ICursor<List<?>> results,
+    protected Collection<List<?>> deduplicateAndPage(Iterator<List<?>> results,
                                                      int fromElement,
-                                                     int pageSize) {
-
-        List<List<?>> pageOfResults  = new ArrayList<>();
-        if (results != null && results.hasNext()) {
-
-            Set<List<?>> skippedResults = new HashSet<>();
-            int currentIndex = 0;
-            // 0 as a pageSize means ALL pages -- so we should return every result that we found (up to the maximum
-            // number of results allowed by the connector)
-            pageSize = pageSize > 0 ? pageSize : xtdb.getMaxPageSize();
-            int lastResultIndex = (fromElement + pageSize);
-
-            while (results.hasNext()) {
-
-                List<?> next = results.next();
-                if (currentIndex >= lastResultIndex) {
-                    // If we are at / beyond the last index, break out of the loop
-                    break;
-                } else if (currentIndex >= fromElement) {
-                    // TODO: for large page sizes we may be able to optimise the following, if the assumption
-                    //  that the bag of results returned will always have duplicate values next to each other
-                    //  (then we only need to compare to the last result to see if we should skip it or not,
-                    //  rather than a 'contains' against a List)
-                    if (!pageOfResults.contains(next)) {
-                        // Otherwise, only add this result if it is at or beyond the starting point (fromElement) and
-                        // our list of results does not already contain this result (in which case, also increment our
-                        // current index for the number of results we have captured)
-                        pageOfResults.add(next);
-                        currentIndex++;
-                    }
-                } else if (!skippedResults.contains(next)) {
-                    // Otherwise, remember that we have are skipping this result and increment the current index
-                    // accordingly just this once (necessary to skip only the correct number of results, when the
-                    // fromElement is not 0)
-                    skippedResults.add(next);
-                    currentIndex++;
-                }
-                // In any other scenario, it is a result that has already been included or already been skipped,
-                // so we do not need to increment our index or do anything with the result -- just move on to the
-                // next one
-
-            }
-
+                                                     int pageSize,
+                                                     SequencingOrder sequencingOrder) {
+        // 0 as a pageSize means ALL pages -- so we should return every result that we found (up to the maximum
+        // number of results allowed by the connector)
+        pageSize = pageSize > 0 ? pageSize : xtdb.getMaxPageSize();
+        // Keyset paging always totally orders the results, so any duplicates will also be adjacent
+        boolean ordered = keysetPaging || ResultPager.isOrderedByDocId(sequencingOrder);
+        if (!keysetPaging) {
+            return ResultPager.page(results, fromElement, pageSize, ordered);
         }
-
-        return pageOfResults;
-
+        List<List<?>> page = ResultPager.page(results, fromElement, pageSize < Integer.MAX_VALUE ? pageSize + 1 : pageSize, ordered);
+        moreResults = page.size() > pageSize;
+        if (moreResults) {
+            page.remove(pageSize);
+        }
+        return page;
     }
 
 }
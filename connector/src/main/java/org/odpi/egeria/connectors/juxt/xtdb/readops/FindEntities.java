@@ -3,6 +3,7 @@
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.ContinuationToken;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSMetadataCollection;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
@@ -69,6 +70,56 @@ public class FindEntities extends AbstractEntitySearchOperation {
         this.matchProperties = matchProperties;
     }
 
+    /**
+     * Create a new keyset-paged 'findEntities' executable.
+     * @param xtdb connectivity to XTDB
+     * @param entityTypeGUID see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param entitySubtypeGUIDs see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param matchProperties see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param continuation the position from which to continue (or null for the first page)
+     * @param limitResultsByStatus see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param matchClassifications see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param asOfTime see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param sequencingProperty see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param sequencingOrder see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param pageSize see XtdbOMRSMetadataCollection#findEntitiesPage
+     * @param userId of the user running the query
+     * @see XtdbOMRSMetadataCollection#findEntitiesPage(String, String, List, SearchProperties, String, List, SearchClassifications, Date, String, SequencingOrder, int)
+     */
+    public FindEntities(XtdbOMRSRepositoryConnector xtdb,
+                        String entityTypeGUID,
+                        List<String> entitySubtypeGUIDs,
+                        SearchProperties matchProperties,
+                        ContinuationToken continuation,
+                        List<InstanceStatus> limitResultsByStatus,
+                        SearchClassifications matchClassifications,
+                        Date asOfTime,
+                        String sequencingProperty,
+                        SequencingOrder sequencingOrder,
+                        int pageSize,
+                        String userId) {
+        super(xtdb,
+                entityTypeGUID,
+                continuation,
+                limitResultsByStatus,
+                matchClassifications,
+                asOfTime,
+                sequencingProperty,
+                sequencingOrder,
+                pageSize,
+                userId);
+        this.entitySubtypeGUIDs = entitySubtypeGUIDs;
+        this.matchProperties = matchProperties;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getCriteriaHash() {
+        return ContinuationToken.hashCriteria(super.getCriteriaHash(), entitySubtypeGUIDs, matchProperties);
+    }
+
     /**
      * Interface that must be implemented to actually execute the query logic.
      * @param db the datasource against which to run the query
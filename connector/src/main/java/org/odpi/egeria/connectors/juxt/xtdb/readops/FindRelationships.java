@@ -3,6 +3,7 @@
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.ContinuationToken;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSMetadataCollection;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
@@ -65,6 +66,53 @@ public class FindRelationships extends AbstractRelationshipSearchOperation {
         this.matchProperties = matchProperties;
     }
 
+    /**
+     * Create a new keyset-paged 'findRelationships' executable.
+     * @param xtdb connectivity to XTDB
+     * @param relationshipTypeGUID see XtdbOMRSMetadataCollection#findRelationshipsPage
+     * @param relationshipSubtypeGUIDs see XtdbOMRSMetadataCollection#findRelationshipsPage
+     * @param matchProperties see XtdbOMRSMetadataCollection#findRelationshipsPage
+     * @param continuation the position from which to continue (or null for the first page)
+     * @param limitResultsByStatus see XtdbOMRSMetadataCollection#findRelationshipsPage
+     * @param asOfTime see XtdbOMRSMetadataCollection#findRelationshipsPage
+     * @param sequencingProperty see XtdbOMRSMetadataCollection#findRelationshipsPage
+     * @param sequencingOrder see XtdbOMRSMetadataCollection#findRelationshipsPage
+     * @param pageSize see XtdbOMRSMetadataCollection#findRelationshipsPage
+     * @param userId of the user running the query
+     * @see XtdbOMRSMetadataCollection#findRelationshipsPage(String, String, List, SearchProperties, String, List, Date, String, SequencingOrder, int)
+     */
+    public FindRelationships(XtdbOMRSRepositoryConnector xtdb,
+                             String relationshipTypeGUID,
+                             List<String> relationshipSubtypeGUIDs,
+                             SearchProperties matchProperties,
+                             ContinuationToken continuation,
+                             List<InstanceStatus> limitResultsByStatus,
+                             Date asOfTime,
+                             String sequencingProperty,
+                             SequencingOrder sequencingOrder,
+                             int pageSize,
+                             String userId) {
+        super(xtdb,
+                relationshipTypeGUID,
+                continuation,
+                limitResultsByStatus,
+                asOfTime,
+                sequencingProperty,
+                sequencingOrder,
+                pageSize,
+                userId);
+        this.relationshipSubtypeGUIDs = relationshipSubtypeGUIDs;
+        this.matchProperties = matchProperties;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int getCriteriaHash() {
+        return ContinuationToken.hashCriteria(super.getCriteriaHash(), relationshipSubtypeGUIDs, matchProperties);
+    }
+
     /**
      * Interface that must be implemented to actually execute the query logic.
      * @param db the datasource against which to run the query
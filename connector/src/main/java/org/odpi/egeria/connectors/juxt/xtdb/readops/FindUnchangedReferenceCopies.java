@@ -0,0 +1,151 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.readops;
+
+import clojure.lang.*;
+import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.ClassificationMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.XtdbQuery;
+import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xtdb.api.IXtdbDatasource;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Finds the incoming reference copies that are already stored exactly as they are, so that they can be skipped rather
+ * than written again. Cohort events frequently re-deliver reference copies (particularly when members restart), and
+ * every one that is written creates a new version in the instance's history, is re-indexed, and must be waited on.
+ *
+ * A reference copy is considered unchanged when the stored instance is from the same metadata collection and has the
+ * same version, update time and last classification change (and is a proxy only if the reference copy is as well).
+ * These header values are retrieved from the indexes alone, for all the reference copies in a single query, without
+ * retrieving (or deserializing) any stored document. Reference copies that claim to be homed in this repository are
+ * never considered unchanged, so that they are still rejected when they are saved.
+ */
+public class FindUnchangedReferenceCopies extends AbstractReadOperation {
+
+    private static final Logger log = LoggerFactory.getLogger(FindUnchangedReferenceCopies.class);
+
+    private static final Keyword VERSION = Keyword.intern(InstanceAuditHeaderMapping.VERSION);
+    private static final Keyword METADATA_COLLECTION_ID = Keyword.intern(InstanceAuditHeaderMapping.METADATA_COLLECTION_ID);
+    private static final Keyword UPDATE_TIME = Keyword.intern(InstanceAuditHeaderMapping.UPDATE_TIME);
+    private static final Keyword LAST_CLASSIFICATION_CHANGE = Keyword.intern(ClassificationMapping.LAST_CLASSIFICATION_CHANGE);
+    private static final Keyword PROXY_ONLY = Keyword.intern(EntityProxyMapping.ENTITY_PROXY_ONLY_MARKER);
+
+    private static final Symbol VERSION_VAR = Symbol.intern("v");
+    private static final Symbol METADATA_COLLECTION_ID_VAR = Symbol.intern("mid");
+    private static final Symbol UPDATE_TIME_VAR = Symbol.intern("ut");
+    private static final Symbol LAST_CLASSIFICATION_CHANGE_VAR = Symbol.intern("lcc");
+    private static final Symbol PROXY_ONLY_VAR = Symbol.intern("p");
+    private static final Symbol GET_ATTR = Symbol.intern("get-attr");
+    private static final Symbol ELLIPSIS = Symbol.intern("...");
+
+    // {:find [e v mid ut lcc p]
+    //  :in [[e ...]]
+    //  :where [[e :version v]
+    //          [e :metadataCollectionId mid]
+    //          [(get-attr e :updateTime nil) [ut ...]]
+    //          [(get-attr e :lastClassificationChange nil) [lcc ...]]
+    //          [(get-attr e :proxy false) [p ...]]]}
+    // (the attributes that need not be set are retrieved with defaults, so that instances without them still match)
+    private static final IPersistentMap QUERY = PersistentArrayMap.EMPTY
+            .assoc(Keyword.intern("find"), PersistentVector.create(XtdbQuery.DOC_ID, VERSION_VAR, METADATA_COLLECTION_ID_VAR,
+                    UPDATE_TIME_VAR, LAST_CLASSIFICATION_CHANGE_VAR, PROXY_ONLY_VAR))
+            .assoc(Keyword.intern("in"), PersistentVector.create((Object) PersistentVector.create(XtdbQuery.DOC_ID, ELLIPSIS)))
+            .assoc(Keyword.intern("where"), PersistentVector.create(
+                    PersistentVector.create(XtdbQuery.DOC_ID, VERSION, VERSION_VAR),
+                    PersistentVector.create(XtdbQuery.DOC_ID, METADATA_COLLECTION_ID, METADATA_COLLECTION_ID_VAR),
+                    getAttribute(UPDATE_TIME, null, UPDATE_TIME_VAR),
+                    getAttribute(LAST_CLASSIFICATION_CHANGE, null, LAST_CLASSIFICATION_CHANGE_VAR),
+                    getAttribute(PROXY_ONLY, false, PROXY_ONLY_VAR)));
+
+    private final Collection<IPersistentMap> incoming;
+
+    /**
+     * Find which of the provided reference copies are unchanged from what is currently stored.
+     * @param xtdb connectivity
+     * @param incoming XTDB documents of the reference copies (which may include several copies of the same instance,
+     *                 each of which is compared to what is stored rather than to each other)
+     */
+    public FindUnchangedReferenceCopies(XtdbOMRSRepositoryConnector xtdb,
+                                        Collection<IPersistentMap> incoming) {
+        super(xtdb, (Date) null);
+        this.incoming = incoming;
+    }
+
+    /**
+     * Find which of the reference copies are unchanged from what is currently stored.
+     * @return {@code Set<IPersistentMap>} of the XTDB documents of the reference copies that are unchanged (compared
+     *         by identity)
+     * @throws RepositoryErrorException if any issues closing an open XTDB resource
+     */
+    public Set<IPersistentMap> execute() throws RepositoryErrorException {
+        try (OperationTimer timer = startTimer()) {
+            final String methodName = "findUnchangedReferenceCopies";
+            if (incoming == null || incoming.isEmpty()) {
+                return timer.succeeded(Collections.emptySet());
+            }
+            try (IXtdbDatasource db = xtdb.getXtdbAPI().openDB()) {
+                return timer.succeeded(findUnchanged(db));
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
+        }
+    }
+
+    /**
+     * Find which of the reference copies are unchanged from what is stored in the provided datasource.
+     * @param db in which to look up what is stored
+     * @return {@code Set<IPersistentMap>} of the XTDB documents of the reference copies that are unchanged
+     */
+    private Set<IPersistentMap> findUnchanged(IXtdbDatasource db) {
+        Set<Object> docIds = new LinkedHashSet<>();
+        for (IPersistentMap copy : incoming) {
+            docIds.add(copy.valAt(Constants.XTDB_PK));
+        }
+        log.debug(Constants.QUERY_WITH, QUERY);
+        Collection<List<?>> results = db.query(QUERY, PersistentVector.create(docIds));
+        Map<Object, List<?>> stored = new HashMap<>();
+        for (List<?> result : results) {
+            stored.put(result.get(0), result);
+        }
+        String localMetadataCollectionId = xtdb.getMetadataCollectionId();
+        Set<IPersistentMap> unchanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (IPersistentMap copy : incoming) {
+            List<?> result = stored.get(copy.valAt(Constants.XTDB_PK));
+            if (result != null
+                    && !Objects.equals(localMetadataCollectionId, copy.valAt(METADATA_COLLECTION_ID))
+                    && Objects.equals(result.get(1), copy.valAt(VERSION))
+                    && Objects.equals(result.get(2), copy.valAt(METADATA_COLLECTION_ID))
+                    && Objects.equals(result.get(3), copy.valAt(UPDATE_TIME))
+                    && Objects.equals(result.get(4), copy.valAt(LAST_CLASSIFICATION_CHANGE))
+                    && Objects.equals(result.get(5), copy.valAt(PROXY_ONLY, false))) {
+                unchanged.add(copy);
+            }
+        }
+        return unchanged;
+    }
+
+    /**
+     * Create a condition that binds the value of an attribute that need not be set, using a default if it is not.
+     * @param attribute to retrieve
+     * @param defaultValue to use if the attribute is not set
+     * @param variable to which to bind the value
+     * @return IPersistentVector giving the condition
+     */
+    private static IPersistentVector getAttribute(Keyword attribute, Object defaultValue, Symbol variable) {
+        return PersistentVector.create(
+                PersistentList.create(Arrays.asList(GET_ATTR, XtdbQuery.DOC_ID, attribute, defaultValue)),
+                PersistentVector.create(variable, ELLIPSIS));
+    }
+
+}
@@ -7,6 +7,7 @@ import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntitySummaryMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
@@ -20,7 +21,10 @@ import xtdb.api.IXtdbDatasource;
 import xtdb.api.XtdbDocument;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Base class to retrieve entity information.
@@ -49,16 +53,18 @@ public class GetEntity extends AbstractReadOperation {
      * @throws RepositoryErrorException if any issue closing an open XTDB resource
      */
     public EntitySummary asSummary() throws RepositoryErrorException {
-        final String methodName = "getEntitySummary";
-        EntitySummary es;
-        IXtdb xtdbAPI = xtdb.getXtdbAPI();
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-            es = summaryByGuid(xtdb, db, guid);
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), methodName, e);
+        try (OperationTimer timer = startTimer()) {
+            final String methodName = "getEntitySummary";
+            EntitySummary es;
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+                es = summaryByGuid(xtdb, db, guid);
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
+            return timer.succeeded(es);
         }
-        return es;
     }
 
     /**
@@ -67,16 +73,18 @@ public class GetEntity extends AbstractReadOperation {
      * @throws RepositoryErrorException if any issue closing an open XTDB resource
      */
     public EntityProxy asProxy() throws RepositoryErrorException {
-        final String methodName = "getEntityProxy";
-        EntityProxy ep;
-        IXtdb xtdbAPI = xtdb.getXtdbAPI();
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-            ep = proxyByGuid(xtdb, db, guid);
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), methodName, e);
+        try (OperationTimer timer = startTimer()) {
+            final String methodName = "getEntityProxy";
+            EntityProxy ep;
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+                ep = proxyByGuid(xtdb, db, guid);
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
+            return timer.succeeded(ep);
         }
-        return ep;
     }
 
     /**
@@ -86,16 +94,18 @@ public class GetEntity extends AbstractReadOperation {
      * @throws EntityProxyOnlyException if the retrieved entity is only a proxy
      */
     public EntityDetail asDetail() throws RepositoryErrorException, EntityProxyOnlyException {
-        final String methodName = "getEntityDetail";
-        EntityDetail ed;
-        IXtdb xtdbAPI = xtdb.getXtdbAPI();
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-            ed = detailByGuid(xtdb, db, guid);
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), methodName, e);
+        try (OperationTimer timer = startTimer()) {
+            final String methodName = "getEntityDetail";
+            EntityDetail ed;
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+                ed = detailByGuid(xtdb, db, guid);
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
+            return timer.succeeded(ed);
         }
-        return ed;
     }
 
     /**
@@ -150,11 +160,53 @@ public class GetEntity extends AbstractReadOperation {
         if (log.isDebugEnabled())
             log.debug(Constants.FOUND_RESULTS, xtdbDoc == null ? null : xtdbDoc.toMap());
         if (xtdbDoc != null) {
-            return EntityProxyMapping.getFromDoc(xtdb, xtdbDoc);
+            Object contentKey = getContentKey(xtdbDoc);
+            EntityProxy cached = getCachedInstance(EntityProxy.class, contentKey, EntityProxyMapping::copy);
+            if (cached != null) {
+                return cached;
+            }
+            EntityProxy ep = EntityProxyMapping.getFromDoc(xtdb, xtdbDoc);
+            return cacheInstance(EntityProxy.class, contentKey, ep, xtdbDoc, EntityProxyMapping::copy);
         }
         return null;
     }
 
+    /**
+     * Translate the provided XTDB document references into Egeria entity proxies, retrieving any that are not
+     * already cached in a single round-trip.
+     * @param xtdb connectivity to XTDB
+     * @param db from which to retrieve the details
+     * @param refs references to the entity documents
+     * @return {@code Map<String, EntityProxy>} keyed by reference (any that could not be retrieved or translated
+     *         will not be included)
+     */
+    public static Map<String, EntityProxy> proxiesByRefs(XtdbOMRSRepositoryConnector xtdb, IXtdbDatasource db, Collection<String> refs) {
+        return proxiesByRefs(xtdb, db, refs, new HashMap<>());
+    }
+
+    /**
+     * Translate the provided XTDB document references into Egeria entity proxies, re-using any documents that have
+     * already been retrieved and retrieving the rest (that are not already cached) in a single round-trip.
+     * @param xtdb connectivity to XTDB
+     * @param db from which to retrieve the details
+     * @param refs references to the entity documents
+     * @param retrieved documents already retrieved from the same datasource, keyed by reference (any further
+     *                  documents retrieved will be added to it)
+     * @return {@code Map<String, EntityProxy>} keyed by reference (any that could not be retrieved or translated
+     *         will not be included)
+     */
+    public static Map<String, EntityProxy> proxiesByRefs(XtdbOMRSRepositoryConnector xtdb,
+                                                         IXtdbDatasource db,
+                                                         Collection<String> refs,
+                                                         Map<String, XtdbDocument> retrieved) {
+        return getInstancesByReference(db,
+                refs,
+                EntityProxy.class,
+                xtdbDoc -> EntityProxyMapping.getFromDoc(xtdb, xtdbDoc),
+                EntityProxyMapping::copy,
+                retrieved);
+    }
+
     /**
      * Translate the provided Egeria unique identifier into an Egeria entity.
      * @param xtdb connectivity to XTDB
@@ -190,10 +242,53 @@ public class GetEntity extends AbstractReadOperation {
                         ref, xtdb.getRepositoryName()),
                         GetEntity.class.getName(), methodName);
             }
+            Object contentKey = getContentKey(xtdbDoc);
+            EntityDetail cached = getCachedInstance(EntityDetail.class, contentKey, EntityDetailMapping::copy);
+            if (cached != null) {
+                return cached;
+            }
             EntityDetailMapping edm = new EntityDetailMapping(xtdb, xtdbDoc);
-            return edm.toEgeria();
+            return cacheInstance(EntityDetail.class, contentKey, edm.toEgeria(), xtdbDoc, EntityDetailMapping::copy);
         }
         return null;
     }
 
+    /**
+     * Translate the provided XTDB document references into Egeria entities, retrieving any that are not already
+     * cached in a single round-trip. (Unlike retrieving a single entity, any that are only proxies are simply
+     * omitted rather than being treated as an error.)
+     * @param xtdb connectivity to XTDB
+     * @param db from which to retrieve the details
+     * @param refs references to the entity documents
+     * @return {@code Map<String, EntityDetail>} keyed by reference (any that could not be retrieved or translated
+     *         will not be included)
+     */
+    public static Map<String, EntityDetail> detailsByRefs(XtdbOMRSRepositoryConnector xtdb, IXtdbDatasource db, Collection<String> refs) {
+        return detailsByRefs(xtdb, db, refs, new HashMap<>());
+    }
+
+    /**
+     * Translate the provided XTDB document references into Egeria entities, re-using any documents that have already
+     * been retrieved and retrieving the rest (that are not already cached) in a single round-trip. (Any that are only
+     * proxies are simply omitted.)
+     * @param xtdb connectivity to XTDB
+     * @param db from which to retrieve the details
+     * @param refs references to the entity documents
+     * @param retrieved documents already retrieved from the same datasource, keyed by reference (any further
+     *                  documents retrieved will be added to it)
+     * @return {@code Map<String, EntityDetail>} keyed by reference (any that could not be retrieved or translated
+     *         will not be included)
+     */
+    public static Map<String, EntityDetail> detailsByRefs(XtdbOMRSRepositoryConnector xtdb,
+                                                          IXtdbDatasource db,
+                                                          Collection<String> refs,
+                                                          Map<String, XtdbDocument> retrieved) {
+        return getInstancesByReference(db,
+                refs,
+                EntityDetail.class,
+                xtdbDoc -> EntityProxyMapping.isOnlyAProxy(xtdbDoc) ? null : new EntityDetailMapping(xtdb, xtdbDoc).toEgeria(),
+                EntityDetailMapping::copy,
+                retrieved);
+    }
+
 }
@@ -5,6 +5,7 @@ package org.odpi.egeria.connectors.juxt.xtdb.readops;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntitySummaryMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
@@ -46,48 +47,49 @@ public class GetEntityHistory extends AbstractHistoryOperation {
      * @throws RepositoryErrorException if any issue closing the lazy-evaluating cursor
      */
     public List<EntityDetail> execute() throws EntityNotKnownException, RepositoryErrorException {
+        try (OperationTimer timer = startTimer()) {
 
-        final String methodName = "getPreviousVersionsOfEntity";
-        List<EntityDetail> results = new ArrayList<>();
-        String docRef = EntitySummaryMapping.getReference(instanceGUID);
+            final String methodName = "getPreviousVersionsOfEntity";
+            List<EntityDetail> results = new ArrayList<>();
+            String docRef = EntitySummaryMapping.getReference(instanceGUID);
 
-        boolean noResults;
+            boolean noResults;
 
-        IXtdb xtdbAPI = xtdb.getXtdbAPI();
-        // Open the database view at the latest point against which we are interested
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-            List<XtdbDocument> history = getPreviousVersions(db, docRef, fromTime, sequencingOrder);
-            noResults = history.isEmpty();
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            // Open the database view at the latest point against which we are interested
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+                List<XtdbDocument> history = getPreviousVersions(db, docRef, fromTime, sequencingOrder);
+                noResults = history.isEmpty();
 
-            // Default to the maximum allowable page size if none was specified
-            int maxResult = fromElement + (pageSize == 0 ? xtdb.getMaxPageSize() : pageSize);
+                // Default to the maximum allowable page size if none was specified
+                int maxResult = fromElement + (pageSize == 0 ? xtdb.getMaxPageSize() : pageSize);
 
-            int currentIndex = 0;
-            // Iterate through every doc received back and retrieve the details of the associated
-            // EntityDetail -- adhering to requested paging parameters...
-            for (XtdbDocument version : history) {
-                if (currentIndex >= maxResult) {
-                    break; // break out if we're beyond the page
-                } else if (currentIndex >= fromElement) {
-                    EntityDetailMapping edm = new EntityDetailMapping(xtdb, version);
-                    EntityDetail detail = edm.toEgeria();
-                    if (detail != null) {
-                        results.add(detail);
+                int currentIndex = 0;
+                // Iterate through every doc received back and retrieve the details of the associated
+                // EntityDetail -- adhering to requested paging parameters...
+                for (XtdbDocument version : history) {
+                    if (currentIndex >= maxResult) {
+                        break; // break out if we're beyond the page
+                    } else if (currentIndex >= fromElement) {
+                        EntityDetailMapping edm = new EntityDetailMapping(xtdb, version);
+                        EntityDetail detail = edm.toEgeria();
+                        if (detail != null) {
+                            results.add(detail);
+                        }
                     }
+                    currentIndex++;
                 }
-                currentIndex++;
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
             }
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), methodName, e);
-        }
-
-        if (noResults)
-            throw new EntityNotKnownException(XtdbOMRSErrorCode.ENTITY_NOT_KNOWN.getMessageDefinition(instanceGUID),
-                    this.getClass().getName(), methodName);
 
-        return results;
+            if (noResults)
+                throw new EntityNotKnownException(XtdbOMRSErrorCode.ENTITY_NOT_KNOWN.getMessageDefinition(instanceGUID),
+                        this.getClass().getName(), methodName);
 
+            return timer.succeeded(results);
+        }
     }
 
 }
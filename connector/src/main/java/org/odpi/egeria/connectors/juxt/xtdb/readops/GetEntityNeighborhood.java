@@ -3,6 +3,7 @@
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
@@ -56,27 +57,28 @@ public class GetEntityNeighborhood extends AbstractGraphOperation {
      * @throws RepositoryErrorException on any other connectivity or resource usage error
      */
     public InstanceGraph execute() throws EntityNotKnownException, RepositoryErrorException {
+        try (OperationTimer timer = startTimer()) {
 
-        final String methodName = "getEntityNeighborhood";
-        InstanceGraph instanceGraph;
+            final String methodName = "getEntityNeighborhood";
+            InstanceGraph instanceGraph;
 
-        IXtdb xtdbAPI = xtdb.getXtdbAPI();
-        // Since a relationship involves not only the relationship object, but also some details from each proxy,
-        // we will open a database up-front to re-use for multiple queries (try-with to ensure it is closed after).
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-            instanceGraph = findNeighborhood(db,
-                    entityTypeGUIDs,
-                    relationshipTypeGUIDs,
-                    limitResultsByClassification,
-                    level,
-                    true);
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), methodName, e);
-        }
-
-        return instanceGraph;
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            // Since a relationship involves not only the relationship object, but also some details from each proxy,
+            // we will open a database up-front to re-use for multiple queries (try-with to ensure it is closed after).
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+                instanceGraph = findNeighborhood(db,
+                        entityTypeGUIDs,
+                        relationshipTypeGUIDs,
+                        limitResultsByClassification,
+                        level,
+                        true);
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
 
+            return timer.succeeded(instanceGraph);
+        }
     }
 
 }
@@ -2,10 +2,14 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
+import clojure.lang.IPersistentMap;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntitySummaryMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceHeaderMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.QueryProfile;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.XtdbGraphQuery;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntitySummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
@@ -28,6 +32,8 @@ public class GetLinkingEntities extends AbstractGraphOperation {
     private static final Logger log = LoggerFactory.getLogger(GetLinkingEntities.class);
 
     private final String endEntityGUID;
+    private final int maxLinkingDepth;
+    private final int maxLinkingFanOut;
 
     /**
      * Create a new getLinkingEntities operation.
@@ -42,8 +48,32 @@ public class GetLinkingEntities extends AbstractGraphOperation {
                               String endEntityGUID,
                               List<InstanceStatus> limitResultsByStatus,
                               Date asOfTime) {
+        this(xtdb, startEntityGUID, endEntityGUID, limitResultsByStatus, asOfTime,
+                xtdb.getMaxLinkingDepth(), xtdb.getMaxLinkingFanOut());
+    }
+
+    /**
+     * Create a new getLinkingEntities operation, limited by the provided depth and fan-out rather than those
+     * configured for the connector.
+     * @param xtdb connectivity to XTDB
+     * @param startEntityGUID the starting point of the query
+     * @param endEntityGUID the finishing point of the query
+     * @param limitResultsByStatus list of statuses by which to limit results
+     * @param asOfTime the point-in-time for which to retrieve results
+     * @param maxLinkingDepth the maximum number of relationships on any path between the start and end
+     * @param maxLinkingFanOut the maximum number of relationships an entity can have and still be traversed (0 for no limit)
+     */
+    public GetLinkingEntities(XtdbOMRSRepositoryConnector xtdb,
+                              String startEntityGUID,
+                              String endEntityGUID,
+                              List<InstanceStatus> limitResultsByStatus,
+                              Date asOfTime,
+                              int maxLinkingDepth,
+                              int maxLinkingFanOut) {
         super(xtdb, startEntityGUID, limitResultsByStatus, asOfTime);
         this.endEntityGUID = endEntityGUID;
+        this.maxLinkingDepth = maxLinkingDepth;
+        this.maxLinkingFanOut = maxLinkingFanOut;
     }
 
     /**
@@ -53,126 +83,386 @@ public class GetLinkingEntities extends AbstractGraphOperation {
      * @throws RepositoryErrorException if any issue closing an open XTDB resource
      */
     public InstanceGraph execute() throws EntityNotKnownException, RepositoryErrorException {
+        try (OperationTimer timer = startTimer()) {
 
-        final String methodName = "getLinkingEntities";
-        InstanceGraph instanceGraph;
+            final String methodName = "getLinkingEntities";
+            InstanceGraph instanceGraph;
 
-        IXtdb xtdbAPI = xtdb.getXtdbAPI();
-        // Since a relationship involves not only the relationship object, but also some details from each proxy,
-        // we will open a database up-front to re-use for multiple queries (try-with to ensure it is closed after).
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            // Since a relationship involves not only the relationship object, but also some details from each proxy,
+            // we will open a database up-front to re-use for multiple queries (try-with to ensure it is closed after).
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
 
-            Set<String> entityGUIDsVisited = new HashSet<>();
-            Set<String> relationshipGUIDsVisited = new HashSet<>();
+                Set<String> entityGUIDsVisited = new HashSet<>();
+                Set<String> relationshipGUIDsVisited = new HashSet<>();
 
-            // Start the InstanceGraph off with the entity starting point that was requested
-            // (not clear if this is the intended logic, but follows other repository implementations)
-            EntitySummary startingEntity = GetEntity.summaryByGuid(xtdb, db, startEntityGUID);
+                // Start the InstanceGraph off with the entity starting point that was requested
+                // (not clear if this is the intended logic, but follows other repository implementations)
+                EntitySummary startingEntity = GetEntity.summaryByGuid(xtdb, db, startEntityGUID);
 
-            if (startingEntity == null) {
-                throw new EntityNotKnownException(XtdbOMRSErrorCode.ENTITY_NOT_KNOWN.getMessageDefinition(
-                        startEntityGUID), this.getClass().getName(), methodName);
-            }
+                if (startingEntity == null) {
+                    throw new EntityNotKnownException(XtdbOMRSErrorCode.ENTITY_NOT_KNOWN.getMessageDefinition(
+                            startEntityGUID), this.getClass().getName(), methodName);
+                }
 
-            entityGUIDsVisited.add(startEntityGUID);
-
-            Set<String> traversedGuids = new HashSet<>();
-            traversedGuids.add(startEntityGUID);
-            Set<List<?>> successfulTraversals = traverseToEnd(db,
-                    startEntityGUID,
-                    endEntityGUID,
-                    limitResultsByStatus,
-                    traversedGuids,
-                    1);
-
-            instanceGraph = resultsToGraph(db, successfulTraversals, entityGUIDsVisited, relationshipGUIDsVisited, true);
-            if (instanceGraph != null && instanceGraph.getEntities() != null && instanceGraph.getEntities().size() == 1) {
-                // If there were no entities other than the starting entity, return an empty graph
-                instanceGraph = null;
-            }
+                entityGUIDsVisited.add(startEntityGUID);
 
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), methodName, e);
-        }
+                Set<List<?>> successfulTraversals = findLinkingPaths(db);
 
-        return instanceGraph;
+                instanceGraph = resultsToGraph(db, successfulTraversals, entityGUIDsVisited, relationshipGUIDsVisited, true);
+                if (instanceGraph != null && instanceGraph.getEntities() != null && instanceGraph.getEntities().size() == 1) {
+                    // If there were no entities other than the starting entity, return an empty graph
+                    instanceGraph = null;
+                }
 
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
+
+            return timer.succeeded(instanceGraph);
+        }
     }
 
     /**
-     * Recursively traverses from the starting entity to the end entity, up to a maximum depth (to avoid potential
-     * stack overflow).
+     * Search for the paths that link the starting entity to the end entity, through a bidirectional breadth-first
+     * search: each side of the search expands out from its entity one level at a time (always expanding whichever
+     * side has the smaller frontier, through a single query for that entire frontier), until the two sides together
+     * reach beyond the maximum depth or either side runs out of entities to expand. Every entity on a path of no more
+     * than the maximum depth has then been expanded by at least one side, so every such path (that does not pass
+     * through any entity more than once, or through a hub) can be reconstructed from what both sides have found.
      * @param db already opened view of the database at a point-in-time
-     * @param startEntityGUID from which to start traversing
-     * @param endEntityGUID at which to stop traversing
-     * @param limitResultsByStatus to limit which entities are traversed based on their status
-     * @param entityGUIDsVisited to avoid traversing the same entity multiple times (for efficiency)
-     * @param currentDepth tracks the current depth (once we reach maximum, bail out)
      * @return {@code Set<List<?>>} of the unique combinations of entities and relationships that successfully link between the start and end
-     * @see Constants#MAX_TRAVERSAL_DEPTH
+     * @see XtdbOMRSRepositoryConnector#getMaxLinkingDepth()
+     * @see XtdbOMRSRepositoryConnector#getMaxLinkingFanOut()
      * @throws RepositoryTimeoutException if the query runs longer than the defined threshold (default: 30s)
      */
-    private Set<List<?>> traverseToEnd(IXtdbDatasource db,
-                                       String startEntityGUID,
-                                       String endEntityGUID,
-                                       List<InstanceStatus> limitResultsByStatus,
-                                       Set<String> entityGUIDsVisited,
-                                       int currentDepth) throws RepositoryTimeoutException {
-
-        final String methodName = "traverseToEnd";
+    private Set<List<?>> findLinkingPaths(IXtdbDatasource db) throws RepositoryTimeoutException {
+
         Set<List<?>> consolidated = new LinkedHashSet<>();
+        if (startEntityGUID.equals(endEntityGUID)) {
+            return consolidated;
+        }
+
+        LinkingGraph graph = new LinkingGraph();
+        Traversal forward = new Traversal(startEntityGUID);
+        Traversal backward = new Traversal(endEntityGUID);
+
+        while (forward.depth + backward.depth <= maxLinkingDepth
+                && !forward.frontier.isEmpty()
+                && !backward.frontier.isEmpty()) {
+            expand(db, forward.frontier.size() <= backward.frontier.size() ? forward : backward, graph);
+        }
+
+        graph.addPathsBetween(EntitySummaryMapping.getReference(startEntityGUID),
+                EntitySummaryMapping.getReference(endEntityGUID),
+                maxLinkingDepth,
+                consolidated);
+        log.debug("Found linking paths: {}", consolidated);
+        return consolidated;
+
+    }
+
+    /**
+     * Expand the provided side of the search by one level, from its entire frontier at once.
+     * @param db already opened view of the database at a point-in-time
+     * @param traversal the side of the search to expand
+     * @param graph into which to add the entities and relationships that are found
+     * @throws RepositoryTimeoutException if the query runs longer than the defined threshold (default: 30s)
+     */
+    private void expand(IXtdbDatasource db, Traversal traversal, LinkingGraph graph) throws RepositoryTimeoutException {
+
+        final String methodName = "expand";
+
+        Collection<List<?>> nextLevel;
+        try {
+            nextLevel = findDirectNeighborsOfEach(db, traversal.frontier);
+        } catch (TimeoutException e) {
+            throw new RepositoryTimeoutException(XtdbOMRSErrorCode.QUERY_TIMEOUT.getMessageDefinition(xtdb.getRepositoryName()),
+                    this.getClass().getName(), methodName, e);
+        }
+        log.debug("Found traversal results: {}", nextLevel);
+
+        // Results here will be a collection of tuples: [:entity/... :relationship/... :entity/...(root)]
+        Set<String> hubs = getHubs(traversal, nextLevel);
+        for (String entityGUID : traversal.frontier) {
+            String entityRef = EntitySummaryMapping.getReference(entityGUID);
+            if (hubs.contains(entityRef)) {
+                graph.hubs.add(entityRef);
+            } else {
+                graph.expanded.add(entityRef);
+            }
+        }
+        Set<String> nextFrontier = new LinkedHashSet<>();
+        for (List<?> candidateTuple : nextLevel) {
+            String candidateEntityRef = getEntityRefFromGraphTuple(candidateTuple);
+            String rootEntityRef = getRootEntityRefFromGraphTuple(candidateTuple);
+            if (!candidateEntityRef.equals(rootEntityRef) && !hubs.contains(rootEntityRef)) {
+                graph.link(rootEntityRef, getRelationshipRefFromGraphTuple(candidateTuple), candidateEntityRef);
+                String candidateGuid = InstanceHeaderMapping.trimGuidFromReference(candidateEntityRef);
+                if (traversal.reached.add(candidateGuid)) {
+                    nextFrontier.add(candidateGuid);
+                }
+            }
+        }
+        traversal.frontier = nextFrontier;
+        traversal.depth++;
+
+    }
+
+    /**
+     * Find the immediate neighbors (1-degree separated entities and the relationships between) of any of the provided
+     * entities, along with the entity of which each is a neighbor.
+     * @param db already opened point-in-view of the database
+     * @param entityGUIDs of the entities for which to find immediate relationships
+     * @return {@code Collection<List<?>>} of tuples of entities, relationships and the entities they are related to
+     * @throws TimeoutException if the query runs longer than the defined threshold (default: 30s)
+     */
+    private Collection<List<?>> findDirectNeighborsOfEach(IXtdbDatasource db,
+                                                          Collection<String> entityGUIDs) throws TimeoutException {
+        QueryProfile profile = startQuery();
+        XtdbGraphQuery query = new XtdbGraphQuery(true);
+        query.addRelationshipLimiters(entityGUIDs, null, limitResultsByStatus);
+        query.addEntityLimiters(null, null, limitResultsByStatus);
+        query.addRootEntityToResults();
+        IPersistentMap q = query.getQuery();
+        profile.built(q, query.getArgs());
+        log.debug(Constants.QUERY_WITH, q);
+        Collection<List<?>> results = db.query(q, query.getArgs());
+        profile.executed();
+        profile.completed(results);
+        return results;
+    }
+
+    /**
+     * Retrieve the entities on the frontier of the provided side of the search that have too many relationships to
+     * be traversed any further (other than the entity from which that side started, which must always be traversed).
+     * @param traversal the side of the search being expanded
+     * @param nextLevel graph query results for the frontier of that side of the search
+     * @return {@code Set<String>} of the references to the entities that should not be traversed
+     */
+    private Set<String> getHubs(Traversal traversal, Collection<List<?>> nextLevel) {
+        if (maxLinkingFanOut <= 0 || traversal.depth == 0) {
+            return Collections.emptySet();
+        }
+        Map<String, Integer> fanOut = new HashMap<>();
+        for (List<?> candidateTuple : nextLevel) {
+            String rootEntityRef = getRootEntityRefFromGraphTuple(candidateTuple);
+            if (!rootEntityRef.equals(getEntityRefFromGraphTuple(candidateTuple))) {
+                fanOut.merge(rootEntityRef, 1, Integer::sum);
+            }
+        }
+        Set<String> hubs = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : fanOut.entrySet()) {
+            if (entry.getValue() > maxLinkingFanOut) {
+                log.debug("Not traversing through entity with {} relationships: {}", entry.getValue(), entry.getKey());
+                hubs.add(entry.getKey());
+            }
+        }
+        return hubs;
+    }
+
+    /**
+     * Retrieve the root entity reference from the provided graph query result.
+     * @param tuple graph query result
+     * @return String reference for the root entity
+     */
+    private String getRootEntityRefFromGraphTuple(List<?> tuple) {
+        return tuple == null ? null : (String) tuple.get(2);
+    }
+
+    /**
+     * One side of a bidirectional search: the entities it has reached so far, and those it will expand next.
+     */
+    private static class Traversal {
+
+        private final Set<String> reached;
+        private Set<String> frontier;
+        private int depth;
+
+        /**
+         * Start a new side of the search.
+         * @param entityGUID of the entity from which the search starts
+         */
+        Traversal(String entityGUID) {
+            reached = new HashSet<>();
+            reached.add(entityGUID);
+            frontier = new LinkedHashSet<>();
+            frontier.add(entityGUID);
+            depth = 0;
+        }
+
+    }
+
+    /**
+     * The entities and relationships found by both sides of the search, from which the linking paths are
+     * reconstructed.
+     */
+    private static class LinkingGraph {
+
+        private final Map<String, Map<String, String>> links = new HashMap<>();
+        private final Set<String> expanded = new HashSet<>();
+        private final Set<String> hubs = new HashSet<>();
 
-        // As long as we have not reached the maximum depth, keep traversing...
-        if (currentDepth < Constants.MAX_TRAVERSAL_DEPTH) {
-            try {
-                Collection<List<?>> nextLevel = findDirectNeighbors(db,
-                        startEntityGUID,
-                        null,
-                        null,
-                        limitResultsByStatus,
-                        null);
-                log.debug("Found traversal results: {}", nextLevel);
-                String startRef = EntitySummaryMapping.getReference(startEntityGUID);
-                String endRef = EntitySummaryMapping.getReference(endEntityGUID);
-                if (nextLevel != null && !nextLevel.isEmpty()) {
-                    // As long as there is something to check in the next level, do so...
-                    for (List<?> candidateTuple : nextLevel) {
-                        String candidateEntityRef = getEntityRefFromGraphTuple(candidateTuple);
-                        if (endRef.equals(candidateEntityRef)) {
-                            // If we found the endEntityGUID in the results, add it to the set of successful traversals
-                            consolidated.add(candidateTuple);
-                        } else if (!startRef.equals(candidateEntityRef)) {
-                            // Otherwise, so long as we have not circled back to the starting point, continue traversing
-                            String nextStartGuid = InstanceHeaderMapping.trimGuidFromReference(candidateEntityRef);
-                            if (!entityGUIDsVisited.contains(nextStartGuid)) {
-                                // If we have not already traversed this GUID, continue traversing...
-                                entityGUIDsVisited.add(nextStartGuid);
-                                Set<List<?>> nextTraversal = traverseToEnd(db,
-                                        nextStartGuid,
-                                        endEntityGUID,
-                                        limitResultsByStatus,
-                                        entityGUIDsVisited,
-                                        currentDepth + 1);
-                                // If the traversal returns a non-empty result, it was successful
-                                if (!nextTraversal.isEmpty()) {
-                                    // So add the traversal up to now (since it led to a successful outcome)
-                                    consolidated.add(candidateTuple);
-                                    // And the successful sub-traversal(s) that were returned
-                                    consolidated.addAll(nextTraversal);
-                                }
-                            }
+        /**
+         * Record a relationship between two entities.
+         * @param entityRef reference to one of the entities
+         * @param relationshipRef reference to the relationship
+         * @param otherEntityRef reference to the other entity
+         */
+        void link(String entityRef, String relationshipRef, String otherEntityRef) {
+            links.computeIfAbsent(entityRef, k -> new LinkedHashMap<>()).put(relationshipRef, otherEntityRef);
+            links.computeIfAbsent(otherEntityRef, k -> new LinkedHashMap<>()).put(relationshipRef, entityRef);
+        }
+
+        /**
+         * Indicates whether a path can pass through the provided entity: only if its relationships were found by
+         * the search, and it is not a hub.
+         * @param entityRef reference to the entity
+         * @return boolean
+         */
+        boolean isTraversable(String entityRef) {
+            return expanded.contains(entityRef) && !hubs.contains(entityRef);
+        }
+
+        /**
+         * Add the entities and relationships on every path of no more than the maximum depth between the provided
+         * entities. Rather than listing every such path (of which there can be exponentially many), each relationship
+         * is considered once: it can only be on such a path if the fewest relationships from the start to one of its
+         * entities, plus the fewest from its other entity to the end, plus itself, is within the maximum depth. As
+         * those fewest relationships might pass through the same entity, any relationship that passes this check is
+         * then only added if a path that does not pass through any entity more than once can also be found through it.
+         * @param startRef reference to the entity at the start of the paths
+         * @param endRef reference to the entity at the end of the paths
+         * @param maxDepth maximum number of relationships on any path
+         * @param consolidated to which to add the paths, as graph tuples [[:entityRef :relationshipRef]]
+         */
+        void addPathsBetween(String startRef, String endRef, int maxDepth, Set<List<?>> consolidated) {
+            Map<String, Integer> fromStart = getDistances(startRef, endRef);
+            Map<String, Integer> toEnd = getDistances(endRef, startRef);
+            Integer shortest = toEnd.get(startRef);
+            if (shortest == null || shortest > maxDepth) {
+                return;
+            }
+            for (Map.Entry<String, Integer> entry : fromStart.entrySet()) {
+                String entityRef = entry.getKey();
+                if (entityRef.equals(endRef) || !(entityRef.equals(startRef) || isTraversable(entityRef))) {
+                    continue;
+                }
+                for (Map.Entry<String, String> link : links.getOrDefault(entityRef, Collections.emptyMap()).entrySet()) {
+                    String nextRef = link.getValue();
+                    Integer remaining = toEnd.get(nextRef);
+                    if (remaining != null
+                            && entry.getValue() + 1 + remaining <= maxDepth
+                            && !nextRef.equals(startRef)
+                            && (nextRef.equals(endRef) || isTraversable(nextRef))
+                            && isOnPath(startRef, entityRef, nextRef, endRef, maxDepth)) {
+                        addStep(Arrays.asList(entityRef, link.getKey(), nextRef), consolidated);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Indicates whether a path of no more than the maximum depth, that does not pass through any entity more than
+         * once, can be found from the start to the end through the relationship between the provided entities. The
+         * fewest relationships are taken from the start to the relationship while avoiding the end, and then from the
+         * relationship to the end while avoiding those already taken (or the other way around), so the check is bounded
+         * by two searches of the graph in each direction. (It can miss a relationship whose only such paths need a
+         * longer route on one side to leave room for the other, but it never adds a relationship that is not on one.)
+         * @param startRef reference to the entity at the start of the paths
+         * @param entityRef reference to the entity on the start's side of the relationship
+         * @param nextRef reference to the entity on the end's side of the relationship
+         * @param endRef reference to the entity at the end of the paths
+         * @param maxDepth maximum number of relationships on any path
+         * @return boolean
+         */
+        private boolean isOnPath(String startRef, String entityRef, String nextRef, String endRef, int maxDepth) {
+            List<String> before = findPath(startRef, entityRef, new HashSet<>(Arrays.asList(nextRef, endRef)));
+            if (before != null) {
+                List<String> after = findPath(nextRef, endRef, new HashSet<>(before));
+                if (after != null && before.size() + after.size() - 1 <= maxDepth) {
+                    return true;
+                }
+            }
+            List<String> after = findPath(nextRef, endRef, new HashSet<>(Arrays.asList(entityRef, startRef)));
+            if (after != null) {
+                before = findPath(startRef, entityRef, new HashSet<>(after));
+                return before != null && before.size() + after.size() - 1 <= maxDepth;
+            }
+            return false;
+        }
+
+        /**
+         * Retrieve the entities along a path with the fewest relationships between the provided entities, only passing
+         * through those entities through which a path can pass.
+         * @param fromRef reference to the entity at which the path starts
+         * @param toRef reference to the entity at which the path ends
+         * @param avoid references to the entities the path must not include
+         * @return {@code List<String>} of references to the entities along the path (including both ends), or null if
+         *         there is no such path
+         */
+        private List<String> findPath(String fromRef, String toRef, Set<String> avoid) {
+            Map<String, String> previous = new HashMap<>();
+            previous.put(fromRef, null);
+            Deque<String> pending = new ArrayDeque<>();
+            pending.add(fromRef);
+            while (!pending.isEmpty() && !previous.containsKey(toRef)) {
+                String entityRef = pending.poll();
+                for (String nextRef : links.getOrDefault(entityRef, Collections.emptyMap()).values()) {
+                    if (!previous.containsKey(nextRef) && !avoid.contains(nextRef)
+                            && (nextRef.equals(toRef) || isTraversable(nextRef))) {
+                        previous.put(nextRef, entityRef);
+                        pending.add(nextRef);
+                    }
+                }
+            }
+            if (!previous.containsKey(toRef)) {
+                return null;
+            }
+            LinkedList<String> path = new LinkedList<>();
+            for (String entityRef = toRef; entityRef != null; entityRef = previous.get(entityRef)) {
+                path.addFirst(entityRef);
+            }
+            return path;
+        }
+
+        /**
+         * Retrieve the fewest relationships between each entity and the provided entity, only passing through those
+         * entities through which a path can pass (and never through the other end of the paths).
+         * @param fromRef reference to the entity from which to measure
+         * @param otherEndRef reference to the entity at the other end of the paths
+         * @return {@code Map<String, Integer>} of the distance to each entity that is reachable
+         */
+        private Map<String, Integer> getDistances(String fromRef, String otherEndRef) {
+            Map<String, Integer> distances = new HashMap<>();
+            distances.put(fromRef, 0);
+            Deque<String> pending = new ArrayDeque<>();
+            pending.add(fromRef);
+            while (!pending.isEmpty()) {
+                String entityRef = pending.poll();
+                int distance = distances.get(entityRef) + 1;
+                for (String nextRef : links.getOrDefault(entityRef, Collections.emptyMap()).values()) {
+                    if (!distances.containsKey(nextRef)) {
+                        distances.put(nextRef, distance);
+                        if (!nextRef.equals(otherEndRef) && isTraversable(nextRef)) {
+                            pending.add(nextRef);
                         }
                     }
                 }
-            } catch (TimeoutException e) {
-                throw new RepositoryTimeoutException(XtdbOMRSErrorCode.QUERY_TIMEOUT.getMessageDefinition(xtdb.getRepositoryName()),
-                        this.getClass().getName(), methodName, e);
             }
+            return distances;
         }
 
-        // return the consolidated set of successful traversals, or null if none were found
-        return consolidated;
+        /**
+         * Add both entities of a step along a path, each with the relationship between them.
+         * @param step [:entityRef :relationshipRef :entityRef]
+         * @param consolidated to which to add the step
+         */
+        private static void addStep(List<String> step, Set<List<?>> consolidated) {
+            consolidated.add(Arrays.asList(step.get(0), step.get(1)));
+            consolidated.add(Arrays.asList(step.get(2), step.get(1)));
+        }
 
     }
 
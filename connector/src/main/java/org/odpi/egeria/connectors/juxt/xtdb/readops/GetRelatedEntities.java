@@ -3,10 +3,17 @@
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceHeaderMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import xtdb.api.IXtdb;
 import xtdb.api.IXtdbDatasource;
 
@@ -18,6 +25,11 @@ import java.util.*;
  */
 public class GetRelatedEntities extends AbstractGraphOperation {
 
+    private static final Logger log = LoggerFactory.getLogger(GetRelatedEntities.class);
+
+    // Maximum number of entities to retrieve from XTDB at a time
+    private static final int BATCH_SIZE = 100;
+
     private final List<String> entityTypeGUIDs;
     private final List<String> limitResultsByClassification;
 
@@ -48,26 +60,204 @@ public class GetRelatedEntities extends AbstractGraphOperation {
      * @throws RepositoryErrorException on any other connectivity or resource usage error
      */
     public InstanceGraph execute() throws EntityNotKnownException, RepositoryErrorException {
+        try (OperationTimer timer = startTimer()) {
+
+            final String methodName = "getRelatedEntities";
+            InstanceGraph instanceGraph;
+
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            // Since a relationship involves not only the relationship object, but also some details from each proxy,
+            // we will open a database up-front to re-use for multiple queries (try-with to ensure it is closed after).
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+                instanceGraph = findNeighborhood(db,
+                        entityTypeGUIDs,
+                        null,
+                        limitResultsByClassification,
+                        -1,
+                        false);
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
+
+            return timer.succeeded(instanceGraph);
+        }
+    }
+
+    /**
+     * Execute the getRelatedEntities operation, retrieving only a single page of the related entities. The related
+     * entities are streamed out of the traversal one level at a time: when they are not to be sorted, the traversal
+     * stops as soon as enough entities have been found to fill the page, and when they are to be sorted only the
+     * entities that could still be on the page are retained (so that memory use is bounded by the size of the page
+     * rather than by the number of related entities).
+     * @param fromEntityElement the starting element number of the entities to return
+     * @param sequencingProperty the name of the property that is to be used to sequence the results
+     * @param sequencingOrder enumeration defining how the results should be ordered
+     * @param pageSize the maximum number of result entities that can be returned on this request (0 for all)
+     * @return {@code List<EntityDetail>} of the page of related entities, or null if there are none
+     * @throws EntityNotKnownException if the starting entity for the traversal cannot be found
+     * @throws PagingErrorException if the paging parameters are invalid
+     * @throws PropertyErrorException if the sequencing property is invalid
+     * @throws RepositoryErrorException on any other connectivity or resource usage error
+     */
+    public List<EntityDetail> execute(int fromEntityElement,
+                                      String sequencingProperty,
+                                      SequencingOrder sequencingOrder,
+                                      int pageSize) throws
+            EntityNotKnownException,
+            PagingErrorException,
+            PropertyErrorException,
+            RepositoryErrorException {
+        try (OperationTimer timer = startTimer()) {
+
+            final String methodName = "getRelatedEntities";
+            Page page = new Page(fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+
+                // Start the results off with the entity starting point that was requested (as for the complete graph)
+                addStartingEntity(db, page);
+                Set<String> entityGUIDsRetrieved = new HashSet<>();
+                entityGUIDsRetrieved.add(startEntityGUID);
+                traverse(db,
+                        entityTypeGUIDs,
+                        null,
+                        limitResultsByClassification,
+                        -1,
+                        nextGraph -> {
+                            // Only retrieve the entities that have not already been retrieved (from a previous level)
+                            List<String> entityRefs = new ArrayList<>();
+                            for (List<?> tuple : nextGraph) {
+                                String entityRef = getEntityRefFromGraphTuple(tuple);
+                                if (entityGUIDsRetrieved.add(InstanceHeaderMapping.trimGuidFromReference(entityRef))) {
+                                    entityRefs.add(entityRef);
+                                }
+                            }
+                            return addEntities(db, entityRefs, page);
+                        });
+
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
+
+            return timer.succeeded(page.getResults());
+        }
+    }
+
+    /**
+     * Add the starting entity to the provided page of results (so long as it is not only a proxy).
+     * @param db already opened point-in-time view of the database
+     * @param page to which to add the entity
+     */
+    private void addStartingEntity(IXtdbDatasource db, Page page) {
+        try {
+            EntityDetail startingEntity = GetEntity.detailByGuid(xtdb, db, startEntityGUID);
+            if (startingEntity != null) {
+                page.add(startingEntity);
+            }
+        } catch (EntityProxyOnlyException e) {
+            log.debug("Starting entity for traversals was only a proxy, not adding it to results: {}", startEntityGUID);
+        }
+    }
+
+    /**
+     * Retrieve the provided entities (in batches) and add them to the provided page of results, in order, until the
+     * page is full. Any entities that are only proxies are skipped.
+     * @param db already opened point-in-time view of the database
+     * @param entityRefs references to the entities to add
+     * @param page to which to add the entities
+     * @return boolean true if the page could still take more entities, false if it is full
+     */
+    private boolean addEntities(IXtdbDatasource db, List<String> entityRefs, Page page) {
+        for (int i = 0; i < entityRefs.size() && !page.isFull(); i += BATCH_SIZE) {
+            List<String> batch = entityRefs.subList(i, Math.min(i + BATCH_SIZE, entityRefs.size()));
+            Map<String, EntityDetail> entities = GetEntity.detailsByRefs(xtdb, db, batch);
+            for (String entityRef : batch) {
+                EntityDetail entity = entities.get(entityRef);
+                if (entity != null && !page.isFull()) {
+                    page.add(entity);
+                }
+            }
+        }
+        return !page.isFull();
+    }
+
+    /**
+     * A single page of the related entities, which retains no more of the entities it is given than could still end
+     * up on the page.
+     */
+    private class Page {
+
+        private final int fromEntityElement;
+        private final String sequencingProperty;
+        private final SequencingOrder sequencingOrder;
+        private final int pageSize;
+        private final boolean sorted;
+        private final int window;
+        private List<EntityDetail> entities;
+
+        /**
+         * Start a new page of results.
+         * @param fromEntityElement the starting element number of the entities to return
+         * @param sequencingProperty the name of the property that is to be used to sequence the results
+         * @param sequencingOrder enumeration defining how the results should be ordered
+         * @param pageSize the maximum number of result entities that can be returned on this request (0 for all)
+         */
+        Page(int fromEntityElement, String sequencingProperty, SequencingOrder sequencingOrder, int pageSize) {
+            this.fromEntityElement = fromEntityElement;
+            this.sequencingProperty = sequencingProperty;
+            this.sequencingOrder = sequencingOrder;
+            this.pageSize = pageSize;
+            this.sorted = sequencingOrder != null && sequencingOrder != SequencingOrder.ANY;
+            this.window = pageSize > 0 ? fromEntityElement + pageSize : 0;
+            this.entities = new ArrayList<>();
+        }
 
-        final String methodName = "getRelatedEntities";
-        InstanceGraph instanceGraph;
-
-        IXtdb xtdbAPI = xtdb.getXtdbAPI();
-        // Since a relationship involves not only the relationship object, but also some details from each proxy,
-        // we will open a database up-front to re-use for multiple queries (try-with to ensure it is closed after).
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-            instanceGraph = findNeighborhood(db,
-                    entityTypeGUIDs,
-                    null,
-                    limitResultsByClassification,
-                    -1,
-                    false);
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), methodName, e);
+        /**
+         * Add the provided entity to the page (if it could still end up on it).
+         * @param entity to add
+         */
+        void add(EntityDetail entity) {
+            entities.add(entity);
+            if (sorted && window > 0 && entities.size() >= 2 * window) {
+                // Only the entities that sort within the window could still end up on the page, so discard the rest
+                try {
+                    entities = getRepositoryHelper().formatEntityResults(entities, 0, sequencingProperty, sequencingOrder, window);
+                } catch (PagingErrorException | PropertyErrorException e) {
+                    // These will be raised again when the final page is formatted, so simply retain everything
+                    log.debug("Unable to sort related entities, retaining all of them.", e);
+                }
+            }
         }
 
-        return instanceGraph;
+        /**
+         * Indicates whether the page is full: that is, the results are not to be sorted and the page has been given
+         * enough entities to fill it (so that any further entities could not end up on it).
+         * @return boolean
+         */
+        boolean isFull() {
+            return !sorted && window > 0 && entities.size() >= window;
+        }
+
+        /**
+         * Retrieve the sorted page of results.
+         * @return {@code List<EntityDetail>} of the page of entities, or null if there are none
+         * @throws PagingErrorException if the paging parameters are invalid
+         * @throws PropertyErrorException if the sequencing property is invalid
+         */
+        List<EntityDetail> getResults() throws PagingErrorException, PropertyErrorException {
+            return getRepositoryHelper().formatEntityResults(entities, fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
+        }
+
+        /**
+         * Retrieve the repository helper with which to sort and page the results.
+         * @return OMRSRepositoryHelper
+         */
+        private OMRSRepositoryHelper getRepositoryHelper() {
+            return xtdb.getRepositoryHelper();
+        }
 
     }
 
@@ -2,10 +2,14 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
+import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSAuditCode;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.slf4j.Logger;
@@ -15,7 +19,7 @@ import xtdb.api.IXtdbDatasource;
 import xtdb.api.XtdbDocument;
 
 import java.io.IOException;
-import java.util.Date;
+import java.util.*;
 
 /**
  * Base class to retrieve relationship information.
@@ -44,18 +48,20 @@ public class GetRelationship extends AbstractReadOperation {
      * @throws RepositoryErrorException if any issue closing an open XTDB resource
      */
     public Relationship execute() throws RepositoryErrorException {
-        final String methodName = "getRelationship";
-        Relationship r;
-        // Since a relationship involves not only the relationship object, but also some details from each proxy,
-        // we will open a database up-front to re-use for multiple queries (try-with to ensure it is closed after).
-        IXtdb xtdbAPI = xtdb.getXtdbAPI();
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-            r = byRef(xtdb, db, RelationshipMapping.getReference(guid));
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), methodName, e);
+        try (OperationTimer timer = startTimer()) {
+            final String methodName = "getRelationship";
+            Relationship r;
+            // Since a relationship involves not only the relationship object, but also some details from each proxy,
+            // we will open a database up-front to re-use for multiple queries (try-with to ensure it is closed after).
+            IXtdb xtdbAPI = xtdb.getXtdbAPI();
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+                r = byRef(xtdb, db, RelationshipMapping.getReference(guid));
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), methodName, e);
+            }
+            return timer.succeeded(r);
         }
-        return r;
     }
 
     /**
@@ -70,10 +76,139 @@ public class GetRelationship extends AbstractReadOperation {
         if (log.isDebugEnabled())
             log.debug(Constants.FOUND_RESULTS, xtdbDoc == null ? null : xtdbDoc.toMap());
         if (xtdbDoc != null) {
+            Object contentKey = getContentKey(xtdbDoc);
+            Relationship cached = getCachedInstance(Relationship.class, contentKey, RelationshipMapping::copy);
+            if (cached != null) {
+                return withCurrentProxies(xtdb, db, cached, null);
+            }
             RelationshipMapping rm = new RelationshipMapping(xtdb, xtdbDoc, db);
-            return rm.toEgeria();
+            return cacheInstance(Relationship.class, contentKey, rm.toEgeria(), xtdbDoc, RelationshipMapping::copy);
         }
         return null;
     }
 
+    /**
+     * Translate the provided XTDB document references into Egeria relationships, retrieving all the relationship
+     * documents and then all of their (distinct) entity proxies in one round-trip each.
+     * @param xtdb connectivity to XTDB
+     * @param db from which to retrieve the details
+     * @param refs references to the relationship documents
+     * @return {@code Map<String, Relationship>} keyed by reference (any that could not be retrieved or translated
+     *         will not be included)
+     */
+    public static Map<String, Relationship> byRefs(XtdbOMRSRepositoryConnector xtdb, IXtdbDatasource db, Collection<String> refs) {
+        return byRefs(xtdb, db, refs, new HashMap<>());
+    }
+
+    /**
+     * Translate the provided XTDB document references into Egeria relationships, re-using any documents (of either
+     * the relationships or their entity proxies) that have already been retrieved, and retrieving the rest of the
+     * relationship documents and then the rest of their (distinct) entity proxies in one round-trip each.
+     * @param xtdb connectivity to XTDB
+     * @param db from which to retrieve the details
+     * @param refs references to the relationship documents
+     * @param retrieved documents already retrieved from the same datasource, keyed by reference (any further
+     *                  documents retrieved will be added to it)
+     * @return {@code Map<String, Relationship>} keyed by reference (any that could not be retrieved or translated
+     *         will not be included)
+     */
+    public static Map<String, Relationship> byRefs(XtdbOMRSRepositoryConnector xtdb,
+                                                   IXtdbDatasource db,
+                                                   Collection<String> refs,
+                                                   Map<String, XtdbDocument> retrieved) {
+        Map<String, XtdbDocument> relationshipDocs = getXtdbObjectsByReference(db, refs, retrieved);
+        Set<String> proxyRefs = new HashSet<>();
+        for (XtdbDocument relationshipDoc : relationshipDocs.values()) {
+            proxyRefs.addAll(RelationshipMapping.getEntityProxyReferences(relationshipDoc));
+        }
+        Map<String, EntityProxy> entityProxies = GetEntity.proxiesByRefs(xtdb, db, proxyRefs, retrieved);
+        Map<String, Relationship> results = new HashMap<>();
+        for (Map.Entry<String, XtdbDocument> entry : relationshipDocs.entrySet()) {
+            XtdbDocument relationshipDoc = entry.getValue();
+            Object contentKey = getContentKey(relationshipDoc);
+            Relationship relationship = getCachedInstance(Relationship.class, contentKey, RelationshipMapping::copy);
+            if (relationship != null) {
+                relationship = withCurrentProxies(xtdb, db, relationship, entityProxies);
+            } else {
+                RelationshipMapping rm = new RelationshipMapping(xtdb, relationshipDoc, db, entityProxies);
+                relationship = cacheInstance(Relationship.class, contentKey, rm.toEgeria(), relationshipDoc, RelationshipMapping::copy);
+            }
+            if (relationship != null) {
+                results.put(entry.getKey(), relationship);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Replace the entity proxies of the provided (copy of a cached) relationship with their current versions: the
+     * relationship's own document does not change when the entities at either end of it do, so its cached form may
+     * hold proxies that are out-of-date.
+     * @param xtdb connectivity to XTDB
+     * @param db from which to retrieve the details
+     * @param relationship whose proxies should be replaced
+     * @param entityProxies already-retrieved entity proxies, keyed by reference (any not included will be retrieved)
+     * @return Relationship with its current proxies, or null if one or both of them could not be retrieved
+     */
+    private static Relationship withCurrentProxies(XtdbOMRSRepositoryConnector xtdb,
+                                                   IXtdbDatasource db,
+                                                   Relationship relationship,
+                                                   Map<String, EntityProxy> entityProxies) {
+        List<String> proxyRefs = getEntityProxyReferences(relationship);
+        if (proxyRefs.size() != 2) {
+            // Nothing to replace, if the relationship did not have both of its proxies to begin with
+            return relationship;
+        }
+        String oneRef = proxyRefs.get(0);
+        String twoRef = proxyRefs.get(1);
+        EntityProxy one = getCurrentProxy(xtdb, db, oneRef, entityProxies);
+        EntityProxy two = getCurrentProxy(xtdb, db, twoRef, entityProxies);
+        if (one == null || two == null) {
+            xtdb.logProblem(GetRelationship.class.getName(),
+                    "withCurrentProxies",
+                    XtdbOMRSAuditCode.FAILED_RETRIEVAL,
+                    null,
+                    "relationship",
+                    relationship.getGUID(),
+                    "one or both of the entity proxies were not found -- 1:" + oneRef + ", 2:" + twoRef);
+            return null;
+        }
+        relationship.setEntityOneProxy(one);
+        relationship.setEntityTwoProxy(two);
+        return relationship;
+    }
+
+    /**
+     * Retrieve the references to the entity proxies at either end of the provided relationship.
+     * @param relationship for which to retrieve the references
+     * @return {@code List<String>} of references to the entity proxies (empty if it does not have both of them)
+     */
+    private static List<String> getEntityProxyReferences(Relationship relationship) {
+        EntityProxy one = relationship.getEntityOneProxy();
+        EntityProxy two = relationship.getEntityTwoProxy();
+        if (one == null || two == null) {
+            return Collections.emptyList();
+        }
+        return List.of(EntityProxyMapping.getReference(one.getGUID()), EntityProxyMapping.getReference(two.getGUID()));
+    }
+
+    /**
+     * Retrieve the current version of the entity proxy with the provided reference.
+     * @param xtdb connectivity to XTDB
+     * @param db from which to retrieve the details
+     * @param ref reference to the entity document
+     * @param entityProxies already-retrieved entity proxies, keyed by reference (if not included, will be retrieved)
+     * @return EntityProxy
+     */
+    private static EntityProxy getCurrentProxy(XtdbOMRSRepositoryConnector xtdb,
+                                               IXtdbDatasource db,
+                                               String ref,
+                                               Map<String, EntityProxy> entityProxies) {
+        EntityProxy entityProxy = entityProxies == null ? null : entityProxies.get(ref);
+        if (entityProxy != null) {
+            return EntityProxyMapping.copy(entityProxy);
+        }
+        return GetEntity.proxyByRef(xtdb, db, ref);
+    }
+
 }
@@ -3,9 +3,9 @@
 package org.odpi.egeria.connectors.juxt.xtdb.readops;
 
 import clojure.lang.IPersistentMap;
-import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntitySummaryMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.QueryProfile;
 import org.odpi.egeria.connectors.juxt.xtdb.model.search.XtdbQuery;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
@@ -15,10 +15,8 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorEx
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import xtdb.api.ICursor;
 import xtdb.api.IXtdbDatasource;
 
-import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 
@@ -75,7 +73,8 @@ public class GetRelationshipsForEntity extends AbstractRelationshipSearchOperati
      */
     @Override
     protected Collection<List<?>> runQuery(IXtdbDatasource db) throws TypeErrorException, RepositoryErrorException {
-        XtdbQuery query = new XtdbQuery();
+        QueryProfile profile = startQuery();
+        XtdbQuery query = new XtdbQuery(true);
         query.addRelationshipEndpointConditions(EntitySummaryMapping.getReference(entityGUID));
         updateQuery(query,
                 TypeDefCategory.RELATIONSHIP_DEF,
@@ -89,15 +88,9 @@ public class GetRelationshipsForEntity extends AbstractRelationshipSearchOperati
                 null,
                 userId);
         IPersistentMap q = query.getQuery();
+        profile.built(q, query.getArgs());
         log.debug(Constants.QUERY_WITH, q);
-        Collection<List<?>> results;
-        try (ICursor<List<?>> searchCursor = db.openQuery(q)) {
-            results = deduplicateAndPage(searchCursor, fromElement, pageSize);
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    this.getClass().getName(), this.getClass().getName(), e);
-        }
-        return results;
+        return runPagedQuery(db, profile, q, query.getArgs(), fromElement, pageSize, sequencingOrder);
     }
 
 }
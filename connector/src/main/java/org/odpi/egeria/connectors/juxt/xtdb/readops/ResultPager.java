@@ -0,0 +1,86 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.readops;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Streaming de-duplication and paging of the tuples returned by a XTDB query. Results are pulled from the underlying
+ * iterator (typically an open cursor) only until the requested page has been filled, and each tuple is only counted
+ * once towards the paging regardless of how many times the query returns it.
+ */
+public final class ResultPager {
+
+    private ResultPager() {}
+
+    /**
+     * Indicates whether a query sequenced using the provided order will return any duplicate tuples next to each
+     * other. This only holds when the results are sorted by the document ID alone, as that is the first (and then
+     * only) element of every tuple.
+     * @param sequencingOrder by which the query results are sorted
+     * @return boolean true if any duplicate tuples will always be adjacent to each other, otherwise false
+     */
+    public static boolean isOrderedByDocId(SequencingOrder sequencingOrder) {
+        return sequencingOrder == SequencingOrder.GUID || sequencingOrder == SequencingOrder.ANY;
+    }
+
+    /**
+     * De-duplicate and return only the selected page of results from the provided XTDB query results.
+     * @param results from a XTDB query
+     * @param fromElement starting point for the page
+     * @param pageSize number of elements to include in the page (must be greater than 0)
+     * @param ordered true if the results are known to be ordered such that any duplicates are adjacent (in which case
+     *                only the previous result needs to be compared), otherwise false
+     * @return {@code List<List<?>>} of only the single page of results specified
+     */
+    public static List<List<?>> page(Iterator<List<?>> results,
+                                     int fromElement,
+                                     int pageSize,
+                                     boolean ordered) {
+
+        List<List<?>> pageOfResults = new ArrayList<>(Math.min(pageSize, 1024));
+        if (results == null) {
+            return pageOfResults;
+        }
+
+        int currentIndex = 0;
+        int start = Math.max(fromElement, 0);
+        long lastResultIndex = (long) start + pageSize;
+        Set<List<?>> seen = ordered ? null : new HashSet<>();
+        List<?> previous = null;
+
+        // Only pull the next result while the page still has room, so that the remainder of the cursor is never
+        // realised once the page is full
+        while (currentIndex < lastResultIndex && results.hasNext()) {
+            List<?> next = results.next();
+            boolean isNew;
+            if (ordered) {
+                isNew = previous == null || !previous.equals(next);
+                previous = next;
+            } else {
+                isNew = seen.add(next);
+            }
+            if (isNew) {
+                // Only include the result if it is at or beyond the starting point (fromElement), but count it
+                // towards the index either way so that we skip only the correct number of results
+                if (currentIndex >= start) {
+                    pageOfResults.add(next);
+                }
+                currentIndex++;
+            }
+            // In any other scenario, it is a result that has already been included or already been skipped,
+            // so we do not need to increment our index or do anything with the result -- just move on to the
+            // next one
+        }
+
+        return pageOfResults;
+
+    }
+
+}
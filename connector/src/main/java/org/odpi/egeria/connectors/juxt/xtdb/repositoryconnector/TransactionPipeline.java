@@ -0,0 +1,239 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector;
+
+import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xtdb.api.IXtdb;
+import xtdb.api.TransactionInstant;
+import xtdb.api.tx.Transaction;
+import xtdb.api.tx.TransactionOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the transactions submitted by concurrent callers into a single XTDB transaction (group commit), so that
+ * the cost of submitting a transaction and awaiting its indexing is only paid once for the whole group rather than
+ * once per caller. This matters most where the transaction log is remote (Kafka, JDBC), and every submission carries
+ * network latency.
+ *
+ * Each caller still blocks until its own transaction has been indexed, and receives the instant of the transaction
+ * within which its operations were committed. Because a transaction function that throws aborts the entire
+ * transaction in which it runs, any group that fails to commit is split back apart: each of its transactions is
+ * re-submitted on its own, so that only the callers whose operations actually failed see a failure (and find their
+ * own error in the {@link ErrorMessageCache}), while everyone else's operations are committed as normal.
+ */
+public class TransactionPipeline implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionPipeline.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private final IXtdb xtdbAPI;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final BlockingQueue<Pending> queue;
+    private final Thread committer;
+
+    private volatile boolean closed = false;
+
+    /**
+     * Start a new pipeline that will commit transactions to the provided XTDB node.
+     * @param xtdbAPI the XTDB node to which to commit
+     * @param maxBatchSize the maximum number of transactions to coalesce into a single transaction
+     * @param windowMillis the maximum number of milliseconds to wait for further transactions to arrive before
+     *                     committing those that have already arrived (0 to only coalesce those already waiting)
+     */
+    public TransactionPipeline(IXtdb xtdbAPI, int maxBatchSize, long windowMillis) {
+        this.xtdbAPI = xtdbAPI;
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(windowMillis, 0));
+        this.queue = new ArrayBlockingQueue<>(Math.max(this.maxBatchSize * 4, 64));
+        this.committer = new Thread(this::run, "xtdb-group-commit");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Submit the provided transaction through the pipeline, and wait until it has been indexed.
+     * @param statements the transaction to submit
+     * @return TransactionInstant of the transaction within which the statements were committed (or not)
+     */
+    public TransactionInstant submit(Transaction statements) {
+        if (closed) {
+            throw new IllegalStateException("The transaction pipeline has already been closed.");
+        }
+        Pending pending = new Pending(statements);
+        try {
+            queue.put(pending);
+            // If the pipeline was closed while this was being queued, the committer (and the final drain when
+            // closing) may already have finished: withdraw it ourselves, unless something else has already taken it
+            if (closed && queue.remove(pending)) {
+                throw new IllegalStateException("The transaction pipeline has already been closed.");
+            }
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a transaction to be committed.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Unable to commit transaction.", cause);
+        }
+    }
+
+    /**
+     * Stop the pipeline, once it has committed any transactions that are already waiting.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything that arrived too late to be committed (submitted concurrently with closing) is failed
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        failAll(remaining, new IllegalStateException("The transaction pipeline has been closed."));
+    }
+
+    /**
+     * Commit groups of waiting transactions until the pipeline is closed (and nothing more is waiting).
+     */
+    private void run() {
+        while (true) {
+            List<Pending> batch = new ArrayList<>();
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failAll(batch, new IllegalStateException("Interrupted while collecting transactions to commit.", e));
+                break;
+            }
+            commit(batch);
+        }
+    }
+
+    /**
+     * Add to the batch any further transactions that arrive within the window, up to the maximum batch size.
+     * @param batch to which to add the transactions
+     * @throws InterruptedException if interrupted while waiting for transactions to arrive
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    /**
+     * Commit the provided batch of transactions as a single transaction, splitting it back apart if it fails.
+     * @param batch of transactions to commit
+     */
+    private void commit(List<Pending> batch) {
+        try {
+            if (batch.size() == 1) {
+                Pending single = batch.get(0);
+                single.result.complete(submitAndAwait(single.statements));
+                return;
+            }
+            Transaction.Builder builder = Transaction.builder();
+            for (Pending pending : batch) {
+                for (TransactionOperation operation : pending.statements.getOperations()) {
+                    builder.add(operation);
+                }
+            }
+            TransactionInstant instant = submitAndAwait(builder.build());
+            if (xtdbAPI.hasTxCommitted(instant)) {
+                for (Pending pending : batch) {
+                    pending.result.complete(instant);
+                }
+            } else {
+                // The error recorded against the group belongs to only one of its transactions (and will be recorded
+                // again when that transaction is re-submitted), and none of the documents recorded against it were
+                // actually written: discard them, and re-submit each transaction individually so every caller
+                // receives only its own outcome
+                ErrorMessageCache.discard(instant.getId());
+                WrittenDocumentCache.discard(instant.getId());
+                log.debug("Group of {} transactions aborted ({}), re-submitting each individually.", batch.size(), instant);
+                for (Pending pending : batch) {
+                    try {
+                        pending.result.complete(submitAndAwait(pending.statements));
+                    } catch (RuntimeException e) {
+                        pending.result.completeExceptionally(e);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            failAll(batch, e);
+        }
+    }
+
+    /**
+     * Hand the provided error back to each caller still waiting on the provided transactions.
+     * @param pending transactions whose callers to fail
+     * @param error to hand back
+     */
+    private static void failAll(List<Pending> pending, RuntimeException error) {
+        for (Pending p : pending) {
+            p.result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Submit the provided transaction and wait for it to be indexed.
+     * @param statements the transaction to submit
+     * @return TransactionInstant of the transaction
+     */
+    private TransactionInstant submitAndAwait(Transaction statements) {
+        TransactionInstant instant = xtdbAPI.submitTx(statements);
+        // Null for the timeout here means use the default (which is therefore configurable directly by the XTDB
+        // configurationProperties of the connector)
+        return xtdbAPI.awaitTx(instant, null);
+    }
+
+    /**
+     * A transaction waiting to be committed, along with the means to hand its outcome back to its caller.
+     */
+    private static final class Pending {
+
+        private final Transaction statements;
+        private final CompletableFuture<TransactionInstant> result = new CompletableFuture<>();
+
+        Pending(Transaction statements) {
+            this.statements = statements;
+        }
+
+    }
+
+}
@@ -3,11 +3,15 @@
 package org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector;
 
 import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.readops.*;
 import org.odpi.egeria.connectors.juxt.xtdb.txnfn.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.ContinuationToken;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.SearchPage;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSDynamicTypeMetadataCollectionBase;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
@@ -74,13 +78,16 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             TypeDefConflictException,
             InvalidTypeDefException,
             UserNotAuthorizedException {
-        final String methodName = "addTypeDef";
-        super.addTypeDef(userId, newTypeDef);
-        try {
-            TypeDefCache.addTypeDef(newTypeDef);
-        } catch (InvalidParameterException e) {
-            throw new InvalidTypeDefException(XtdbOMRSErrorCode.INVALID_TYPEDEF.getMessageDefinition(newTypeDef.getName()),
-                    this.getClass().getName(), methodName, e);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "addTypeDef")) {
+            final String methodName = "addTypeDef";
+            super.addTypeDef(userId, newTypeDef);
+            try {
+                TypeDefCache.addTypeDef(newTypeDef);
+            } catch (InvalidParameterException e) {
+                throw new InvalidTypeDefException(XtdbOMRSErrorCode.INVALID_TYPEDEF.getMessageDefinition(newTypeDef.getName()),
+                        this.getClass().getName(), methodName, e);
+            }
+            timer.succeeded();
         }
     }
 
@@ -96,8 +103,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             TypeDefConflictException,
             InvalidTypeDefException,
             UserNotAuthorizedException {
-        super.addAttributeTypeDef(userId, newAttributeTypeDef);
-        TypeDefCache.addAttributeTypeDef(newAttributeTypeDef);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "addAttributeTypeDef")) {
+            super.addAttributeTypeDef(userId, newAttributeTypeDef);
+            TypeDefCache.addAttributeTypeDef(newAttributeTypeDef);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -110,15 +120,17 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             TypeDefNotKnownException,
             PatchErrorException {
-        final String methodName = "updateTypeDef";
-        TypeDef updated = super.updateTypeDef(userId, typeDefPatch);
-        try {
-            TypeDefCache.addTypeDef(updated);
-        } catch (InvalidParameterException e) {
-            throw new PatchErrorException(XtdbOMRSErrorCode.INVALID_TYPEDEF.getMessageDefinition(updated.getName()),
-                    this.getClass().getName(), methodName, e);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "updateTypeDef")) {
+            final String methodName = "updateTypeDef";
+            TypeDef updated = super.updateTypeDef(userId, typeDefPatch);
+            try {
+                TypeDefCache.addTypeDef(updated);
+            } catch (InvalidParameterException e) {
+                throw new PatchErrorException(XtdbOMRSErrorCode.INVALID_TYPEDEF.getMessageDefinition(updated.getName()),
+                        this.getClass().getName(), methodName, e);
+            }
+            return timer.succeeded(updated);
         }
-        return updated;
     }
 
     /**
@@ -133,8 +145,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             TypeDefNotKnownException,
             TypeDefInUseException,
             UserNotAuthorizedException {
-        super.deleteTypeDef(userId, obsoleteTypeDefGUID, obsoleteTypeDefName);
-        TypeDefCache.removeTypeDef(obsoleteTypeDefGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "deleteTypeDef")) {
+            super.deleteTypeDef(userId, obsoleteTypeDefGUID, obsoleteTypeDefName);
+            TypeDefCache.removeTypeDef(obsoleteTypeDefGUID);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -149,8 +164,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             TypeDefNotKnownException,
             TypeDefInUseException,
             UserNotAuthorizedException {
-        super.deleteAttributeTypeDef(userId, obsoleteTypeDefGUID, obsoleteTypeDefName);
-        TypeDefCache.removeAttributeTypeDef(obsoleteTypeDefGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "deleteAttributeTypeDef")) {
+            super.deleteAttributeTypeDef(userId, obsoleteTypeDefGUID, obsoleteTypeDefName);
+            TypeDefCache.removeAttributeTypeDef(obsoleteTypeDefGUID);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -166,10 +184,12 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             TypeDefNotKnownException,
             UserNotAuthorizedException {
-        TypeDef updated = super.reIdentifyTypeDef(userId, originalTypeDefGUID, originalTypeDefName, newTypeDefGUID, newTypeDefName);
-        TypeDefCache.addTypeDef(updated);
-        TypeDefCache.removeTypeDef(originalTypeDefGUID);
-        return updated;
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "reIdentifyTypeDef")) {
+            TypeDef updated = super.reIdentifyTypeDef(userId, originalTypeDefGUID, originalTypeDefName, newTypeDefGUID, newTypeDefName);
+            TypeDefCache.addTypeDef(updated);
+            TypeDefCache.removeTypeDef(originalTypeDefGUID);
+            return timer.succeeded(updated);
+        }
     }
 
     /**
@@ -185,10 +205,12 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             TypeDefNotKnownException,
             UserNotAuthorizedException {
-        AttributeTypeDef updated = super.reIdentifyAttributeTypeDef(userId, originalAttributeTypeDefGUID, originalAttributeTypeDefName, newAttributeTypeDefGUID, newAttributeTypeDefName);
-        TypeDefCache.addAttributeTypeDef(updated);
-        TypeDefCache.removeAttributeTypeDef(originalAttributeTypeDefGUID);
-        return updated;
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "reIdentifyAttributeTypeDef")) {
+            AttributeTypeDef updated = super.reIdentifyAttributeTypeDef(userId, originalAttributeTypeDefGUID, originalAttributeTypeDefName, newAttributeTypeDefGUID, newAttributeTypeDefName);
+            TypeDefCache.addAttributeTypeDef(updated);
+            TypeDefCache.removeAttributeTypeDef(originalAttributeTypeDefGUID);
+            return timer.succeeded(updated);
+        }
     }
 
     /**
@@ -199,18 +221,20 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
                                       String guid) throws
             InvalidParameterException,
             RepositoryErrorException {
-        final String methodName = "isEntityKnown";
-        this.getInstanceParameterValidation(userId, guid, methodName);
-        try {
-            EntityDetail entity = new GetEntity(xtdbRepositoryConnector, guid, null).asDetail();
-            repositoryValidator.validateEntityFromStore(repositoryName, guid, entity, methodName);
-            return entity;
-        } catch (EntityNotKnownException e) {
-            log.info("Entity with GUID {} does not exist in the repository.", guid);
-        } catch (EntityProxyOnlyException e) {
-            log.info("Entity with GUID {} exists, but is only a proxy in the repository.", guid);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "isEntityKnown")) {
+            final String methodName = "isEntityKnown";
+            this.getInstanceParameterValidation(userId, guid, methodName);
+            try {
+                EntityDetail entity = new GetEntity(xtdbRepositoryConnector, guid, null).asDetail();
+                repositoryValidator.validateEntityFromStore(repositoryName, guid, entity, methodName);
+                return timer.succeeded(entity);
+            } catch (EntityNotKnownException e) {
+                log.info("Entity with GUID {} does not exist in the repository.", guid);
+            } catch (EntityProxyOnlyException e) {
+                log.info("Entity with GUID {} exists, but is only a proxy in the repository.", guid);
+            }
+            return timer.succeeded(null);
         }
-        return null;
     }
 
     /**
@@ -222,12 +246,14 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             EntityNotKnownException {
-        final String methodName = "getEntitySummary";
-        super.getInstanceParameterValidation(userId, guid, methodName);
-        EntitySummary summary = new GetEntity(xtdbRepositoryConnector, guid, null).asSummary();
-        repositoryValidator.validateEntityFromStore(repositoryName, guid, summary, methodName);
-        repositoryValidator.validateEntityIsNotDeleted(repositoryName, summary, methodName);
-        return summary;
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getEntitySummary")) {
+            final String methodName = "getEntitySummary";
+            super.getInstanceParameterValidation(userId, guid, methodName);
+            EntitySummary summary = new GetEntity(xtdbRepositoryConnector, guid, null).asSummary();
+            repositoryValidator.validateEntityFromStore(repositoryName, guid, summary, methodName);
+            repositoryValidator.validateEntityIsNotDeleted(repositoryName, summary, methodName);
+            return timer.succeeded(summary);
+        }
     }
 
     /**
@@ -254,12 +280,14 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             EntityProxyOnlyException {
-        final String methodName = "getEntityDetail";
-        super.getInstanceParameterValidation(userId, guid, methodName);
-        EntityDetail entity = new GetEntity(xtdbRepositoryConnector, guid, asOfTime).asDetail();
-        repositoryValidator.validateEntityFromStore(repositoryName, guid, entity, methodName);
-        repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
-        return entity;
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getEntityDetail")) {
+            final String methodName = "getEntityDetail";
+            super.getInstanceParameterValidation(userId, guid, methodName);
+            EntityDetail entity = new GetEntity(xtdbRepositoryConnector, guid, asOfTime).asDetail();
+            repositoryValidator.validateEntityFromStore(repositoryName, guid, entity, methodName);
+            repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
+            return timer.succeeded(entity);
+        }
     }
 
     /**
@@ -276,9 +304,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             EntityNotKnownException {
-        final String methodName = "getEntityDetailHistory";
-        super.getInstanceHistoryParameterValidation(userId, guid, fromTime, toTime, methodName);
-        return new GetEntityHistory(xtdbRepositoryConnector, guid, fromTime, toTime, startFromElement, pageSize, sequencingOrder).execute();
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getEntityDetailHistory")) {
+            final String methodName = "getEntityDetailHistory";
+            super.getInstanceHistoryParameterValidation(userId, guid, fromTime, toTime, methodName);
+            return timer.succeeded(new GetEntityHistory(xtdbRepositoryConnector, guid, fromTime, toTime, startFromElement, pageSize, sequencingOrder).execute());
+        }
     }
 
     /**
@@ -300,29 +330,31 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityNotKnownException,
             PagingErrorException,
             UserNotAuthorizedException {
-        final String methodName = "getRelationshipsForEntity";
-        super.getRelationshipsForEntityParameterValidation(userId, entityGUID, relationshipTypeGUID, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
-        List<Relationship> entityRelationships;
-        IXtdb xtdbAPI = xtdbRepositoryConnector.getXtdbAPI();
-        try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
-            EntitySummary entity = GetEntity.summaryByGuid(xtdbRepositoryConnector, db, entityGUID);
-            repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entity, methodName);
-            repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
-            entityRelationships = new GetRelationshipsForEntity(xtdbRepositoryConnector,
-                    entityGUID,
-                    relationshipTypeGUID,
-                    fromRelationshipElement,
-                    limitResultsByStatus,
-                    db,
-                    sequencingProperty,
-                    sequencingOrder,
-                    pageSize,
-                    userId).getResults();
-        } catch (IOException e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
-                    this.getClass().getName(), this.getClass().getName(), e);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getRelationshipsForEntity")) {
+            final String methodName = "getRelationshipsForEntity";
+            super.getRelationshipsForEntityParameterValidation(userId, entityGUID, relationshipTypeGUID, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            List<Relationship> entityRelationships;
+            IXtdb xtdbAPI = xtdbRepositoryConnector.getXtdbAPI();
+            try (IXtdbDatasource db = asOfTime == null ? xtdbAPI.openDB() : xtdbAPI.openDB(asOfTime)) {
+                EntitySummary entity = GetEntity.summaryByGuid(xtdbRepositoryConnector, db, entityGUID);
+                repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entity, methodName);
+                repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
+                entityRelationships = new GetRelationshipsForEntity(xtdbRepositoryConnector,
+                        entityGUID,
+                        relationshipTypeGUID,
+                        fromRelationshipElement,
+                        limitResultsByStatus,
+                        db,
+                        sequencingProperty,
+                        sequencingOrder,
+                        pageSize,
+                        userId).getResults();
+            } catch (IOException e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                        this.getClass().getName(), this.getClass().getName(), e);
+            }
+            return timer.succeeded(entityRelationships == null || entityRelationships.isEmpty() ? null : entityRelationships);
         }
-        return entityRelationships == null || entityRelationships.isEmpty() ? null : entityRelationships;
     }
 
     /**
@@ -346,23 +378,25 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             PagingErrorException,
             UserNotAuthorizedException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findEntitiesByProperty")) {
 
-        super.findEntitiesByPropertyParameterValidation(userId, entityTypeGUID, matchProperties, matchCriteria, fromEntityElement, limitResultsByStatus, limitResultsByClassification, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            super.findEntitiesByPropertyParameterValidation(userId, entityTypeGUID, matchProperties, matchCriteria, fromEntityElement, limitResultsByStatus, limitResultsByClassification, asOfTime, sequencingProperty, sequencingOrder, pageSize);
 
-        SearchProperties searchProperties = repositoryHelper.getSearchPropertiesFromInstanceProperties(repositoryName, matchProperties, matchCriteria);
-        SearchClassifications searchClassifications = repositoryHelper.getSearchClassificationsFromList(limitResultsByClassification);
+            SearchProperties searchProperties = repositoryHelper.getSearchPropertiesFromInstanceProperties(repositoryName, matchProperties, matchCriteria);
+            SearchClassifications searchClassifications = repositoryHelper.getSearchClassificationsFromList(limitResultsByClassification);
 
-        return findEntities(userId,
-                entityTypeGUID,
-                null,
-                searchProperties,
-                fromEntityElement,
-                limitResultsByStatus,
-                searchClassifications,
-                asOfTime,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize);
+            return timer.succeeded(findEntities(userId,
+                    entityTypeGUID,
+                    null,
+                    searchProperties,
+                    fromEntityElement,
+                    limitResultsByStatus,
+                    searchClassifications,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize));
+        }
     }
 
     /**
@@ -384,19 +418,82 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             TypeErrorException,
             PagingErrorException {
-        this.findEntitiesParameterValidation(userId, entityTypeGUID, entitySubtypeGUIDs, matchProperties, fromEntityElement, limitResultsByStatus, matchClassifications, asOfTime, sequencingProperty, sequencingOrder, pageSize);
-        return new FindEntities(xtdbRepositoryConnector,
-                entityTypeGUID,
-                entitySubtypeGUIDs,
-                matchProperties,
-                fromEntityElement,
-                limitResultsByStatus,
-                matchClassifications,
-                asOfTime,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize,
-                userId).getResults();
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findEntities")) {
+            this.findEntitiesParameterValidation(userId, entityTypeGUID, entitySubtypeGUIDs, matchProperties, fromEntityElement, limitResultsByStatus, matchClassifications, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            return timer.succeeded(new FindEntities(xtdbRepositoryConnector,
+                    entityTypeGUID,
+                    entitySubtypeGUIDs,
+                    matchProperties,
+                    fromEntityElement,
+                    limitResultsByStatus,
+                    matchClassifications,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize,
+                    userId).getResults());
+        }
+    }
+
+    /**
+     * Return a page of entities matching the search criteria, using keyset paging: rather than skipping over some
+     * number of earlier results, each page resumes directly after the last result of the previous page, using the
+     * opaque continuation token returned with that previous page. All pages are read from the same point-in-time view
+     * of the repository as the first page, so paging through a very large number of results remains consistent and
+     * takes time proportional only to the number of results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param entitySubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the entityTypeGUID to
+     *                           include in the search results. Null means all subtypes.
+     * @param matchProperties Optional list of entity property conditions to match.
+     * @param continuationToken the token returned with the previous page, or null to retrieve the first page.
+     * @param limitResultsByStatus By default, entities in all statuses (other than DELETE) are returned.
+     * @param matchClassifications Optional list of entity classifications to match.
+     * @param asOfTime Requests a historical query of the entity (only applicable to the first page).
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered (must be the same for every page).
+     * @param pageSize the maximum number of result entities that can be returned on this request.
+     * @return a page of entities matching the supplied criteria, with the token from which to retrieve the next page.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository.
+     * @throws PagingErrorException the paging/sequencing parameters, or the continuation token, are not valid.
+     * @see #findEntities(String, String, List, SearchProperties, int, List, SearchClassifications, Date, String, SequencingOrder, int)
+     */
+    public SearchPage<EntityDetail> findEntitiesPage(String userId,
+                                                     String entityTypeGUID,
+                                                     List<String> entitySubtypeGUIDs,
+                                                     SearchProperties matchProperties,
+                                                     String continuationToken,
+                                                     List<InstanceStatus> limitResultsByStatus,
+                                                     SearchClassifications matchClassifications,
+                                                     Date asOfTime,
+                                                     String sequencingProperty,
+                                                     SequencingOrder sequencingOrder,
+                                                     int pageSize) throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            TypeErrorException,
+            PagingErrorException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findEntitiesPage")) {
+            final String methodName = "findEntitiesPage";
+            this.findEntitiesParameterValidation(userId, entityTypeGUID, entitySubtypeGUIDs, matchProperties, 0, limitResultsByStatus, matchClassifications, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            FindEntities search = new FindEntities(xtdbRepositoryConnector,
+                    entityTypeGUID,
+                    entitySubtypeGUIDs,
+                    matchProperties,
+                    getContinuation(continuationToken, sequencingOrder, methodName),
+                    limitResultsByStatus,
+                    matchClassifications,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize,
+                    userId);
+            checkContinuation(search, methodName);
+            return timer.succeeded(search.getPage());
+        }
     }
 
     /**
@@ -421,33 +518,34 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             PagingErrorException,
             UserNotAuthorizedException {
-
-        super.findEntitiesByClassificationParameterValidation(userId, entityTypeGUID, classificationName, matchClassificationProperties, matchCriteria, fromEntityElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
-
-        SearchProperties searchProperties = repositoryHelper.getSearchPropertiesFromInstanceProperties(repositoryName, matchClassificationProperties, matchCriteria);
-        SearchClassifications searchClassifications = new SearchClassifications();
-        List<ClassificationCondition> classificationConditions = new ArrayList<>();
-        ClassificationCondition condition = new ClassificationCondition();
-        condition.setName(classificationName);
-        condition.setMatchProperties(searchProperties);
-        classificationConditions.add(condition);
-        searchClassifications.setConditions(classificationConditions);
-
-        // Since matchCriteria passed are embedded with properties, the overall matchCriteria should be all (?)
-        searchClassifications.setMatchCriteria(MatchCriteria.ALL);
-
-        return findEntities(userId,
-                entityTypeGUID,
-                null,
-                null,
-                fromEntityElement,
-                limitResultsByStatus,
-                searchClassifications,
-                asOfTime,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize);
-
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findEntitiesByClassification")) {
+
+            super.findEntitiesByClassificationParameterValidation(userId, entityTypeGUID, classificationName, matchClassificationProperties, matchCriteria, fromEntityElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+
+            SearchProperties searchProperties = repositoryHelper.getSearchPropertiesFromInstanceProperties(repositoryName, matchClassificationProperties, matchCriteria);
+            SearchClassifications searchClassifications = new SearchClassifications();
+            List<ClassificationCondition> classificationConditions = new ArrayList<>();
+            ClassificationCondition condition = new ClassificationCondition();
+            condition.setName(classificationName);
+            condition.setMatchProperties(searchProperties);
+            classificationConditions.add(condition);
+            searchClassifications.setConditions(classificationConditions);
+
+            // Since matchCriteria passed are embedded with properties, the overall matchCriteria should be all (?)
+            searchClassifications.setMatchCriteria(MatchCriteria.ALL);
+
+            return timer.succeeded(findEntities(userId,
+                    entityTypeGUID,
+                    null,
+                    null,
+                    fromEntityElement,
+                    limitResultsByStatus,
+                    searchClassifications,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize));
+        }
     }
 
     /**
@@ -470,19 +568,21 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             PagingErrorException,
             UserNotAuthorizedException {
-        super.findEntitiesByPropertyValueParameterValidation(userId, entityTypeGUID, searchCriteria, fromEntityElement, limitResultsByStatus, limitResultsByClassification, asOfTime, sequencingProperty, sequencingOrder, pageSize);
-        SearchClassifications searchClassifications = repositoryHelper.getSearchClassificationsFromList(limitResultsByClassification);
-        return new FindEntitiesByPropertyValue(xtdbRepositoryConnector,
-                entityTypeGUID,
-                searchCriteria,
-                fromEntityElement,
-                limitResultsByStatus,
-                searchClassifications,
-                asOfTime,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize,
-                userId).getResults();
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findEntitiesByPropertyValue")) {
+            super.findEntitiesByPropertyValueParameterValidation(userId, entityTypeGUID, searchCriteria, fromEntityElement, limitResultsByStatus, limitResultsByClassification, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            SearchClassifications searchClassifications = repositoryHelper.getSearchClassificationsFromList(limitResultsByClassification);
+            return timer.succeeded(new FindEntitiesByPropertyValue(xtdbRepositoryConnector,
+                    entityTypeGUID,
+                    searchCriteria,
+                    fromEntityElement,
+                    limitResultsByStatus,
+                    searchClassifications,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize,
+                    userId).getResults());
+        }
     }
 
     /**
@@ -493,9 +593,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
                                             String guid) throws
             InvalidParameterException,
             RepositoryErrorException {
-        final String methodName = "isRelationshipKnown";
-        super.getInstanceParameterValidation(userId, guid, methodName);
-        return new GetRelationship(xtdbRepositoryConnector, guid, null).execute();
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "isRelationshipKnown")) {
+            final String methodName = "isRelationshipKnown";
+            super.getInstanceParameterValidation(userId, guid, methodName);
+            return timer.succeeded(new GetRelationship(xtdbRepositoryConnector, guid, null).execute());
+        }
     }
 
     /**
@@ -507,9 +609,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             RelationshipNotKnownException {
-        final String methodName = "getRelationship";
-        this.getInstanceParameterValidation(userId, guid, methodName);
-        return getAndValidateRelationship(guid, null);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getRelationship")) {
+            final String methodName = "getRelationship";
+            this.getInstanceParameterValidation(userId, guid, methodName);
+            return timer.succeeded(getAndValidateRelationship(guid, null));
+        }
     }
 
     /**
@@ -522,10 +626,12 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             RelationshipNotKnownException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getRelationship")) {
 
-        final String methodName = "getRelationship";
-        this.getInstanceParameterValidation(userId, guid, asOfTime, methodName);
-        return getAndValidateRelationship(guid, asOfTime);
+            final String methodName = "getRelationship";
+            this.getInstanceParameterValidation(userId, guid, asOfTime, methodName);
+            return timer.succeeded(getAndValidateRelationship(guid, asOfTime));
+        }
     }
 
     private Relationship getAndValidateRelationship(String guid,
@@ -553,9 +659,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             RelationshipNotKnownException {
-        final String methodName = "getRelationshipHistory";
-        super.getInstanceHistoryParameterValidation(userId, guid, fromTime, toTime, methodName);
-        return new GetRelationshipHistory(xtdbRepositoryConnector, guid, fromTime, toTime, startFromElement, pageSize, sequencingOrder).execute();
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getRelationshipHistory")) {
+            final String methodName = "getRelationshipHistory";
+            super.getInstanceHistoryParameterValidation(userId, guid, fromTime, toTime, methodName);
+            return timer.succeeded(new GetRelationshipHistory(xtdbRepositoryConnector, guid, fromTime, toTime, startFromElement, pageSize, sequencingOrder).execute());
+        }
     }
 
     /**
@@ -576,18 +684,117 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             TypeErrorException,
             RepositoryErrorException,
             PagingErrorException {
-        super.findRelationshipsParameterValidation(userId, relationshipTypeGUID, relationshipSubtypeGUIDs, matchProperties, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
-        return new FindRelationships(xtdbRepositoryConnector,
-                relationshipTypeGUID,
-                relationshipSubtypeGUIDs,
-                matchProperties,
-                fromRelationshipElement,
-                limitResultsByStatus,
-                asOfTime,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize,
-                userId).getResults();
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findRelationships")) {
+            super.findRelationshipsParameterValidation(userId, relationshipTypeGUID, relationshipSubtypeGUIDs, matchProperties, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            return timer.succeeded(new FindRelationships(xtdbRepositoryConnector,
+                    relationshipTypeGUID,
+                    relationshipSubtypeGUIDs,
+                    matchProperties,
+                    fromRelationshipElement,
+                    limitResultsByStatus,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize,
+                    userId).getResults());
+        }
+    }
+
+    /**
+     * Return a page of relationships matching the search criteria, using keyset paging: rather than skipping over
+     * some number of earlier results, each page resumes directly after the last result of the previous page, using the
+     * opaque continuation token returned with that previous page. All pages are read from the same point-in-time view
+     * of the repository as the first page.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types.
+     * @param relationshipSubtypeGUIDs optional list of the unique identifiers (guids) for subtypes of the
+     *                                 relationshipTypeGUID to include in the search results. Null means all subtypes.
+     * @param matchProperties Optional list of relationship property conditions to match.
+     * @param continuationToken the token returned with the previous page, or null to retrieve the first page.
+     * @param limitResultsByStatus By default, relationships in all statuses (other than DELETE) are returned.
+     * @param asOfTime Requests a historical query of the relationships (only applicable to the first page).
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered (must be the same for every page).
+     * @param pageSize the maximum number of result relationships that can be returned on this request.
+     * @return a page of relationships matching the supplied criteria, with the token from which to retrieve the next page.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository.
+     * @throws PagingErrorException the paging/sequencing parameters, or the continuation token, are not valid.
+     * @see #findRelationships(String, String, List, SearchProperties, int, List, Date, String, SequencingOrder, int)
+     */
+    public SearchPage<Relationship> findRelationshipsPage(String userId,
+                                                          String relationshipTypeGUID,
+                                                          List<String> relationshipSubtypeGUIDs,
+                                                          SearchProperties matchProperties,
+                                                          String continuationToken,
+                                                          List<InstanceStatus> limitResultsByStatus,
+                                                          Date asOfTime,
+                                                          String sequencingProperty,
+                                                          SequencingOrder sequencingOrder,
+                                                          int pageSize) throws
+            InvalidParameterException,
+            TypeErrorException,
+            RepositoryErrorException,
+            PagingErrorException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findRelationshipsPage")) {
+            final String methodName = "findRelationshipsPage";
+            super.findRelationshipsParameterValidation(userId, relationshipTypeGUID, relationshipSubtypeGUIDs, matchProperties, 0, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            FindRelationships search = new FindRelationships(xtdbRepositoryConnector,
+                    relationshipTypeGUID,
+                    relationshipSubtypeGUIDs,
+                    matchProperties,
+                    getContinuation(continuationToken, sequencingOrder, methodName),
+                    limitResultsByStatus,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize,
+                    userId);
+            checkContinuation(search, methodName);
+            return timer.succeeded(search.getPage());
+        }
+    }
+
+    /**
+     * Ensure the continuation token provided to a keyset-paged search was issued by a search with the same criteria.
+     * @param search being continued
+     * @param methodName of the search being continued
+     * @throws PagingErrorException if the token was issued by a search with different criteria
+     */
+    private void checkContinuation(AbstractSearchOperation search, String methodName) throws PagingErrorException {
+        if (!search.isContinuationOfSameSearch()) {
+            throw new PagingErrorException(XtdbOMRSErrorCode.INVALID_CONTINUATION_TOKEN.getMessageDefinition(repositoryName,
+                    "the search criteria differ from those of the previous page"),
+                    this.getClass().getName(), methodName);
+        }
+    }
+
+    /**
+     * Decode the provided continuation token for a keyset-paged search, ensuring it is valid for the search.
+     * @param continuationToken to decode
+     * @param sequencingOrder of the search being continued
+     * @param methodName of the search being continued
+     * @return ContinuationToken, or null if no token was provided (first page)
+     * @throws PagingErrorException if the token is not valid for the search
+     */
+    private ContinuationToken getContinuation(String continuationToken,
+                                              SequencingOrder sequencingOrder,
+                                              String methodName) throws PagingErrorException {
+        ContinuationToken continuation;
+        try {
+            continuation = ContinuationToken.decode(continuationToken);
+        } catch (IllegalArgumentException e) {
+            throw new PagingErrorException(XtdbOMRSErrorCode.INVALID_CONTINUATION_TOKEN.getMessageDefinition(repositoryName, e.getMessage()),
+                    this.getClass().getName(), methodName, e);
+        }
+        if (continuation != null && continuation.getSequencingOrder() != sequencingOrder) {
+            throw new PagingErrorException(XtdbOMRSErrorCode.INVALID_CONTINUATION_TOKEN.getMessageDefinition(repositoryName,
+                    "the sequencing order differs from that of the previous page"),
+                    this.getClass().getName(), methodName);
+        }
+        return continuation;
     }
 
     /**
@@ -610,19 +817,20 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             PagingErrorException,
             UserNotAuthorizedException {
-        super.findRelationshipsByPropertyParameterValidation(userId, relationshipTypeGUID, matchProperties, matchCriteria, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
-        SearchProperties searchProperties = repositoryHelper.getSearchPropertiesFromInstanceProperties(repositoryName, matchProperties, matchCriteria);
-        return findRelationships(userId,
-                relationshipTypeGUID,
-                null,
-                searchProperties,
-                fromRelationshipElement,
-                limitResultsByStatus,
-                asOfTime,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize);
-
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findRelationshipsByProperty")) {
+            super.findRelationshipsByPropertyParameterValidation(userId, relationshipTypeGUID, matchProperties, matchCriteria, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            SearchProperties searchProperties = repositoryHelper.getSearchPropertiesFromInstanceProperties(repositoryName, matchProperties, matchCriteria);
+            return timer.succeeded(findRelationships(userId,
+                    relationshipTypeGUID,
+                    null,
+                    searchProperties,
+                    fromRelationshipElement,
+                    limitResultsByStatus,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize));
+        }
     }
 
     /**
@@ -644,17 +852,19 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             PagingErrorException,
             UserNotAuthorizedException {
-        super.findRelationshipsByPropertyValueParameterValidation(userId, relationshipTypeGUID, searchCriteria, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
-        return new FindRelationshipsByPropertyValue(xtdbRepositoryConnector,
-                relationshipTypeGUID,
-                searchCriteria,
-                fromRelationshipElement,
-                limitResultsByStatus,
-                asOfTime,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize,
-                userId).getResults();
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "findRelationshipsByPropertyValue")) {
+            super.findRelationshipsByPropertyValueParameterValidation(userId, relationshipTypeGUID, searchCriteria, fromRelationshipElement, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder, pageSize);
+            return timer.succeeded(new FindRelationshipsByPropertyValue(xtdbRepositoryConnector,
+                    relationshipTypeGUID,
+                    searchCriteria,
+                    fromRelationshipElement,
+                    limitResultsByStatus,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize,
+                    userId).getResults());
+        }
     }
 
     /**
@@ -671,37 +881,38 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityNotKnownException,
             PropertyErrorException,
             UserNotAuthorizedException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getLinkingEntities")) {
 
-        final String methodName = "getLinkingEntities";
+            final String methodName = "getLinkingEntities";
 
-        this.getLinkingEntitiesParameterValidation(userId,
-                startEntityGUID,
-                endEntityGUID,
-                limitResultsByStatus,
-                asOfTime);
-
-        // If the two GUIDs are equal, just return the one entity and nothing else (no relationships)
-        if (startEntityGUID.equals(endEntityGUID)) {
-            try {
-                InstanceGraph one = new InstanceGraph();
-                List<EntityDetail> list = new ArrayList<>();
-                EntityDetail entity = new GetEntity(xtdbRepositoryConnector, startEntityGUID, asOfTime).asDetail();
-                list.add(entity);
-                one.setEntities(list);
-                return one;
-            } catch (EntityProxyOnlyException e) {
-                throw new EntityNotKnownException(XtdbOMRSErrorCode.ENTITY_PROXY_ONLY.getMessageDefinition(
-                        startEntityGUID, repositoryName), this.getClass().getName(), methodName, e);
+            this.getLinkingEntitiesParameterValidation(userId,
+                    startEntityGUID,
+                    endEntityGUID,
+                    limitResultsByStatus,
+                    asOfTime);
+
+            // If the two GUIDs are equal, just return the one entity and nothing else (no relationships)
+            if (startEntityGUID.equals(endEntityGUID)) {
+                try {
+                    InstanceGraph one = new InstanceGraph();
+                    List<EntityDetail> list = new ArrayList<>();
+                    EntityDetail entity = new GetEntity(xtdbRepositoryConnector, startEntityGUID, asOfTime).asDetail();
+                    list.add(entity);
+                    one.setEntities(list);
+                    return timer.succeeded(one);
+                } catch (EntityProxyOnlyException e) {
+                    throw new EntityNotKnownException(XtdbOMRSErrorCode.ENTITY_PROXY_ONLY.getMessageDefinition(
+                            startEntityGUID, repositoryName), this.getClass().getName(), methodName, e);
+                }
             }
-        }
-
-        // Otherwise, actually do the traversals...
-        return new GetLinkingEntities(xtdbRepositoryConnector,
-                startEntityGUID,
-                endEntityGUID,
-                limitResultsByStatus,
-                asOfTime).execute();
 
+            // Otherwise, actually do the traversals...
+            return timer.succeeded(new GetLinkingEntities(xtdbRepositoryConnector,
+                    startEntityGUID,
+                    endEntityGUID,
+                    limitResultsByStatus,
+                    asOfTime).execute());
+        }
     }
 
     /**
@@ -720,50 +931,51 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityNotKnownException,
             RepositoryErrorException,
             TypeErrorException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getEntityNeighborhood")) {
 
-        final String methodName = "getEntityNeighborhood";
-        final String entityTypeGUIDParameterName = "entityTypeGUIDs";
-        final String relationshipTypeGUIDParameterName = "relationshipTypeGUIDs";
-        final String limitedResultsByClassificationParameterName = "limitResultsByClassification";
-        final String asOfTimeParameter = "asOfTime";
+            final String methodName = "getEntityNeighborhood";
+            final String entityTypeGUIDParameterName = "entityTypeGUIDs";
+            final String relationshipTypeGUIDParameterName = "relationshipTypeGUIDs";
+            final String limitedResultsByClassificationParameterName = "limitResultsByClassification";
+            final String asOfTimeParameter = "asOfTime";
 
-        this.validateRepositoryConnector(methodName);
-        parentConnector.validateRepositoryIsActive(methodName);
+            this.validateRepositoryConnector(methodName);
+            parentConnector.validateRepositoryIsActive(methodName);
 
-        repositoryValidator.validateUserId(repositoryName, userId, methodName);
-        repositoryValidator.validateGUID(repositoryName, Constants.ENTITY_GUID, entityGUID, methodName);
-        repositoryValidator.validateAsOfTime(repositoryName, asOfTimeParameter, asOfTime, methodName);
+            repositoryValidator.validateUserId(repositoryName, userId, methodName);
+            repositoryValidator.validateGUID(repositoryName, Constants.ENTITY_GUID, entityGUID, methodName);
+            repositoryValidator.validateAsOfTime(repositoryName, asOfTimeParameter, asOfTime, methodName);
 
-        if (entityTypeGUIDs != null) {
-            for (String guid : entityTypeGUIDs) {
-                repositoryValidator.validateTypeGUID(repositoryName, entityTypeGUIDParameterName, guid, methodName);
+            if (entityTypeGUIDs != null) {
+                for (String guid : entityTypeGUIDs) {
+                    repositoryValidator.validateTypeGUID(repositoryName, entityTypeGUIDParameterName, guid, methodName);
+                }
             }
-        }
 
-        if (relationshipTypeGUIDs != null) {
-            for (String guid : relationshipTypeGUIDs) {
-                repositoryValidator.validateTypeGUID(repositoryName, relationshipTypeGUIDParameterName, guid, methodName);
+            if (relationshipTypeGUIDs != null) {
+                for (String guid : relationshipTypeGUIDs) {
+                    repositoryValidator.validateTypeGUID(repositoryName, relationshipTypeGUIDParameterName, guid, methodName);
+                }
             }
-        }
 
-        if (limitResultsByClassification != null) {
-            for (String classificationName : limitResultsByClassification) {
-                repositoryValidator.validateClassificationName(repositoryName,
-                        limitedResultsByClassificationParameterName,
-                        classificationName,
-                        methodName);
+            if (limitResultsByClassification != null) {
+                for (String classificationName : limitResultsByClassification) {
+                    repositoryValidator.validateClassificationName(repositoryName,
+                            limitedResultsByClassificationParameterName,
+                            classificationName,
+                            methodName);
+                }
             }
-        }
-
-        return new GetEntityNeighborhood(xtdbRepositoryConnector,
-                entityGUID,
-                entityTypeGUIDs,
-                relationshipTypeGUIDs,
-                limitResultsByStatus,
-                limitResultsByClassification,
-                asOfTime,
-                level).execute();
 
+            return timer.succeeded(new GetEntityNeighborhood(xtdbRepositoryConnector,
+                    entityGUID,
+                    entityTypeGUIDs,
+                    relationshipTypeGUIDs,
+                    limitResultsByStatus,
+                    limitResultsByClassification,
+                    asOfTime,
+                    level).execute());
+        }
     }
 
     /**
@@ -787,48 +999,44 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             PagingErrorException,
             UserNotAuthorizedException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getRelatedEntities")) {
 
-        this.getRelatedEntitiesParameterValidation(userId,
-                startEntityGUID,
-                entityTypeGUIDs,
-                fromEntityElement,
-                limitResultsByStatus,
-                limitResultsByClassification,
-                asOfTime,
-                sequencingProperty,
-                sequencingOrder,
-                pageSize);
-
-        final String methodName = "getRelatedEntities";
-        final String limitedResultsByClassificationParameterName = "limitResultsByClassification";
-
-        this.validateRepositoryConnector(methodName);
-        parentConnector.validateRepositoryIsActive(methodName);
-        repositoryValidator.validateUserId(repositoryName, userId, methodName);
-
-        if (limitResultsByClassification != null) {
-            for (String classificationName : limitResultsByClassification) {
-                repositoryValidator.validateClassificationName(repositoryName,
-                        limitedResultsByClassificationParameterName,
-                        classificationName,
-                        methodName);
-            }
-        }
+            this.getRelatedEntitiesParameterValidation(userId,
+                    startEntityGUID,
+                    entityTypeGUIDs,
+                    fromEntityElement,
+                    limitResultsByStatus,
+                    limitResultsByClassification,
+                    asOfTime,
+                    sequencingProperty,
+                    sequencingOrder,
+                    pageSize);
 
-        // Retrieve ALL (full depth) neighborhood from the starting entity (not retrieving any relationships)
-        InstanceGraph adjacent = new GetRelatedEntities(xtdbRepositoryConnector,
-                startEntityGUID,
-                entityTypeGUIDs,
-                limitResultsByStatus,
-                limitResultsByClassification,
-                asOfTime).execute();
+            final String methodName = "getRelatedEntities";
+            final String limitedResultsByClassificationParameterName = "limitResultsByClassification";
 
-        if (adjacent != null) {
-            // ... and then simply limit the entity results according to the sequencing and paging parameters
-            return repositoryHelper.formatEntityResults(adjacent.getEntities(), fromEntityElement, sequencingProperty, sequencingOrder, pageSize);
-        }
-        return null;
+            this.validateRepositoryConnector(methodName);
+            parentConnector.validateRepositoryIsActive(methodName);
+            repositoryValidator.validateUserId(repositoryName, userId, methodName);
 
+            if (limitResultsByClassification != null) {
+                for (String classificationName : limitResultsByClassification) {
+                    repositoryValidator.validateClassificationName(repositoryName,
+                            limitedResultsByClassificationParameterName,
+                            classificationName,
+                            methodName);
+                }
+            }
+
+            // Stream the (full depth) neighborhood from the starting entity only until the requested page is complete
+            // (not retrieving any relationships)
+            return timer.succeeded(new GetRelatedEntities(xtdbRepositoryConnector,
+                    startEntityGUID,
+                    entityTypeGUIDs,
+                    limitResultsByStatus,
+                    limitResultsByClassification,
+                    asOfTime).execute(fromEntityElement, sequencingProperty, sequencingOrder, pageSize));
+        }
     }
 
     /**
@@ -846,28 +1054,29 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             ClassificationErrorException,
             StatusNotSupportedException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "addEntity")) {
 
-        final String methodName = "addEntity";
+            final String methodName = "addEntity";
 
-        // Note that these validations should not confirm required or unique properties: that is the responsibility
-        // of the layer above (OMAS)
+            // Note that these validations should not confirm required or unique properties: that is the responsibility
+            // of the layer above (OMAS)
 
-        TypeDef typeDef = super.addEntityParameterValidation(userId, entityTypeGUID, initialProperties, initialClassifications, initialStatus, methodName);
-        EntityDetail newEntity = repositoryHelper.getNewEntity(repositoryName,
-                metadataCollectionId,
-                InstanceProvenanceType.LOCAL_COHORT,
-                userId,
-                typeDef.getName(),
-                initialProperties,
-                initialClassifications);
-        newEntity.setMetadataCollectionName(metadataCollectionName);
+            TypeDef typeDef = super.addEntityParameterValidation(userId, entityTypeGUID, initialProperties, initialClassifications, initialStatus, methodName);
+            EntityDetail newEntity = repositoryHelper.getNewEntity(repositoryName,
+                    metadataCollectionId,
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    userId,
+                    typeDef.getName(),
+                    initialProperties,
+                    initialClassifications);
+            newEntity.setMetadataCollectionName(metadataCollectionName);
 
-        if (initialStatus != null) {
-            newEntity.setStatus(initialStatus);
-        }
-
-        return addEntity(newEntity);
+            if (initialStatus != null) {
+                newEntity.setStatus(initialStatus);
+            }
 
+            return timer.succeeded(addEntity(newEntity));
+        }
     }
 
     /**
@@ -888,26 +1097,27 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             ClassificationErrorException,
             StatusNotSupportedException,
             UserNotAuthorizedException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "addExternalEntity")) {
+
+            final String methodName = "addExternalEntity";
+
+            TypeDef typeDef = super.addExternalEntityParameterValidation(userId, entityTypeGUID, externalSourceGUID, initialProperties, initialClassifications, initialStatus, methodName);
+            EntityDetail newEntity = repositoryHelper.getNewEntity(repositoryName,
+                    externalSourceGUID,
+                    InstanceProvenanceType.EXTERNAL_SOURCE,
+                    userId,
+                    typeDef.getName(),
+                    initialProperties,
+                    initialClassifications);
+            newEntity.setMetadataCollectionName(externalSourceName);
+            newEntity.setReplicatedBy(metadataCollectionId);
+
+            if (initialStatus != null) {
+                newEntity.setStatus(initialStatus);
+            }
 
-        final String methodName = "addExternalEntity";
-
-        TypeDef typeDef = super.addExternalEntityParameterValidation(userId, entityTypeGUID, externalSourceGUID, initialProperties, initialClassifications, initialStatus, methodName);
-        EntityDetail newEntity = repositoryHelper.getNewEntity(repositoryName,
-                externalSourceGUID,
-                InstanceProvenanceType.EXTERNAL_SOURCE,
-                userId,
-                typeDef.getName(),
-                initialProperties,
-                initialClassifications);
-        newEntity.setMetadataCollectionName(externalSourceName);
-        newEntity.setReplicatedBy(metadataCollectionId);
-
-        if (initialStatus != null) {
-            newEntity.setStatus(initialStatus);
+            return timer.succeeded(addEntity(newEntity));
         }
-
-        return addEntity(newEntity);
-
     }
 
     private EntityDetail addEntity(EntityDetail entity) throws
@@ -923,8 +1133,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
                                EntityProxy entityProxy) throws
             InvalidParameterException,
             RepositoryErrorException {
-        super.addEntityProxyParameterValidation(userId, entityProxy);
-        AddEntityProxy.transact(xtdbRepositoryConnector, entityProxy);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "addEntityProxy")) {
+            super.addEntityProxyParameterValidation(userId, entityProxy);
+            AddEntityProxy.transact(xtdbRepositoryConnector, entityProxy);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -938,8 +1151,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             StatusNotSupportedException {
-        this.updateInstanceStatusParameterValidation(userId, entityGUID, newStatus, "updateEntityStatus");
-        return UpdateEntityStatus.transact(xtdbRepositoryConnector, userId, entityGUID, newStatus);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "updateEntityStatus")) {
+            this.updateInstanceStatusParameterValidation(userId, entityGUID, newStatus, "updateEntityStatus");
+            return timer.succeeded(UpdateEntityStatus.transact(xtdbRepositoryConnector, userId, entityGUID, newStatus));
+        }
     }
 
     /**
@@ -953,8 +1168,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             PropertyErrorException {
-        this.updateInstancePropertiesPropertyValidation(userId, entityGUID, properties, "updateEntityProperties");
-        return UpdateEntityProperties.transact(xtdbRepositoryConnector, userId, entityGUID, properties);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "updateEntityProperties")) {
+            this.updateInstancePropertiesPropertyValidation(userId, entityGUID, properties, "updateEntityProperties");
+            return timer.succeeded(UpdateEntityProperties.transact(xtdbRepositoryConnector, userId, entityGUID, properties));
+        }
     }
 
     /**
@@ -966,8 +1183,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             EntityNotKnownException {
-        super.manageInstanceParameterValidation(userId, entityGUID, Constants.ENTITY_GUID, "undoEntityUpdate");
-        return UndoEntityUpdate.transact(xtdbRepositoryConnector, userId, entityGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "undoEntityUpdate")) {
+            super.manageInstanceParameterValidation(userId, entityGUID, Constants.ENTITY_GUID, "undoEntityUpdate");
+            return timer.succeeded(UndoEntityUpdate.transact(xtdbRepositoryConnector, userId, entityGUID));
+        }
     }
 
     /**
@@ -981,8 +1200,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             EntityNotKnownException {
-        super.manageInstanceParameterValidation(userId, typeDefGUID, typeDefName, obsoleteEntityGUID, "obsoleteEntityGUID", "deleteEntity");
-        return DeleteEntity.transact(xtdbRepositoryConnector, userId, obsoleteEntityGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "deleteEntity")) {
+            super.manageInstanceParameterValidation(userId, typeDefGUID, typeDefName, obsoleteEntityGUID, "obsoleteEntityGUID", "deleteEntity");
+            return timer.succeeded(DeleteEntity.transact(xtdbRepositoryConnector, userId, obsoleteEntityGUID));
+        }
     }
 
     /**
@@ -997,8 +1218,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             EntityNotDeletedException {
-        this.manageInstanceParameterValidation(userId, typeDefGUID, typeDefName, deletedEntityGUID, "deletedEntityGUID", "purgeEntity");
-        PurgeEntity.transactWithValidation(xtdbRepositoryConnector, deletedEntityGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "purgeEntity")) {
+            this.manageInstanceParameterValidation(userId, typeDefGUID, typeDefName, deletedEntityGUID, "deletedEntityGUID", "purgeEntity");
+            PurgeEntity.transactWithValidation(xtdbRepositoryConnector, deletedEntityGUID);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1011,8 +1235,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             EntityNotDeletedException {
-        super.manageInstanceParameterValidation(userId, deletedEntityGUID, "deletedEntityGUID", "restoreEntity");
-        return RestoreEntity.transact(xtdbRepositoryConnector, userId, deletedEntityGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "restoreEntity")) {
+            super.manageInstanceParameterValidation(userId, deletedEntityGUID, "deletedEntityGUID", "restoreEntity");
+            return timer.succeeded(RestoreEntity.transact(xtdbRepositoryConnector, userId, deletedEntityGUID));
+        }
     }
 
     /**
@@ -1081,21 +1307,23 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityNotKnownException,
             ClassificationErrorException,
             PropertyErrorException {
-
-        final String methodName = "classifyEntity";
-        this.validateRepositoryConnector(methodName);
-        parentConnector.validateRepositoryIsActive(methodName);
-        repositoryValidator.validateUserId(repositoryName, userId, methodName);
-        repositoryValidator.validateGUID(repositoryName, Constants.ENTITY_GUID, entityGUID, methodName);
-        return ClassifyEntityDetail.transact(xtdbRepositoryConnector,
-                userId,
-                entityGUID,
-                classificationName,
-                externalSourceGUID,
-                externalSourceName,
-                classificationOrigin,
-                classificationOriginGUID,
-                classificationProperties);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "classifyEntity")) {
+
+            final String methodName = "classifyEntity";
+            this.validateRepositoryConnector(methodName);
+            parentConnector.validateRepositoryIsActive(methodName);
+            repositoryValidator.validateUserId(repositoryName, userId, methodName);
+            repositoryValidator.validateGUID(repositoryName, Constants.ENTITY_GUID, entityGUID, methodName);
+            return timer.succeeded(ClassifyEntityDetail.transact(xtdbRepositoryConnector,
+                    userId,
+                    entityGUID,
+                    classificationName,
+                    externalSourceGUID,
+                    externalSourceName,
+                    classificationOrigin,
+                    classificationOriginGUID,
+                    classificationProperties));
+        }
     }
 
     /**
@@ -1116,21 +1344,23 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             UserNotAuthorizedException,
             FunctionNotSupportedException {
-
-        final String methodName = "classifyEntityProxy (detailed)";
-        this.validateRepositoryConnector(methodName);
-        parentConnector.validateRepositoryIsActive(methodName);
-        repositoryValidator.validateUserId(repositoryName, userId, methodName);
-        repositoryValidator.validateGUID(repositoryName, Constants.ENTITY_GUID, entityProxy == null ? null : entityProxy.getGUID(), methodName);
-        return ClassifyEntityProxy.transact(xtdbRepositoryConnector,
-                userId,
-                entityProxy,
-                classificationName,
-                externalSourceGUID,
-                externalSourceName,
-                classificationOrigin,
-                classificationOriginGUID,
-                classificationProperties);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "classifyEntity")) {
+
+            final String methodName = "classifyEntityProxy (detailed)";
+            this.validateRepositoryConnector(methodName);
+            parentConnector.validateRepositoryIsActive(methodName);
+            repositoryValidator.validateUserId(repositoryName, userId, methodName);
+            repositoryValidator.validateGUID(repositoryName, Constants.ENTITY_GUID, entityProxy == null ? null : entityProxy.getGUID(), methodName);
+            return timer.succeeded(ClassifyEntityProxy.transact(xtdbRepositoryConnector,
+                    userId,
+                    entityProxy,
+                    classificationName,
+                    externalSourceGUID,
+                    externalSourceName,
+                    classificationOrigin,
+                    classificationOriginGUID,
+                    classificationProperties));
+        }
     }
 
     /**
@@ -1144,8 +1374,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             ClassificationErrorException {
-        super.declassifyEntityParameterValidation(userId, entityGUID, classificationName, "declassifyEntity");
-        return DeclassifyEntityDetail.transact(xtdbRepositoryConnector, entityGUID, classificationName);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "declassifyEntity")) {
+            super.declassifyEntityParameterValidation(userId, entityGUID, classificationName, "declassifyEntity");
+            return timer.succeeded(DeclassifyEntityDetail.transact(xtdbRepositoryConnector, entityGUID, classificationName));
+        }
     }
 
     /**
@@ -1159,8 +1391,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             ClassificationErrorException {
-        super.declassifyEntityParameterValidation(userId, entityProxy, classificationName, "declassifyEntityProxy");
-        return DeclassifyEntityProxy.transact(xtdbRepositoryConnector, entityProxy, classificationName);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "declassifyEntity")) {
+            super.declassifyEntityParameterValidation(userId, entityProxy, classificationName, "declassifyEntityProxy");
+            return timer.succeeded(DeclassifyEntityProxy.transact(xtdbRepositoryConnector, entityProxy, classificationName));
+        }
     }
 
     /**
@@ -1176,8 +1410,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityNotKnownException,
             ClassificationErrorException,
             PropertyErrorException {
-        super.classifyEntityParameterValidation(userId, entityGUID, classificationName, properties, "updateEntityClassification");
-        return UpdateEntityDetailClassification.transact(xtdbRepositoryConnector, userId, entityGUID, classificationName, properties);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "updateEntityClassification")) {
+            super.classifyEntityParameterValidation(userId, entityGUID, classificationName, properties, "updateEntityClassification");
+            return timer.succeeded(UpdateEntityDetailClassification.transact(xtdbRepositoryConnector, userId, entityGUID, classificationName, properties));
+        }
     }
 
     /**
@@ -1195,8 +1431,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             UserNotAuthorizedException,
             FunctionNotSupportedException {
-        super.classifyEntityParameterValidation(userId, entityProxy, classificationName, properties, "updateEntityProxyClassification");
-        return UpdateEntityProxyClassification.transact(xtdbRepositoryConnector, userId, entityProxy, classificationName, properties);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "updateEntityClassification")) {
+            super.classifyEntityParameterValidation(userId, entityProxy, classificationName, properties, "updateEntityProxyClassification");
+            return timer.succeeded(UpdateEntityProxyClassification.transact(xtdbRepositoryConnector, userId, entityProxy, classificationName, properties));
+        }
     }
 
     /**
@@ -1216,21 +1454,22 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityNotKnownException,
             StatusNotSupportedException,
             UserNotAuthorizedException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "addRelationship")) {
+
+            TypeDef typeDef = super.addRelationshipParameterValidation(userId, relationshipTypeGUID, initialProperties, entityOneGUID, entityTwoGUID, initialStatus, "addRelationship");
+
+            Relationship relationship = repositoryHelper.getNewRelationship(repositoryName,
+                    metadataCollectionId,
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    userId,
+                    typeDef.getName(),
+                    initialProperties);
+            if (initialStatus != null) {
+                relationship.setStatus(initialStatus);
+            }
 
-        TypeDef typeDef = super.addRelationshipParameterValidation(userId, relationshipTypeGUID, initialProperties, entityOneGUID, entityTwoGUID, initialStatus, "addRelationship");
-
-        Relationship relationship = repositoryHelper.getNewRelationship(repositoryName,
-                metadataCollectionId,
-                InstanceProvenanceType.LOCAL_COHORT,
-                userId,
-                typeDef.getName(),
-                initialProperties);
-        if (initialStatus != null) {
-            relationship.setStatus(initialStatus);
+            return timer.succeeded(addRelationship(relationship, entityOneGUID, entityTwoGUID));
         }
-
-        return addRelationship(relationship, entityOneGUID, entityTwoGUID);
-
     }
 
     /**
@@ -1252,24 +1491,25 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityNotKnownException,
             StatusNotSupportedException,
             UserNotAuthorizedException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "addExternalRelationship")) {
 
-        TypeDef typeDef = super.addRelationshipParameterValidation(userId, relationshipTypeGUID, initialProperties, entityOneGUID, entityTwoGUID, initialStatus, "addExternalRelationship");
+            TypeDef typeDef = super.addRelationshipParameterValidation(userId, relationshipTypeGUID, initialProperties, entityOneGUID, entityTwoGUID, initialStatus, "addExternalRelationship");
 
-        Relationship relationship = repositoryHelper.getNewRelationship(repositoryName,
-                externalSourceGUID,
-                InstanceProvenanceType.EXTERNAL_SOURCE,
-                userId,
-                typeDef.getName(),
-                initialProperties);
-
-        relationship.setMetadataCollectionName(externalSourceName);
-        relationship.setReplicatedBy(metadataCollectionId);
-        if (initialStatus != null) {
-            relationship.setStatus(initialStatus);
-        }
+            Relationship relationship = repositoryHelper.getNewRelationship(repositoryName,
+                    externalSourceGUID,
+                    InstanceProvenanceType.EXTERNAL_SOURCE,
+                    userId,
+                    typeDef.getName(),
+                    initialProperties);
 
-        return addRelationship(relationship, entityOneGUID, entityTwoGUID);
+            relationship.setMetadataCollectionName(externalSourceName);
+            relationship.setReplicatedBy(metadataCollectionId);
+            if (initialStatus != null) {
+                relationship.setStatus(initialStatus);
+            }
 
+            return timer.succeeded(addRelationship(relationship, entityOneGUID, entityTwoGUID));
+        }
     }
 
     private Relationship addRelationship(Relationship relationship,
@@ -1292,8 +1532,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             RelationshipNotKnownException,
             StatusNotSupportedException {
-        this.updateInstanceStatusParameterValidation(userId, relationshipGUID, newStatus, "updateRelationshipStatus");
-        return UpdateRelationshipStatus.transact(xtdbRepositoryConnector, userId, relationshipGUID, newStatus);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "updateRelationshipStatus")) {
+            this.updateInstanceStatusParameterValidation(userId, relationshipGUID, newStatus, "updateRelationshipStatus");
+            return timer.succeeded(UpdateRelationshipStatus.transact(xtdbRepositoryConnector, userId, relationshipGUID, newStatus));
+        }
     }
 
     /**
@@ -1307,8 +1549,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             RelationshipNotKnownException,
             PropertyErrorException {
-        this.updateInstancePropertiesPropertyValidation(userId, relationshipGUID, properties, "updateRelationshipProperties");
-        return UpdateRelationshipProperties.transact(xtdbRepositoryConnector, userId, relationshipGUID, properties);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "updateRelationshipProperties")) {
+            this.updateInstancePropertiesPropertyValidation(userId, relationshipGUID, properties, "updateRelationshipProperties");
+            return timer.succeeded(UpdateRelationshipProperties.transact(xtdbRepositoryConnector, userId, relationshipGUID, properties));
+        }
     }
 
     /**
@@ -1320,8 +1564,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             RelationshipNotKnownException {
-        this.manageInstanceParameterValidation(userId, relationshipGUID, Constants.RELATIONSHIP_GUID, "undoRelationshipUpdate");
-        return UndoRelationshipUpdate.transact(xtdbRepositoryConnector, userId, relationshipGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "undoRelationshipUpdate")) {
+            this.manageInstanceParameterValidation(userId, relationshipGUID, Constants.RELATIONSHIP_GUID, "undoRelationshipUpdate");
+            return timer.succeeded(UndoRelationshipUpdate.transact(xtdbRepositoryConnector, userId, relationshipGUID));
+        }
     }
 
     /**
@@ -1335,8 +1581,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             RelationshipNotKnownException {
-        this.manageInstanceParameterValidation(userId, typeDefGUID, typeDefName, obsoleteRelationshipGUID, "obsoleteRelationshipGUID", "deleteRelationship");
-        return DeleteRelationship.transact(xtdbRepositoryConnector, userId, obsoleteRelationshipGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "deleteRelationship")) {
+            this.manageInstanceParameterValidation(userId, typeDefGUID, typeDefName, obsoleteRelationshipGUID, "obsoleteRelationshipGUID", "deleteRelationship");
+            return timer.succeeded(DeleteRelationship.transact(xtdbRepositoryConnector, userId, obsoleteRelationshipGUID));
+        }
     }
 
     /**
@@ -1351,8 +1599,11 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             RelationshipNotKnownException,
             RelationshipNotDeletedException {
-        this.manageInstanceParameterValidation(userId, typeDefGUID, typeDefName, deletedRelationshipGUID, "deletedRelationshipGUID", "purgeRelationship");
-        PurgeRelationship.transactWithValidation(xtdbRepositoryConnector, deletedRelationshipGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "purgeRelationship")) {
+            this.manageInstanceParameterValidation(userId, typeDefGUID, typeDefName, deletedRelationshipGUID, "deletedRelationshipGUID", "purgeRelationship");
+            PurgeRelationship.transactWithValidation(xtdbRepositoryConnector, deletedRelationshipGUID);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1365,8 +1616,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             RelationshipNotKnownException,
             RelationshipNotDeletedException {
-        this.manageInstanceParameterValidation(userId, deletedRelationshipGUID, "deletedRelationshipGUID", "restoreRelationship");
-        return RestoreRelationship.transact(xtdbRepositoryConnector, userId, deletedRelationshipGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "restoreRelationship")) {
+            this.manageInstanceParameterValidation(userId, deletedRelationshipGUID, "deletedRelationshipGUID", "restoreRelationship");
+            return timer.succeeded(RestoreRelationship.transact(xtdbRepositoryConnector, userId, deletedRelationshipGUID));
+        }
     }
 
     /**
@@ -1382,8 +1635,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             UserNotAuthorizedException {
-        this.reIdentifyInstanceParameterValidation(userId, typeDefGUID, typeDefName, entityGUID, Constants.ENTITY_GUID, newEntityGUID, "newEntityGUID", "reIdentifyEntity");
-        return ReIdentifyEntity.transact(xtdbRepositoryConnector, userId, entityGUID, newEntityGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "reIdentifyEntity")) {
+            this.reIdentifyInstanceParameterValidation(userId, typeDefGUID, typeDefName, entityGUID, Constants.ENTITY_GUID, newEntityGUID, "newEntityGUID", "reIdentifyEntity");
+            return timer.succeeded(ReIdentifyEntity.transact(xtdbRepositoryConnector, userId, entityGUID, newEntityGUID));
+        }
     }
 
     /**
@@ -1400,8 +1655,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             PropertyErrorException,
             ClassificationErrorException,
             EntityNotKnownException {
-        super.reTypeInstanceParameterValidation(userId, entityGUID, Constants.ENTITY_GUID, TypeDefCategory.ENTITY_DEF, currentTypeDefSummary, newTypeDefSummary, "reTypeEntity");
-        return ReTypeEntity.transact(xtdbRepositoryConnector, userId, entityGUID, newTypeDefSummary);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "reTypeEntity")) {
+            super.reTypeInstanceParameterValidation(userId, entityGUID, Constants.ENTITY_GUID, TypeDefCategory.ENTITY_DEF, currentTypeDefSummary, newTypeDefSummary, "reTypeEntity");
+            return timer.succeeded(ReTypeEntity.transact(xtdbRepositoryConnector, userId, entityGUID, newTypeDefSummary));
+        }
     }
 
     /**
@@ -1418,8 +1675,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             EntityNotKnownException {
-        super.reHomeInstanceParameterValidation(userId, entityGUID, Constants.ENTITY_GUID, typeDefGUID, typeDefName, homeMetadataCollectionId, newHomeMetadataCollectionId, "reHomeEntity");
-        return ReHomeEntity.transact(xtdbRepositoryConnector, userId, entityGUID, newHomeMetadataCollectionId, newHomeMetadataCollectionName);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "reHomeEntity")) {
+            super.reHomeInstanceParameterValidation(userId, entityGUID, Constants.ENTITY_GUID, typeDefGUID, typeDefName, homeMetadataCollectionId, newHomeMetadataCollectionId, "reHomeEntity");
+            return timer.succeeded(ReHomeEntity.transact(xtdbRepositoryConnector, userId, entityGUID, newHomeMetadataCollectionId, newHomeMetadataCollectionName));
+        }
     }
 
     /**
@@ -1435,8 +1694,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             RelationshipNotKnownException,
             UserNotAuthorizedException {
-        this.reIdentifyInstanceParameterValidation(userId, typeDefGUID, typeDefName, relationshipGUID, Constants.RELATIONSHIP_GUID, newRelationshipGUID, "newRelationshipGUID", "reIdentifyRelationship");
-        return ReIdentifyRelationship.transact(xtdbRepositoryConnector, userId, relationshipGUID, newRelationshipGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "reIdentifyRelationship")) {
+            this.reIdentifyInstanceParameterValidation(userId, typeDefGUID, typeDefName, relationshipGUID, Constants.RELATIONSHIP_GUID, newRelationshipGUID, "newRelationshipGUID", "reIdentifyRelationship");
+            return timer.succeeded(ReIdentifyRelationship.transact(xtdbRepositoryConnector, userId, relationshipGUID, newRelationshipGUID));
+        }
     }
 
     /**
@@ -1452,8 +1713,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             TypeErrorException,
             PropertyErrorException,
             RelationshipNotKnownException {
-        super.reTypeInstanceParameterValidation(userId, relationshipGUID, Constants.RELATIONSHIP_GUID, TypeDefCategory.RELATIONSHIP_DEF, currentTypeDefSummary, newTypeDefSummary, "reTypeRelationship");
-        return ReTypeRelationship.transact(xtdbRepositoryConnector, userId, relationshipGUID, newTypeDefSummary);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "reTypeRelationship")) {
+            super.reTypeInstanceParameterValidation(userId, relationshipGUID, Constants.RELATIONSHIP_GUID, TypeDefCategory.RELATIONSHIP_DEF, currentTypeDefSummary, newTypeDefSummary, "reTypeRelationship");
+            return timer.succeeded(ReTypeRelationship.transact(xtdbRepositoryConnector, userId, relationshipGUID, newTypeDefSummary));
+        }
     }
 
     /**
@@ -1470,18 +1733,20 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             RelationshipNotKnownException {
-        final String methodName = "reHomeRelationship";
-        final String guidParameterName = "typeDefGUID";
-        final String nameParameterName = "typeDefName";
-        final String newHomeParameterName = "newHomeMetadataCollectionId";
-        this.validateRepositoryConnector(methodName);
-        parentConnector.validateRepositoryIsActive(methodName);
-        repositoryValidator.validateUserId(repositoryName, userId, methodName);
-        repositoryValidator.validateGUID(repositoryName, Constants.RELATIONSHIP_GUID, relationshipGUID, methodName);
-        repositoryValidator.validateTypeDefIds(repositoryName, guidParameterName, nameParameterName, typeDefGUID, typeDefName, methodName);
-        repositoryValidator.validateHomeMetadataGUID(repositoryName, Constants.HOME_METADATA_COLLECTION_ID, homeMetadataCollectionId, methodName);
-        repositoryValidator.validateHomeMetadataGUID(repositoryName, newHomeParameterName, newHomeMetadataCollectionId, methodName);
-        return ReHomeRelationship.transact(xtdbRepositoryConnector, userId, relationshipGUID, newHomeMetadataCollectionId, newHomeMetadataCollectionName);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "reHomeRelationship")) {
+            final String methodName = "reHomeRelationship";
+            final String guidParameterName = "typeDefGUID";
+            final String nameParameterName = "typeDefName";
+            final String newHomeParameterName = "newHomeMetadataCollectionId";
+            this.validateRepositoryConnector(methodName);
+            parentConnector.validateRepositoryIsActive(methodName);
+            repositoryValidator.validateUserId(repositoryName, userId, methodName);
+            repositoryValidator.validateGUID(repositoryName, Constants.RELATIONSHIP_GUID, relationshipGUID, methodName);
+            repositoryValidator.validateTypeDefIds(repositoryName, guidParameterName, nameParameterName, typeDefGUID, typeDefName, methodName);
+            repositoryValidator.validateHomeMetadataGUID(repositoryName, Constants.HOME_METADATA_COLLECTION_ID, homeMetadataCollectionId, methodName);
+            repositoryValidator.validateHomeMetadataGUID(repositoryName, newHomeParameterName, newHomeMetadataCollectionId, methodName);
+            return timer.succeeded(ReHomeRelationship.transact(xtdbRepositoryConnector, userId, relationshipGUID, newHomeMetadataCollectionId, newHomeMetadataCollectionName));
+        }
     }
 
     /**
@@ -1494,12 +1759,15 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityConflictException,
             HomeEntityException {
-        final String methodName = "saveEntityReferenceCopy";
-        final String instanceParameterName = "entity";
-        this.validateRepositoryConnector(methodName);
-        parentConnector.validateRepositoryIsActive(methodName);
-        repositoryValidator.validateReferenceInstanceHeader(repositoryName, metadataCollectionId, instanceParameterName, entity, methodName);
-        SaveEntityReferenceCopy.transact(xtdbRepositoryConnector, entity);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "saveEntityReferenceCopy")) {
+            final String methodName = "saveEntityReferenceCopy";
+            final String instanceParameterName = "entity";
+            this.validateRepositoryConnector(methodName);
+            parentConnector.validateRepositoryIsActive(methodName);
+            repositoryValidator.validateReferenceInstanceHeader(repositoryName, metadataCollectionId, instanceParameterName, entity, methodName);
+            SaveEntityReferenceCopy.transact(xtdbRepositoryConnector, entity);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1524,35 +1792,36 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             InvalidParameterException,
             RepositoryErrorException,
             EntityNotKnownException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "getHomeClassifications")) {
 
-        final String methodName = "getHomeClassifications";
+            final String methodName = "getHomeClassifications";
 
-        this.validateRepositoryConnector(methodName);
-        parentConnector.validateRepositoryIsActive(methodName);
+            this.validateRepositoryConnector(methodName);
+            parentConnector.validateRepositoryIsActive(methodName);
 
-        repositoryValidator.validateUserId(repositoryName, userId, methodName);
-        repositoryValidator.validateGUID(repositoryName, Constants.ENTITY_GUID, entityGUID, methodName);
+            repositoryValidator.validateUserId(repositoryName, userId, methodName);
+            repositoryValidator.validateGUID(repositoryName, Constants.ENTITY_GUID, entityGUID, methodName);
 
-        EntitySummary retrievedEntity = new GetEntity(xtdbRepositoryConnector, entityGUID, asOfTime).asSummary();
-        List<Classification> homeClassifications = new ArrayList<>();
+            EntitySummary retrievedEntity = new GetEntity(xtdbRepositoryConnector, entityGUID, asOfTime).asSummary();
+            List<Classification> homeClassifications = new ArrayList<>();
 
-        if (retrievedEntity != null) {
-            List<Classification> retrievedClassifications = retrievedEntity.getClassifications();
-            if (retrievedClassifications != null) {
-                for (Classification retrievedClassification : retrievedClassifications) {
-                    if (retrievedClassification != null) {
-                        if (metadataCollectionId.equals(retrievedClassification.getMetadataCollectionId())) {
-                            homeClassifications.add(retrievedClassification);
+            if (retrievedEntity != null) {
+                List<Classification> retrievedClassifications = retrievedEntity.getClassifications();
+                if (retrievedClassifications != null) {
+                    for (Classification retrievedClassification : retrievedClassifications) {
+                        if (retrievedClassification != null) {
+                            if (metadataCollectionId.equals(retrievedClassification.getMetadataCollectionId())) {
+                                homeClassifications.add(retrievedClassification);
+                            }
                         }
                     }
                 }
+            } else {
+                super.reportEntityNotKnown(entityGUID, methodName);
             }
-        } else {
-            super.reportEntityNotKnown(entityGUID, methodName);
-        }
-
-        return homeClassifications.isEmpty() ? null : homeClassifications;
 
+            return timer.succeeded(homeClassifications.isEmpty() ? null : homeClassifications);
+        }
     }
 
     /**
@@ -1568,9 +1837,12 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             EntityNotKnownException,
             UserNotAuthorizedException {
-        final String methodName = "purgeEntityReferenceCopy";
-        this.manageReferenceInstanceParameterValidation(userId, entityGUID, typeDefGUID, typeDefName, Constants.ENTITY_GUID, homeMetadataCollectionId, Constants.HOME_METADATA_COLLECTION_ID, methodName);
-        PurgeEntity.transactWithoutValidation(xtdbRepositoryConnector, entityGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "purgeEntityReferenceCopy")) {
+            final String methodName = "purgeEntityReferenceCopy";
+            this.manageReferenceInstanceParameterValidation(userId, entityGUID, typeDefGUID, typeDefName, Constants.ENTITY_GUID, homeMetadataCollectionId, Constants.HOME_METADATA_COLLECTION_ID, methodName);
+            PurgeEntity.transactWithoutValidation(xtdbRepositoryConnector, entityGUID);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1585,7 +1857,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             TypeErrorException,
             EntityConflictException,
             PropertyErrorException {
-        SaveClassificationReferenceCopyEntityDetail.transact(xtdbRepositoryConnector, entity, classification);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "saveClassificationReferenceCopy")) {
+            SaveClassificationReferenceCopyEntityDetail.transact(xtdbRepositoryConnector, entity, classification);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1601,7 +1876,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityConflictException,
             InvalidEntityException,
             PropertyErrorException {
-        SaveClassificationReferenceCopyEntityProxy.transact(xtdbRepositoryConnector, entity, classification);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "saveClassificationReferenceCopy")) {
+            SaveClassificationReferenceCopyEntityProxy.transact(xtdbRepositoryConnector, entity, classification);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1613,7 +1891,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
                                                  Classification classification) throws
             EntityConflictException,
             RepositoryErrorException {
-        PurgeClassificationReferenceCopyEntityDetail.transact(xtdbRepositoryConnector, entity, classification);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "purgeClassificationReferenceCopy")) {
+            PurgeClassificationReferenceCopyEntityDetail.transact(xtdbRepositoryConnector, entity, classification);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1629,7 +1910,10 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             EntityConflictException,
             InvalidEntityException,
             RepositoryErrorException {
-        PurgeClassificationReferenceCopyEntityProxy.transact(xtdbRepositoryConnector, entity, classification);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "purgeClassificationReferenceCopy")) {
+            PurgeClassificationReferenceCopyEntityProxy.transact(xtdbRepositoryConnector, entity, classification);
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1643,8 +1927,122 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RelationshipConflictException,
             HomeRelationshipException,
             UserNotAuthorizedException {
-        super.referenceInstanceParameterValidation(userId, relationship, "relationship", "saveRelationshipReferenceCopy");
-        SaveRelationshipReferenceCopy.transact(xtdbRepositoryConnector, relationship);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "saveRelationshipReferenceCopy")) {
+            super.referenceInstanceParameterValidation(userId, relationship, "relationship", "saveRelationshipReferenceCopy");
+            SaveRelationshipReferenceCopy.transact(xtdbRepositoryConnector, relationship);
+            timer.succeeded();
+        }
+    }
+
+    /**
+     * Save many reference copies at once: rather than each being saved through its own transaction, they are saved
+     * in chunked transactions (of at most the connector's configured reference copy batch size), for example when
+     * catching up with the rest of a cohort. Entities are saved before relationships, and each in the order provided.
+     * Unlike the other operations, a reference copy that cannot be saved does not cause an exception: instead the
+     * outcome of each reference copy is returned, including the reason for any that could not be saved.
+     * @param userId unique identifier for requesting user
+     * @param entities the entity reference copies to save (may be null)
+     * @param relationships the relationship reference copies to save (may be null)
+     * @return {@code List<SaveReferenceCopies.Outcome>} the outcome of each reference copy, entities first
+     * @throws InvalidParameterException the user ID is invalid
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository
+     */
+    public List<SaveReferenceCopies.Outcome> saveReferenceCopies(String userId,
+                                                                 List<EntityDetail> entities,
+                                                                 List<Relationship> relationships) throws
+            InvalidParameterException,
+            RepositoryErrorException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "saveReferenceCopies")) {
+            final String methodName = "saveReferenceCopies";
+            this.validateRepositoryConnector(methodName);
+            parentConnector.validateRepositoryIsActive(methodName);
+            repositoryValidator.validateUserId(repositoryName, userId, methodName);
+            List<SaveReferenceCopies.Outcome> outcomes = new ArrayList<>();
+            if (entities != null) {
+                for (EntityDetail entity : entities) {
+                    try {
+                        super.referenceInstanceParameterValidation(userId, entity, "entity", methodName);
+                        outcomes.add(new SaveReferenceCopies.Outcome(entity));
+                    } catch (Exception e) {
+                        outcomes.add(new SaveReferenceCopies.Outcome(entity, e));
+                    }
+                }
+            }
+            if (relationships != null) {
+                for (Relationship relationship : relationships) {
+                    try {
+                        super.referenceInstanceParameterValidation(userId, relationship, "relationship", methodName);
+                        outcomes.add(new SaveReferenceCopies.Outcome(relationship));
+                    } catch (Exception e) {
+                        outcomes.add(new SaveReferenceCopies.Outcome(relationship, e));
+                    }
+                }
+            }
+            return timer.succeeded(SaveReferenceCopies.transact(xtdbRepositoryConnector, outcomes));
+        }
+    }
+
+    /**
+     * Save the reference copies of the provided instances through chunked transactions (see
+     * {@link #saveReferenceCopies(String, List, List)}). Any instances that are homed in this repository are skipped,
+     * as they are by the default implementation. Unlike the default implementation, which stops at the first
+     * reference copy that cannot be saved, every reference copy that can be saved is saved, and only then is the
+     * first that could not be saved reported as an exception.
+     * @param userId unique identifier for requesting user
+     * @param instances instances to save as reference copies
+     * @throws InvalidParameterException the user ID or a reference copy is invalid
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository
+     * @throws EntityConflictException an entity conflicts with an existing entity
+     * @throws RelationshipConflictException a relationship conflicts with an existing relationship
+     */
+    @Override
+    public void saveInstanceReferenceCopies(String userId,
+                                            InstanceGraph instances) throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            EntityConflictException,
+            RelationshipConflictException {
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "saveInstanceReferenceCopies")) {
+            final String methodName = "saveInstanceReferenceCopies";
+            if (instances == null) {
+                timer.succeeded();
+                return;
+            }
+            // Any instances that are homed in this repository are skipped (rather than treated as errors), and the
+            // first reference copy that could not be saved is only reported once all the others have been saved
+            List<EntityDetail> entities = new ArrayList<>();
+            if (instances.getEntities() != null) {
+                for (EntityDetail entity : instances.getEntities()) {
+                    if (entity == null || !metadataCollectionId.equals(entity.getMetadataCollectionId())) {
+                        entities.add(entity);
+                    }
+                }
+            }
+            List<Relationship> relationships = new ArrayList<>();
+            if (instances.getRelationships() != null) {
+                for (Relationship relationship : instances.getRelationships()) {
+                    if (relationship == null || !metadataCollectionId.equals(relationship.getMetadataCollectionId())) {
+                        relationships.add(relationship);
+                    }
+                }
+            }
+            for (SaveReferenceCopies.Outcome outcome : saveReferenceCopies(userId, entities, relationships)) {
+                Exception e = outcome.getError();
+                if (e instanceof InvalidParameterException) {
+                    throw (InvalidParameterException) e;
+                } else if (e instanceof RepositoryErrorException) {
+                    throw (RepositoryErrorException) e;
+                } else if (e instanceof EntityConflictException) {
+                    throw (EntityConflictException) e;
+                } else if (e instanceof RelationshipConflictException) {
+                    throw (RelationshipConflictException) e;
+                } else if (e != null) {
+                    throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                            this.getClass().getName(), methodName, e);
+                }
+            }
+            timer.succeeded();
+        }
     }
 
     /**
@@ -1660,9 +2058,12 @@ public class XtdbOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectio
             RepositoryErrorException,
             RelationshipNotKnownException,
             UserNotAuthorizedException {
-        final String methodName = "purgeRelationshipReferenceCopy";
-        this.manageReferenceInstanceParameterValidation(userId, relationshipGUID, typeDefGUID, typeDefName, Constants.RELATIONSHIP_GUID, homeMetadataCollectionId, Constants.HOME_METADATA_COLLECTION_ID, methodName);
-        PurgeRelationship.transactWithoutValidation(xtdbRepositoryConnector, relationshipGUID);
+        try (OperationTimer timer = ConnectorMetrics.start(ConnectorMetrics.OMRS + "purgeRelationshipReferenceCopy")) {
+            final String methodName = "purgeRelationshipReferenceCopy";
+            this.manageReferenceInstanceParameterValidation(userId, relationshipGUID, typeDefGUID, typeDefName, Constants.RELATIONSHIP_GUID, homeMetadataCollectionId, Constants.HOME_METADATA_COLLECTION_ID, methodName);
+            PurgeRelationship.transactWithoutValidation(xtdbRepositoryConnector, relationshipGUID);
+            timer.succeeded();
+        }
     }
 
     /**
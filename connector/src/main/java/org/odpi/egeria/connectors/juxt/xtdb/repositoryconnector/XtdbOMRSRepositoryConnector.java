@@ -4,6 +4,13 @@ package org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.InstanceCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.HistogramMetricsRegistry;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.MetricsRegistry;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.SlowQuery;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.SlowQueryLog;
 import org.odpi.egeria.connectors.juxt.xtdb.readops.AbstractReadOperation;
 import org.odpi.egeria.connectors.juxt.xtdb.txnfn.*;
 import xtdb.api.*;
@@ -25,6 +32,9 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Provides all connectivity and API-based interaction with a XTDB back-end.
@@ -40,6 +50,26 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
     private boolean luceneConfigured = false;
     private boolean synchronousIndex = true;
     private boolean luceneRegexes = true;
+    private EmbeddedEncoding embeddedEncoding = EmbeddedEncoding.JSON;
+    private long instanceCacheSize = InstanceCache.DEFAULT_MAX_WEIGHT;
+    private int maxLinkingDepth = Constants.MAX_TRAVERSAL_DEPTH;
+    private int maxLinkingFanOut = 0;
+    private int groupCommitSize = 1;
+    private long groupCommitWindow = 0;
+    private int referenceCopyBatchSize = 100;
+    private int referenceCopyInFlight = 4;
+    private int errorCacheSize = ErrorMessageCache.DEFAULT_MAX_ENTRIES;
+    private long errorCacheTimeToLive = ErrorMessageCache.DEFAULT_TIME_TO_LIVE;
+    private boolean metricsJmx = true;
+    private String metricsRegistry = null;
+    private boolean embeddedEncodingConfigured = false;
+    private boolean metricsRegistryConfigured = false;
+    private long slowQueryThreshold = SlowQueryLog.DEFAULT_THRESHOLD;
+    private int slowQueryLogSize = SlowQueryLog.DEFAULT_CAPACITY;
+    private long slowQueryLogInterval = 60;
+    private TransactionPipeline pipeline = null;
+    private SlowQueryLog slowQueryLog = null;
+    private ScheduledExecutorService slowQueryWriter = null;
 
     /**
      * Default constructor used by the OCF Connector Provider.
@@ -142,8 +172,125 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
                     luceneRegexes = (Boolean) luceneReg;
                 }
             }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.EMBEDDED_ENCODING)) {
+                Object encodingName = configProperties.get(XtdbOMRSRepositoryConnectorProvider.EMBEDDED_ENCODING);
+                if (encodingName instanceof String) {
+                    EmbeddedEncoding encoding = EmbeddedEncoding.fromName((String) encodingName);
+                    if (encoding != null) {
+                        embeddedEncoding = encoding;
+                    }
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.INSTANCE_CACHE_SIZE)) {
+                Object cacheSize = configProperties.get(XtdbOMRSRepositoryConnectorProvider.INSTANCE_CACHE_SIZE);
+                if (cacheSize instanceof Number) {
+                    instanceCacheSize = ((Number) cacheSize).longValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.MAX_LINKING_DEPTH)) {
+                Object depth = configProperties.get(XtdbOMRSRepositoryConnectorProvider.MAX_LINKING_DEPTH);
+                if (depth instanceof Number) {
+                    maxLinkingDepth = ((Number) depth).intValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.MAX_LINKING_FAN_OUT)) {
+                Object fanOut = configProperties.get(XtdbOMRSRepositoryConnectorProvider.MAX_LINKING_FAN_OUT);
+                if (fanOut instanceof Number) {
+                    maxLinkingFanOut = ((Number) fanOut).intValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.GROUP_COMMIT_SIZE)) {
+                Object size = configProperties.get(XtdbOMRSRepositoryConnectorProvider.GROUP_COMMIT_SIZE);
+                if (size instanceof Number) {
+                    groupCommitSize = ((Number) size).intValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.GROUP_COMMIT_WINDOW)) {
+                Object window = configProperties.get(XtdbOMRSRepositoryConnectorProvider.GROUP_COMMIT_WINDOW);
+                if (window instanceof Number) {
+                    groupCommitWindow = ((Number) window).longValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.REFERENCE_COPY_BATCH_SIZE)) {
+                Object size = configProperties.get(XtdbOMRSRepositoryConnectorProvider.REFERENCE_COPY_BATCH_SIZE);
+                if (size instanceof Number) {
+                    referenceCopyBatchSize = ((Number) size).intValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.REFERENCE_COPY_IN_FLIGHT)) {
+                Object inFlight = configProperties.get(XtdbOMRSRepositoryConnectorProvider.REFERENCE_COPY_IN_FLIGHT);
+                if (inFlight instanceof Number) {
+                    referenceCopyInFlight = ((Number) inFlight).intValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.ERROR_CACHE_SIZE)) {
+                Object size = configProperties.get(XtdbOMRSRepositoryConnectorProvider.ERROR_CACHE_SIZE);
+                if (size instanceof Number) {
+                    errorCacheSize = ((Number) size).intValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.ERROR_CACHE_TIME_TO_LIVE)) {
+                Object timeToLive = configProperties.get(XtdbOMRSRepositoryConnectorProvider.ERROR_CACHE_TIME_TO_LIVE);
+                if (timeToLive instanceof Number) {
+                    errorCacheTimeToLive = ((Number) timeToLive).longValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.METRICS_REGISTRY)) {
+                Object registryName = configProperties.get(XtdbOMRSRepositoryConnectorProvider.METRICS_REGISTRY);
+                if (registryName instanceof String) {
+                    metricsRegistry = (String) registryName;
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.METRICS_JMX)) {
+                Object jmx = configProperties.get(XtdbOMRSRepositoryConnectorProvider.METRICS_JMX);
+                if (jmx instanceof Boolean) {
+                    metricsJmx = (Boolean) jmx;
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.SLOW_QUERY_THRESHOLD)) {
+                Object threshold = configProperties.get(XtdbOMRSRepositoryConnectorProvider.SLOW_QUERY_THRESHOLD);
+                if (threshold instanceof Number) {
+                    slowQueryThreshold = ((Number) threshold).longValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.SLOW_QUERY_LOG_SIZE)) {
+                Object size = configProperties.get(XtdbOMRSRepositoryConnectorProvider.SLOW_QUERY_LOG_SIZE);
+                if (size instanceof Number) {
+                    slowQueryLogSize = ((Number) size).intValue();
+                }
+            }
+            if (configProperties.containsKey(XtdbOMRSRepositoryConnectorProvider.SLOW_QUERY_LOG_INTERVAL)) {
+                Object interval = configProperties.get(XtdbOMRSRepositoryConnectorProvider.SLOW_QUERY_LOG_INTERVAL);
+                if (interval instanceof Number) {
+                    slowQueryLogInterval = ((Number) interval).longValue();
+                }
+            }
         }
 
+        // Embedded values are mapped statically (including within the transaction functions), so the encoding to write
+        // them with is set once for the mapping layer as a whole (as are the bounds on the instances translated from them,
+        // and on the errors held for failed transactions) and cannot be switched by one repository while another relies
+        // on it -- likewise for the metrics registry
+        embeddedEncodingConfigured = AbstractMapping.configureEmbeddedEncoding(embeddedEncoding);
+        if (!embeddedEncodingConfigured) {
+            auditLog.logMessage(methodName, XtdbOMRSAuditCode.CONFLICTING_CONFIGURATION.getMessageDefinition("embedded encoding",
+                    repositoryName, embeddedEncoding.getName(), AbstractMapping.getEmbeddedEncoding().getName()));
+            embeddedEncoding = AbstractMapping.getEmbeddedEncoding();
+        }
+        final String registryName = metricsRegistry;
+        metricsRegistryConfigured = ConnectorMetrics.configureRegistry(registryName, () -> createMetricsRegistry(registryName));
+        if (!metricsRegistryConfigured) {
+            auditLog.logMessage(methodName, XtdbOMRSAuditCode.CONFLICTING_CONFIGURATION.getMessageDefinition("metrics registry",
+                    repositoryName, registryName == null ? "default" : registryName, ConnectorMetrics.getRegistryName()));
+        }
+        InstanceCache.setMaximumWeight(instanceCacheSize);
+        ErrorMessageCache.setMaximumEntries(errorCacheSize);
+        ErrorMessageCache.setTimeToLive(errorCacheTimeToLive);
+        if (metricsJmx) {
+            ConnectorMetrics.registerMBean();
+        }
+        slowQueryLog = new SlowQueryLog(slowQueryThreshold, slowQueryLogSize);
+
         try {
 
             if (configMap == null && configFile == null) {
@@ -185,6 +332,17 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
                 if (luceneRegexes)
                     opts.add("Lucene regexes");
             }
+            if (embeddedEncoding != EmbeddedEncoding.JSON) {
+                opts.add(embeddedEncoding.getName() + " embedded encoding");
+            }
+            if (instanceCacheSize <= 0) {
+                opts.add("no instance cache");
+            }
+            if (synchronousIndex && groupCommitSize > 1) {
+                // Concurrent writes only need to be coalesced when each of them would otherwise wait to be indexed
+                pipeline = new TransactionPipeline(xtdbAPI, groupCommitSize, groupCommitWindow);
+                opts.add("group commit of up to " + groupCommitSize + " transactions");
+            }
             auditLog.logMessage(methodName,
                     XtdbOMRSAuditCode.REPOSITORY_SERVICE_STARTED.getMessageDefinition(
                             version == null ? "<null>" : version.toString(),
@@ -195,8 +353,18 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
                     this.getClass().getName(), methodName, e);
         }
 
+        if (slowQueryThreshold >= 0 && slowQueryLogInterval > 0) {
+            // Periodically write out any slow queries, so they can be found without needing any debug logging
+            slowQueryWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread writer = new Thread(r, "xtdb-slow-query-log");
+                writer.setDaemon(true);
+                return writer;
+            });
+            slowQueryWriter.scheduleWithFixedDelay(this::writeSlowQueries, slowQueryLogInterval, slowQueryLogInterval, TimeUnit.SECONDS);
+        }
+
         // Ensure the latest version of the transaction functions is committed to the repository at
-        // every startup (these should all be idempotent operations if the functions already exist)
+        // every startup (only submitting those that are new or have changed since they were last committed)
         Transaction.Builder tx = Transaction.builder();
         AddEntityProxy.create(tx);
         AddEntity.create(tx);
@@ -232,12 +400,24 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
         SaveRelationshipReferenceCopy.create(tx);
         PurgeClassificationReferenceCopyEntityDetail.create(tx);
         PurgeClassificationReferenceCopyEntityProxy.create(tx);
-        // Null for the timeout here means use the default (which is therefore configurable directly by
+        // Null for the timeouts here means use the default (which is therefore configurable directly by
         // the XTDB configurationProperties of the connector)
-        Transaction txn = tx.build();
-        log.info("Adding transaction functions: {}", txn);
-        TransactionInstant instant = xtdbAPI.submitTx(txn);
-        xtdbAPI.awaitTx(instant, null);
+        Transaction txn;
+        try {
+            // Catch up with everything already submitted first, so that we compare against the latest functions
+            xtdbAPI.sync(null);
+            txn = TransactionFunctionRegistry.getChanged(xtdbAPI, tx.build());
+        } catch (IOException e) {
+            throw new ConnectorCheckedException(XtdbOMRSErrorCode.CANNOT_CLOSE_RESOURCE.getMessageDefinition(),
+                    this.getClass().getName(), methodName, e);
+        }
+        if (txn == null) {
+            log.info("Transaction functions are all up-to-date.");
+        } else {
+            log.info("Adding transaction functions: {}", txn);
+            TransactionInstant instant = xtdbAPI.submitTx(txn);
+            xtdbAPI.awaitTx(instant, null);
+        }
 
     }
 
@@ -250,7 +430,26 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
         final String methodName = "disconnect";
         super.disconnect();
 
-        // Ready the embedded XTDB node for GC
+        // Commit any writes still waiting, then ready the embedded XTDB node for GC
+        if (pipeline != null) {
+            pipeline.close();
+            pipeline = null;
+        }
+        // Write out any slow queries not yet written
+        if (slowQueryWriter != null) {
+            slowQueryWriter.shutdownNow();
+            slowQueryWriter = null;
+            writeSlowQueries();
+        }
+        // No longer rely on the settings shared with any other repositories
+        if (embeddedEncodingConfigured) {
+            AbstractMapping.releaseEmbeddedEncoding();
+            embeddedEncodingConfigured = false;
+        }
+        if (metricsRegistryConfigured) {
+            ConnectorMetrics.releaseRegistry();
+            metricsRegistryConfigured = false;
+        }
         try {
             this.xtdbAPI.close();
         } catch (IOException e) {
@@ -264,6 +463,57 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
 
     }
 
+    /**
+     * Write the slow queries recorded since they were last written to the audit log.
+     */
+    private void writeSlowQueries() {
+        final String methodName = "writeSlowQueries";
+        if (auditLog == null) {
+            return;
+        }
+        try {
+            for (SlowQuery query : slowQueryLog.takeQueries()) {
+                auditLog.logMessage(methodName, XtdbOMRSAuditCode.SLOW_QUERY.getMessageDefinition(
+                        query.getOperation(),
+                        String.format("%.3f", query.getTotalMillis()),
+                        "" + query.getRowsRead(),
+                        "" + query.getRowsReturned(),
+                        String.format("%.3f", query.getBuildMillis()),
+                        String.format("%.3f", query.getExecuteMillis()),
+                        String.format("%.3f", query.getFetchMillis()),
+                        String.format("%.3f", query.getPageMillis()),
+                        query.getSource(),
+                        query.getQuery(),
+                        query.getBindings()));
+            }
+            long dropped = slowQueryLog.takeDropped();
+            if (dropped > 0) {
+                auditLog.logMessage(methodName, XtdbOMRSAuditCode.SLOW_QUERIES_DROPPED.getMessageDefinition("" + dropped));
+            }
+        } catch (Exception e) {
+            // Never allow a failure to write out the slow queries to stop them being written out in future
+            log.warn("Unable to write the slow queries to the audit log.", e);
+        }
+    }
+
+    /**
+     * Create the configured registry for the connector's metrics.
+     * @param className of the registry, or "none" to record no metrics at all
+     * @return MetricsRegistry, or null if no metrics should be recorded
+     */
+    private MetricsRegistry createMetricsRegistry(String className) {
+        final String methodName = "createMetricsRegistry";
+        if ("none".equalsIgnoreCase(className)) {
+            return null;
+        }
+        try {
+            return Class.forName(className).asSubclass(MetricsRegistry.class).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            auditLog.logException(methodName, XtdbOMRSAuditCode.INVALID_METRICS_REGISTRY.getMessageDefinition(className, e.getClass().getName()), e);
+            return new HistogramMetricsRegistry();
+        }
+    }
+
     /**
      * Indicates whether Lucene is configured in the connector (true) or not (false).
      * @return boolean
@@ -280,6 +530,47 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
         return luceneRegexes;
     }
 
+    /**
+     * Retrieve the maximum number of relationships that can separate two linked entities.
+     * @return int
+     */
+    public int getMaxLinkingDepth() {
+        return maxLinkingDepth;
+    }
+
+    /**
+     * Retrieve the maximum number of relationships an entity can have and still be traversed when searching for the
+     * entities that link two others (0 or less meaning no limit).
+     * @return int
+     */
+    public int getMaxLinkingFanOut() {
+        return maxLinkingFanOut;
+    }
+
+    /**
+     * Retrieve the maximum number of reference copies to save through a single transaction, when saving many at once.
+     * @return int
+     */
+    public int getReferenceCopyBatchSize() {
+        return referenceCopyBatchSize;
+    }
+
+    /**
+     * Retrieve the maximum number of reference copy transactions to submit before waiting for the earliest of them.
+     * @return int
+     */
+    public int getReferenceCopyInFlight() {
+        return referenceCopyInFlight;
+    }
+
+    /**
+     * Retrieve the log of the most recent slow queries run through this connector.
+     * @return SlowQueryLog, or null if the connector has not been started
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
     /**
      * Log a problem with the connector, preferring the audit log so long as it is available and only falling
      * back to debug-level logging if it is not.
@@ -327,6 +618,8 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
     public void validateCommit(TransactionInstant instant, String methodName) throws Exception {
         if (synchronousIndex) {
             if (!xtdbAPI.hasTxCommitted(instant)) {
+                // None of the documents the transaction would have written have actually been written
+                WrittenDocumentCache.discard(instant.getId());
                 Exception e = ErrorMessageCache.get(instant.getId());
                 if (e != null) {
                     throw e;
@@ -339,10 +632,29 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
         }
     }
 
+    /**
+     * Validate whether a transaction that groups together the operations of several separate requests was persisted.
+     * Unlike {@link #validateCommit(TransactionInstant, String)} a failure is not thrown, as the error belongs to only
+     * one of the grouped operations: instead the error (and any documents the transaction would have written) are
+     * discarded, so that each operation can be re-submitted on its own and only its own failure is recorded.
+     * @param instant giving the commit point
+     * @return boolean true if the transaction was persisted (or writes are asynchronous), otherwise false
+     */
+    public boolean validateGroupCommit(TransactionInstant instant) {
+        if (synchronousIndex && !xtdbAPI.hasTxCommitted(instant)) {
+            WrittenDocumentCache.discard(instant.getId());
+            ErrorMessageCache.discard(instant.getId());
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Validates that the commit was persisted (if synchronous), throwing an exception if it failed, and
      * also retrieves and returns the detailed entity that resulted from the transaction. Note that if the
      * operation is configured to be asynchronous, this will ALWAYS return null for the entity details.
+     * The entity is translated directly from the document the transaction handed back as it wrote it, where
+     * available (see {@link WrittenDocumentCache}), and is otherwise read back from the repository.
      * @param docId of the entity within XTDB itself (i.e. prefixed)
      * @param instant giving the commit point of the transaction
      * @param methodName that made the commit
@@ -354,6 +666,10 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
                                            String methodName) throws Exception {
         validateCommit(instant, methodName);
         if (synchronousIndex) {
+            IPersistentMap written = WrittenDocumentCache.get(instant.getId(), docId);
+            if (written != null) {
+                return new EntityDetailMapping(this, XtdbDocument.factory(written)).toEgeria();
+            }
             EntityDetail ed;
             try (IXtdbDatasource db = xtdbAPI.openDB(instant)) {
                 XtdbDocument result = AbstractReadOperation.getXtdbObjectByReference(db, docId);
@@ -386,6 +702,10 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
                                                    String methodName) throws Exception {
         validateCommit(instant, methodName);
         if (synchronousIndex) {
+            IPersistentMap written = WrittenDocumentCache.get(instant.getId(), docId);
+            if (written != null) {
+                return new EntitySummaryMapping(this, XtdbDocument.factory(written)).toEgeria();
+            }
             EntitySummary es;
             try (IXtdbDatasource db = xtdbAPI.openDB(instant)) {
                 XtdbDocument result = AbstractReadOperation.getXtdbObjectByReference(db, docId);
@@ -420,7 +740,10 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
         if (synchronousIndex) {
             Relationship r;
             try (IXtdbDatasource db = xtdbAPI.openDB(instant)) {
-                XtdbDocument result = AbstractReadOperation.getXtdbObjectByReference(db, docId);
+                // The relationship's entity proxies must still be read, but not the relationship itself if it was
+                // handed back by the transaction that wrote it
+                IPersistentMap written = WrittenDocumentCache.get(instant.getId(), docId);
+                XtdbDocument result = written != null ? XtdbDocument.factory(written) : AbstractReadOperation.getXtdbObjectByReference(db, docId);
                 RelationshipMapping rm = new RelationshipMapping(this, result, db);
                 r = rm.toEgeria();
             } catch (IOException e) {
@@ -443,7 +766,31 @@ public class XtdbOMRSRepositoryConnector extends OMRSRepositoryConnector {
     public TransactionInstant runTx(Transaction statements) {
         if (log.isDebugEnabled())
             log.debug("{} transacting with: {}", synchronousIndex ? SYNC : ASYNC, statements);
-        TransactionInstant tx = xtdbAPI.submitTx(statements);
+        if (pipeline != null) {
+            return pipeline.submit(statements);
+        }
+        return awaitTx(xtdbAPI.submitTx(statements));
+    }
+
+    /**
+     * Submit multiple statements to XTDB as a single transaction, without waiting for it to be indexed: for callers
+     * that keep several transactions in flight at once, and then wait on each of them through awaitTx.
+     * @param statements the transaction to submit
+     * @return TransactionInstant transaction details
+     * @see #awaitTx(TransactionInstant)
+     */
+    public TransactionInstant submitTx(Transaction statements) {
+        if (log.isDebugEnabled())
+            log.debug("Submitting: {}", statements);
+        return xtdbAPI.submitTx(statements);
+    }
+
+    /**
+     * Wait for the provided transaction to be indexed, if writes are synchronous.
+     * @param tx details of the submitted transaction
+     * @return TransactionInstant transaction details
+     */
+    public TransactionInstant awaitTx(TransactionInstant tx) {
         // Null for the timeout here means use the default (which is therefore configurable directly by the XTDB
         // configurationProperties of the connector)
         if (synchronousIndex) {
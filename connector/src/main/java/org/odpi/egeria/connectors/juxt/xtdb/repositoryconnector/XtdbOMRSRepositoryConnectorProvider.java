@@ -33,6 +33,51 @@ import java.util.List;
  *         performance of queries against text data that involves regexes that are unquoted. (Regexes that are quoted
  *         will be handled appropriately irrespective of this setting.)  Note that this will have no impact if Lucene
  *         itself is not configured.</li>
+ *     <li><code>embeddedEncoding</code>: the encoding to use for the structured values that are embedded (unsearchable)
+ *         in each document, such as the complete form of each property value: one of <code>json</code> (default),
+ *         <code>smile</code> or <code>cbor</code>. The binary encodings give smaller documents that are cheaper to
+ *         read back; any encoding can always be read, irrespective of this setting.</li>
+ *     <li><code>instanceCacheSize</code>: the maximum size of the cache of instances that have already been translated
+ *         from their documents, measured as the total number of document attributes across all the cached instances
+ *         (default 1000000). Instances are cached by the ID, version and update time of their document, so a cached
+ *         instance is only ever re-used for exactly the same content; 0 disables the cache.</li>
+ *     <li><code>maxLinkingDepth</code>: the maximum number of relationships that can separate the two entities whose
+ *         linking entities are requested (default 40): the entities are only considered to be linked if there is a
+ *         path of no more than this many relationships between them, and every such path is included in the results.</li>
+ *     <li><code>maxLinkingFanOut</code>: the maximum number of relationships an entity can have and still be traversed
+ *         when searching for the linking entities between two others (default 0, meaning no limit). Any entity with
+ *         more relationships than this (a hub, such as a widely-used classification or glossary) can still be the
+ *         start or end of the search, but no path will be found through it.</li>
+ *     <li><code>groupCommitSize</code>: the maximum number of concurrent writes to coalesce into a single transaction
+ *         when indexing synchronously (default 1, meaning every write is submitted as its own transaction). Coalescing
+ *         writes means the cost of submitting a transaction and waiting for it to be indexed is shared by all of them,
+ *         which can significantly improve write throughput where the transaction log is remote (Kafka, JDBC). Any write
+ *         that fails is still reported only to its own caller. Note that this has no impact on asynchronous indexing.</li>
+ *     <li><code>groupCommitWindow</code>: the maximum number of milliseconds to wait for further concurrent writes to
+ *         arrive before committing those already waiting as a group (default 0, meaning only the writes that are
+ *         already waiting will be coalesced). Only applies when <code>groupCommitSize</code> is greater than 1.</li>
+ *     <li><code>referenceCopyBatchSize</code>: the maximum number of reference copies to save through a single
+ *         transaction when saving many of them at once, for example when catching up with the rest of a cohort
+ *         (default 100).</li>
+ *     <li><code>referenceCopyInFlight</code>: the maximum number of those transactions that can be submitted before
+ *         waiting for the earliest of them to be indexed (default 4).</li>
+ *     <li><code>errorCacheSize</code>: the maximum number of failed transactions for which to hold the error until it
+ *         is reported to the operation that submitted it (default 1024), after which the oldest errors are discarded.
+ *         Errors are still counted once discarded; 0 holds no errors at all.</li>
+ *     <li><code>errorCacheTimeToLive</code>: the number of milliseconds for which to hold each of those errors
+ *         (default 300000). Errors are only ever reported when indexing synchronously, so this need be no longer than
+ *         the longest a write can take to be indexed.</li>
+ *     <li><code>metricsRegistry</code>: the fully-qualified name of the class into which to record the latency,
+ *         throughput and errors of every operation of the connector (and of the phases within them), which must
+ *         implement <code>MetricsRegistry</code> and have a public no-argument constructor. By default these are kept
+ *         as latency histograms in memory; <code>none</code> records nothing at all.</li>
+ *     <li><code>metricsJmx</code>: a boolean indicating whether the metrics should be made available through JMX
+ *         (true, default) or only in-process (false).</li>
+ *     <li><code>slowQueryThreshold</code>: the number of milliseconds a query must take before it is recorded in the
+ *         slow query log (default: 1000), or a negative number to record no slow queries at all.</li>
+ *     <li><code>slowQueryLogSize</code>: the maximum number of the most recent slow queries to hold (default: 100).</li>
+ *     <li><code>slowQueryLogInterval</code>: the number of seconds between writing the slow queries recorded to the
+ *         audit log (default: 60), or 0 to only hold them in-process.</li>
  * </ul><br>
  * For example:
  * <code>
@@ -102,6 +147,21 @@ public class XtdbOMRSRepositoryConnectorProvider extends OMRSRepositoryConnector
     public static final String XTDB_CONFIG_EDN = "xtdbConfigEDN";
     public static final String SYNCHRONOUS_INDEX = "syncIndex";
     public static final String LUCENE_REGEXES = "luceneRegexes";
+    public static final String EMBEDDED_ENCODING = "embeddedEncoding";
+    public static final String INSTANCE_CACHE_SIZE = "instanceCacheSize";
+    public static final String MAX_LINKING_DEPTH = "maxLinkingDepth";
+    public static final String MAX_LINKING_FAN_OUT = "maxLinkingFanOut";
+    public static final String GROUP_COMMIT_SIZE = "groupCommitSize";
+    public static final String GROUP_COMMIT_WINDOW = "groupCommitWindow";
+    public static final String REFERENCE_COPY_BATCH_SIZE = "referenceCopyBatchSize";
+    public static final String REFERENCE_COPY_IN_FLIGHT = "referenceCopyInFlight";
+    public static final String ERROR_CACHE_SIZE = "errorCacheSize";
+    public static final String ERROR_CACHE_TIME_TO_LIVE = "errorCacheTimeToLive";
+    public static final String METRICS_REGISTRY = "metricsRegistry";
+    public static final String METRICS_JMX = "metricsJmx";
+    public static final String SLOW_QUERY_THRESHOLD = "slowQueryThreshold";
+    public static final String SLOW_QUERY_LOG_SIZE = "slowQueryLogSize";
+    public static final String SLOW_QUERY_LOG_INTERVAL = "slowQueryLogInterval";
 
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
@@ -132,6 +192,21 @@ public class XtdbOMRSRepositoryConnectorProvider extends OMRSRepositoryConnector
         configProperties.add(XTDB_CONFIG_EDN);
         configProperties.add(SYNCHRONOUS_INDEX);
         configProperties.add(LUCENE_REGEXES);
+        configProperties.add(EMBEDDED_ENCODING);
+        configProperties.add(INSTANCE_CACHE_SIZE);
+        configProperties.add(MAX_LINKING_DEPTH);
+        configProperties.add(MAX_LINKING_FAN_OUT);
+        configProperties.add(GROUP_COMMIT_SIZE);
+        configProperties.add(GROUP_COMMIT_WINDOW);
+        configProperties.add(REFERENCE_COPY_BATCH_SIZE);
+        configProperties.add(REFERENCE_COPY_IN_FLIGHT);
+        configProperties.add(ERROR_CACHE_SIZE);
+        configProperties.add(ERROR_CACHE_TIME_TO_LIVE);
+        configProperties.add(METRICS_REGISTRY);
+        configProperties.add(METRICS_JMX);
+        configProperties.add(SLOW_QUERY_THRESHOLD);
+        configProperties.add(SLOW_QUERY_LOG_SIZE);
+        configProperties.add(SLOW_QUERY_LOG_INTERVAL);
         connectorType.setRecognizedConfigurationProperties(configProperties);
 
         super.connectorTypeBean = connectorType;
@@ -6,6 +6,8 @@ import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.ClassificationMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.ConnectorMetrics;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +23,23 @@ public abstract class AbstractTransactionFunction {
 
     private static final Logger log = LoggerFactory.getLogger(AbstractTransactionFunction.class);
 
+    // Name under which each transaction function's timings are recorded
+    private static final ClassValue<String> METRIC_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return ConnectorMetrics.TXNFN + type.getSimpleName();
+        }
+    };
+
+    /**
+     * Start timing a run of the provided transaction function.
+     * @param function the class of the transaction function being run
+     * @return OperationTimer to close once the transaction is complete
+     */
+    protected static OperationTimer startTimer(Class<? extends AbstractTransactionFunction> function) {
+        return ConnectorMetrics.start(METRIC_NAMES.get(function));
+    }
+
     /**
      * Create the let statements necessary to capture the valid time that should be used when
      * submitting the transaction. Logic is as follows:
@@ -48,7 +67,9 @@ public abstract class AbstractTransactionFunction {
                                                     Keyword name,
                                                     String fn) {
         log.debug("Creating transaction function: {}", fn);
-        XtdbDocument function = XtdbDocument.createFunction(name, fn);
+        // Store a hash of the source alongside the function, so that it need only be submitted again once it changes
+        XtdbDocument function = XtdbDocument.createFunction(name, fn)
+                .plus(TransactionFunctionRegistry.SOURCE_HASH, TransactionFunctionRegistry.hash(fn));
         tx.put(function);
     }
 
@@ -4,7 +4,9 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
@@ -27,8 +29,10 @@ public class AddEntity extends AbstractTransactionFunction {
     private static final String FN = "" +
             "(fn [ctx eid full] " +
             "    (let [db (xtdb.api/db ctx)" +
-            getTxnTimeCalculation("full") + "]" +
-            "         [[:xtdb.api/put full txt]]))";
+            "          tx-id (:tx-id db)" +
+            "          written (" + WrittenDocumentCache.class.getCanonicalName() + "/add tx-id full)" +
+            getTxnTimeCalculation("written") + "]" +
+            "         [[:xtdb.api/put written txt]]))";
 
     /**
      * Default constructor.
@@ -46,21 +50,23 @@ public class AddEntity extends AbstractTransactionFunction {
      */
     public static EntityDetail transact(XtdbOMRSRepositoryConnector xtdb,
                                         EntityDetail entity) throws RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entity.getGUID());
-        EntityDetailMapping edm = new EntityDetailMapping(xtdb, entity);
-        XtdbDocument doc = edm.toXTDB();
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, doc.toMap());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingEntity(docId, results, METHOD_NAME);
-        } catch (RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(AddEntity.class)) {
+            String docId = EntityDetailMapping.getReference(entity.getGUID());
+            EntityDetailMapping edm = new EntityDetailMapping(xtdb, entity);
+            XtdbDocument doc = edm.toXTDB();
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, doc.toMap());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingEntity(docId, results, METHOD_NAME));
+            } catch (RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
@@ -6,6 +6,7 @@ import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
@@ -48,21 +49,24 @@ public class AddEntityProxy extends AbstractTransactionFunction {
      */
     public static void transact(XtdbOMRSRepositoryConnector xtdb,
                                 EntityProxy entity) throws RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entity.getGUID());
-        EntityProxyMapping epm = new EntityProxyMapping(xtdb, entity);
-        XtdbDocument proxyDoc = epm.toXTDB();
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, proxyDoc.toMap());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(AddEntityProxy.class)) {
+            String docId = EntityDetailMapping.getReference(entity.getGUID());
+            EntityProxyMapping epm = new EntityProxyMapping(xtdb, entity);
+            XtdbDocument proxyDoc = epm.toXTDB();
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, proxyDoc.toMap());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
         }
     }
 
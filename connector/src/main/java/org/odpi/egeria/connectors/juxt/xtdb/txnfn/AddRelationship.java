@@ -5,8 +5,10 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
@@ -83,10 +85,10 @@ public class AddRelationship extends AbstractTransactionFunction {
             relationship.setEntityOneProxy(one);
             relationship.setEntityTwoProxy(two);
 
-            xtdbDoc = RelationshipMapping.toMap(relationship);
+            xtdbDoc = WrittenDocumentCache.add(txId, RelationshipMapping.toMap(relationship));
 
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -107,19 +109,21 @@ public class AddRelationship extends AbstractTransactionFunction {
                                         String entityOneGUID,
                                         String entityTwoGUID)
             throws EntityNotKnownException, InvalidParameterException, RepositoryErrorException {
-        String docId = RelationshipMapping.getReference(relationship.getGUID());
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, EntityProxyMapping.getReference(entityOneGUID), EntityProxyMapping.getReference(entityTwoGUID), relationship);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingRelationship(docId, results, METHOD_NAME);
-        } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(AddRelationship.class)) {
+            String docId = RelationshipMapping.getReference(relationship.getGUID());
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, EntityProxyMapping.getReference(entityOneGUID), EntityProxyMapping.getReference(entityTwoGUID), relationship);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingRelationship(docId, results, METHOD_NAME));
+            } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
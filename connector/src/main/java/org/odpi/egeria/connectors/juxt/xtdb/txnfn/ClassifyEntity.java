@@ -6,6 +6,7 @@ import clojure.lang.IPersistentMap;
 import clojure.lang.PersistentHashMap;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.ClassificationMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
@@ -114,10 +115,10 @@ public abstract class ClassifyEntity extends AbstractTransactionFunction {
                         classificationName, entityTypeDefName), className, methodName, e);
             }
 
-            xtdbDoc = ClassificationMapping.addToMap(toUpdate, newClassification);
+            xtdbDoc = WrittenDocumentCache.add(txId, ClassificationMapping.addToMap(toUpdate, newClassification));
 
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, methodName, e);
         }
 
     }
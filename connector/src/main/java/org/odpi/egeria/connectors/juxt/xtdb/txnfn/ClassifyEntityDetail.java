@@ -5,6 +5,7 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
@@ -91,19 +92,21 @@ public class ClassifyEntityDetail extends ClassifyEntity {
                                         String classificationOriginGUID,
                                         InstanceProperties properties)
             throws EntityNotKnownException, InvalidParameterException, ClassificationErrorException, PropertyErrorException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, classificationName, externalSourceGUID, externalSourceName, classificationOrigin, classificationOriginGUID, properties, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingEntity(docId, results, METHOD_NAME);
-        } catch (EntityNotKnownException | InvalidParameterException | ClassificationErrorException | PropertyErrorException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    ClassifyEntityDetail.class.getName(),
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(ClassifyEntityDetail.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, classificationName, externalSourceGUID, externalSourceName, classificationOrigin, classificationOriginGUID, properties, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingEntity(docId, results, METHOD_NAME));
+            } catch (EntityNotKnownException | InvalidParameterException | ClassificationErrorException | PropertyErrorException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        ClassifyEntityDetail.class.getName(),
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
@@ -4,6 +4,7 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
@@ -58,9 +59,9 @@ public abstract class DeclassifyEntity extends AbstractTransactionFunction {
             TxnValidations.requiredProperty(entityGUID, "classificationName", classificationName, className, methodName);
             TxnValidations.entityFromStore(entityGUID, toUpdate, className, methodName);
             TxnValidations.instanceIsNotDeleted(toUpdate, entityGUID, className, methodName);
-            xtdbDoc = ClassificationMapping.removeFromMap(toUpdate, classificationName);
+            xtdbDoc = WrittenDocumentCache.add(txId, ClassificationMapping.removeFromMap(toUpdate, classificationName));
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, methodName, e);
         }
 
     }
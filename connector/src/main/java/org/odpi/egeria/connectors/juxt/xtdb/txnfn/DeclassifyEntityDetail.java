@@ -6,6 +6,7 @@ import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
@@ -65,19 +66,21 @@ public class DeclassifyEntityDetail extends DeclassifyEntity {
                                         String entityGUID,
                                         String classificationName)
             throws EntityNotKnownException, InvalidParameterException, ClassificationErrorException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, classificationName);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingEntity(docId, results, METHOD_NAME);
-        } catch (EntityNotKnownException | InvalidParameterException | ClassificationErrorException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    DeclassifyEntityDetail.class.getName(),
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(DeclassifyEntityDetail.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, classificationName);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingEntity(docId, results, METHOD_NAME));
+            } catch (EntityNotKnownException | InvalidParameterException | ClassificationErrorException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        DeclassifyEntityDetail.class.getName(),
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
@@ -6,6 +6,7 @@ import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
@@ -68,29 +69,31 @@ public class DeclassifyEntityProxy extends DeclassifyEntity {
                                           EntityProxy entityProxy,
                                           String classificationName)
             throws EntityNotKnownException, InvalidParameterException, ClassificationErrorException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityProxy.getGUID());
-        EntityProxyMapping epm = new EntityProxyMapping(xtdb, entityProxy);
-        XtdbDocument epXT = epm.toXTDB();
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, epXT.toMap(), classificationName);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            EntitySummary result = xtdb.getResultingEntitySummary(docId, results, METHOD_NAME);
-            if (result != null) {
-                for (Classification cls : result.getClassifications()) {
-                    if (cls.getName().equals(classificationName)) {
-                        return cls;
+        try (OperationTimer timer = startTimer(DeclassifyEntityProxy.class)) {
+            String docId = EntityDetailMapping.getReference(entityProxy.getGUID());
+            EntityProxyMapping epm = new EntityProxyMapping(xtdb, entityProxy);
+            XtdbDocument epXT = epm.toXTDB();
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, epXT.toMap(), classificationName);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                EntitySummary result = xtdb.getResultingEntitySummary(docId, results, METHOD_NAME);
+                if (result != null) {
+                    for (Classification cls : result.getClassifications()) {
+                        if (cls.getName().equals(classificationName)) {
+                            return timer.succeeded(cls);
+                        }
                     }
                 }
+                return timer.succeeded(null);
+            } catch (InvalidParameterException | ClassificationErrorException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        ClassifyEntityProxy.class.getName(),
+                        METHOD_NAME,
+                        e);
             }
-            return null;
-        } catch (InvalidParameterException | ClassificationErrorException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    ClassifyEntityProxy.class.getName(),
-                    METHOD_NAME,
-                    e);
         }
     }
 
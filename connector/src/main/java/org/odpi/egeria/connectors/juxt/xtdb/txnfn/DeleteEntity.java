@@ -4,10 +4,12 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
@@ -86,10 +88,10 @@ public class DeleteEntity extends DeleteInstance {
                 TxnValidations.nonProxyEntity(existing, obsoleteEntityGUID, CLASS_NAME, METHOD_NAME);
                 TxnValidations.entityFromStore(obsoleteEntityGUID, existing, CLASS_NAME, METHOD_NAME);
                 TxnValidations.instanceIsNotDeleted(existing, obsoleteEntityGUID, CLASS_NAME, METHOD_NAME);
-                xtdbDoc = deleteInstance(userId, existing);
+                xtdbDoc = WrittenDocumentCache.add(txId, deleteInstance(userId, existing));
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -108,19 +110,21 @@ public class DeleteEntity extends DeleteInstance {
                                         String userId,
                                         String entityGUID)
             throws EntityNotKnownException, InvalidParameterException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingEntity(docId, results, METHOD_NAME);
-        } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(DeleteEntity.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingEntity(docId, results, METHOD_NAME));
+            } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
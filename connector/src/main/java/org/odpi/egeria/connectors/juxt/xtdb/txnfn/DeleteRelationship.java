@@ -4,8 +4,10 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
@@ -58,10 +60,10 @@ public class DeleteRelationship extends DeleteInstance {
             } else {
                 TxnValidations.relationshipFromStore(obsoleteRelationshipGUID, existing, CLASS_NAME, METHOD_NAME);
                 TxnValidations.instanceIsNotDeleted(existing, obsoleteRelationshipGUID, CLASS_NAME, METHOD_NAME);
-                xtdbDoc = deleteInstance(userId, existing);
+                xtdbDoc = WrittenDocumentCache.add(txId, deleteInstance(userId, existing));
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -80,19 +82,21 @@ public class DeleteRelationship extends DeleteInstance {
                                         String userId,
                                         String relationshipGUID)
             throws RelationshipNotKnownException, InvalidParameterException, RepositoryErrorException {
-        String docId = RelationshipMapping.getReference(relationshipGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingRelationship(docId, results, METHOD_NAME);
-        } catch (RelationshipNotKnownException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(DeleteRelationship.class)) {
+            String docId = RelationshipMapping.getReference(relationshipGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingRelationship(docId, results, METHOD_NAME));
+            } catch (RelationshipNotKnownException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
@@ -80,7 +80,7 @@ public abstract class PurgeClassificationReferenceCopy extends AbstractTransacti
             xtdbDoc = docToUpdate;
 
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, methodName, e);
         }
 
     }
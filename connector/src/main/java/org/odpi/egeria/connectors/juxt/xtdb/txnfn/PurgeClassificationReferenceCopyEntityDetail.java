@@ -8,6 +8,7 @@ import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.ClassificationMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
@@ -61,21 +62,24 @@ public class PurgeClassificationReferenceCopyEntityDetail extends PurgeClassific
                                 EntityDetail toPurgeFrom,
                                 Classification classification)
             throws EntityConflictException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(toPurgeFrom.getGUID());
-        EntityDetailMapping edm = new EntityDetailMapping(xtdb, toPurgeFrom);
-        XtdbDocument toPurgeFromXT = edm.toXTDB();
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, toPurgeFromXT.toMap(), classification, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (EntityConflictException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(PurgeClassificationReferenceCopyEntityDetail.class)) {
+            String docId = EntityDetailMapping.getReference(toPurgeFrom.getGUID());
+            EntityDetailMapping edm = new EntityDetailMapping(xtdb, toPurgeFrom);
+            XtdbDocument toPurgeFromXT = edm.toXTDB();
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, toPurgeFromXT.toMap(), classification, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (EntityConflictException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
         }
     }
 
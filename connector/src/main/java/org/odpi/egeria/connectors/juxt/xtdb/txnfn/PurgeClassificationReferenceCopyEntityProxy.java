@@ -9,6 +9,7 @@ import org.odpi.egeria.connectors.juxt.xtdb.mapping.ClassificationMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
@@ -63,21 +64,24 @@ public class PurgeClassificationReferenceCopyEntityProxy extends PurgeClassifica
                                 EntityProxy toPurgeFrom,
                                 Classification classification)
             throws EntityConflictException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(toPurgeFrom.getGUID());
-        EntityProxyMapping epm = new EntityProxyMapping(xtdb, toPurgeFrom);
-        XtdbDocument toPurgeFromXT = epm.toXTDB();
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, toPurgeFromXT.toMap(), classification, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (EntityConflictException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(PurgeClassificationReferenceCopyEntityProxy.class)) {
+            String docId = EntityDetailMapping.getReference(toPurgeFrom.getGUID());
+            EntityProxyMapping epm = new EntityProxyMapping(xtdb, toPurgeFrom);
+            XtdbDocument toPurgeFromXT = epm.toXTDB();
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, toPurgeFromXT.toMap(), classification, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (EntityConflictException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
         }
     }
 
@@ -8,6 +8,7 @@ import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotDeletedException;
@@ -90,7 +91,7 @@ public class PurgeEntity extends AbstractTransactionFunction {
             }
             xtdbDoc = existing;
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
     }
 
@@ -106,19 +107,22 @@ public class PurgeEntity extends AbstractTransactionFunction {
     public static void transactWithValidation(XtdbOMRSRepositoryConnector xtdb,
                                               String entityGUID)
             throws EntityNotKnownException, EntityNotDeletedException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, false);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (EntityNotKnownException | EntityNotDeletedException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(PurgeEntity.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, false);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (EntityNotKnownException | EntityNotDeletedException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
         }
     }
 
@@ -133,19 +137,22 @@ public class PurgeEntity extends AbstractTransactionFunction {
     public static void transactWithoutValidation(XtdbOMRSRepositoryConnector xtdb,
                                                  String entityGUID)
             throws EntityNotKnownException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, true);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (EntityNotKnownException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(PurgeEntity.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, true);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (EntityNotKnownException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
         }
     }
 
@@ -6,6 +6,7 @@ import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 import org.slf4j.Logger;
@@ -63,7 +64,7 @@ public class PurgeRelationship extends AbstractTransactionFunction {
             }
             xtdbDoc = existing;
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
     }
 
@@ -79,19 +80,22 @@ public class PurgeRelationship extends AbstractTransactionFunction {
     public static void transactWithValidation(XtdbOMRSRepositoryConnector xtdb,
                                               String relationshipGUID)
             throws RelationshipNotKnownException, RelationshipNotDeletedException, RepositoryErrorException {
-        String docId = RelationshipMapping.getReference(relationshipGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, false);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (RelationshipNotKnownException | RelationshipNotDeletedException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(PurgeRelationship.class)) {
+            String docId = RelationshipMapping.getReference(relationshipGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, false);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (RelationshipNotKnownException | RelationshipNotDeletedException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
         }
     }
 
@@ -106,19 +110,22 @@ public class PurgeRelationship extends AbstractTransactionFunction {
     public static void transactWithoutValidation(XtdbOMRSRepositoryConnector xtdb,
                                                  String relationshipGUID)
             throws RelationshipNotKnownException, RepositoryErrorException {
-        String docId = RelationshipMapping.getReference(relationshipGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, true);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (RelationshipNotKnownException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(PurgeRelationship.class)) {
+            String docId = RelationshipMapping.getReference(relationshipGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, true);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (RelationshipNotKnownException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
         }
     }
 
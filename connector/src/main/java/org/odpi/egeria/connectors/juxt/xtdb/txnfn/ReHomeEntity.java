@@ -4,8 +4,10 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityNotKnownException;
@@ -65,10 +67,10 @@ public class ReHomeEntity extends ReHomeInstance {
                 TxnValidations.nonProxyEntity(existing, entityGUID, CLASS_NAME, METHOD_NAME);
                 TxnValidations.entityFromStore(entityGUID, existing, CLASS_NAME, METHOD_NAME);
                 validate(existing, metadataCollectionId, CLASS_NAME, METHOD_NAME);
-                xtdbDoc = reHomeInstance(userId, existing, newMetadataCollectionId, newMetadataCollectionName);
+                xtdbDoc = WrittenDocumentCache.add(txId, reHomeInstance(userId, existing, newMetadataCollectionId, newMetadataCollectionName));
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -92,19 +94,21 @@ public class ReHomeEntity extends ReHomeInstance {
                                         String newMetadataCollectionId,
                                         String newMetadataCollectionName)
             throws EntityNotKnownException, InvalidParameterException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId(), newMetadataCollectionId, newMetadataCollectionName);
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingEntity(docId, results, METHOD_NAME);
-        } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(ReHomeEntity.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId(), newMetadataCollectionId, newMetadataCollectionName);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingEntity(docId, results, METHOD_NAME));
+            } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
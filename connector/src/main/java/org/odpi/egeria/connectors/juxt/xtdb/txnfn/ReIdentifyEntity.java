@@ -4,10 +4,12 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
@@ -82,9 +84,11 @@ public class ReIdentifyEntity extends ReIdentifyInstance {
                 TxnValidations.entityFromStore(entityGUID, existing, CLASS_NAME, METHOD_NAME);
                 validate(existing, entityGUID, metadataCollectionId, CLASS_NAME, METHOD_NAME);
                 xtdbTuple = reIdentifyInstance(userId, existing, entityGUID, newEntityGUID);
+                // Only the re-identified document is ever retrieved back, as the original is now deleted
+                WrittenDocumentCache.add(txId, (IPersistentMap) xtdbTuple.nth(1));
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -106,20 +110,22 @@ public class ReIdentifyEntity extends ReIdentifyInstance {
                                         String entityGUID,
                                         String newEntityGUID)
             throws EntityNotKnownException, InvalidParameterException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        String newId = EntityDetailMapping.getReference(newEntityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, newId, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingEntity(newId, results, METHOD_NAME);
-        } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(ReIdentifyEntity.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            String newId = EntityDetailMapping.getReference(newEntityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, newId, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingEntity(newId, results, METHOD_NAME));
+            } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
@@ -4,8 +4,10 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
@@ -66,9 +68,11 @@ public class ReIdentifyRelationship extends ReIdentifyInstance {
                 TxnValidations.relationshipFromStore(relationshipGUID, existing, CLASS_NAME, METHOD_NAME);
                 validate(existing, relationshipGUID, metadataCollectionId, CLASS_NAME, METHOD_NAME);
                 xtdbTuple = reIdentifyInstance(userId, existing, relationshipGUID, newRelationshipGUID);
+                // Only the re-identified document is ever retrieved back, as the original is now deleted
+                WrittenDocumentCache.add(txId, (IPersistentMap) xtdbTuple.nth(1));
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -90,20 +94,22 @@ public class ReIdentifyRelationship extends ReIdentifyInstance {
                                         String relationshipGUID,
                                         String newRelationshipGUID)
             throws RelationshipNotKnownException, InvalidParameterException, RepositoryErrorException {
-        String docId = RelationshipMapping.getReference(relationshipGUID);
-        String newId = RelationshipMapping.getReference(newRelationshipGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, newId, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingRelationship(newId, results, METHOD_NAME);
-        } catch (RelationshipNotKnownException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(ReIdentifyRelationship.class)) {
+            String docId = RelationshipMapping.getReference(relationshipGUID);
+            String newId = RelationshipMapping.getReference(newRelationshipGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, newId, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingRelationship(newId, results, METHOD_NAME));
+            } catch (RelationshipNotKnownException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
@@ -79,7 +79,7 @@ public class ReLinkRelationship extends AbstractTransactionFunction {
                 }
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
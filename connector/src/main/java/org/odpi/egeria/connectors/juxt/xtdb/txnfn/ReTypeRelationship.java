@@ -4,9 +4,11 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
@@ -64,10 +66,10 @@ public class ReTypeRelationship extends ReTypeInstance {
                 TxnValidations.relationshipFromStore(relationshipGUID, existing, CLASS_NAME, METHOD_NAME);
                 TypeDef typeDef = TypeDefCache.getTypeDefByName(newTypeDefName);
                 validate(existing, relationshipGUID, typeDef, metadataCollectionId, CLASS_NAME, METHOD_NAME);
-                xtdbDoc = reTypeInstance(userId, existing, typeDef);
+                xtdbDoc = WrittenDocumentCache.add(txId, reTypeInstance(userId, existing, typeDef));
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -91,19 +93,21 @@ public class ReTypeRelationship extends ReTypeInstance {
                                         String relationshipGUID,
                                         TypeDefSummary newTypeDef)
             throws RelationshipNotKnownException, PropertyErrorException, TypeErrorException, InvalidParameterException, RepositoryErrorException {
-        String docId = RelationshipMapping.getReference(relationshipGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, newTypeDef.getName(), xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            return xtdb.getResultingRelationship(docId, results, METHOD_NAME);
-        } catch (RelationshipNotKnownException | PropertyErrorException | TypeErrorException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(ReTypeRelationship.class)) {
+            String docId = RelationshipMapping.getReference(relationshipGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, newTypeDef.getName(), xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                return timer.succeeded(xtdb.getResultingRelationship(docId, results, METHOD_NAME));
+            } catch (RelationshipNotKnownException | PropertyErrorException | TypeErrorException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
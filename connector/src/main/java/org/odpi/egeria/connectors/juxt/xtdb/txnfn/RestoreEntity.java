@@ -4,8 +4,10 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
@@ -69,10 +71,10 @@ public class RestoreEntity extends RestoreInstance {
                             entityGUID), CLASS_NAME, METHOD_NAME);
                 }
                 TxnValidations.instanceCanBeUpdated(existing, entityGUID, metadataCollectionId, CLASS_NAME, METHOD_NAME);
-                xtdbDoc = restoreInstance(userId, existing);
+                xtdbDoc = WrittenDocumentCache.add(txId, restoreInstance(userId, existing));
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -93,24 +95,26 @@ public class RestoreEntity extends RestoreInstance {
                                         String userId,
                                         String entityGUID)
             throws EntityNotKnownException, EntityNotDeletedException, InvalidParameterException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            EntityDetail result = xtdb.getResultingEntity(docId, results, METHOD_NAME);
-            OMRSRepositoryValidator repositoryValidator = xtdb.getRepositoryValidator();
-            String repositoryName = xtdb.getRepositoryName();
-            repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, result, METHOD_NAME);
-            repositoryValidator.validateEntityIsNotDeleted(repositoryName, result, METHOD_NAME);
-            return result;
-        } catch (EntityNotKnownException | EntityNotDeletedException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    RestoreEntity.class.getName(),
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(RestoreEntity.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                EntityDetail result = xtdb.getResultingEntity(docId, results, METHOD_NAME);
+                OMRSRepositoryValidator repositoryValidator = xtdb.getRepositoryValidator();
+                String repositoryName = xtdb.getRepositoryName();
+                repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, result, METHOD_NAME);
+                repositoryValidator.validateEntityIsNotDeleted(repositoryName, result, METHOD_NAME);
+                return timer.succeeded(result);
+            } catch (EntityNotKnownException | EntityNotDeletedException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        RestoreEntity.class.getName(),
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
@@ -4,8 +4,10 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
@@ -65,10 +67,10 @@ public class RestoreRelationship extends RestoreInstance {
                             relationshipGUID), CLASS_NAME, METHOD_NAME);
                 }
                 TxnValidations.instanceCanBeUpdated(existing, relationshipGUID, metadataCollectionId, CLASS_NAME, METHOD_NAME);
-                xtdbDoc = restoreInstance(userId, existing);
+                xtdbDoc = WrittenDocumentCache.add(txId, restoreInstance(userId, existing));
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -89,24 +91,26 @@ public class RestoreRelationship extends RestoreInstance {
                                         String userId,
                                         String relationshipGUID)
             throws RelationshipNotKnownException, RelationshipNotDeletedException, InvalidParameterException, RepositoryErrorException {
-        String docId = RelationshipMapping.getReference(relationshipGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            Relationship result = xtdb.getResultingRelationship(docId, results, METHOD_NAME);
-            OMRSRepositoryValidator repositoryValidator = xtdb.getRepositoryValidator();
-            String repositoryName = xtdb.getRepositoryName();
-            repositoryValidator.validateRelationshipFromStore(repositoryName, relationshipGUID, result, METHOD_NAME);
-            repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, result, METHOD_NAME);
-            return result;
-        } catch (RelationshipNotKnownException | RelationshipNotDeletedException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    RestoreRelationship.class.getName(),
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(RestoreRelationship.class)) {
+            String docId = RelationshipMapping.getReference(relationshipGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                Relationship result = xtdb.getResultingRelationship(docId, results, METHOD_NAME);
+                OMRSRepositoryValidator repositoryValidator = xtdb.getRepositoryValidator();
+                String repositoryName = xtdb.getRepositoryName();
+                repositoryValidator.validateRelationshipFromStore(repositoryName, relationshipGUID, result, METHOD_NAME);
+                repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, result, METHOD_NAME);
+                return timer.succeeded(result);
+            } catch (RelationshipNotKnownException | RelationshipNotDeletedException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        RestoreRelationship.class.getName(),
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
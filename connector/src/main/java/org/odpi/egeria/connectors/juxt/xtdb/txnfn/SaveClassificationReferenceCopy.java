@@ -79,7 +79,7 @@ public abstract class SaveClassificationReferenceCopy extends AbstractTransactio
             xtdbDoc = docToUpdate;
 
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, methodName, e);
         }
     }
 
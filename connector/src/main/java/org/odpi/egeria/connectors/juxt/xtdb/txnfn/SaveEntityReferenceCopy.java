@@ -6,6 +6,8 @@ import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
+import org.odpi.egeria.connectors.juxt.xtdb.readops.FindUnchangedReferenceCopies;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
@@ -15,6 +17,8 @@ import xtdb.api.TransactionInstant;
 import xtdb.api.XtdbDocument;
 import xtdb.api.tx.Transaction;
 
+import java.util.Collections;
+
 /**
  * Transaction function for adding a reference copy entity.
  */
@@ -74,7 +78,7 @@ public class SaveEntityReferenceCopy extends AbstractTransactionFunction {
                 }
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -91,22 +95,57 @@ public class SaveEntityReferenceCopy extends AbstractTransactionFunction {
     public static void transact(XtdbOMRSRepositoryConnector xtdb,
                                 EntityDetail toSave)
             throws EntityConflictException, HomeEntityException, InvalidParameterException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(toSave.getGUID());
+        try (OperationTimer timer = startTimer(SaveEntityReferenceCopy.class)) {
+            IPersistentMap doc = getDoc(xtdb, toSave);
+            String docId = EntityDetailMapping.getReference(toSave.getGUID());
+            if (new FindUnchangedReferenceCopies(xtdb, Collections.singletonList(doc)).execute().contains(doc)) {
+                log.debug("Reference copy {} is unchanged, skipping: {}", docId, toSave.getVersion());
+                timer.succeeded();
+                return;
+            }
+            Transaction.Builder tx = Transaction.builder();
+            addTo(xtdb, tx, toSave, doc);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (EntityConflictException | HomeEntityException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
+        }
+    }
+
+    /**
+     * Map the provided entity into the XTDB document that will be persisted for it.
+     * @param xtdb connectivity
+     * @param toSave the entity reference copy to persist
+     * @return IPersistentMap giving the XTDB document for the entity
+     */
+    static IPersistentMap getDoc(XtdbOMRSRepositoryConnector xtdb,
+                                 EntityDetail toSave) {
         EntityDetailMapping edm = new EntityDetailMapping(xtdb, toSave);
         XtdbDocument toSaveXT = edm.toXTDB();
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, toSaveXT.toMap(), xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (EntityConflictException | HomeEntityException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
-        }
+        return toSaveXT.toMap();
+    }
+
+    /**
+     * Add the invocation of this transaction function for the provided entity to the provided transaction.
+     * @param xtdb connectivity
+     * @param tx transaction to which to add the invocation
+     * @param toSave the entity reference copy to persist
+     * @param doc the XTDB document for the entity reference copy
+     */
+    static void addTo(XtdbOMRSRepositoryConnector xtdb,
+                      Transaction.Builder tx,
+                      EntityDetail toSave,
+                      IPersistentMap doc) {
+        String docId = EntityDetailMapping.getReference(toSave.getGUID());
+        tx.invokeFunction(FUNCTION_NAME, docId, doc, xtdb.getMetadataCollectionId());
     }
 
     /**
@@ -0,0 +1,363 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
+
+import clojure.lang.IPersistentMap;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.readops.FindUnchangedReferenceCopies;
+import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xtdb.api.TransactionInstant;
+import xtdb.api.tx.Transaction;
+
+import java.util.*;
+
+/**
+ * Saves many reference copies at once, for example when catching up with the rest of a cohort. Rather than each
+ * reference copy being saved through its own transaction, the invocations of the reference copy transaction functions
+ * are packed into chunks, each of which is submitted as a single transaction. Several chunks are kept in flight at
+ * once, so that the next chunks are already being submitted while the earliest are still being indexed.
+ *
+ * Because a transaction function that throws aborts the entire transaction in which it runs, any chunk that fails to
+ * commit is split back apart: each of its reference copies is saved on its own, so that the outcome of each reference
+ * copy is reported individually, and only those that actually fail are left unsaved. As the chunks submitted after it
+ * will already have been committed by then, a reference copy is only re-submitted if none of those later chunks has
+ * committed a copy of the same instance, so that an older copy never replaces a newer one.
+ *
+ * Reference copies that are already stored exactly as they are (see {@link FindUnchangedReferenceCopies}) are not
+ * written again at all, so that a cohort re-delivering the same instances does not grow their history.
+ */
+public class SaveReferenceCopies {
+
+    private static final Logger log = LoggerFactory.getLogger(SaveReferenceCopies.class);
+
+    private static final String METHOD_NAME = "saveReferenceCopies";
+
+    /**
+     * Default constructor.
+     */
+    private SaveReferenceCopies() {
+        // Nothing to do here, logic is entirely handled through the reference copy transaction functions
+    }
+
+    /**
+     * Save the reference copies of the provided outcomes (any that have already failed are skipped) in chunked
+     * transactions, recording the outcome of each.
+     * @param xtdb connectivity
+     * @param outcomes giving each reference copy to persist, in the order they should be persisted
+     * @return {@code List<Outcome>} the outcomes provided, now recording whether each reference copy was saved
+     */
+    public static List<Outcome> transact(XtdbOMRSRepositoryConnector xtdb,
+                                         List<Outcome> outcomes) {
+        return transact(xtdb, outcomes, xtdb.getReferenceCopyBatchSize(), xtdb.getReferenceCopyInFlight());
+    }
+
+    /**
+     * Save the reference copies of the provided outcomes (any that have already failed are skipped) in chunked
+     * transactions of the provided size rather than those configured for the connector, recording the outcome of each.
+     * @param xtdb connectivity
+     * @param outcomes giving each reference copy to persist, in the order they should be persisted
+     * @param batchSize the maximum number of reference copies to save through a single transaction
+     * @param maxInFlight the maximum number of transactions to submit before waiting for the earliest to be indexed
+     * @return {@code List<Outcome>} the outcomes provided, now recording whether each reference copy was saved
+     */
+    public static List<Outcome> transact(XtdbOMRSRepositoryConnector xtdb,
+                                         List<Outcome> outcomes,
+                                         int batchSize,
+                                         int maxInFlight) {
+
+        batchSize = Math.max(batchSize, 1);
+        maxInFlight = Math.max(maxInFlight, 1);
+
+        Deque<Chunk> inFlight = new ArrayDeque<>();
+        List<Outcome> pending = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.isSaved()) {
+                pending.add(outcome);
+                if (pending.size() >= batchSize) {
+                    submit(xtdb, prepare(xtdb, pending), inFlight, maxInFlight);
+                    pending = new ArrayList<>();
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            submit(xtdb, prepare(xtdb, pending), inFlight, maxInFlight);
+        }
+        drain(xtdb, inFlight);
+
+        return outcomes;
+
+    }
+
+    /**
+     * Prepare a chunk to save the provided reference copies, leaving out any that are unchanged from what is already
+     * stored (or that cannot even be mapped).
+     * @param xtdb connectivity
+     * @param toSave outcomes giving the reference copies to save
+     * @return Chunk through which to save those reference copies that need to be written
+     */
+    private static Chunk prepare(XtdbOMRSRepositoryConnector xtdb, List<Outcome> toSave) {
+        // Keyed by outcome rather than by document ID, as the same instance may be saved more than once (in different
+        // versions) within a single chunk, and every one of those versions should be written
+        Map<Outcome, IPersistentMap> docs = new LinkedHashMap<>();
+        for (Outcome outcome : toSave) {
+            try {
+                if (outcome.instance instanceof EntityDetail) {
+                    docs.put(outcome, SaveEntityReferenceCopy.getDoc(xtdb, (EntityDetail) outcome.instance));
+                } else {
+                    docs.put(outcome, SaveRelationshipReferenceCopy.getDoc(xtdb, (Relationship) outcome.instance));
+                }
+            } catch (Exception e) {
+                outcome.error = e;
+            }
+        }
+        Set<IPersistentMap> unchanged;
+        try {
+            unchanged = new FindUnchangedReferenceCopies(xtdb, docs.values()).execute();
+        } catch (Exception e) {
+            // If we cannot tell what is unchanged, simply write everything
+            log.debug("Unable to check for unchanged reference copies, saving all of them.", e);
+            unchanged = Collections.emptySet();
+        }
+        Chunk chunk = new Chunk();
+        for (Map.Entry<Outcome, IPersistentMap> entry : docs.entrySet()) {
+            Outcome outcome = entry.getKey();
+            IPersistentMap doc = entry.getValue();
+            if (unchanged.contains(doc)) {
+                outcome.unchanged = true;
+            } else {
+                if (outcome.instance instanceof EntityDetail) {
+                    SaveEntityReferenceCopy.addTo(xtdb, chunk.tx, (EntityDetail) outcome.instance, doc);
+                } else {
+                    SaveRelationshipReferenceCopy.addTo(xtdb, chunk.tx, (Relationship) outcome.instance, doc);
+                }
+                chunk.outcomes.add(outcome);
+            }
+        }
+        log.debug("Skipping {} unchanged reference copies.", unchanged.size());
+        return chunk;
+    }
+
+    /**
+     * Submit the provided chunk, first waiting for the earliest chunk still in flight if there are already as many in
+     * flight as are allowed.
+     * @param xtdb connectivity
+     * @param chunk to submit
+     * @param inFlight chunks that have been submitted, but not yet completed
+     * @param maxInFlight maximum number of chunks to have in flight at once
+     */
+    private static void submit(XtdbOMRSRepositoryConnector xtdb,
+                               Chunk chunk,
+                               Deque<Chunk> inFlight,
+                               int maxInFlight) {
+        if (chunk.outcomes.isEmpty()) {
+            // Nothing in the chunk needs to be written
+            return;
+        }
+        while (inFlight.size() >= maxInFlight) {
+            completeEarliest(xtdb, inFlight);
+        }
+        try {
+            chunk.instant = xtdb.submitTx(chunk.tx.build());
+            inFlight.add(chunk);
+        } catch (Exception e) {
+            // If the chunk could not even be submitted, try each of its reference copies on its own (once every
+            // earlier chunk has completed, so that they are still saved in order)
+            log.debug("Unable to submit chunk of {} reference copies, saving each individually.", chunk.outcomes.size(), e);
+            drain(xtdb, inFlight);
+            saveIndividually(xtdb, chunk.outcomes);
+        }
+    }
+
+    /**
+     * Complete every chunk still in flight, in the order they were submitted.
+     * @param xtdb connectivity
+     * @param inFlight chunks that have been submitted, but not yet completed
+     */
+    private static void drain(XtdbOMRSRepositoryConnector xtdb, Deque<Chunk> inFlight) {
+        while (!inFlight.isEmpty()) {
+            completeEarliest(xtdb, inFlight);
+        }
+    }
+
+    /**
+     * Wait for the earliest chunk still in flight to be indexed, and record the outcome of each of its reference
+     * copies. If it aborted, every later chunk is completed as well before any of its reference copies are saved
+     * again, as those later chunks will be committed before anything that is re-submitted now.
+     * @param xtdb connectivity
+     * @param inFlight chunks that have been submitted, but not yet completed
+     */
+    private static void completeEarliest(XtdbOMRSRepositoryConnector xtdb, Deque<Chunk> inFlight) {
+        Chunk chunk = inFlight.poll();
+        if (await(xtdb, chunk) || chunk.outcomes.size() == 1) {
+            return;
+        }
+        log.debug("Chunk of {} reference copies aborted, saving each individually.", chunk.outcomes.size());
+        List<Chunk> completed = new ArrayList<>();
+        completed.add(chunk);
+        while (!inFlight.isEmpty()) {
+            Chunk later = inFlight.poll();
+            await(xtdb, later);
+            completed.add(later);
+        }
+        // Working back from the latest chunk, re-submit the reference copies of every chunk that aborted unless a
+        // later chunk has already committed a copy of the same instance (which would otherwise be replaced by this
+        // older copy)
+        Set<String> replaced = new HashSet<>();
+        Deque<Outcome> toRetry = new ArrayDeque<>();
+        for (int i = completed.size() - 1; i >= 0; i--) {
+            Chunk candidate = completed.get(i);
+            if (candidate.committed) {
+                for (Outcome outcome : candidate.outcomes) {
+                    replaced.add(getDocId(outcome));
+                }
+            } else if (candidate.outcomes.size() > 1) {
+                for (int j = candidate.outcomes.size() - 1; j >= 0; j--) {
+                    Outcome outcome = candidate.outcomes.get(j);
+                    if (replaced.contains(getDocId(outcome))) {
+                        log.debug("Not re-submitting reference copy already replaced by a later copy: {}", getDocId(outcome));
+                    } else {
+                        toRetry.push(outcome);
+                    }
+                }
+            }
+        }
+        saveIndividually(xtdb, toRetry);
+    }
+
+    /**
+     * Wait for the provided chunk to be indexed, recording the error of its reference copy if it is the only one in
+     * the chunk (otherwise the error could belong to any of them, so is not recorded against any).
+     * @param xtdb connectivity
+     * @param chunk to wait for
+     * @return boolean true if the chunk was committed, otherwise false
+     */
+    private static boolean await(XtdbOMRSRepositoryConnector xtdb, Chunk chunk) {
+        try {
+            TransactionInstant results = xtdb.awaitTx(chunk.instant);
+            if (chunk.outcomes.size() == 1) {
+                xtdb.validateCommit(results, METHOD_NAME);
+                chunk.committed = true;
+            } else {
+                chunk.committed = xtdb.validateGroupCommit(results);
+            }
+        } catch (Exception e) {
+            if (chunk.outcomes.size() == 1) {
+                chunk.outcomes.get(0).error = e;
+            } else {
+                log.debug("Unable to complete chunk of {} reference copies.", chunk.outcomes.size(), e);
+            }
+        }
+        return chunk.committed;
+    }
+
+    /**
+     * Save each of the provided reference copies through its own transaction.
+     * @param xtdb connectivity
+     * @param outcomes giving the reference copies to save, in the order to save them
+     */
+    private static void saveIndividually(XtdbOMRSRepositoryConnector xtdb, Collection<Outcome> outcomes) {
+        for (Outcome outcome : outcomes) {
+            try {
+                if (outcome.instance instanceof EntityDetail) {
+                    SaveEntityReferenceCopy.transact(xtdb, (EntityDetail) outcome.instance);
+                } else {
+                    SaveRelationshipReferenceCopy.transact(xtdb, (Relationship) outcome.instance);
+                }
+            } catch (Exception e) {
+                outcome.error = e;
+            }
+        }
+    }
+
+    /**
+     * Retrieve the XTDB reference (document ID) of the provided outcome's reference copy.
+     * @param outcome giving the reference copy
+     * @return String
+     */
+    private static String getDocId(Outcome outcome) {
+        return outcome.instance instanceof EntityDetail
+                ? EntityDetailMapping.getReference(outcome.instance.getGUID())
+                : RelationshipMapping.getReference(outcome.instance.getGUID());
+    }
+
+    /**
+     * The reference copies to be saved through a single transaction.
+     */
+    private static final class Chunk {
+
+        private final Transaction.Builder tx = Transaction.builder();
+        private final List<Outcome> outcomes = new ArrayList<>();
+        private TransactionInstant instant = null;
+        private boolean committed = false;
+
+    }
+
+    /**
+     * The outcome of saving a single reference copy.
+     */
+    public static final class Outcome {
+
+        private final InstanceHeader instance;
+        private Exception error;
+        private boolean unchanged = false;
+
+        /**
+         * Track the outcome of saving the provided reference copy.
+         * @param instance reference copy (entity or relationship) to save
+         */
+        public Outcome(InstanceHeader instance) {
+            this(instance, null);
+        }
+
+        /**
+         * Record that the provided reference copy cannot be saved.
+         * @param instance reference copy (entity or relationship) that cannot be saved
+         * @param error why it cannot be saved
+         */
+        public Outcome(InstanceHeader instance, Exception error) {
+            this.instance = instance;
+            this.error = error;
+        }
+
+        /**
+         * Retrieve the reference copy.
+         * @return InstanceHeader the entity or relationship
+         */
+        public InstanceHeader getInstance() {
+            return instance;
+        }
+
+        /**
+         * Indicates whether the reference copy was saved (or, if writes are asynchronous, submitted to be saved).
+         * @return boolean
+         */
+        public boolean isSaved() {
+            return error == null;
+        }
+
+        /**
+         * Indicates whether the reference copy was skipped (but still counts as saved) because exactly the same
+         * version of it is already stored.
+         * @return boolean
+         */
+        public boolean isUnchanged() {
+            return unchanged;
+        }
+
+        /**
+         * Retrieve the reason the reference copy was not saved.
+         * @return Exception, or null if it was saved
+         */
+        public Exception getError() {
+            return error;
+        }
+
+    }
+
+}
@@ -8,6 +8,8 @@ import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
+import org.odpi.egeria.connectors.juxt.xtdb.readops.FindUnchangedReferenceCopies;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
@@ -18,6 +20,8 @@ import xtdb.api.TransactionInstant;
 import xtdb.api.XtdbDocument;
 import xtdb.api.tx.Transaction;
 
+import java.util.Collections;
+
 /**
  * Transaction function for adding a reference copy relationship.
  */
@@ -83,7 +87,7 @@ public class SaveRelationshipReferenceCopy extends AbstractTransactionFunction {
                 }
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -100,6 +104,55 @@ public class SaveRelationshipReferenceCopy extends AbstractTransactionFunction {
     public static void transact(XtdbOMRSRepositoryConnector xtdb,
                                 Relationship toSave)
             throws RelationshipConflictException, HomeRelationshipException, InvalidParameterException, RepositoryErrorException {
+        try (OperationTimer timer = startTimer(SaveRelationshipReferenceCopy.class)) {
+            IPersistentMap doc = getDoc(xtdb, toSave);
+            String docId = RelationshipMapping.getReference(toSave.getGUID());
+            if (new FindUnchangedReferenceCopies(xtdb, Collections.singletonList(doc)).execute().contains(doc)) {
+                log.debug("Reference copy {} is unchanged, skipping: {}", docId, toSave.getVersion());
+                timer.succeeded();
+                return;
+            }
+            Transaction.Builder tx = Transaction.builder();
+            addTo(xtdb, tx, toSave, doc);
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                xtdb.validateCommit(results, METHOD_NAME);
+            } catch (RelationshipConflictException | HomeRelationshipException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        CLASS_NAME,
+                        METHOD_NAME,
+                        e);
+            }
+            timer.succeeded();
+        }
+    }
+
+    /**
+     * Map the provided relationship into the XTDB document that will be persisted for it.
+     * @param xtdb connectivity
+     * @param toSave the relationship reference copy to persist
+     * @return IPersistentMap giving the XTDB document for the relationship
+     */
+    static IPersistentMap getDoc(XtdbOMRSRepositoryConnector xtdb,
+                                 Relationship toSave) {
+        RelationshipMapping rm = new RelationshipMapping(xtdb, toSave);
+        XtdbDocument toSaveXT = rm.toXTDB();
+        return toSaveXT.toMap();
+    }
+
+    /**
+     * Add the invocation of this transaction function for the provided relationship to the provided transaction.
+     * @param xtdb connectivity
+     * @param tx transaction to which to add the invocation
+     * @param toSave the relationship reference copy to persist
+     * @param doc the XTDB document for the relationship reference copy
+     */
+    static void addTo(XtdbOMRSRepositoryConnector xtdb,
+                      Transaction.Builder tx,
+                      Relationship toSave,
+                      IPersistentMap doc) {
         String docId = RelationshipMapping.getReference(toSave.getGUID());
         EntityProxy ep1 = toSave.getEntityOneProxy();
         EntityProxy ep2 = toSave.getEntityTwoProxy();
@@ -109,21 +162,7 @@ public class SaveRelationshipReferenceCopy extends AbstractTransactionFunction {
         XtdbDocument ep2XT = epm2.toXTDB();
         String proxy1Id = EntityDetailMapping.getReference(ep1.getGUID());
         String proxy2Id = EntityDetailMapping.getReference(ep2.getGUID());
-        RelationshipMapping rm = new RelationshipMapping(xtdb, toSave);
-        XtdbDocument toSaveXT = rm.toXTDB();
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, proxy1Id, proxy2Id, toSaveXT.toMap(), ep1XT.toMap(), ep2XT.toMap(), xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            xtdb.validateCommit(results, METHOD_NAME);
-        } catch (RelationshipConflictException | HomeRelationshipException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    CLASS_NAME,
-                    METHOD_NAME,
-                    e);
-        }
+        tx.invokeFunction(FUNCTION_NAME, docId, proxy1Id, proxy2Id, doc, ep1XT.toMap(), ep2XT.toMap(), xtdb.getMetadataCollectionId());
     }
 
     /**
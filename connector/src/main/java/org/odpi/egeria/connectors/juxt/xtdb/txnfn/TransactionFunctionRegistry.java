@@ -0,0 +1,92 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
+
+import xtdb.api.IXtdb;
+import xtdb.api.IXtdbDatasource;
+import xtdb.api.XtdbDocument;
+import xtdb.api.tx.PutOperation;
+import xtdb.api.tx.Transaction;
+import xtdb.api.tx.TransactionOperation;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Tracks which version of each transaction function is stored, so that only new or changed functions need to be
+ * submitted when the connector starts. (Every function that is submitted is appended to the transaction log and
+ * re-indexed, by every node sharing that log, every time any of them restarts.)
+ *
+ * Each function document is stored along with a hash of its Clojure source: a function is unchanged so long as the
+ * hash stored for it matches the hash of the source it would be created with now.
+ */
+public class TransactionFunctionRegistry {
+
+    public static final String SOURCE_HASH = "egeria/fnHash";
+
+    private TransactionFunctionRegistry() {}
+
+    /**
+     * Retrieve a hash of the provided Clojure source for a transaction function.
+     * @param fn the logic of the transaction function
+     * @return String giving the hash, in hexadecimal
+     */
+    public static String hash(String fn) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fn.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256, so this should never happen
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    /**
+     * Retrieve only those transaction function documents (from the provided transaction) that are new, or differ
+     * from the version already stored in the repository.
+     * @param xtdbAPI of the repository
+     * @param functions transaction giving every transaction function document
+     * @return Transaction giving only the transaction function documents that need to be submitted, or null if none do
+     * @throws IOException if there is any issue closing the connection to the repository
+     */
+    public static Transaction getChanged(IXtdb xtdbAPI, Transaction functions) throws IOException {
+        Transaction.Builder changed = Transaction.builder();
+        boolean anyChanged = false;
+        try (IXtdbDatasource db = xtdbAPI.openDB()) {
+            for (TransactionOperation operation : functions.getOperations()) {
+                if (!isUnchanged(db, operation)) {
+                    changed.add(operation);
+                    anyChanged = true;
+                }
+            }
+        }
+        return anyChanged ? changed.build() : null;
+    }
+
+    /**
+     * Indicates whether the provided operation would only put a transaction function document exactly as it is
+     * already stored.
+     * @param db in which to look up what is stored
+     * @param operation to check
+     * @return boolean
+     */
+    private static boolean isUnchanged(IXtdbDatasource db, TransactionOperation operation) {
+        if (operation instanceof PutOperation) {
+            XtdbDocument function = ((PutOperation) operation).getDocument();
+            Object hash = function.get(SOURCE_HASH);
+            if (hash != null) {
+                XtdbDocument existing = db.entity(function.getId());
+                return existing != null && Objects.equals(hash, existing.get(SOURCE_HASH));
+            }
+        }
+        return false;
+    }
+
+}
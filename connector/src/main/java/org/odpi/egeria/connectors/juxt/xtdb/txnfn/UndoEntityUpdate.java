@@ -4,10 +4,12 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.ClassificationMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntitySummaryMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
@@ -72,13 +74,13 @@ public class UndoEntityUpdate extends UndoInstanceUpdate {
                 IPersistentMap previous = (IPersistentMap) history.nth(1);
                 TxnValidations.nonProxyEntity(current, entityGUID, CLASS_NAME, METHOD_NAME);
                 TxnValidations.instanceCanBeUpdated(current, entityGUID, metadataCollectionId, CLASS_NAME, METHOD_NAME);
-                xtdbDoc = rollbackEntity(userId, current, previous);
+                xtdbDoc = WrittenDocumentCache.add(txId, rollbackEntity(userId, current, previous));
             } else {
                 // If there is no previous version, we will make this a no-op and retain the current version
-                xtdbDoc = current;
+                xtdbDoc = WrittenDocumentCache.add(txId, current);
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -98,24 +100,26 @@ public class UndoEntityUpdate extends UndoInstanceUpdate {
                                         String userId,
                                         String entityGUID)
             throws EntityNotKnownException, InvalidParameterException, RepositoryErrorException {
-        String docId = EntityDetailMapping.getReference(entityGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            EntityDetail result = xtdb.getResultingEntity(docId, results, METHOD_NAME);
-            OMRSRepositoryValidator repositoryValidator = xtdb.getRepositoryValidator();
-            String repositoryName = xtdb.getRepositoryName();
-            repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, result, METHOD_NAME);
-            repositoryValidator.validateEntityIsNotDeleted(repositoryName, result, METHOD_NAME);
-            return result;
-        } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    UndoEntityUpdate.class.getName(),
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(UndoEntityUpdate.class)) {
+            String docId = EntityDetailMapping.getReference(entityGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                EntityDetail result = xtdb.getResultingEntity(docId, results, METHOD_NAME);
+                OMRSRepositoryValidator repositoryValidator = xtdb.getRepositoryValidator();
+                String repositoryName = xtdb.getRepositoryName();
+                repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, result, METHOD_NAME);
+                repositoryValidator.validateEntityIsNotDeleted(repositoryName, result, METHOD_NAME);
+                return timer.succeeded(result);
+            } catch (EntityNotKnownException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        UndoEntityUpdate.class.getName(),
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
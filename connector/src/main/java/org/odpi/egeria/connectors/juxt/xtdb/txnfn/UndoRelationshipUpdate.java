@@ -4,8 +4,10 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
+import org.odpi.egeria.connectors.juxt.xtdb.metrics.OperationTimer;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
@@ -67,13 +69,13 @@ public class UndoRelationshipUpdate extends UndoInstanceUpdate {
             } else if (history.length() == 2) {
                 IPersistentMap previous = (IPersistentMap) history.nth(1);
                 TxnValidations.instanceCanBeUpdated(current, relationshipGUID, metadataCollectionId, CLASS_NAME, METHOD_NAME);
-                xtdbDoc = rollbackRelationship(userId, current, previous);
+                xtdbDoc = WrittenDocumentCache.add(txId, rollbackRelationship(userId, current, previous));
             } else {
                 // If there is no previous version, we will make this a no-op and retain the current version
-                xtdbDoc = current;
+                xtdbDoc = WrittenDocumentCache.add(txId, current);
             }
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -93,24 +95,26 @@ public class UndoRelationshipUpdate extends UndoInstanceUpdate {
                                         String userId,
                                         String relationshipGUID)
             throws RelationshipNotKnownException, InvalidParameterException, RepositoryErrorException {
-        String docId = RelationshipMapping.getReference(relationshipGUID);
-        Transaction.Builder tx = Transaction.builder();
-        tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId());
-        TransactionInstant results = xtdb.runTx(tx.build());
-        try {
-            Relationship result = xtdb.getResultingRelationship(docId, results, METHOD_NAME);
-            OMRSRepositoryValidator repositoryValidator = xtdb.getRepositoryValidator();
-            String repositoryName = xtdb.getRepositoryName();
-            repositoryValidator.validateRelationshipFromStore(repositoryName, relationshipGUID, result, METHOD_NAME);
-            repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, result, METHOD_NAME);
-            return result;
-        } catch (RelationshipNotKnownException | InvalidParameterException | RepositoryErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
-                    UndoRelationshipUpdate.class.getName(),
-                    METHOD_NAME,
-                    e);
+        try (OperationTimer timer = startTimer(UndoRelationshipUpdate.class)) {
+            String docId = RelationshipMapping.getReference(relationshipGUID);
+            Transaction.Builder tx = Transaction.builder();
+            tx.invokeFunction(FUNCTION_NAME, docId, userId, xtdb.getMetadataCollectionId());
+            TransactionInstant results = xtdb.runTx(tx.build());
+            try {
+                Relationship result = xtdb.getResultingRelationship(docId, results, METHOD_NAME);
+                OMRSRepositoryValidator repositoryValidator = xtdb.getRepositoryValidator();
+                String repositoryName = xtdb.getRepositoryName();
+                repositoryValidator.validateRelationshipFromStore(repositoryName, relationshipGUID, result, METHOD_NAME);
+                repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, result, METHOD_NAME);
+                return timer.succeeded(result);
+            } catch (RelationshipNotKnownException | InvalidParameterException | RepositoryErrorException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RepositoryErrorException(XtdbOMRSErrorCode.UNKNOWN_RUNTIME_ERROR.getMessageDefinition(),
+                        UndoRelationshipUpdate.class.getName(),
+                        METHOD_NAME,
+                        e);
+            }
         }
     }
 
@@ -4,6 +4,7 @@ package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
 
 import clojure.lang.*;
 import org.odpi.egeria.connectors.juxt.xtdb.cache.ErrorMessageCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.WrittenDocumentCache;
 import org.odpi.egeria.connectors.juxt.xtdb.auditlog.XtdbOMRSErrorCode;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
 import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
@@ -72,9 +73,9 @@ public abstract class UpdateEntityClassification extends UpdateInstancePropertie
             TxnValidations.entityFromStore(entityGUID, toUpdate, className, methodName);
             TxnValidations.instanceIsNotDeleted(toUpdate, entityGUID, className, methodName);
             TxnValidations.instanceCanBeUpdated(toUpdate, entityGUID, metadataCollectionId, classificationName, className, methodName);
-            xtdbDoc = updateInstanceProperties(userId, toUpdate, properties, classificationName);
+            xtdbDoc = WrittenDocumentCache.add(txId, updateInstanceProperties(userId, toUpdate, properties, classificationName));
         } catch (Exception e) {
-            throw ErrorMessageCache.add(txId, e);
+            throw ErrorMessageCache.add(txId, METHOD_NAME, e);
         }
 
     }
@@ -0,0 +1,67 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.cache;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the bounded holding of errors raised by transactions.
+ */
+public class ErrorMessageCacheTest {
+
+    @Test
+    void testRetrieval() {
+        Exception error = new Exception("first");
+        assertSame(ErrorMessageCache.add(-1L, "test/first", error), error, "Expected the error added to be returned.");
+        assertNull(ErrorMessageCache.get(-2L), "Expected errors to be held separately for each transaction.");
+        assertSame(ErrorMessageCache.get(-1L), error, "Expected the error to be held for its transaction.");
+        assertNull(ErrorMessageCache.get(-1L), "Expected an error to be retrieved only once.");
+    }
+
+    @Test
+    void testEviction() {
+        try {
+            long evicted = ErrorMessageCache.getEvictions();
+            ErrorMessageCache.setMaximumEntries(2);
+            ErrorMessageCache.add(-11L, "test/eviction", new Exception("11"));
+            ErrorMessageCache.add(-12L, "test/eviction", new Exception("12"));
+            ErrorMessageCache.add(-13L, "test/eviction", new Exception("13"));
+            assertEquals(ErrorMessageCache.size(), 2, "Expected errors to be held for a bounded number of transactions.");
+            assertEquals(ErrorMessageCache.getEvictions(), evicted + 1, "Expected the eviction to be counted.");
+            assertNull(ErrorMessageCache.get(-11L), "Expected the oldest transaction's error to be evicted.");
+            assertNotNull(ErrorMessageCache.get(-13L), "Expected the latest transaction's error to be held.");
+            ErrorMessageCache.setTimeToLive(0);
+            assertNull(ErrorMessageCache.get(-12L), "Expected an error held for too long to be evicted.");
+            assertEquals(ErrorMessageCache.size(), 0, "Expected no errors to be held once they have all expired.");
+        } finally {
+            ErrorMessageCache.setMaximumEntries(ErrorMessageCache.DEFAULT_MAX_ENTRIES);
+            ErrorMessageCache.setTimeToLive(ErrorMessageCache.DEFAULT_TIME_TO_LIVE);
+        }
+    }
+
+    @Test
+    void testFailureCounts() {
+        long before = ErrorMessageCache.getFailedTransactions().getOrDefault("test/counted", 0L);
+        ErrorMessageCache.add(-21L, "test/counted", new Exception("21"));
+        ErrorMessageCache.add(-22L, "test/counted", new Exception("22"));
+        ErrorMessageCache.get(-21L);
+        ErrorMessageCache.get(-22L);
+        assertEquals(ErrorMessageCache.getFailedTransactions().get("test/counted").longValue(), before + 2,
+                "Expected every failed transaction to be counted against its function, even once retrieved.");
+    }
+
+    @Test
+    void testDiscard() {
+        long before = ErrorMessageCache.getFailedTransactions().getOrDefault("test/discarded", 0L);
+        ErrorMessageCache.add(-31L, "test/discarded", new Exception("31"));
+        ErrorMessageCache.discard(-31L);
+        assertNull(ErrorMessageCache.get(-31L), "Expected a discarded error to no longer be held.");
+        ErrorMessageCache.add(-32L, "test/discarded", new Exception("32"));
+        assertEquals(ErrorMessageCache.getFailedTransactions().get("test/discarded").longValue(), before + 1,
+                "Expected a discarded failure (of a transaction that is re-submitted) to no longer be counted.");
+        ErrorMessageCache.get(-32L);
+    }
+
+}
@@ -0,0 +1,49 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.cache;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the bounds of the cache of translated instances.
+ */
+public class InstanceCacheTest {
+
+    @Test
+    void testEviction() {
+        try {
+            InstanceCache.clear();
+            InstanceCache.setMaximumWeight(10);
+            InstanceCache.put(String.class, "hash1", "one", 4);
+            InstanceCache.put(String.class, "hash2", "two", 4);
+            assertEquals(InstanceCache.get(String.class, "hash1"), "one", "Expected the first instance to be cached.");
+            InstanceCache.put(String.class, "hash3", "three", 4);
+            assertEquals(InstanceCache.size(), 2, "Expected the cache to be bounded by the weight of its instances.");
+            assertNull(InstanceCache.get(String.class, "hash2"), "Expected the least-recently used instance to be evicted.");
+            assertEquals(InstanceCache.get(String.class, "hash1"), "one", "Expected a recently-used instance to be retained.");
+            assertNull(InstanceCache.get(Integer.class, "hash1"), "Expected instances to be cached separately for each form.");
+            InstanceCache.put(String.class, "hash4", "four", 11);
+            assertNull(InstanceCache.get(String.class, "hash4"), "Expected an instance heavier than the cache itself not to be cached.");
+            assertEquals(InstanceCache.getWeight(), 8L, "Expected the weight to account only for the cached instances.");
+        } finally {
+            InstanceCache.setMaximumWeight(InstanceCache.DEFAULT_MAX_WEIGHT);
+            InstanceCache.clear();
+        }
+    }
+
+    @Test
+    void testDisabled() {
+        try {
+            InstanceCache.setMaximumWeight(0);
+            assertFalse(InstanceCache.isEnabled());
+            InstanceCache.put(String.class, "hash1", "one", 1);
+            assertEquals(InstanceCache.size(), 0, "Expected nothing to be cached when the cache is disabled.");
+        } finally {
+            InstanceCache.setMaximumWeight(InstanceCache.DEFAULT_MAX_WEIGHT);
+            InstanceCache.clear();
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.cache;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests the precomputed index of the type hierarchy.
+ */
+public class TypeLatticeTest {
+
+    private static final Map<String, TypeDef> typeDefs = new LinkedHashMap<>();
+    private static final Map<String, Map<String, PropertyKeywords>> properties = new HashMap<>();
+    static {
+        add(new EntityDef(), "root", null);
+        add(new EntityDef(), "referenceable", "root");
+        add(new EntityDef(), "asset", "referenceable");
+        add(new EntityDef(), "glossary", "referenceable");
+        add(new EntityDef(), "dataSet", "asset");
+        add(new RelationshipDef(), "link", null);
+        add(new EntityDef(), "orphan", "missing");
+        addProperty("referenceable", "qualifiedName");
+        addProperty("asset", "name");
+        addProperty("dataSet", "name");
+    }
+
+    private static void addProperty(String typeName, String propertyName) {
+        TypeDefAttribute attribute = new TypeDefAttribute();
+        attribute.setAttributeName(propertyName);
+        properties.computeIfAbsent(typeName + "-guid", k -> new LinkedHashMap<>())
+                .put(propertyName, new PropertyKeywords("entityProperties", typeName, propertyName, attribute));
+    }
+
+    private static void add(TypeDef typeDef, String name, String superTypeName) {
+        typeDef.setGUID(name + "-guid");
+        typeDef.setName(name);
+        if (superTypeName != null) {
+            TypeDefLink superType = new TypeDefLink();
+            superType.setGUID(superTypeName + "-guid");
+            superType.setName(superTypeName);
+            typeDef.setSuperType(superType);
+        }
+        typeDefs.put(typeDef.getGUID(), typeDef);
+    }
+
+    @Test
+    void testIsTypeOf() {
+        TypeLattice lattice = new TypeLattice(typeDefs, properties);
+        assertTrue(lattice.isTypeOf("dataSet", "dataSet"));
+        assertTrue(lattice.isTypeOf("dataSet", "asset"));
+        assertTrue(lattice.isTypeOf("dataSet", "root"));
+        assertFalse(lattice.isTypeOf("asset", "dataSet"));
+        assertFalse(lattice.isTypeOf("glossary", "asset"));
+        assertFalse(lattice.isTypeOf("unknown", "root"), "Unknown types should not be of any type.");
+        assertFalse(lattice.isTypeOf("orphan", "missing"), "Unknown supertypes should not be matched.");
+    }
+
+    @Test
+    void testClosures() {
+        TypeLattice lattice = new TypeLattice(typeDefs, properties);
+        assertEquals(lattice.getSubtypeNames("referenceable"), Set.of("referenceable", "asset", "glossary", "dataSet"));
+        assertEquals(lattice.getSubtypeNames("dataSet"), Set.of("dataSet"));
+        assertNull(lattice.getSubtypeNames("unknown"));
+        assertSame(lattice.getSubtypeNames("asset"), lattice.getSubtypeNames("asset"), "Closures should be shared, not re-computed.");
+        assertThrows(UnsupportedOperationException.class, () -> lattice.getSubtypeNames("asset").add("other"));
+        List<TypeDefLink> supers = lattice.getAllSuperTypes("dataSet-guid");
+        assertEquals(supers.size(), 3);
+        assertEquals(supers.get(0).getName(), "asset");
+        assertEquals(supers.get(2).getName(), "root");
+        assertEquals(lattice.getAllSuperTypes("orphan-guid").size(), 1);
+        assertEquals(lattice.getTypeDefNames(TypeDefCategory.RELATIONSHIP_DEF), Set.of("link"));
+        assertTrue(lattice.getTypeDefNames(TypeDefCategory.CLASSIFICATION_DEF).isEmpty());
+    }
+
+    @Test
+    void testFlattenedProperties() {
+        TypeLattice lattice = new TypeLattice(typeDefs, properties);
+        Map<String, PropertyKeywords> all = lattice.getAllPropertyKeywords("dataSet-guid");
+        assertEquals(all.keySet(), Set.of("qualifiedName", "name"));
+        assertEquals(all.get("qualifiedName").getSearchablePath(), "entityProperties/referenceable.qualifiedName.value");
+        assertEquals(all.get("name").getSearchablePath(), "entityProperties/dataSet.name.value", "Redefined properties should override those of the supertype.");
+        assertSame(all.get("name").getSearchableKeyword(), all.get("name").getSearchableKeyword());
+        assertSame(lattice.getAllPropertyKeywords("dataSet-guid"), all, "Flattened properties should be shared, not re-computed.");
+        assertTrue(lattice.getAllPropertyKeywords("root-guid").isEmpty());
+        assertNull(lattice.getAllPropertyKeywords("unknown-guid"));
+    }
+
+    @Test
+    void testGrowingTypeDefs() {
+        // Simulate a type being added between reading the size of the (live) map and iterating over its values
+        Map<String, TypeDef> growing = new HashMap<>(typeDefs) {
+            @Override
+            public int size() {
+                return super.size() - 1;
+            }
+        };
+        TypeLattice lattice = new TypeLattice(growing, properties);
+        assertTrue(lattice.isTypeOf("dataSet", "root"));
+        assertEquals(lattice.getSubtypeNames("referenceable"), Set.of("referenceable", "asset", "glossary", "dataSet"));
+    }
+
+}
@@ -0,0 +1,54 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.cache;
+
+import clojure.lang.IPersistentMap;
+import clojure.lang.PersistentArrayMap;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the hand-off of documents written by transactions.
+ */
+public class WrittenDocumentCacheTest {
+
+    @Test
+    void testHandOff() {
+        IPersistentMap first = doc("e_1", 1);
+        IPersistentMap second = doc("e_1", 2);
+        assertSame(WrittenDocumentCache.add(-1L, first), first, "Expected the document added to be returned.");
+        WrittenDocumentCache.add(-1L, second);
+        assertNull(WrittenDocumentCache.get(-2L, "e_1"), "Expected documents to be held separately for each transaction.");
+        assertSame(WrittenDocumentCache.get(-1L, "e_1"), second, "Expected the last document written within a transaction to be held.");
+        assertNull(WrittenDocumentCache.get(-1L, "e_1"), "Expected a document to be handed off only once.");
+        WrittenDocumentCache.add(-3L, doc("e_3", 1));
+        WrittenDocumentCache.discard(-3L);
+        assertNull(WrittenDocumentCache.get(-3L, "e_3"), "Expected the documents of a discarded transaction not to be held.");
+    }
+
+    @Test
+    void testEviction() {
+        try {
+            WrittenDocumentCache.setMaximumTransactions(2);
+            WrittenDocumentCache.add(-11L, doc("e_11", 1));
+            WrittenDocumentCache.add(-12L, doc("e_12", 1));
+            WrittenDocumentCache.add(-13L, doc("e_13", 1));
+            assertEquals(WrittenDocumentCache.size(), 2, "Expected documents to be held for a bounded number of transactions.");
+            assertNull(WrittenDocumentCache.get(-11L, "e_11"), "Expected the oldest transaction's documents to be evicted.");
+            assertNotNull(WrittenDocumentCache.get(-13L, "e_13"), "Expected the latest transaction's documents to be held.");
+            WrittenDocumentCache.setMaximumTransactions(0);
+            WrittenDocumentCache.add(-14L, doc("e_14", 1));
+            assertNull(WrittenDocumentCache.get(-14L, "e_14"), "Expected nothing to be held when the hand-off is disabled.");
+        } finally {
+            WrittenDocumentCache.setMaximumTransactions(WrittenDocumentCache.DEFAULT_MAX_TRANSACTIONS);
+            WrittenDocumentCache.discard(-12L);
+        }
+    }
+
+    private static IPersistentMap doc(String docId, long version) {
+        return PersistentArrayMap.EMPTY.assoc(Constants.XTDB_PK, docId).assoc("version", version);
+    }
+
+}
@@ -0,0 +1,104 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.mapping;
+
+import clojure.lang.IPersistentMap;
+import com.fasterxml.jackson.databind.JavaType;
+import org.odpi.egeria.connectors.juxt.xtdb.mocks.MockConnection;
+import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the encodings of embedded values.
+ */
+public class EmbeddedEncodingTest {
+
+    private static final XtdbOMRSRepositoryConnector connector = MockConnection.getMockConnector();
+    private static final JavaType VALUE_TYPE = AbstractMapping.mapper.getTypeFactory().constructType(InstancePropertyValue.class);
+
+    @Test
+    void testRoundTrip() {
+
+        InstancePropertyValue value = getValue();
+        try {
+            for (EmbeddedEncoding encoding : EmbeddedEncoding.values()) {
+                AbstractMapping.setEmbeddedEncoding(encoding);
+                IPersistentMap embedded = AbstractMapping.getEmbeddedSerializedForm(value);
+                assertEquals(EmbeddedEncoding.of(embedded), encoding, "Embedded form is expected to record its encoding.");
+                assertEquals(AbstractMapping.getDeserializedValue(embedded, VALUE_TYPE), value, "Values are expected to be identical after a round-trip through " + encoding.getName() + ".");
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        } finally {
+            AbstractMapping.setEmbeddedEncoding(EmbeddedEncoding.JSON);
+        }
+
+    }
+
+    @Test
+    void testTranscode() {
+
+        InstancePropertyValue value = getValue();
+        try {
+            IPersistentMap json = AbstractMapping.getEmbeddedSerializedForm(value);
+            IPersistentMap smile = EmbeddedEncoding.SMILE.transcode(json);
+            IPersistentMap cbor = EmbeddedEncoding.CBOR.transcode(smile);
+            assertTrue(smile.valAt(EmbeddedEncoding.SMILE.getKeyword()) instanceof byte[]);
+            assertSame(EmbeddedEncoding.CBOR.transcode(cbor), cbor, "Values already in the encoding are expected to be left as-is.");
+            assertEquals(AbstractMapping.getDeserializedValue(cbor, VALUE_TYPE), value, "Values are expected to be identical after transcoding.");
+            assertEquals(EmbeddedEncoding.JSON.transcode(cbor), json, "JSON is expected to be identical after transcoding.");
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+
+    }
+
+    @Test
+    void testConfigure() {
+
+        EmbeddedEncoding current = AbstractMapping.getEmbeddedEncoding();
+        EmbeddedEncoding other = current == EmbeddedEncoding.CBOR ? EmbeddedEncoding.SMILE : EmbeddedEncoding.CBOR;
+        assertTrue(AbstractMapping.configureEmbeddedEncoding(current), "Expected the encoding already in use to be accepted.");
+        try {
+            assertFalse(AbstractMapping.configureEmbeddedEncoding(other), "Expected a different encoding to be refused while another connector relies on the first.");
+            assertEquals(AbstractMapping.getEmbeddedEncoding(), current, "Expected the encoding in use to be left unchanged.");
+        } finally {
+            AbstractMapping.releaseEmbeddedEncoding();
+        }
+
+    }
+
+    @Test
+    void testNames() {
+        assertEquals(EmbeddedEncoding.fromName("Smile"), EmbeddedEncoding.SMILE);
+        assertEquals(EmbeddedEncoding.fromName("cbor"), EmbeddedEncoding.CBOR);
+        assertNull(EmbeddedEncoding.fromName("xml"));
+        assertNull(EmbeddedEncoding.of(null));
+    }
+
+    private InstancePropertyValue getValue() {
+        OMRSRepositoryHelper helper = connector.getRepositoryHelper();
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "A Simple Term");
+        map.put("count", 42);
+        map.put("when", new Date());
+        InstanceProperties properties = helper.addMapPropertyToInstance(MockConnection.SOURCE_NAME,
+                null,
+                "property",
+                map,
+                this.getClass().getName());
+        return properties.getPropertyValue("property");
+    }
+
+}
@@ -67,6 +67,63 @@ public class InstancePropertiesMappingTest {
         }
     }
 
+    @Test
+    void testLazy() {
+        try {
+
+            OMRSRepositoryHelper helper = connector.getRepositoryHelper();
+            InstanceProperties properties = helper.addStringPropertyToInstance(MockConnection.SOURCE_NAME,
+                    null,
+                    "qualifiedName",
+                    "a-qualified-name",
+                    this.getClass().getName());
+            properties = helper.addStringPropertyToInstance(MockConnection.SOURCE_NAME,
+                    properties,
+                    "description",
+                    "a description",
+                    this.getClass().getName());
+
+            XtdbDocument.Builder builder = XtdbDocument.builder(docId);
+            TypeDef typeDef = helper.getTypeDefByName(MockConnection.SOURCE_NAME, "GlossaryTerm");
+            InstanceType type = helper.getNewInstanceType(MockConnection.SOURCE_NAME, typeDef);
+            InstancePropertiesMapping.addToDoc(connector,
+                    builder,
+                    type,
+                    properties);
+
+            InstanceProperties retrieved = InstancePropertiesMapping.getFromDoc(connector,
+                    type,
+                    builder.build());
+
+            assertTrue(retrieved instanceof LazyInstanceProperties);
+            LazyInstanceProperties lazy = (LazyInstanceProperties) retrieved;
+            assertEquals(lazy.getPropertyCount(), 2, "Only the properties that are set are expected to be counted.");
+            List<String> names = new ArrayList<>();
+            lazy.getPropertyNames().forEachRemaining(names::add);
+            assertEquals(names, List.of("description", "qualifiedName"), "Property names are expected to be listed in order.");
+            assertEquals(lazy.getPropertyValue("qualifiedName"), properties.getPropertyValue("qualifiedName"));
+            assertNull(lazy.getPropertyValue("displayName"), "Unset properties are expected to have no value.");
+            assertFalse(lazy.isMaterialized(), "Accessing individual properties is not expected to materialize all of them.");
+
+            InstanceProperties other = InstancePropertiesMapping.getFromDoc(connector,
+                    type,
+                    builder.build());
+            assertEquals(other, lazy, "Lazy properties from the same document are expected to be equal.");
+            assertEquals(lazy, other, "Lazy properties from the same document are expected to be equal.");
+
+            String json = AbstractMapping.mapper.writeValueAsString(lazy);
+            assertTrue(json.contains("\"class\":\"InstanceProperties\""), "Lazy properties are expected to serialize as any other InstanceProperties.");
+            assertFalse(json.contains("materialized"), "The internal state of lazy properties is not expected to be serialized.");
+            assertEquals(AbstractMapping.mapper.readValue(json, InstanceProperties.class), properties);
+            assertTrue(lazy.isMaterialized());
+            assertEquals(new InstanceProperties(lazy), properties, "Copies are expected to be identical.");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
     @Test
     void testEmpty() {
         try {
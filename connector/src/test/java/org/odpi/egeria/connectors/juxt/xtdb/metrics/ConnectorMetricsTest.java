@@ -0,0 +1,103 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import org.testng.annotations.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the recording of the connector's metrics.
+ */
+public class ConnectorMetricsTest {
+
+    @Test
+    void testBuckets() {
+        for (int i = 0; i < 247; i++) {
+            long upper = LatencyHistogram.getUpperBound(i);
+            assertEquals(LatencyHistogram.getBucket(upper), i, "Expected the upper bound of bucket " + i + " to be counted in that bucket.");
+            assertEquals(LatencyHistogram.getBucket(upper + 1), i + 1, "Expected the latency after bucket " + i + " to be counted in the next bucket.");
+        }
+        assertEquals(LatencyHistogram.getUpperBound(LatencyHistogram.getBucket(Long.MAX_VALUE)), Long.MAX_VALUE,
+                "Expected even the largest latency to be counted.");
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L, i > 98);
+        }
+        OperationStatistics stats = histogram.getStatistics();
+        assertEquals(stats.getCount(), 100);
+        assertEquals(stats.getErrors(), 2);
+        assertEquals(stats.getErrorRate(), 0.02, 0.0001);
+        assertEquals(stats.getMeanMillis(), 50.5, 0.0001);
+        assertEquals(stats.getMaxMillis(), 100.0, 0.0001);
+        assertTrue(stats.getP50Millis() >= 50 && stats.getP50Millis() < 50 * 1.25, "Expected the median to be within 25%: " + stats.getP50Millis());
+        assertTrue(stats.getP95Millis() >= 95 && stats.getP95Millis() < 95 * 1.25, "Expected the 95th percentile to be within 25%: " + stats.getP95Millis());
+        assertTrue(stats.getP99Millis() >= 99 && stats.getP99Millis() < 99 * 1.25, "Expected the 99th percentile to be within 25%: " + stats.getP99Millis());
+        assertTrue(stats.getThroughput() > 0, "Expected a throughput to be calculated.");
+    }
+
+    @Test
+    void testTimers() {
+        MetricsRegistry previous = ConnectorMetrics.getRegistry();
+        try {
+            ConnectorMetrics.setRegistry(new HistogramMetricsRegistry());
+            try (OperationTimer timer = ConnectorMetrics.start("test.op")) {
+                assertEquals(timer.succeeded("result"), "result", "Expected the result to be passed through.");
+            }
+            try (OperationTimer timer = ConnectorMetrics.start("test.op")) {
+                assertNotNull(timer);
+                throw new IllegalStateException("failed");
+            } catch (IllegalStateException e) {
+                // Expected: the operation should be recorded as an error
+            }
+            ConnectorMetrics.record("test.phase", System.nanoTime());
+            Map<String, OperationStatistics> stats = ConnectorMetrics.getStatistics();
+            assertEquals(stats.get("test.op").getCount(), 2);
+            assertEquals(stats.get("test.op").getErrors(), 1, "Expected an operation that was not marked succeeded to be an error.");
+            assertEquals(stats.get("test.phase").getCount(), 1);
+            ConnectorMetrics.setRegistry(null);
+            try (OperationTimer timer = ConnectorMetrics.start("test.op")) {
+                timer.succeeded();
+            }
+            assertTrue(ConnectorMetrics.getStatistics().isEmpty(), "Expected nothing to be recorded without a registry.");
+        } finally {
+            ConnectorMetrics.setRegistry(previous);
+        }
+    }
+
+    @Test
+    void testConfigure() {
+        String current = ConnectorMetrics.getRegistryName();
+        MetricsRegistry registry = ConnectorMetrics.getRegistry();
+        assertTrue(ConnectorMetrics.configureRegistry(current, HistogramMetricsRegistry::new), "Expected the registry already in use to be accepted.");
+        try {
+            assertSame(ConnectorMetrics.getRegistry(), registry, "Expected the registry already in use to be kept.");
+            assertFalse(ConnectorMetrics.configureRegistry("none", () -> null), "Expected a different registry to be refused while another connector relies on the first.");
+            assertSame(ConnectorMetrics.getRegistry(), registry, "Expected the registry in use to be left unchanged.");
+        } finally {
+            ConnectorMetrics.releaseRegistry();
+        }
+    }
+
+    @Test
+    void testMBean() throws Exception {
+        ConnectorMetrics.registerMBean();
+        ConnectorMetrics.registerMBean();
+        ObjectName name = new ObjectName(ConnectorMetrics.OBJECT_NAME);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name), "Expected the metrics to be available through JMX.");
+        assertTrue(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Summary") instanceof String[]);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "HeldErrors") instanceof Integer);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "DiscardedErrors") instanceof Long);
+        assertNotNull(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "FailedTransactions"),
+                "Expected the failed transactions to be available through JMX.");
+    }
+
+}
@@ -0,0 +1,77 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.metrics;
+
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the recording of slow queries.
+ */
+public class SlowQueryLogTest {
+
+    @Test
+    void testRing() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 2);
+        slowQueryLog.add(getQuery("first"));
+        assertEquals(slowQueryLog.takeQueries().size(), 1);
+        slowQueryLog.add(getQuery("second"));
+        slowQueryLog.add(getQuery("third"));
+        slowQueryLog.add(getQuery("fourth"));
+        List<SlowQuery> held = slowQueryLog.getQueries();
+        assertEquals(held.size(), 2, "Expected only the most recent queries to be held.");
+        assertEquals(held.get(0).getQuery(), "third");
+        assertEquals(held.get(1).getQuery(), "fourth");
+        List<SlowQuery> taken = slowQueryLog.takeQueries();
+        assertEquals(taken.size(), 2, "Expected only the queries still held to be taken.");
+        assertEquals(slowQueryLog.takeDropped(), 1, "Expected the query overwritten before it was taken to be counted.");
+        assertEquals(slowQueryLog.takeDropped(), 0, "Expected the count of overwritten queries to be reset once taken.");
+        assertTrue(slowQueryLog.takeQueries().isEmpty(), "Expected queries to be taken only once.");
+        assertEquals(slowQueryLog.getQueries().size(), 2, "Expected queries to still be held once taken.");
+    }
+
+    @Test
+    void testThreshold() {
+        assertFalse(new SlowQueryLog(-1, 1).isSlow(Long.MAX_VALUE - 1), "Expected a negative threshold to record nothing.");
+        assertFalse(new SlowQueryLog(1, 1).isSlow(999_999));
+        assertTrue(new SlowQueryLog(1, 1).isSlow(1_000_000));
+    }
+
+    @Test
+    void testProfile() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 10);
+        try (OperationTimer timer = ConnectorMetrics.start("test.slowQuery")) {
+            QueryProfile profile = new QueryProfile(slowQueryLog, "TestSearch");
+            profile.built("{:find [e]}", new Object[]{ "a", 1 });
+            profile.executed();
+            Iterator<List<?>> rows = profile.count(Arrays.<List<?>>asList(List.of("x"), List.of("x"), List.of("y")).iterator());
+            Set<List<?>> distinct = new HashSet<>();
+            while (rows.hasNext()) {
+                distinct.add(rows.next());
+            }
+            profile.paged(distinct.size());
+            timer.succeeded();
+        }
+        List<SlowQuery> queries = slowQueryLog.getQueries();
+        assertEquals(queries.size(), 1);
+        SlowQuery query = queries.get(0);
+        assertEquals(query.getOperation(), "test.slowQuery", "Expected the query to be attributed to its originating operation.");
+        assertEquals(query.getSource(), "TestSearch");
+        assertEquals(query.getQuery(), "{:find [e]}");
+        assertEquals(query.getBindings(), "[a, 1]");
+        assertEquals(query.getRowsRead(), 3);
+        assertEquals(query.getRowsReturned(), 2);
+        assertEquals(query.getBuildMillis() + query.getExecuteMillis() + query.getFetchMillis() + query.getPageMillis(), query.getTotalMillis(), 0.001,
+                "Expected the phases to make up the total.");
+        assertTrue(query.getFetchMillis() > 0, "Expected the time spent fetching the rows to be measured.");
+        assertNull(ConnectorMetrics.getCurrentOperation(), "Expected no operation to remain current once complete.");
+    }
+
+    private static SlowQuery getQuery(String query) {
+        return new SlowQuery(new Date(), "test", "Test", query, "[]", 0, 0, 0, 0, 0, 0, 0);
+    }
+
+}
@@ -0,0 +1,70 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.model.search;
+
+import clojure.lang.PersistentVector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.testng.annotations.Test;
+import xtdb.api.DBBasis;
+import xtdb.api.TransactionInstant;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests the encoding of continuation tokens for keyset paging.
+ */
+public class ContinuationTokenTest {
+
+    private static final DBBasis basis = new DBBasis(new Date(1000L), TransactionInstant.factory(42L, new Date(900L)));
+
+    @Test
+    void testRoundTrip() {
+        Date updated = new Date(12345L);
+        ContinuationToken token = ContinuationToken.after(basis, SequencingOrder.LAST_UPDATE_RECENT, 7, PersistentVector.create("e_123", updated), 10);
+        ContinuationToken decoded = ContinuationToken.decode(token.encode());
+        assertNotNull(decoded);
+        assertEquals(decoded.getBasis(), basis);
+        assertEquals(decoded.getSequencingOrder(), SequencingOrder.LAST_UPDATE_RECENT);
+        assertEquals(decoded.getCriteria(), 7);
+        assertTrue(decoded.isKeyed());
+        assertTrue(decoded.isDescending());
+        assertEquals(decoded.getLastSortValue(), updated);
+        assertEquals(decoded.getLastDocRef(), "e_123");
+        assertEquals(decoded.getReturned(), 10);
+    }
+
+    @Test
+    void testUnkeyed() {
+        ContinuationToken token = ContinuationToken.after(basis, SequencingOrder.PROPERTY_ASCENDING, 0, PersistentVector.create("e_123", null), 4);
+        ContinuationToken decoded = ContinuationToken.decode(token.encode());
+        assertNotNull(decoded);
+        assertFalse(decoded.isKeyed(), "A null sort value cannot be resumed by its key.");
+        assertEquals(decoded.getReturned(), 4);
+        token = ContinuationToken.after(basis, null, 0, PersistentVector.create("e_123"), 2);
+        decoded = ContinuationToken.decode(token.encode());
+        assertNotNull(decoded);
+        assertTrue(decoded.isKeyed(), "Results sorted only by document ID can always be resumed by key.");
+        assertNull(decoded.getSequencingOrder());
+    }
+
+    @Test
+    void testCriteria() {
+        assertEquals(ContinuationToken.hashCriteria("type", List.of(InstanceStatus.ACTIVE), null),
+                ContinuationToken.hashCriteria("type", List.of(InstanceStatus.ACTIVE), null),
+                "Expected the same criteria to give the same hash.");
+        assertNotEquals(ContinuationToken.hashCriteria("type", List.of(InstanceStatus.ACTIVE), null),
+                ContinuationToken.hashCriteria("type", List.of(InstanceStatus.DELETED), null),
+                "Expected different criteria to give a different hash.");
+    }
+
+    @Test
+    void testInvalid() {
+        assertNull(ContinuationToken.decode(null));
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("not-a-token"));
+    }
+
+}
@@ -8,6 +8,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.testng.Assert.*;
@@ -400,4 +401,38 @@ public class XtdbGraphQueryTest {
         }
     }
 
+    @Test
+    void testRelationshipLimitersFrontier() {
+        try {
+
+            List<String> frontier = Arrays.asList("123", "456");
+            List<String> refs = Arrays.asList(EntitySummaryMapping.getReference("123"), EntitySummaryMapping.getReference("456"));
+
+            XtdbGraphQuery first = new XtdbGraphQuery(true);
+            first.addRelationshipLimiters(frontier, null, null);
+            IPersistentMap template = first.getQuery();
+            Object candidate = template.valAt(Keyword.intern("in"));
+            assertTrue(candidate instanceof IPersistentVector, "Parameterised query is expected to define its inputs.");
+            IPersistentVector inputs = (IPersistentVector) candidate;
+            assertEquals(inputs.nth(0), PersistentVector.create(XtdbGraphQuery.ROOT_ENTITY, Symbol.intern("...")), "Frontier is expected to be bound as a collection.");
+            assertEquals(first.getArgs()[0], refs, "Frontier is expected to be bound as the entity references.");
+            IPersistentVector conditions = (IPersistentVector) template.valAt(where);
+            assertEquals(conditions.nth(1), PersistentVector.create(XtdbGraphQuery.RELATIONSHIP, Keyword.intern(RelationshipMapping.ENTITY_PROXIES), XtdbGraphQuery.ROOT_ENTITY), "Relationship is expected to be related to the root entity.");
+
+            XtdbGraphQuery second = new XtdbGraphQuery(true);
+            second.addRelationshipLimiters(Arrays.asList("123", "456", "789"), null, null);
+            assertSame(second.getQuery(), template, "Frontiers of any size are expected to share the same template.");
+
+            XtdbGraphQuery literal = new XtdbGraphQuery();
+            literal.addRelationshipLimiters(frontier, null, null);
+            IPersistentMap relation = literal.getQuery();
+            assertFalse(relation.containsKey(Keyword.intern("in")), "Non-parameterised query is not expected to define any inputs.");
+            assertTrue(relation.valAt(where).toString().contains(refs.get(1)), "Non-parameterised query is expected to embed the frontier.");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
 }
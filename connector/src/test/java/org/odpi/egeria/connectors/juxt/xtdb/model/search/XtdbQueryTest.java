@@ -14,8 +14,14 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.testng.annotations.Test;
+import xtdb.api.IXtdb;
+import xtdb.api.IXtdbDatasource;
+import xtdb.api.XtdbDocument;
+import xtdb.api.tx.Transaction;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -732,4 +738,78 @@ public class XtdbQueryTest {
         }
     }
 
+    @Test
+    void testParameterisedQuery() {
+        try {
+
+            List<InstanceStatus> statuses = new ArrayList<>();
+            statuses.add(InstanceStatus.ACTIVE);
+            statuses.add(InstanceStatus.APPROVED);
+
+            XtdbQuery first = new XtdbQuery(true);
+            first.addTypeCondition(TypeDefCategory.ENTITY_DEF, "123", null);
+            first.addStatusLimiters(statuses, XtdbQuery.DOC_ID);
+            IPersistentMap template = first.getQuery();
+            assertTrue(template.containsKey(Keyword.intern("in")), "Parameterised query is expected to define its inputs.");
+            assertEquals(((IPersistentVector) template.valAt(Keyword.intern("in"))).length(), 3, "Expected one input per literal value.");
+            assertEquals(first.getArgs(), new Object[]{ "123", 15, 4 }, "Expected the arguments to be the literal values, in order.");
+            assertFalse(template.valAt(where).toString().contains("123"), "Literal values are not expected within the conditions.");
+
+            XtdbQuery second = new XtdbQuery(true);
+            second.addTypeCondition(TypeDefCategory.ENTITY_DEF, "456", null);
+            second.addStatusLimiters(statuses, XtdbQuery.DOC_ID);
+            assertSame(second.getQuery(), template, "Queries of the same shape are expected to share the same template.");
+            assertEquals(second.getArgs()[0], "456", "Expected the arguments to differ.");
+
+            XtdbQuery literal = new XtdbQuery();
+            literal.addTypeCondition(TypeDefCategory.ENTITY_DEF, "123", null);
+            assertFalse(literal.getQuery().containsKey(Keyword.intern("in")), "Non-parameterised query is not expected to define any inputs.");
+            assertEquals(literal.getArgs().length, 0, "Non-parameterised query is not expected to have any arguments.");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
+    @Test
+    void testKeysetMixedTypes() {
+
+        try (IXtdb node = IXtdb.startNode()) {
+
+            Transaction.Builder tx = Transaction.builder();
+            tx.put(doc("e_after", new Date(2000L)));
+            tx.put(doc("e_before", new Date(500L)));
+            tx.put(doc("e_string", "text"));
+            tx.put(doc("e_number", 42L));
+            node.awaitTx(node.submitTx(tx.build()), null);
+
+            for (boolean parameterised : new boolean[]{ false, true }) {
+                XtdbQuery query = new XtdbQuery(parameterised);
+                query.addSequencing(SequencingOrder.CREATION_DATE_OLDEST, null, null, null, null);
+                query.addKeysetConditions(new Date(1000L), "e_last", false);
+                // Only the keyset comparison is being tested: XTDB cannot itself sort values of different types
+                IPersistentMap q = query.getQuery().without(order);
+                Set<Object> found = new HashSet<>();
+                try (IXtdbDatasource db = node.openDB()) {
+                    Collection<List<?>> results = db.query(q, query.getArgs());
+                    for (List<?> result : results) {
+                        found.add(result.get(0));
+                    }
+                }
+                assertTrue(found.contains("e_after"), "Expected a later value of the same type to follow the last result.");
+                assertFalse(found.contains("e_before"), "Expected an earlier value of the same type not to follow the last result.");
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+
+    }
+
+    private static XtdbDocument doc(String id, Object createTime) {
+        return XtdbDocument.builder(id).put(InstanceAuditHeaderMapping.CREATE_TIME, createTime).build();
+    }
+
 }
@@ -0,0 +1,80 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.readops;
+
+import clojure.lang.PersistentVector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Tests the streaming de-duplication and paging of query results.
+ */
+public class ResultPagerTest {
+
+    private static List<List<?>> tuples(String... refs) {
+        List<List<?>> list = new ArrayList<>();
+        for (String ref : refs) {
+            list.add(PersistentVector.create(ref));
+        }
+        return list;
+    }
+
+    @Test
+    void testUnorderedDeduplication() {
+        List<List<?>> results = tuples("a", "b", "a", "c", "b", "d", "e");
+        List<List<?>> page = ResultPager.page(results.iterator(), 0, 10, false);
+        assertEquals(page, tuples("a", "b", "c", "d", "e"));
+        page = ResultPager.page(results.iterator(), 2, 2, false);
+        assertEquals(page, tuples("c", "d"), "Duplicates of skipped results should not be counted again.");
+    }
+
+    @Test
+    void testOrderedDeduplication() {
+        List<List<?>> results = tuples("a", "a", "b", "c", "c", "c", "d");
+        List<List<?>> page = ResultPager.page(results.iterator(), 1, 2, true);
+        assertEquals(page, tuples("b", "c"));
+        assertEquals(ResultPager.page(results.iterator(), 0, 10, true), ResultPager.page(results.iterator(), 0, 10, false));
+    }
+
+    @Test
+    void testStopsOnceFull() {
+        List<List<?>> results = tuples("a", "b", "c", "d");
+        CountingIterator it = new CountingIterator(results.iterator());
+        List<List<?>> page = ResultPager.page(it, 0, 2, false);
+        assertEquals(page.size(), 2);
+        assertEquals(it.pulled, 2, "No further results should be pulled once the page is full.");
+        assertTrue(ResultPager.page(null, 0, 2, false).isEmpty());
+    }
+
+    @Test
+    void testIsOrderedByDocId() {
+        assertTrue(ResultPager.isOrderedByDocId(SequencingOrder.GUID));
+        assertTrue(ResultPager.isOrderedByDocId(SequencingOrder.ANY));
+        assertFalse(ResultPager.isOrderedByDocId(SequencingOrder.LAST_UPDATE_RECENT));
+        assertFalse(ResultPager.isOrderedByDocId(null));
+    }
+
+    private static class CountingIterator implements Iterator<List<?>> {
+        private final Iterator<List<?>> delegate;
+        private int pulled = 0;
+        CountingIterator(Iterator<List<?>> delegate) {
+            this.delegate = delegate;
+        }
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+        @Override
+        public List<?> next() {
+            pulled++;
+            return delegate.next();
+        }
+    }
+
+}
@@ -0,0 +1,148 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector;
+
+import org.testng.annotations.Test;
+import xtdb.api.IXtdb;
+import xtdb.api.IXtdbDatasource;
+import xtdb.api.TransactionInstant;
+import xtdb.api.XtdbDocument;
+import xtdb.api.tx.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the coalescing of concurrent transactions.
+ */
+public class TransactionPipelineTest {
+
+    private static final int WRITERS = 16;
+
+    @Test
+    void testConcurrentCommits() {
+
+        try (IXtdb node = IXtdb.startNode();
+             TransactionPipeline pipeline = new TransactionPipeline(node, 8, 20)) {
+
+            Map<String, TransactionInstant> instants = submitConcurrently(pipeline, null);
+            IXtdbDatasource db = node.db();
+            for (Map.Entry<String, TransactionInstant> entry : instants.entrySet()) {
+                assertTrue(node.hasTxCommitted(entry.getValue()), "Every transaction is expected to be committed.");
+                assertNotNull(db.entity(entry.getKey()), "Every document is expected to be written.");
+            }
+            assertTrue(instants.values().stream().map(TransactionInstant::getId).distinct().count() < WRITERS,
+                    "Concurrent transactions are expected to be coalesced.");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+
+    }
+
+    @Test
+    void testFailureIsolated() {
+
+        try (IXtdb node = IXtdb.startNode();
+             TransactionPipeline pipeline = new TransactionPipeline(node, 8, 20)) {
+
+            node.awaitTx(node.submitTx(Transaction.buildTx(tx -> tx.put(XtdbDocument.build("existing", doc -> {})))), null);
+            Map<String, TransactionInstant> instants = submitConcurrently(pipeline, "doc3");
+            IXtdbDatasource db = node.db();
+            for (Map.Entry<String, TransactionInstant> entry : instants.entrySet()) {
+                if (entry.getKey().equals("doc3")) {
+                    assertFalse(node.hasTxCommitted(entry.getValue()), "The failing transaction is not expected to be committed.");
+                    assertNull(db.entity(entry.getKey()), "The failing transaction's document is not expected to be written.");
+                } else {
+                    assertTrue(node.hasTxCommitted(entry.getValue()), "Every other transaction is expected to be committed.");
+                    assertNotNull(db.entity(entry.getKey()), "Every other document is expected to be written.");
+                }
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+
+    }
+
+    @Test
+    void testConcurrentClose() {
+
+        try (IXtdb node = IXtdb.startNode()) {
+
+            TransactionPipeline pipeline = new TransactionPipeline(node, 8, 0);
+            ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<TransactionInstant>> futures = new ArrayList<>();
+                for (int i = 0; i < WRITERS; i++) {
+                    String docId = "closing" + i;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return pipeline.submit(Transaction.buildTx(tx -> tx.put(XtdbDocument.build(docId, doc -> {}))));
+                    }));
+                }
+                start.countDown();
+                pipeline.close();
+                for (Future<TransactionInstant> future : futures) {
+                    try {
+                        assertTrue(node.hasTxCommitted(future.get(60, TimeUnit.SECONDS)),
+                                "Every transaction accepted while closing is expected to be committed.");
+                    } catch (ExecutionException e) {
+                        assertTrue(e.getCause() instanceof IllegalStateException,
+                                "Every transaction not accepted while closing is expected to be refused.");
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+
+    }
+
+    /**
+     * Submit a transaction writing a new document from each of a number of concurrent writers.
+     * @param pipeline through which to submit the transactions
+     * @param failing ID of the document whose transaction should fail (or null for none to fail)
+     * @return the instant of each transaction, keyed by the ID of the document it writes
+     * @throws Exception on any error
+     */
+    private Map<String, TransactionInstant> submitConcurrently(TransactionPipeline pipeline, String failing) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<TransactionInstant>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                String docId = "doc" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return pipeline.submit(Transaction.buildTx(tx -> {
+                        if (docId.equals(failing)) {
+                            tx.matchNotExists("existing");
+                        }
+                        tx.put(XtdbDocument.build(docId, doc -> doc.put("n", docId)));
+                    }));
+                }));
+            }
+            start.countDown();
+            Map<String, TransactionInstant> instants = new ConcurrentHashMap<>();
+            for (int i = 0; i < WRITERS; i++) {
+                instants.put("doc" + i, futures.get(i).get(60, TimeUnit.SECONDS));
+            }
+            return instants;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
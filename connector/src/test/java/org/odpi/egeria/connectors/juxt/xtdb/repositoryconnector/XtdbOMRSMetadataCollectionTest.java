@@ -2,14 +2,20 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector;
 
+import org.odpi.egeria.connectors.juxt.xtdb.cache.InstanceCache;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.QueryTemplateCache;
 import org.odpi.egeria.connectors.juxt.xtdb.mocks.MockConnection;
+import org.odpi.egeria.connectors.juxt.xtdb.model.search.SearchPage;
 import org.odpi.egeria.connectors.juxt.xtdb.readops.GetEntity;
+import org.odpi.egeria.connectors.juxt.xtdb.readops.GetLinkingEntities;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.HistorySequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.testng.annotations.Test;
 
@@ -585,6 +591,34 @@ public class XtdbOMRSMetadataCollectionTest {
         }
     }
 
+    @Test(groups = { "update" }, dependsOnGroups = { "create" }, dependsOnMethods = { "updateEntityClassification", "updateRelationshipProperties" })
+    void getCachedInstances() {
+        try {
+
+            EntityDetail first = mc.getEntityDetail(username, glossaryGuid);
+            long hits = InstanceCache.getHitCount();
+            first.getProperties().setProperty(displayNameProperty, helper.addStringPropertyToInstance(source, null, displayNameProperty, "modified", this.getClass().getName()).getPropertyValue(displayNameProperty));
+            first.getClassifications().get(0).setVersion(99L);
+            EntityDetail second = mc.getEntityDetail(username, glossaryGuid);
+            assertTrue(InstanceCache.getHitCount() > hits, "Expected the second retrieval to re-use the cached entity.");
+            validatePropertyValue(second.getProperties(), displayNameProperty, glossaryDN);
+            assertEquals(second.getClassifications().get(0).getVersion(), 2L, "Expected changes to a retrieved entity not to affect the cached entity.");
+            assertEquals(second.getVersion(), 2L, "Expected the cached entity to be the latest version.");
+
+            Relationship relationship = mc.getRelationship(username, termCategorizationGuid);
+            hits = InstanceCache.getHitCount();
+            relationship.getEntityOneProxy().setVersion(99L);
+            Relationship again = mc.getRelationship(username, termCategorizationGuid);
+            assertTrue(InstanceCache.getHitCount() > hits, "Expected the second retrieval to re-use the cached relationship.");
+            assertNotEquals(again.getEntityOneProxy().getVersion(), 99L, "Expected changes to a retrieved relationship not to affect the cached relationship.");
+            validatePropertyValue(again.getProperties(), descriptionProperty, "omrs-mc-term-categorization-revised");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
     @Test(groups = { "update" }, dependsOnGroups = { "create" })
     void reTypeRelationship() {
         // TODO: no relationships exist today with any super- or sub-types
@@ -919,6 +953,192 @@ public class XtdbOMRSMetadataCollectionTest {
         }
     }
 
+    @Test(groups = { "search" }, dependsOnGroups = { "read" })
+    void findEntitiesPage() {
+        try {
+
+            List<EntityDetail> all = mc.findEntities(username,
+                    referenceableGuid,
+                    null,
+                    null,
+                    0,
+                    null,
+                    null,
+                    null,
+                    null,
+                    SequencingOrder.GUID,
+                    100);
+            assertTrue(all != null && all.size() > 2, "Expected more than a single page of results.");
+            Set<String> expected = new HashSet<>();
+            for (EntityDetail entity : all) {
+                expected.add(entity.getGUID());
+            }
+
+            SequencingOrder[] orders = { SequencingOrder.GUID, SequencingOrder.CREATION_DATE_RECENT, SequencingOrder.LAST_UPDATE_OLDEST, SequencingOrder.PROPERTY_ASCENDING, null };
+            for (SequencingOrder order : orders) {
+                List<String> paged = new ArrayList<>();
+                String token = null;
+                int pages = 0;
+                do {
+                    SearchPage<EntityDetail> page = mc.findEntitiesPage(username,
+                            referenceableGuid,
+                            null,
+                            null,
+                            token,
+                            null,
+                            null,
+                            null,
+                            qualifiedNameProperty,
+                            order,
+                            2);
+                    assertNotNull(page.getResults());
+                    assertTrue(page.getResults().size() <= 2, "Expected no more than a single page of results.");
+                    assertFalse(page.getResults().isEmpty(), "Expected a continuation token only when further results remain.");
+                    for (EntityDetail entity : page.getResults()) {
+                        paged.add(entity.getGUID());
+                    }
+                    token = page.getContinuationToken();
+                    pages++;
+                } while (token != null && pages <= all.size());
+                assertEquals(paged.size(), expected.size(), "Expected every result precisely once when keyset paging by " + order + ".");
+                assertEquals(new HashSet<>(paged), expected, "Expected the same results when keyset paging by " + order + ".");
+                if (order == SequencingOrder.GUID) {
+                    List<String> inOrder = new ArrayList<>();
+                    for (EntityDetail entity : all) {
+                        inOrder.add(entity.getGUID());
+                    }
+                    assertEquals(paged, inOrder, "Expected the same order of results when keyset paging by GUID.");
+                }
+            }
+
+            String firstPage = mc.findEntitiesPage(username,
+                    referenceableGuid,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    SequencingOrder.GUID,
+                    2).getContinuationToken();
+            assertNotNull(firstPage, "Expected a continuation token when further results remain.");
+            assertThrows(PagingErrorException.class, () -> mc.findEntitiesPage(username,
+                    glossaryTypeGuid,
+                    null,
+                    null,
+                    firstPage,
+                    null,
+                    null,
+                    null,
+                    null,
+                    SequencingOrder.GUID,
+                    2));
+
+            assertThrows(PagingErrorException.class, () -> mc.findEntitiesPage(username,
+                    referenceableGuid,
+                    null,
+                    null,
+                    "not-a-token",
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    2));
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
+    @Test(groups = { "search" }, dependsOnGroups = { "read" })
+    void findEntitiesParameterised() {
+        try {
+
+            // Searches of the same shape should share a single query template, irrespective of the values searched
+            List<EntityDetail> results = mc.findEntitiesByProperty(username,
+                    glossaryTypeGuid,
+                    helper.addStringPropertyToInstance(source, null, qualifiedNameProperty, helper.getExactMatchRegex(glossaryQN), this.getClass().getName()),
+                    MatchCriteria.ALL,
+                    0,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    100);
+            assertTrue(results != null && !results.isEmpty(), "Expected non-empty search results.");
+            assertEquals(results.get(0).getGUID(), glossaryGuid, "Expected the search result to be the Glossary.");
+            long hits = QueryTemplateCache.getHitCount();
+            results = mc.findEntitiesByProperty(username,
+                    glossaryTypeGuid,
+                    helper.addStringPropertyToInstance(source, null, qualifiedNameProperty, helper.getExactMatchRegex("not-" + glossaryQN), this.getClass().getName()),
+                    MatchCriteria.ALL,
+                    0,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    100);
+            assertTrue(results == null || results.isEmpty(), "Expected no search results.");
+            assertTrue(QueryTemplateCache.getHitCount() > hits, "Expected the second search to re-use the cached query template.");
+
+            // Values within nested conditions (an IN within an ANY) and sets of statuses should also be matched
+            List<String> values = new ArrayList<>();
+            values.add(glossaryQN);
+            values.add(categoryQN);
+            ArrayPropertyValue apv = new ArrayPropertyValue();
+            apv.setArrayCount(values.size());
+            for (int i = 0; i < values.size(); i++) {
+                apv.setArrayValue(i, helper.addStringPropertyToInstance(source, null, qualifiedNameProperty, values.get(i), this.getClass().getName()).getPropertyValue(qualifiedNameProperty));
+            }
+            PropertyCondition in = new PropertyCondition();
+            in.setProperty(qualifiedNameProperty);
+            in.setOperator(PropertyComparisonOperator.IN);
+            in.setValue(apv);
+            PropertyCondition like = new PropertyCondition();
+            like.setProperty(qualifiedNameProperty);
+            like.setOperator(PropertyComparisonOperator.LIKE);
+            like.setValue(helper.addStringPropertyToInstance(source, null, qualifiedNameProperty, "omrs-mc-t.*m", this.getClass().getName()).getPropertyValue(qualifiedNameProperty));
+            List<PropertyCondition> conditions = new ArrayList<>();
+            conditions.add(in);
+            conditions.add(like);
+            SearchProperties matchProperties = new SearchProperties();
+            matchProperties.setMatchCriteria(MatchCriteria.ANY);
+            matchProperties.setConditions(conditions);
+            List<InstanceStatus> limitByStatus = new ArrayList<>();
+            limitByStatus.add(InstanceStatus.ACTIVE);
+            limitByStatus.add(InstanceStatus.APPROVED);
+
+            results = mc.findEntities(username,
+                    referenceableGuid,
+                    null,
+                    matchProperties,
+                    0,
+                    limitByStatus,
+                    null,
+                    null,
+                    null,
+                    null,
+                    100);
+            assertNotNull(results, "Expected non-empty search results.");
+            Set<String> found = new HashSet<>();
+            for (EntityDetail result : results) {
+                found.add(result.getGUID());
+            }
+            assertTrue(found.contains(glossaryGuid), "Expected the Glossary to be matched by the IN condition.");
+            assertTrue(found.contains(categoryGuid), "Expected the GlossaryCategory to be matched by the IN condition.");
+            assertTrue(found.contains(ctrlTermGuid), "Expected the ControlledGlossaryTerm to be matched by the regular expression.");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
     @Test(groups = { "search" }, dependsOnGroups = { "read" })
     void findEntitiesByProperty() {
         try {
@@ -1242,6 +1462,26 @@ public class XtdbOMRSMetadataCollectionTest {
             assertNotNull(relationships, "Expected non-empty list of relationships.");
             assertEquals(relationships.size(), 3, "Expected the list of linking relationships to be precisely 3.");
 
+            // Limited to a single relationship, only the TermAnchor links the glossary and term
+            results = new GetLinkingEntities(connector, glossaryGuid, ctrlTermGuid, null, null, 1, 0).execute();
+            assertNotNull(results, "Expected non-empty results when limited by depth.");
+            assertEquals(results.getEntities().size(), 2, "Expected the list of linking entities to be precisely 2 when limited by depth.");
+            assertEquals(results.getRelationships().size(), 1, "Expected the list of linking relationships to be precisely 1 when limited by depth.");
+            assertEquals(results.getRelationships().get(0).getGUID(), termAnchorGuid, "Expected the linking relationship to be the TermAnchor when limited by depth.");
+
+            // The category has more than a single relationship, so no path should be found through it
+            results = new GetLinkingEntities(connector, glossaryGuid, ctrlTermGuid, null, null, 40, 1).execute();
+            assertNotNull(results, "Expected non-empty results when limited by fan-out.");
+            assertEquals(results.getEntities().size(), 2, "Expected the list of linking entities to be precisely 2 when limited by fan-out.");
+            assertEquals(results.getRelationships().size(), 1, "Expected the list of linking relationships to be precisely 1 when limited by fan-out.");
+            assertEquals(results.getRelationships().get(0).getGUID(), termAnchorGuid, "Expected the linking relationship to be the TermAnchor when limited by fan-out.");
+
+            // ... while with a higher limit the category can still be traversed
+            results = new GetLinkingEntities(connector, glossaryGuid, ctrlTermGuid, null, null, 2, 10).execute();
+            assertNotNull(results, "Expected non-empty results when limited by depth and fan-out.");
+            assertEquals(results.getEntities().size(), 3, "Expected the list of linking entities to be precisely 3 when limited by depth and fan-out.");
+            assertEquals(results.getRelationships().size(), 3, "Expected the list of linking relationships to be precisely 3 when limited by depth and fan-out.");
+
             results = mc.getLinkingEntities(username,
                     glossaryGuid,
                     glossaryGuid,
@@ -1325,6 +1565,34 @@ public class XtdbOMRSMetadataCollectionTest {
             assertNotNull(results, "Expected non-empty results.");
             assertEquals(results.size(), 6, "Expected the list of related entities to be precisely 6.");
 
+            List<EntityDetail> all = results;
+            results = mc.getRelatedEntities(username,
+                    glossaryGuid,
+                    null,
+                    4,
+                    null,
+                    null,
+                    null,
+                    null,
+                    null,
+                    2);
+            assertNotNull(results, "Expected non-empty results for the last page.");
+            assertEquals(results, all.subList(4, 6), "Expected the last page to hold the last 2 related entities.");
+
+            results = mc.getRelatedEntities(username,
+                    glossaryGuid,
+                    null,
+                    1,
+                    null,
+                    null,
+                    null,
+                    null,
+                    SequencingOrder.GUID,
+                    3);
+            List<EntityDetail> sorted = new ArrayList<>(all);
+            sorted.sort(Comparator.comparing(EntityDetail::getGUID));
+            assertEquals(results, sorted.subList(1, 4), "Expected a sorted page to be drawn from all related entities.");
+
             List<String> classifications = new ArrayList<>();
             classifications.add("SubjectArea");
 
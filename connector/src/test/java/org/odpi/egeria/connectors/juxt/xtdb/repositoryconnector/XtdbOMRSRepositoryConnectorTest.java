@@ -5,6 +5,7 @@ package org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector;
 import org.odpi.egeria.connectors.juxt.xtdb.readops.*;
 import org.odpi.egeria.connectors.juxt.xtdb.txnfn.*;
 import org.odpi.openmetadata.frameworks.auditlog.ComponentDevelopmentStatus;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.EntityConflictException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.HomeEntityException;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
 import org.odpi.egeria.connectors.juxt.xtdb.mocks.MockConnection;
@@ -232,6 +233,70 @@ public class XtdbOMRSRepositoryConnectorTest {
         }
     }
 
+    @Test
+    void testClassificationUpdateRead() {
+        try {
+
+            OMRSRepositoryHelper helper = connector.getRepositoryHelper();
+            EntityDetail original = helper.getSkeletonEntity(MockConnection.SOURCE_NAME,
+                    MockConnection.METADATA_COLLECTION_ID,
+                    MockConnection.METADATA_COLLECTION_NAME,
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    MockConnection.USERNAME,
+                    "GlossaryTerm");
+            original.setProperties(helper.addStringPropertyToInstance(MockConnection.SOURCE_NAME,
+                    null,
+                    "qualifiedName",
+                    "some-reclassified-term",
+                    this.getClass().getName()));
+            Classification classification = helper.getNewClassification(MockConnection.SOURCE_NAME,
+                    MockConnection.METADATA_COLLECTION_ID,
+                    MockConnection.METADATA_COLLECTION_NAME,
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    MockConnection.USERNAME,
+                    "Confidentiality",
+                    "GlossaryTerm",
+                    ClassificationOrigin.ASSIGNED,
+                    null,
+                    helper.addIntPropertyToInstance(MockConnection.SOURCE_NAME, null, "level", 3, this.getClass().getName()));
+            original.setClassifications(List.of(classification));
+            AddEntity.transact(connector, original);
+
+            // Read the entity once, so that it is cached, before updating only its classification
+            EntityDetail retrieved = new GetEntity(connector, original.getGUID(), null).asDetail();
+            assertEquals(getLevel(retrieved), 3, "Expected the classification's original level to be retrieved.");
+            UpdateEntityDetailClassification.transact(connector,
+                    MockConnection.USERNAME,
+                    original.getGUID(),
+                    "Confidentiality",
+                    helper.addIntPropertyToInstance(MockConnection.SOURCE_NAME, null, "level", 5, this.getClass().getName()));
+
+            retrieved = new GetEntity(connector, original.getGUID(), null).asDetail();
+            assertEquals(retrieved.getVersion(), original.getVersion(), "Expected only the classification to be updated.");
+            assertEquals(getLevel(retrieved), 5, "Expected the classification's updated level to be retrieved, not a cached copy.");
+
+            PurgeEntity.transactWithoutValidation(connector, original.getGUID());
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
+    /**
+     * Retrieve the level of the Confidentiality classification of the provided entity.
+     * @param entity from which to retrieve the level
+     * @return Object the level
+     */
+    private static Object getLevel(EntityDetail entity) {
+        for (Classification classification : entity.getClassifications()) {
+            if (classification.getName().equals("Confidentiality")) {
+                return ((PrimitivePropertyValue) classification.getProperties().getPropertyValue("level")).getPrimitiveValue();
+            }
+        }
+        return null;
+    }
+
     @Test
     void testRelationshipLifecycle() {
         try {
@@ -648,6 +713,66 @@ public class XtdbOMRSRepositoryConnectorTest {
         }
     }
 
+    @Test
+    void testLinkingCycle() {
+        try {
+
+            OMRSRepositoryHelper helper = connector.getRepositoryHelper();
+
+            // start - a - end, where a is also on a cycle a - b - c - a that no path from start to end can include
+            Map<String, EntityDetail> terms = new HashMap<>();
+            for (String name : List.of("start", "a", "b", "c", "end")) {
+                EntityDetail term = helper.getSkeletonEntity(MockConnection.SOURCE_NAME,
+                        MockConnection.METADATA_COLLECTION_ID,
+                        MockConnection.METADATA_COLLECTION_NAME,
+                        InstanceProvenanceType.LOCAL_COHORT,
+                        MockConnection.USERNAME,
+                        "GlossaryTerm");
+                term.setProperties(helper.addStringPropertyToInstance(MockConnection.SOURCE_NAME,
+                        null,
+                        "qualifiedName",
+                        "linking-term-" + name,
+                        this.getClass().getName()));
+                terms.put(name, AddEntity.transact(connector, term));
+            }
+            List<String> relationshipGUIDs = new ArrayList<>();
+            for (List<String> ends : List.of(List.of("start", "a"), List.of("a", "end"), List.of("a", "b"), List.of("b", "c"), List.of("c", "a"))) {
+                Relationship relationship = helper.getSkeletonRelationship(MockConnection.SOURCE_NAME,
+                        MockConnection.METADATA_COLLECTION_ID,
+                        MockConnection.METADATA_COLLECTION_NAME,
+                        InstanceProvenanceType.LOCAL_COHORT,
+                        MockConnection.USERNAME,
+                        "RelatedTerm");
+                relationship.setEntityOneProxy(helper.getNewEntityProxy(MockConnection.SOURCE_NAME, terms.get(ends.get(0))));
+                relationship.setEntityTwoProxy(helper.getNewEntityProxy(MockConnection.SOURCE_NAME, terms.get(ends.get(1))));
+                relationshipGUIDs.add(AddRelationship.transact(connector, relationship, relationship.getEntityOneProxy().getGUID(), relationship.getEntityTwoProxy().getGUID()).getGUID());
+            }
+
+            // The cycle is within reach of both ends, but only as part of a walk that passes through a more than once
+            InstanceGraph graph = new GetLinkingEntities(connector,
+                    terms.get("start").getGUID(),
+                    terms.get("end").getGUID(),
+                    null,
+                    null,
+                    10,
+                    0).execute();
+            assertNotNull(graph, "Expected some graph query results.");
+            assertEquals(graph.getRelationships().size(), 2, "Expected precisely two relationship results.");
+            assertEquals(graph.getEntities().size(), 3, "Expected precisely three entity results.");
+
+            for (String guid : relationshipGUIDs) {
+                PurgeRelationship.transactWithoutValidation(connector, guid);
+            }
+            for (EntityDetail term : terms.values()) {
+                PurgeEntity.transactWithoutValidation(connector, term.getGUID());
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
     @Test
     void testReferenceCopies() {
         try {
@@ -739,4 +864,200 @@ public class XtdbOMRSRepositoryConnectorTest {
         }
     }
 
+    @Test
+    void testBulkReferenceCopies() {
+        try {
+
+            String externalMetadataCollectionId = "998";
+            String externalMetadataCollectionName = "Another imaginary external metadata collection";
+
+            OMRSRepositoryHelper helper = connector.getRepositoryHelper();
+            XtdbOMRSMetadataCollection mc = (XtdbOMRSMetadataCollection) connector.getMetadataCollection();
+
+            List<EntityDetail> entities = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                EntityDetail entityRC = helper.getSkeletonEntity(MockConnection.SOURCE_NAME,
+                        externalMetadataCollectionId,
+                        externalMetadataCollectionName,
+                        InstanceProvenanceType.LOCAL_COHORT,
+                        MockConnection.USERNAME,
+                        "GlossaryTerm");
+                InstanceProperties ip = helper.addStringPropertyToInstance(MockConnection.SOURCE_NAME,
+                        null,
+                        "qualifiedName",
+                        "bulk-term-" + i,
+                        this.getClass().getName());
+                entityRC.setProperties(ip);
+                entities.add(entityRC);
+            }
+
+            EntityDetail entityHomed = new EntityDetail(entities.get(2));
+            entityHomed.setGUID(UUID.randomUUID().toString());
+            entityHomed.setMetadataCollectionId(MockConnection.METADATA_COLLECTION_ID);
+            entityHomed.setMetadataCollectionName(MockConnection.METADATA_COLLECTION_NAME);
+
+            // The same entity, but from a different metadata collection, should conflict with what is saved above it
+            EntityDetail entityConflict = new EntityDetail(entities.get(0));
+            entityConflict.setMetadataCollectionId("997");
+            entityConflict.setMetadataCollectionName("Yet another imaginary external metadata collection");
+
+            Relationship relationshipRC = helper.getSkeletonRelationship(MockConnection.SOURCE_NAME,
+                    externalMetadataCollectionId,
+                    externalMetadataCollectionName,
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    MockConnection.USERNAME,
+                    "RelatedTerm");
+            relationshipRC.setEntityOneProxy(helper.getNewEntityProxy(MockConnection.SOURCE_NAME, entities.get(0)));
+            relationshipRC.setEntityTwoProxy(helper.getNewEntityProxy(MockConnection.SOURCE_NAME, entities.get(1)));
+
+            InstanceGraph instances = new InstanceGraph();
+            instances.setEntities(List.of(entities.get(0), entityHomed, entities.get(1), entities.get(2), entityConflict));
+            instances.setRelationships(List.of(relationshipRC));
+            try {
+                mc.saveInstanceReferenceCopies(MockConnection.USERNAME, instances);
+                fail("Expected the conflicting entity to be reported.");
+            } catch (EntityConflictException e) {
+                // Expected: the conflicting entity is reported only once everything else has been saved
+            }
+
+            for (EntityDetail entityRC : entities) {
+                EntityDetail retrieved = new GetEntity(connector, entityRC.getGUID(), null).asDetail();
+                assertEquals(retrieved, entityRC, "Expected retrieved reference copy to be identical to saved reference copy.");
+            }
+            assertNull(new GetEntity(connector, entityHomed.getGUID(), null).asDetail(), "Expected the homed entity to be skipped.");
+            Relationship retrieved = new GetRelationship(connector, relationshipRC.getGUID(), null).execute();
+            assertEquals(retrieved, relationshipRC, "Expected retrieved reference copy to be identical to saved reference copy.");
+
+            // Re-delivering exactly the same reference copies should not write them again
+            List<SaveReferenceCopies.Outcome> results = mc.saveReferenceCopies(MockConnection.USERNAME, entities, List.of(relationshipRC));
+            assertEquals(results.size(), 4, "Expected an outcome for every reference copy.");
+            for (SaveReferenceCopies.Outcome outcome : results) {
+                assertTrue(outcome.isSaved(), "Expected every reference copy to count as saved.");
+                assertTrue(outcome.isUnchanged(), "Expected every reference copy to be skipped as unchanged.");
+            }
+            SaveEntityReferenceCopy.transact(connector, entities.get(0));
+            List<EntityDetail> history = new GetEntityHistory(connector, entities.get(0).getGUID(), null, null, 0, 100, HistorySequencingOrder.BACKWARDS).execute();
+            assertEquals(history.size(), 1, "Expected unchanged reference copies not to add to the history.");
+
+            // ... while a new version should still be written
+            EntityDetail updatedRC = new EntityDetail(entities.get(0));
+            updatedRC.setVersion(entities.get(0).getVersion() + 1);
+            updatedRC.setUpdateTime(new Date());
+            SaveEntityReferenceCopy.transact(connector, updatedRC);
+            history = new GetEntityHistory(connector, updatedRC.getGUID(), null, null, 0, 100, HistorySequencingOrder.BACKWARDS).execute();
+            assertEquals(history.size(), 2, "Expected a changed reference copy to add to the history.");
+
+            // Remove the reference copies again, so as not to change the results of any other tests' searches
+            PurgeRelationship.transactWithoutValidation(connector, relationshipRC.getGUID());
+            for (EntityDetail entityRC : entities) {
+                PurgeEntity.transactWithoutValidation(connector, entityRC.getGUID());
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
+    @Test
+    void testBulkReferenceCopyOrdering() {
+        try {
+
+            OMRSRepositoryHelper helper = connector.getRepositoryHelper();
+
+            EntityDetail v1 = helper.getSkeletonEntity(MockConnection.SOURCE_NAME,
+                    "997",
+                    "Yet another imaginary external metadata collection",
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    MockConnection.USERNAME,
+                    "GlossaryTerm");
+            v1.setProperties(helper.addStringPropertyToInstance(MockConnection.SOURCE_NAME,
+                    null,
+                    "qualifiedName",
+                    "bulk-ordered-term",
+                    this.getClass().getName()));
+            long created = System.currentTimeMillis() - 60000;
+            v1.setCreateTime(new Date(created));
+            // (Both versions are valid from the same time, so the later a version is written the more it replaces)
+            EntityDetail v2 = new EntityDetail(v1);
+            v2.setVersion(v1.getVersion() + 1);
+            v2.setProperties(helper.addStringPropertyToInstance(MockConnection.SOURCE_NAME,
+                    v1.getProperties(),
+                    "displayName",
+                    "Bulk ordered term",
+                    this.getClass().getName()));
+            EntityDetail entityHomed = new EntityDetail(v1);
+            entityHomed.setGUID(UUID.randomUUID().toString());
+            entityHomed.setMetadataCollectionId(MockConnection.METADATA_COLLECTION_ID);
+            entityHomed.setMetadataCollectionName(MockConnection.METADATA_COLLECTION_NAME);
+
+            // The first chunk aborts (because of the homed entity), and is only split apart once the second chunk,
+            // with a newer version of the same entity, has already been committed
+            List<SaveReferenceCopies.Outcome> outcomes = new ArrayList<>();
+            outcomes.add(new SaveReferenceCopies.Outcome(v1));
+            outcomes.add(new SaveReferenceCopies.Outcome(entityHomed));
+            outcomes.add(new SaveReferenceCopies.Outcome(v2));
+            List<SaveReferenceCopies.Outcome> results = SaveReferenceCopies.transact(connector, outcomes, 2, 2);
+            assertTrue(results.get(1).getError() instanceof HomeEntityException, "Expected the homed entity to report its own error.");
+            assertTrue(results.get(0).isSaved(), "Expected the older version to count as saved, as it has been superseded.");
+            assertTrue(results.get(2).isSaved(), "Expected the newer version to be saved.");
+            EntityDetail retrieved = new GetEntity(connector, v1.getGUID(), null).asDetail();
+            assertEquals(retrieved, v2, "Expected the newer version not to be replaced by the older version.");
+            assertNull(new GetEntity(connector, entityHomed.getGUID(), null).asDetail(), "Expected the homed entity not to be saved.");
+
+            PurgeEntity.transactWithoutValidation(connector, v1.getGUID());
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
+    @Test
+    void testBulkReferenceCopyVersions() {
+        try {
+
+            OMRSRepositoryHelper helper = connector.getRepositoryHelper();
+            XtdbOMRSMetadataCollection mc = (XtdbOMRSMetadataCollection) connector.getMetadataCollection();
+
+            EntityDetail v1 = helper.getSkeletonEntity(MockConnection.SOURCE_NAME,
+                    "997",
+                    "Yet another imaginary external metadata collection",
+                    InstanceProvenanceType.LOCAL_COHORT,
+                    MockConnection.USERNAME,
+                    "GlossaryTerm");
+            v1.setProperties(helper.addStringPropertyToInstance(MockConnection.SOURCE_NAME,
+                    null,
+                    "qualifiedName",
+                    "bulk-versioned-term",
+                    this.getClass().getName()));
+            long created = System.currentTimeMillis() - 60000;
+            v1.setCreateTime(new Date(created));
+            SaveEntityReferenceCopy.transact(connector, v1);
+            EntityDetail v2 = new EntityDetail(v1);
+            v2.setVersion(v1.getVersion() + 1);
+            v2.setUpdateTime(new Date(created + 1000));
+            EntityDetail v3 = new EntityDetail(v2);
+            v3.setVersion(v2.getVersion() + 1);
+            v3.setUpdateTime(new Date(created + 2000));
+
+            // Every version delivered together should be compared to what is stored, rather than to each other
+            List<SaveReferenceCopies.Outcome> results = mc.saveReferenceCopies(MockConnection.USERNAME, List.of(v1, v2, v3), null);
+            assertEquals(results.size(), 3, "Expected an outcome for every version.");
+            assertTrue(results.get(0).isUnchanged(), "Expected the stored version to be skipped as unchanged.");
+            assertTrue(results.get(1).isSaved() && !results.get(1).isUnchanged(), "Expected the intermediate version to be written.");
+            assertTrue(results.get(2).isSaved() && !results.get(2).isUnchanged(), "Expected the latest version to be written.");
+            List<EntityDetail> history = new GetEntityHistory(connector, v1.getGUID(), null, null, 0, 100, HistorySequencingOrder.BACKWARDS).execute();
+            assertEquals(history.size(), 3, "Expected every version to be in the history.");
+            assertEquals(history.get(0).getVersion(), v3.getVersion(), "Expected the latest version to be stored.");
+            assertEquals(history.get(1).getVersion(), v2.getVersion(), "Expected the intermediate version to be kept in the history.");
+
+            PurgeEntity.transactWithoutValidation(connector, v1.getGUID());
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
 }
@@ -0,0 +1,56 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.txnfn;
+
+import org.testng.annotations.Test;
+import xtdb.api.IXtdb;
+import xtdb.api.tx.Transaction;
+import xtdb.api.tx.TransactionOperation;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test that only new or changed transaction functions are submitted.
+ */
+public class TransactionFunctionRegistryTest {
+
+    @Test
+    void testOnlyChangedSubmitted() {
+
+        try (IXtdb node = IXtdb.startNode()) {
+
+            Transaction.Builder tx = Transaction.builder();
+            AddEntity.create(tx);
+            UpdateEntityStatus.create(tx);
+            Transaction all = tx.build();
+
+            Transaction changed = TransactionFunctionRegistry.getChanged(node, all);
+            assertNotNull(changed, "Expected new functions to need submitting.");
+            assertEquals(count(changed), 2, "Expected every new function to need submitting.");
+            node.awaitTx(node.submitTx(changed), null);
+
+            assertNull(TransactionFunctionRegistry.getChanged(node, all), "Expected unchanged functions not to need submitting.");
+
+            Transaction.Builder modified = Transaction.builder();
+            AddEntity.create(modified);
+            AbstractTransactionFunction.createTransactionFunction(modified, UpdateEntityStatus.FUNCTION_NAME, "(fn [ctx eid] [])");
+            changed = TransactionFunctionRegistry.getChanged(node, modified.build());
+            assertNotNull(changed, "Expected a changed function to need submitting.");
+            assertEquals(count(changed), 1, "Expected only the changed function to need submitting.");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+
+    }
+
+    private static int count(Transaction tx) {
+        int count = 0;
+        for (TransactionOperation ignored : tx.getOperations()) {
+            count++;
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,438 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.migration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.egeria.connectors.juxt.xtdb.cache.TypeDefCache;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
+import org.odpi.egeria.connectors.juxt.xtdb.model.PersistenceLayer;
+import org.odpi.egeria.connectors.juxt.xtdb.repositoryconnector.XtdbOMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xtdb.api.IXtdb;
+import xtdb.api.IXtdbDatasource;
+import xtdb.api.TransactionInstant;
+import xtdb.api.XtdbDocument;
+import xtdb.api.tx.Transaction;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Loads the contents of open metadata archives directly into an (offline) XTDB node, for example to seed a new
+ * environment or rebuild a replica. Rather than saving each instance through its own transaction (and transaction
+ * function), every instance is mapped straight to its XTDB document and written through large batches of 'put'
+ * operations, as of the instance's own valid time. All the archives are instead validated once, up-front: if any
+ * instance is invalid nothing at all is written.
+ *
+ * The type definitions (and patches to their properties) of every archive are registered first, so an archive of
+ * instances can be loaded along with the archive(s) that define its types. Takes as arguments: the path to the node's
+ * JSON configuration file, a comma-separated list of the paths to the archive files, and then optionally the batch
+ * size, the embedded encoding and the maximum number of batches in flight at once.
+ */
+public class ArchiveLoader {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveLoader.class);
+
+    private final IXtdb xtdbAPI;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    // Only used for the mapping of instances into documents: never started
+    private final XtdbOMRSRepositoryConnector mapper = new XtdbOMRSRepositoryConnector();
+
+    private Transaction.Builder tx = Transaction.builder();
+    private int txSize = 0;
+    private final Deque<TransactionInstant> inFlight = new ArrayDeque<>();
+    private long written = 0;
+
+    /**
+     * Default constructor.
+     * @param xtdbAPI the XTDB back-end into which to load
+     * @param batchSize number of documents to write per transaction
+     * @param maxInFlight maximum number of transactions to submit before waiting for the earliest of them
+     */
+    public ArchiveLoader(IXtdb xtdbAPI, int batchSize, int maxInFlight) {
+        this.xtdbAPI = xtdbAPI;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxInFlight = Math.max(maxInFlight, 1);
+    }
+
+    public static void main(String[] args) {
+        int status = run(args);
+        log.info("Work complete -- exiting.");
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Load the archives given by the provided arguments (as for {@link #main(String[])}) into the node they configure.
+     * @param args the path to the node's JSON configuration file, a comma-separated list of the paths to the archive
+     *             files, and then optionally the batch size, embedded encoding and maximum number of batches in flight
+     * @return int status: 0 if everything was loaded, or 1 if nothing was loaded
+     */
+    public static int run(String[] args) {
+
+        if (args.length < 2) {
+            log.error("The path to a JSON configuration file for the node and a comma-separated list of archive files must be provided.");
+            return 1;
+        }
+
+        File config = new File(args[0]);
+
+        int batchSize = DEFAULT_BATCH_SIZE;
+        if (args.length >= 3) {
+            try {
+                batchSize = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                log.warn("Unable to parse batch size '{}' as an integer -- falling back to default batch size.", args[2]);
+            }
+        }
+
+        // This should match the embeddedEncoding configured for the connector
+        EmbeddedEncoding encoding = EmbeddedEncoding.JSON;
+        if (args.length >= 4) {
+            encoding = EmbeddedEncoding.fromName(args[3]);
+            if (encoding == null) {
+                log.error("Unknown embedded encoding '{}' -- must be one of: json, smile, cbor.", args[3]);
+                return 1;
+            }
+        }
+        AbstractMapping.configureEmbeddedEncoding(encoding);
+
+        int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        if (args.length >= 5) {
+            try {
+                maxInFlight = Integer.parseInt(args[4]);
+            } catch (NumberFormatException e) {
+                log.warn("Unable to parse maximum batches in flight '{}' as an integer -- falling back to default maximum.", args[4]);
+            }
+        }
+
+        log.info("Starting a XTDB node using configuration: {}", args[0]);
+        try (IXtdb xtdbAPI = IXtdb.startNode(config)) {
+            return run(xtdbAPI, args[1].split(","), batchSize, maxInFlight);
+        } catch (Exception e) {
+            log.error("Fatal error!", e);
+            return 1;
+        }
+
+    }
+
+    /**
+     * Load the provided archives into the provided node, so long as it is at the latest version of the persistence
+     * layer (or empty) and every instance in the archives is valid.
+     * @param xtdbAPI the XTDB back-end into which to load
+     * @param archiveFiles paths to the archive files to load
+     * @param batchSize number of documents to write per transaction
+     * @param maxInFlight maximum number of transactions to submit before waiting for the earliest of them
+     * @return int status: 0 if everything was loaded, or 1 if nothing was loaded
+     * @throws IOException on any error reading the archives or the existing contents of the node
+     * @throws InvalidParameterException if any type definition in the archives is invalid
+     */
+    public static int run(IXtdb xtdbAPI, String[] archiveFiles, int batchSize, int maxInFlight) throws IOException, InvalidParameterException {
+
+        long persistenceVersion = PersistenceLayer.getVersion(xtdbAPI);
+        if (persistenceVersion != -1 && persistenceVersion != PersistenceLayer.LATEST_VERSION) {
+            log.error("The node is at version {} of the persistence layer, while latest is {} -- it must be migrated before loading.",
+                    persistenceVersion, PersistenceLayer.LATEST_VERSION);
+            return 1;
+        }
+
+        List<OpenMetadataArchive> archives = new ArrayList<>();
+        for (String archive : archiveFiles) {
+            log.info("... reading archive: {}", archive);
+            archives.add(read(new File(archive.trim())));
+        }
+        ArchiveLoader loader = new ArchiveLoader(xtdbAPI, batchSize, maxInFlight);
+        loader.registerTypes(archives);
+        List<String> errors = loader.validate(archives);
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                log.error("Invalid instance: {}", error);
+            }
+            log.error("{} invalid instances found -- nothing has been loaded.", errors.size());
+            return 1;
+        }
+        long count = loader.load(archives);
+        if (persistenceVersion == -1) {
+            PersistenceLayer.setVersion(xtdbAPI, PersistenceLayer.LATEST_VERSION);
+        }
+        log.info("... loaded {} documents.", count);
+        return 0;
+
+    }
+
+    /**
+     * Read an open metadata archive from the provided file.
+     * @param file containing the archive (as JSON)
+     * @return OpenMetadataArchive
+     * @throws IOException on any error reading the archive
+     */
+    public static OpenMetadataArchive read(File file) throws IOException {
+        return new ObjectMapper().readValue(file, OpenMetadataArchive.class);
+    }
+
+    /**
+     * Register every type definition from the provided archives, so that their instances can be mapped. Only the
+     * properties added by any type definition patches are applied, as nothing else in a patch affects the mapping.
+     * @param archives whose type definitions to register
+     * @throws InvalidParameterException if any type definition is invalid
+     */
+    public void registerTypes(List<OpenMetadataArchive> archives) throws InvalidParameterException {
+        for (OpenMetadataArchive archive : archives) {
+            OpenMetadataArchiveTypeStore types = archive.getArchiveTypeStore();
+            if (types != null) {
+                if (types.getAttributeTypeDefs() != null) {
+                    for (AttributeTypeDef attributeTypeDef : types.getAttributeTypeDefs()) {
+                        TypeDefCache.addAttributeTypeDef(attributeTypeDef);
+                    }
+                }
+                if (types.getNewTypeDefs() != null) {
+                    for (TypeDef typeDef : types.getNewTypeDefs()) {
+                        TypeDefCache.addTypeDef(typeDef);
+                    }
+                }
+                if (types.getTypeDefPatches() != null) {
+                    for (TypeDefPatch patch : types.getTypeDefPatches()) {
+                        TypeDef typeDef = TypeDefCache.getTypeDef(patch.getTypeDefGUID());
+                        if (typeDef != null && patch.getPropertyDefinitions() != null) {
+                            List<TypeDefAttribute> properties = new ArrayList<>();
+                            if (typeDef.getPropertiesDefinition() != null) {
+                                properties.addAll(typeDef.getPropertiesDefinition());
+                            }
+                            properties.addAll(patch.getPropertyDefinitions());
+                            typeDef.setPropertiesDefinition(properties);
+                            TypeDefCache.addTypeDef(typeDef);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Validate every instance in the provided archives (once their types have been registered).
+     * @param archives whose instances to validate
+     * @return {@code List<String>} describing every invalid instance (empty if all instances are valid)
+     */
+    public List<String> validate(List<OpenMetadataArchive> archives) {
+        List<String> errors = new ArrayList<>();
+        Set<String> entities = new HashSet<>();
+        Set<String> relationships = new HashSet<>();
+        for (OpenMetadataArchive archive : archives) {
+            OpenMetadataArchiveInstanceStore instances = archive.getArchiveInstanceStore();
+            if (instances != null) {
+                for (EntityDetail entity : nonNull(instances.getEntities())) {
+                    validateHeader(entity, TypeDefCategory.ENTITY_DEF, entities, errors);
+                }
+                for (Relationship relationship : nonNull(instances.getRelationships())) {
+                    if (validateHeader(relationship, TypeDefCategory.RELATIONSHIP_DEF, relationships, errors)
+                            && (relationship.getEntityOneProxy() == null || relationship.getEntityOneProxy().getGUID() == null
+                            || relationship.getEntityTwoProxy() == null || relationship.getEntityTwoProxy().getGUID() == null)) {
+                        errors.add("relationship " + relationship.getGUID() + " is missing an entity at one of its ends");
+                    }
+                }
+            }
+        }
+        for (OpenMetadataArchive archive : archives) {
+            OpenMetadataArchiveInstanceStore instances = archive.getArchiveInstanceStore();
+            if (instances != null) {
+                for (ClassificationEntityExtension extension : nonNull(instances.getClassifications())) {
+                    Classification classification = extension.getClassification();
+                    EntityProxy entity = extension.getEntityToClassify();
+                    if (entity == null || !entities.contains(entity.getGUID())) {
+                        errors.add("classification for entity " + (entity == null ? null : entity.getGUID()) + " does not classify an entity in the archives");
+                    } else if (classification == null || classification.getType() == null
+                            || TypeDefCache.getTypeDef(classification.getType().getTypeDefGUID()) == null) {
+                        errors.add("classification for entity " + entity.getGUID() + " is of an unknown type");
+                    }
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Load every instance in the provided archives (which must first have been validated).
+     * @param archives whose instances to load
+     * @return number of documents written
+     * @throws IOException on any error reading the existing contents of the node
+     */
+    public long load(List<OpenMetadataArchive> archives) throws IOException {
+
+        // Any classifications held separately from their entities are applied to the entities before mapping them
+        Map<String, List<Classification>> classifications = new HashMap<>();
+        Set<String> entities = new HashSet<>();
+        for (OpenMetadataArchive archive : archives) {
+            OpenMetadataArchiveInstanceStore instances = archive.getArchiveInstanceStore();
+            if (instances != null) {
+                for (ClassificationEntityExtension extension : nonNull(instances.getClassifications())) {
+                    classifications.computeIfAbsent(extension.getEntityToClassify().getGUID(), k -> new ArrayList<>()).add(extension.getClassification());
+                }
+                for (EntityDetail entity : nonNull(instances.getEntities())) {
+                    entities.add(entity.getGUID());
+                }
+            }
+        }
+
+        Map<String, EntityProxy> proxies = new LinkedHashMap<>();
+        for (OpenMetadataArchive archive : archives) {
+            OpenMetadataArchiveInstanceStore instances = archive.getArchiveInstanceStore();
+            if (instances != null) {
+                for (EntityDetail entity : nonNull(instances.getEntities())) {
+                    put(new EntityDetailMapping(mapper, classify(entity, classifications.get(entity.getGUID()))).toXTDB());
+                }
+                for (Relationship relationship : nonNull(instances.getRelationships())) {
+                    for (EntityProxy proxy : Arrays.asList(relationship.getEntityOneProxy(), relationship.getEntityTwoProxy())) {
+                        if (!entities.contains(proxy.getGUID())) {
+                            proxies.putIfAbsent(proxy.getGUID(), proxy);
+                        }
+                    }
+                    put(new RelationshipMapping(mapper, relationship).toXTDB());
+                }
+            }
+        }
+
+        // Entities that are only related to (not included in the archives) must exist at least as proxies, but must
+        // not replace any entity that is already stored
+        try (IXtdbDatasource db = xtdbAPI.openDB()) {
+            for (EntityProxy proxy : proxies.values()) {
+                if (db.entity(EntityProxyMapping.getReference(proxy.getGUID())) == null) {
+                    put(new EntityProxyMapping(mapper, proxy).toXTDB());
+                }
+            }
+        }
+
+        submitBatch();
+        while (!inFlight.isEmpty()) {
+            xtdbAPI.awaitTx(inFlight.poll(), null);
+        }
+        return written;
+
+    }
+
+    /**
+     * Validate the header of an instance, recording any errors.
+     * @param instance to validate
+     * @param category of type definition the instance must have
+     * @param guids of the instances of this kind validated so far (the instance's will be added)
+     * @param errors to which to add any errors
+     * @return true if the header is valid, otherwise false
+     */
+    private boolean validateHeader(InstanceHeader instance, TypeDefCategory category, Set<String> guids, List<String> errors) {
+        String kind = category == TypeDefCategory.ENTITY_DEF ? "entity " : "relationship ";
+        String guid = instance.getGUID();
+        InstanceType type = instance.getType();
+        TypeDef typeDef = type == null ? null : TypeDefCache.getTypeDef(type.getTypeDefGUID());
+        int before = errors.size();
+        if (guid == null) {
+            errors.add(kind + "without a GUID");
+        } else if (!guids.add(guid)) {
+            errors.add(kind + guid + " is duplicated");
+        }
+        if (typeDef == null) {
+            errors.add(kind + guid + " is of an unknown type");
+        } else if (typeDef.getCategory() != category) {
+            errors.add(kind + guid + " is of a type (" + typeDef.getName() + ") that is not an " + kind + "type");
+        }
+        if (instance.getMetadataCollectionId() == null) {
+            errors.add(kind + guid + " has no metadataCollectionId");
+        }
+        return errors.size() == before;
+    }
+
+    /**
+     * Apply the provided classifications to the entity, replacing any existing classification of the same name.
+     * @param entity to classify
+     * @param classifications to apply (if any)
+     * @return EntityDetail the classified entity
+     */
+    private EntityDetail classify(EntityDetail entity, List<Classification> classifications) {
+        if (classifications == null) {
+            return entity;
+        }
+        Map<String, Classification> byName = new LinkedHashMap<>();
+        for (Classification existing : nonNull(entity.getClassifications())) {
+            byName.put(existing.getName(), existing);
+        }
+        for (Classification classification : classifications) {
+            byName.put(classification.getName(), classification);
+        }
+        EntityDetail classified = new EntityDetail(entity);
+        classified.setClassifications(new ArrayList<>(byName.values()));
+        return classified;
+    }
+
+    /**
+     * Add the provided document into the batch as a 'put' operation, as of the valid time of the instance it
+     * represents. This will automatically submit the batch once it reaches the batch size.
+     * @param doc the XTDB document to put
+     */
+    private void put(XtdbDocument doc) {
+        Date valid = getValidTime(doc);
+        if (valid == null) {
+            tx.put(doc);
+        } else {
+            tx.put(doc, valid);
+        }
+        txSize++;
+        if (txSize >= batchSize) {
+            submitBatch();
+        }
+    }
+
+    /**
+     * Submit the current queue of transactions (if there is anything in it), first waiting for the earliest batch
+     * still in flight if there are already as many in flight as are allowed.
+     */
+    private void submitBatch() {
+        if (txSize > 0) {
+            while (inFlight.size() >= maxInFlight) {
+                xtdbAPI.awaitTx(inFlight.poll(), null);
+            }
+            inFlight.add(xtdbAPI.submitTx(tx.build()));
+            written += txSize;
+            tx = Transaction.builder();
+            txSize = 0;
+        }
+    }
+
+    /**
+     * Retrieve the valid time for an instance's document, exactly as the transaction functions would: the later of
+     * its update time and last classification change, falling back to its create time if it has neither.
+     * @param doc of the instance
+     * @return Date from which the document is valid (or null if it has no times at all)
+     */
+    private static Date getValidTime(XtdbDocument doc) {
+        Object classified = doc.get(ClassificationMapping.LAST_CLASSIFICATION_CHANGE);
+        Object updated = doc.get(InstanceAuditHeaderMapping.UPDATE_TIME);
+        Date latest = null;
+        if (classified instanceof Date) {
+            latest = (Date) classified;
+        }
+        if (updated instanceof Date && (latest == null || ((Date) updated).after(latest))) {
+            latest = (Date) updated;
+        }
+        if (latest == null && doc.get(InstanceAuditHeaderMapping.CREATE_TIME) instanceof Date) {
+            latest = (Date) doc.get(InstanceAuditHeaderMapping.CREATE_TIME);
+        }
+        return latest;
+    }
+
+    private static <T> List<T> nonNull(List<T> list) {
+        return list == null ? Collections.emptyList() : list;
+    }
+
+}
@@ -2,7 +2,10 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.egeria.connectors.juxt.xtdb.migration;
 
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EmbeddedEncoding;
 import org.odpi.egeria.connectors.juxt.xtdb.migration.model.Upgrade2To3;
+import org.odpi.egeria.connectors.juxt.xtdb.migration.model.Upgrade3To4;
+import org.odpi.egeria.connectors.juxt.xtdb.migration.model.UpgradePersistence;
 import xtdb.api.IXtdb;
 import org.odpi.egeria.connectors.juxt.xtdb.migration.model.UpgradeInitialTo2;
 import org.odpi.egeria.connectors.juxt.xtdb.model.PersistenceLayer;
@@ -13,7 +16,9 @@ import java.io.File;
 
 /**
  * Handles migration of already-stored metadata from one release of the connector to another, when
- * necessary.
+ * necessary. Takes as arguments: the path to the node's JSON configuration file, and then optionally the batch size,
+ * the embedded encoding, the number of worker threads and the maximum number of batches in flight at once. An
+ * interrupted migration can simply be run again: it will resume from its last checkpoint.
  */
 public class Migrator {
 
@@ -32,7 +37,7 @@ public class Migrator {
         File config = new File(configFile);
 
         int batchSize = DEFAULT_BATCH_SIZE;
-        if (args.length == 2) {
+        if (args.length >= 2) {
             try {
                 batchSize = Integer.parseInt(args[1]);
             } catch (NumberFormatException e) {
@@ -40,6 +45,34 @@ public class Migrator {
             }
         }
 
+        // This should match the embeddedEncoding configured for the connector
+        EmbeddedEncoding encoding = EmbeddedEncoding.JSON;
+        if (args.length >= 3) {
+            encoding = EmbeddedEncoding.fromName(args[2]);
+            if (encoding == null) {
+                log.error("Unknown embedded encoding '{}' -- must be one of: json, smile, cbor.", args[2]);
+                System.exit(1);
+            }
+        }
+
+        int workers = UpgradePersistence.DEFAULT_WORKERS;
+        if (args.length >= 4) {
+            try {
+                workers = Integer.parseInt(args[3]);
+            } catch (NumberFormatException e) {
+                log.warn("Unable to parse number of workers '{}' as an integer -- falling back to default number of workers.", args[3]);
+            }
+        }
+
+        int maxInFlight = UpgradePersistence.DEFAULT_MAX_IN_FLIGHT;
+        if (args.length >= 5) {
+            try {
+                maxInFlight = Integer.parseInt(args[4]);
+            } catch (NumberFormatException e) {
+                log.warn("Unable to parse maximum batches in flight '{}' as an integer -- falling back to default maximum.", args[4]);
+            }
+        }
+
         log.info("Starting a XTDB node using configuration: {}", configFile);
         try (IXtdb xtdbAPI = IXtdb.startNode(config)) {
 
@@ -54,12 +87,19 @@ public class Migrator {
                     long currentVersion = PersistenceLayer.getVersion(xtdbAPI);
                     log.info("The node is at version {}, while latest is {} -- migrating...", currentVersion, PersistenceLayer.LATEST_VERSION);
 
+                    UpgradePersistence upgrade = null;
                     if (currentVersion == -1) {
-                        UpgradeInitialTo2 upgradeInitialTo2 = new UpgradeInitialTo2(xtdbAPI, batchSize);
-                        upgradeInitialTo2.migrate();
+                        upgrade = new UpgradeInitialTo2(xtdbAPI, batchSize);
                     } else if (currentVersion == 2) {
-                        Upgrade2To3 upgrade2To3 = new Upgrade2To3(xtdbAPI, batchSize);
-                        upgrade2To3.migrate();
+                        upgrade = new Upgrade2To3(xtdbAPI, batchSize);
+                    } else if (currentVersion == 3) {
+                        log.info("... re-encoding embedded values as: {}", encoding.getName());
+                        upgrade = new Upgrade3To4(xtdbAPI, batchSize, encoding);
+                    }
+                    if (upgrade != null) {
+                        upgrade.setWorkers(workers);
+                        upgrade.setMaxInFlight(maxInFlight);
+                        upgrade.migrate();
                     }
 
                 }
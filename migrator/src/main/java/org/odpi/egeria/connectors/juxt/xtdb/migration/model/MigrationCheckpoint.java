@@ -0,0 +1,118 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.migration.model;
+
+import xtdb.api.IXtdb;
+import xtdb.api.TransactionInstant;
+import xtdb.api.XtdbDocument;
+import xtdb.api.tx.Transaction;
+
+/**
+ * Records how far an upgrade of the persistence layer has progressed, so that an interrupted upgrade can resume from
+ * where it left off rather than starting over. The checkpoint is stored in XTDB itself, within the same transaction as
+ * the last batch of migrated documents it covers: so it can never claim more has been migrated than actually has.
+ */
+public class MigrationCheckpoint {
+
+    private static final String CHECKPOINT_DOC = "egeria-connector-xtdb/migration-checkpoint";
+    private static final String FROM_VERSION = "egeria-connector-xtdb/migration-checkpoint.from";
+    private static final String TO_VERSION = "egeria-connector-xtdb/migration-checkpoint.to";
+    private static final String LAST_DOC_ID = "egeria-connector-xtdb/migration-checkpoint.last";
+    private static final String INSTANCES = "egeria-connector-xtdb/migration-checkpoint.instances";
+    private static final String VERSIONS = "egeria-connector-xtdb/migration-checkpoint.versions";
+
+    private final long fromVersion;
+    private final long toVersion;
+    private final String lastDocId;
+    private final long instances;
+    private final long versions;
+
+    /**
+     * Record progress of an upgrade.
+     * @param fromVersion the version from which the upgrade is running
+     * @param toVersion the version to which the upgrade is running
+     * @param lastDocId the document ID of the last instance that has been completely migrated
+     * @param instances the number of instances that have been migrated
+     * @param versions the number of versions of those instances that have been migrated
+     */
+    public MigrationCheckpoint(long fromVersion, long toVersion, String lastDocId, long instances, long versions) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.lastDocId = lastDocId;
+        this.instances = instances;
+        this.versions = versions;
+    }
+
+    /**
+     * Retrieve the document ID of the last instance that has been completely migrated: every instance is migrated in
+     * order of its document ID, so every instance up to and including this one has been migrated.
+     * @return String
+     */
+    public String getLastDocId() {
+        return lastDocId;
+    }
+
+    /**
+     * Retrieve the number of instances that have been migrated.
+     * @return long
+     */
+    public long getInstances() {
+        return instances;
+    }
+
+    /**
+     * Retrieve the number of versions of instances that have been migrated.
+     * @return long
+     */
+    public long getVersions() {
+        return versions;
+    }
+
+    /**
+     * Add this checkpoint to the provided transaction, replacing any previous checkpoint.
+     * @param tx transaction to which to add the checkpoint
+     */
+    public void addTo(Transaction.Builder tx) {
+        XtdbDocument.Builder builder = XtdbDocument.builder(CHECKPOINT_DOC);
+        builder.put(FROM_VERSION, fromVersion);
+        builder.put(TO_VERSION, toVersion);
+        builder.put(LAST_DOC_ID, lastDocId);
+        builder.put(INSTANCES, instances);
+        builder.put(VERSIONS, versions);
+        tx.put(builder.build());
+    }
+
+    /**
+     * Retrieve the checkpoint of an interrupted upgrade between the provided versions, if there is one.
+     * @param xtdbAPI the XTDB back-end being upgraded
+     * @param fromVersion the version from which the upgrade is running
+     * @param toVersion the version to which the upgrade is running
+     * @return MigrationCheckpoint, or null if no such upgrade has been started (or it was for other versions)
+     */
+    public static MigrationCheckpoint load(IXtdb xtdbAPI, long fromVersion, long toVersion) {
+        XtdbDocument doc = xtdbAPI.db().entity(CHECKPOINT_DOC);
+        if (doc != null
+                && doc.get(FROM_VERSION) instanceof Long && (Long) doc.get(FROM_VERSION) == fromVersion
+                && doc.get(TO_VERSION) instanceof Long && (Long) doc.get(TO_VERSION) == toVersion
+                && doc.get(LAST_DOC_ID) instanceof String) {
+            return new MigrationCheckpoint(fromVersion,
+                    toVersion,
+                    (String) doc.get(LAST_DOC_ID),
+                    doc.get(INSTANCES) instanceof Long ? (Long) doc.get(INSTANCES) : 0,
+                    doc.get(VERSIONS) instanceof Long ? (Long) doc.get(VERSIONS) : 0);
+        }
+        return null;
+    }
+
+    /**
+     * Remove any checkpoint (for example, once an upgrade has completed).
+     * @param xtdbAPI the XTDB back-end that was upgraded
+     */
+    public static void clear(IXtdb xtdbAPI) {
+        Transaction.Builder tx = Transaction.builder();
+        tx.delete(CHECKPOINT_DOC);
+        TransactionInstant instant = xtdbAPI.submitTx(tx.build());
+        xtdbAPI.awaitTx(instant, null);
+    }
+
+}
@@ -33,46 +33,8 @@ public class Upgrade2To3 extends UpgradePersistence {
      * {@inheritDoc}
      */
     @Override
-    public void migrateMetadata() throws Exception {
-
-        HistoryOptions options = HistoryOptions.create(HistoryOptions.SortOrder.DESC);
-
-        IXtdbDatasource db = xtdbAPI.db();
-
-        // First search for every single entity proxy instance...
-        try (ICursor<List<?>> searchCursor = db.openQuery(getAllEntityProxiesQuery())) {
-
-            while (searchCursor.hasNext()) {
-
-                List<?> next = searchCursor.next();
-                String docId = (String) next.get(0);
-
-                // then retrieve every single version of each of those entity proxies...
-                try (ICursor<Map<Keyword, ?>> historyCursor = db.openEntityHistory(docId, options)) {
-
-                    while (historyCursor.hasNext()) {
-
-                        Map<Keyword, ?> version = historyCursor.next();
-                        Object oValid = version.get(Constants.XTDB_VALID_TIME);
-                        Object oTxn   = version.get(Constants.XTDB_TX_TIME);
-                        if (oValid instanceof Date && oTxn instanceof Date) {
-                            Date valid = (Date) oValid;
-                            Date txn   = (Date) oTxn;
-                            // ... and finally migrate every one of these versions of every instance
-                            XtdbDocument doc = xtdbAPI.db(valid, txn).entity(docId);
-                            XtdbDocument upgraded = migrateEntityProxy(doc);
-                            // Add the migrated docs in batches
-                            putToBatch(upgraded, valid, null);
-                        }
-
-                    }
-
-                }
-
-            }
-
-        }
-
+    protected XtdbDocument migrateDocument(XtdbDocument doc) {
+        return doc == null ? null : migrateEntityProxy(doc);
     }
 
     static final String OLD_NS = "uniqueProperties";
@@ -103,18 +65,14 @@ public class Upgrade2To3 extends UpgradePersistence {
     }
 
     /**
-     * Construct a query to retrieve the document IDs for all instances of entity proxies.
-     * @return the query
+     * {@inheritDoc}
      */
-    private IPersistentMap getAllEntityProxiesQuery() {
-        Symbol docVar = Symbol.intern("ep");
-        IPersistentMap query = PersistentArrayMap.EMPTY;
-        IPersistentVector conditions = PersistentVector.create(
+    @Override
+    protected IPersistentVector getInstanceCondition(Symbol docVar) {
+        // Every instance of an entity proxy
+        return PersistentVector.create(
                 docVar, Keyword.intern(EntityProxyMapping.ENTITY_PROXY_ONLY_MARKER), true
         );
-        query = query.assoc(Keyword.intern("find"), PersistentVector.create(docVar));
-        query = query.assoc(Keyword.intern("where"), PersistentVector.create(conditions));
-        return query;
     }
 
 }
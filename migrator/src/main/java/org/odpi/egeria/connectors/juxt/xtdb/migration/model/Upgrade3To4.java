@@ -0,0 +1,118 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.migration.model;
+
+import clojure.lang.*;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xtdb.api.*;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Performs a persistence layer migration from version 3 of the connector to version 4.
+ *
+ * The specific changes that are included in version 4:
+ * <ul>
+ *     <li>Embedded (unsearchable) values, such as the complete form of each property value, may now be stored in a
+ *          binary encoding (Smile or CBOR) rather than only as a JSON string. Each embedded value records its own
+ *          encoding, so documents written in any of the encodings can be read: this migration therefore only needs to
+ *          re-encode the existing JSON values if a binary encoding is to be used from now on.</li>
+ * </ul>
+ */
+public class Upgrade3To4 extends UpgradePersistence {
+
+    private static final Logger log = LoggerFactory.getLogger(Upgrade3To4.class);
+
+    private final EmbeddedEncoding encoding;
+
+    /**
+     * Default constructor.
+     * @param xtdbAPI the XTDB back-end to upgrade
+     * @param batchSize number of documents to migrate per batch.
+     * @param encoding into which to re-encode all embedded values (if null, they will be left as JSON)
+     */
+    public Upgrade3To4(IXtdb xtdbAPI, int batchSize, EmbeddedEncoding encoding) {
+        super(xtdbAPI, 3, 4, batchSize);
+        this.encoding = encoding == null ? EmbeddedEncoding.JSON : encoding;
+    }
+
+    /**
+     * Retrieve the encoding into which all embedded values will be re-encoded.
+     * @return EmbeddedEncoding
+     */
+    public EmbeddedEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void migrateMetadata() throws Exception {
+        if (encoding == EmbeddedEncoding.JSON) {
+            // Every value that already exists is in JSON, so there is nothing to re-encode
+            return;
+        }
+        super.migrateMetadata();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected XtdbDocument migrateDocument(XtdbDocument doc) {
+        // Only the docs that have actually changed will be written
+        return migrateEmbeddedValues(doc);
+    }
+
+    /**
+     * Re-encode every embedded value in the document.
+     * @param doc XTDB document to migrate
+     * @return a clone of the document that has been migrated (or the document itself, if nothing needed to change)
+     */
+    @SuppressWarnings("unchecked")
+    private XtdbDocument migrateEmbeddedValues(XtdbDocument doc) {
+
+        if (doc == null) {
+            return null;
+        }
+
+        XtdbDocument upgraded = doc;
+        IPersistentMap map = doc.toMap();
+        Iterator<MapEntry> properties = (Iterator<MapEntry>) map.iterator();
+        while (properties.hasNext()) {
+            MapEntry entry = properties.next();
+            Object value = entry.getValue();
+            if (value instanceof IPersistentMap) {
+                String keyName = entry.getKey().toString().substring(1); // remove the ':' from the keyword
+                try {
+                    IPersistentMap transcoded = encoding.transcode((IPersistentMap) value);
+                    if (transcoded != value) {
+                        upgraded = upgraded.plus(keyName, transcoded);
+                    }
+                } catch (IOException e) {
+                    // Leave any value that cannot be re-encoded in its original form: it can still be read as-is
+                    log.warn("Unable to re-encode {} of {} -- leaving as-is.", keyName, doc.getId(), e);
+                }
+            }
+        }
+
+        return upgraded;
+
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected IPersistentVector getInstanceCondition(Symbol docVar) {
+        // Every instance of metadata
+        return PersistentVector.create(
+                docVar, Keyword.intern(InstanceAuditHeaderMapping.METADATA_COLLECTION_ID), Symbol.intern("_")
+        );
+    }
+
+}
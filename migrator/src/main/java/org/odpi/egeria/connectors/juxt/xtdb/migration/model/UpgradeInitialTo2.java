@@ -4,7 +4,6 @@ package org.odpi.egeria.connectors.juxt.xtdb.migration.model;
 
 import clojure.lang.*;
 import xtdb.api.*;
-import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
 import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
 
 import java.util.*;
@@ -35,50 +34,16 @@ public class UpgradeInitialTo2 extends UpgradePersistence {
      * {@inheritDoc}
      */
     @Override
-    public void migrateMetadata() throws Exception {
-
-        HistoryOptions options = HistoryOptions.create(HistoryOptions.SortOrder.DESC);
-
-        IXtdbDatasource db = xtdbAPI.db();
-
-        // First search for every single metadata instance...
-        try (ICursor<List<?>> searchCursor = db.openQuery(getAllInstancesQuery())) {
-
-            while (searchCursor.hasNext()) {
-
-                List<?> next = searchCursor.next();
-                String docId = (String) next.get(0);
-
-                // then retrieve every single version of each metadata instance...
-                try (ICursor<Map<Keyword, ?>> historyCursor = db.openEntityHistory(docId, options)) {
-
-                    while (historyCursor.hasNext()) {
-
-                        Map<Keyword, ?> version = historyCursor.next();
-                        Object oValid = version.get(Constants.XTDB_VALID_TIME);
-                        Object oTxn   = version.get(Constants.XTDB_TX_TIME);
-                        if (oValid instanceof Date && oTxn instanceof Date) {
-                            Date valid = (Date) oValid;
-                            Date txn   = (Date) oTxn;
-                            // ... and finally migrate every one of these versions of every instance
-                            XtdbDocument doc = xtdbAPI.db(valid, txn).entity(docId);
-                            XtdbDocument upgraded = migrateInstanceAuditHeader(doc);
-                            // Check if the instance is a relationship, and only if so do the following
-                            if (isRelationship(upgraded)) {
-                                upgraded = migrateRelationship(upgraded);
-                            }
-                            // Add the migrated docs in batches
-                            putToBatch(upgraded, valid, null);
-                        }
-
-                    }
-
-                }
-
-            }
-
+    protected XtdbDocument migrateDocument(XtdbDocument doc) {
+        if (doc == null) {
+            return null;
         }
-
+        XtdbDocument upgraded = migrateInstanceAuditHeader(doc);
+        // Check if the instance is a relationship, and only if so do the following
+        if (isRelationship(upgraded)) {
+            upgraded = migrateRelationship(upgraded);
+        }
+        return upgraded;
     }
 
     static final String TYPE_DEF_GUID = "type.guid";
@@ -152,18 +117,14 @@ public class UpgradeInitialTo2 extends UpgradePersistence {
     }
 
     /**
-     * Construct a query to retrieve the document IDs for all instances of metadata.
-     * @return the query
+     * {@inheritDoc}
      */
-    private IPersistentMap getAllInstancesQuery() {
-        Symbol docVar = Symbol.intern("d");
-        IPersistentMap query = PersistentArrayMap.EMPTY;
-        IPersistentVector conditions = PersistentVector.create(
+    @Override
+    protected IPersistentVector getInstanceCondition(Symbol docVar) {
+        // Every instance of metadata
+        return PersistentVector.create(
                 docVar, Keyword.intern(InstanceAuditHeaderMapping.METADATA_COLLECTION_ID), Symbol.intern("_")
         );
-        query = query.assoc(Keyword.intern("find"), PersistentVector.create(docVar));
-        query = query.assoc(Keyword.intern("where"), PersistentVector.create(conditions));
-        return query;
     }
 
     /**
@@ -2,27 +2,60 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.egeria.connectors.juxt.xtdb.migration.model;
 
-import xtdb.api.XtdbDocument;
-import xtdb.api.IXtdb;
+import clojure.lang.*;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import xtdb.api.*;
 import xtdb.api.tx.Transaction;
 import org.odpi.egeria.connectors.juxt.xtdb.model.PersistenceLayer;
 
-import java.util.Date;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Base class that should be extended to define how the persistence layer should be upgraded
  * from one version to another.
+ *
+ * Every version of every instance selected by the upgrade is migrated. The instances are read and migrated by several
+ * worker threads at once, while their migrated documents are submitted in batches (in order of the instances' document
+ * IDs) with only a bounded number of batches in flight at any time. Each batch also records a checkpoint, so that an
+ * interrupted upgrade resumes after the last instance that it had completely migrated.
  */
 public abstract class UpgradePersistence {
 
+    public static final int DEFAULT_WORKERS = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private static final Logger log = LoggerFactory.getLogger(UpgradePersistence.class);
+
+    private static final long REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private static final Symbol DOC_VAR = Symbol.intern("d");
+    private static final Symbol AFTER_VAR = Symbol.intern("after");
+
     protected final IXtdb xtdbAPI;
 
     private final long fromVersion;
     private final long toVersion;
     private final int batchSize;
 
+    private int workers = DEFAULT_WORKERS;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
     private Transaction.Builder tx;
     private int txSize;
+    private final Deque<TransactionInstant> inFlight = new ArrayDeque<>();
+
+    private String lastDocId;
+    private long instances;
+    private long versions;
+    private long total;
+    private long startInstances;
+    private long started;
+    private long lastReport;
 
     /**
      * Defines the versions that the upgrade will apply.
@@ -63,44 +96,201 @@ public abstract class UpgradePersistence {
         return batchSize;
     }
 
+    /**
+     * Set the number of threads that read and migrate instances at the same time.
+     * @param workers number of threads
+     */
+    public void setWorkers(int workers) {
+        this.workers = Math.max(workers, 1);
+    }
+
+    /**
+     * Returns the number of threads that read and migrate instances at the same time.
+     * @return workers
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Set the maximum number of batches that can be submitted before waiting for the earliest of them to be indexed.
+     * @param maxInFlight number of batches
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = Math.max(maxInFlight, 1);
+    }
+
+    /**
+     * Returns the maximum number of batches that can be submitted before waiting for the earliest of them to be indexed.
+     * @return maximum batches in flight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Returns the number of instances that have been migrated (including by any earlier, interrupted run).
+     * @return instances migrated
+     */
+    public long getMigratedInstances() {
+        return instances;
+    }
+
+    /**
+     * Returns the number of versions of instances that have been migrated (including by any earlier, interrupted run).
+     * @return versions migrated
+     */
+    public long getMigratedVersions() {
+        return versions;
+    }
+
     /**
      * Execute the in-place migration.
      * @throws Exception on any error during the migration
      */
     public final void migrate() throws Exception {
         migrateMetadata();
+        MigrationCheckpoint.clear(xtdbAPI);
         markUpdatedVersion();
     }
 
     /**
-     * Execute the in-place migration of metadata.
+     * Execute the in-place migration of metadata: every version of every instance selected by
+     * {@link #getInstanceCondition(Symbol)} is migrated through {@link #migrateDocument(XtdbDocument)}.
      * @throws Exception on any error during the migration
      */
-    public abstract void migrateMetadata() throws Exception;
+    public void migrateMetadata() throws Exception {
+
+        IXtdbDatasource db = xtdbAPI.db();
+
+        MigrationCheckpoint checkpoint = MigrationCheckpoint.load(xtdbAPI, fromVersion, toVersion);
+        if (checkpoint != null) {
+            log.info("... resuming from checkpoint after {} instances ({} versions).", checkpoint.getInstances(), checkpoint.getVersions());
+            lastDocId = checkpoint.getLastDocId();
+            instances = checkpoint.getInstances();
+            versions = checkpoint.getVersions();
+        }
+        total = count(db);
+        startInstances = instances;
+        started = System.nanoTime();
+        lastReport = started;
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, new WorkerFactory());
+        try (ICursor<List<?>> searchCursor = db.openQuery(getInstancesQuery(), lastDocId == null ? "" : lastDocId)) {
+
+            // Read-ahead enough instances to keep every worker busy, but no further
+            Deque<Future<MigratedInstance>> pending = new ArrayDeque<>();
+            while (searchCursor.hasNext()) {
+                String docId = (String) searchCursor.next().get(0);
+                pending.add(pool.submit(() -> migrateInstance(db, docId)));
+                if (pending.size() >= workers * 2) {
+                    addToBatch(pending.poll().get());
+                }
+            }
+            while (!pending.isEmpty()) {
+                addToBatch(pending.poll().get());
+            }
+
+        } finally {
+            pool.shutdownNow();
+        }
+
+        submitBatch();
+        while (!inFlight.isEmpty()) {
+            xtdbAPI.awaitTx(inFlight.poll(), null);
+        }
+        reportProgress(true);
+
+    }
+
+    /**
+     * Retrieve the condition that selects the instances to migrate.
+     * @param docVar variable to which the document ID of each instance should be bound
+     * @return IPersistentVector giving the condition
+     */
+    protected abstract IPersistentVector getInstanceCondition(Symbol docVar);
 
     /**
-     * Add the provided document into the batch as a 'put' operation. This will automatically submit the batch once it
-     * reaches the batch size, followed by rolling a new transaction queue.
-     * @param doc the XTDB document to put
-     * @param valid the valid from date
-     * @param txn the transaction date
+     * Migrate a single version of an instance.
+     * @param doc XTDB document of the version to migrate
+     * @return the migrated document, or the provided document itself (or null) if nothing needs to change
      */
-    protected void putToBatch(XtdbDocument doc, Date valid, Date txn) {
-        if (doc != null) {
-            tx.put(doc, valid, txn);
-            txSize++;
-            if (txSize == batchSize) {
-                submitBatch();
-                setNewTransactionQueue();
+    protected abstract XtdbDocument migrateDocument(XtdbDocument doc);
+
+    /**
+     * Migrate every version of the provided instance.
+     * @param db from which to read the instance's history
+     * @param docId of the instance
+     * @return MigratedInstance giving every version that has changed
+     * @throws Exception on any error reading the instance
+     */
+    private MigratedInstance migrateInstance(IXtdbDatasource db, String docId) throws Exception {
+
+        MigratedInstance migrated = new MigratedInstance(docId);
+        HistoryOptions options = HistoryOptions.create(HistoryOptions.SortOrder.DESC);
+
+        // Retrieve every single version of the instance...
+        try (ICursor<Map<Keyword, ?>> historyCursor = db.openEntityHistory(docId, options)) {
+
+            while (historyCursor.hasNext()) {
+
+                Map<Keyword, ?> version = historyCursor.next();
+                Object oValid = version.get(Constants.XTDB_VALID_TIME);
+                Object oTxn   = version.get(Constants.XTDB_TX_TIME);
+                if (oValid instanceof Date && oTxn instanceof Date) {
+                    Date valid = (Date) oValid;
+                    Date txn   = (Date) oTxn;
+                    // ... and migrate every one of these versions of the instance
+                    XtdbDocument doc = xtdbAPI.db(valid, txn).entity(docId);
+                    XtdbDocument upgraded = migrateDocument(doc);
+                    if (upgraded != null && upgraded != doc) {
+                        migrated.docs.add(upgraded);
+                        migrated.validTimes.add(valid);
+                    }
+                }
+
             }
+
+        }
+
+        return migrated;
+
+    }
+
+    /**
+     * Add every migrated version of the provided instance into the batch as 'put' operations. All the versions of an
+     * instance are kept within the same batch, so the batch is only submitted once it reaches the batch size after
+     * adding all of them, followed by rolling a new transaction queue.
+     * @param migrated the migrated versions of an instance
+     */
+    private void addToBatch(MigratedInstance migrated) {
+        for (int i = 0; i < migrated.docs.size(); i++) {
+            tx.put(migrated.docs.get(i), migrated.validTimes.get(i));
+            txSize++;
         }
+        lastDocId = migrated.docId;
+        instances++;
+        versions += migrated.docs.size();
+        if (txSize >= batchSize) {
+            submitBatch();
+        }
+        reportProgress(false);
     }
 
     /**
-     * Submit the current queue of transactions.
+     * Submit the current queue of transactions (if there is anything in it), along with a checkpoint of the progress
+     * it represents. If there are already as many batches in flight as are allowed, first wait for the earliest of
+     * them to be indexed.
      */
     private void submitBatch() {
-        xtdbAPI.submitTx(tx.build());
+        if (txSize > 0) {
+            new MigrationCheckpoint(fromVersion, toVersion, lastDocId, instances, versions).addTo(tx);
+            while (inFlight.size() >= maxInFlight) {
+                xtdbAPI.awaitTx(inFlight.poll(), null);
+            }
+            inFlight.add(xtdbAPI.submitTx(tx.build()));
+            setNewTransactionQueue();
+        }
     }
 
     /**
@@ -111,6 +301,55 @@ public abstract class UpgradePersistence {
         txSize = 0;
     }
 
+    /**
+     * Log the progress of the upgrade, its current throughput and how long it is expected to take to complete.
+     * @param force true to log regardless of when progress was last logged
+     */
+    private void reportProgress(boolean force) {
+        long now = System.nanoTime();
+        if (force || now - lastReport >= REPORT_INTERVAL) {
+            lastReport = now;
+            double seconds = Math.max(now - started, 1) / 1_000_000_000.0;
+            double rate = (instances - startInstances) / seconds;
+            long remaining = Math.max(total - instances, 0);
+            String eta = rate > 0 ? Duration.ofSeconds((long) (remaining / rate)).toString() : "unknown";
+            log.info("... migrated {} of {} instances ({} versions) at {} instances/s -- ETA {}",
+                    instances, total, versions, String.format("%.1f", rate), eta);
+        }
+    }
+
+    /**
+     * Count the instances to migrate.
+     * @param db in which to count the instances
+     * @return number of instances
+     */
+    private long count(IXtdbDatasource db) {
+        IPersistentMap query = PersistentArrayMap.EMPTY
+                .assoc(Keyword.intern("find"), PersistentVector.create(PersistentList.create(Arrays.asList(Symbol.intern("count"), DOC_VAR))))
+                .assoc(Keyword.intern("where"), PersistentVector.create(getInstanceCondition(DOC_VAR)));
+        Collection<List<?>> results = db.query(query);
+        if (results != null && !results.isEmpty()) {
+            return ((Number) results.iterator().next().get(0)).longValue();
+        }
+        return 0;
+    }
+
+    /**
+     * Construct a query to retrieve, in order, the document IDs of the instances to migrate that come after a given
+     * document ID.
+     * @return the query
+     */
+    private IPersistentMap getInstancesQuery() {
+        IPersistentMap query = PersistentArrayMap.EMPTY;
+        query = query.assoc(Keyword.intern("find"), PersistentVector.create(DOC_VAR));
+        query = query.assoc(Keyword.intern("in"), PersistentVector.create(AFTER_VAR));
+        query = query.assoc(Keyword.intern("where"), PersistentVector.create(
+                getInstanceCondition(DOC_VAR),
+                PersistentVector.create(PersistentList.create(Arrays.asList(Symbol.intern(">"), DOC_VAR, AFTER_VAR)))));
+        query = query.assoc(Keyword.intern("order-by"), PersistentVector.create((Object) PersistentVector.create(DOC_VAR, Keyword.intern("asc"))));
+        return query;
+    }
+
     /**
      * Persist the updated version of the layer (call at the end of migrate()).
      * @see #migrate()
@@ -119,4 +358,35 @@ public abstract class UpgradePersistence {
         PersistenceLayer.setVersion(xtdbAPI, toVersion);
     }
 
+    /**
+     * The migrated versions of a single instance.
+     */
+    private static final class MigratedInstance {
+
+        private final String docId;
+        private final List<XtdbDocument> docs = new ArrayList<>();
+        private final List<Date> validTimes = new ArrayList<>();
+
+        private MigratedInstance(String docId) {
+            this.docId = docId;
+        }
+
+    }
+
+    /**
+     * Creates the (daemon) worker threads that read and migrate instances.
+     */
+    private static final class WorkerFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "xtdb-migration-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
 }
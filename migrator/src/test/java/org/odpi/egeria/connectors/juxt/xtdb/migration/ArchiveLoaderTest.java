@@ -0,0 +1,197 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.migration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityDetailMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EntityProxyMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.InstanceAuditHeaderMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.RelationshipMapping;
+import org.odpi.egeria.connectors.juxt.xtdb.model.PersistenceLayer;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
+import org.testng.annotations.Test;
+import xtdb.api.IXtdb;
+import xtdb.api.XtdbDocument;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.*;
+
+import static org.testng.Assert.*;
+
+/**
+ * Test the bulk loading of open metadata archives.
+ */
+public class ArchiveLoaderTest {
+
+    private static final String CONFIG = "{\"xtdb/index-store\":{\"kv-store\":{\"xtdb/module\":\"xtdb.mem-kv/->kv-store\"}},\"xtdb/document-store\":{\"kv-store\":{\"xtdb/module\":\"xtdb.mem-kv/->kv-store\"}},\"xtdb/tx-log\":{\"kv-store\":{\"xtdb/module\":\"xtdb.mem-kv/->kv-store\"}}}";
+    private static final String MCID = "b0ac4b5c-8b4a-4c0b-9e6b-6d3f3b2a1d11";
+    private static final String ENTITY_TYPE_GUID = "8a1d3b2c-0f39-4b8e-9c2a-0d6b8a1e5f01";
+    private static final String RELATIONSHIP_TYPE_GUID = "8a1d3b2c-0f39-4b8e-9c2a-0d6b8a1e5f02";
+    private static final Date CREATED = new Date(System.currentTimeMillis() - 86400000L);
+    private static final Date UPDATED = new Date(System.currentTimeMillis() - 3600000L);
+
+    @Test
+    void testLoad() {
+
+        try (IXtdb embedded = IXtdb.startNode()) {
+
+            File tmp = File.createTempFile("archive", ".json");
+            tmp.deleteOnExit();
+            new ObjectMapper().writeValue(tmp, getArchive(getEntity("e1", "unknown-type-guid")));
+            List<OpenMetadataArchive> archives = List.of(getArchive(), ArchiveLoader.read(tmp));
+
+            ArchiveLoader loader = new ArchiveLoader(embedded, 2, 1);
+            loader.registerTypes(archives);
+            List<String> errors = loader.validate(archives);
+            assertEquals(errors.size(), 1, "Expected the entity of an unknown type to be invalid.");
+
+            OpenMetadataArchive archive = getArchive(getEntity("e1", ENTITY_TYPE_GUID), getEntity("e2", ENTITY_TYPE_GUID));
+            OpenMetadataArchiveInstanceStore instanceStore = archive.getArchiveInstanceStore();
+            instanceStore.setRelationships(List.of(getRelationship("r1", "e1", "e3")));
+            archive.setArchiveInstanceStore(instanceStore);
+            new ObjectMapper().writeValue(tmp, archive);
+            archives = List.of(ArchiveLoader.read(tmp));
+            loader.registerTypes(archives);
+            assertTrue(loader.validate(archives).isEmpty(), "Expected the archive to be valid.");
+            assertEquals(loader.load(archives), 4L, "Expected two entities, a proxy and a relationship to be written.");
+
+            XtdbDocument entity = embedded.db(UPDATED).entity(EntityDetailMapping.getReference("e1"));
+            assertNotNull(entity, "Expected the entity to be valid as of its update time.");
+            assertNull(embedded.db(new Date(UPDATED.getTime() - 1)).entity(EntityDetailMapping.getReference("e1")), "Expected the entity not to be valid before its update time.");
+            assertNotNull(embedded.db().entity(EntityDetailMapping.getReference("e2")));
+            assertNotNull(embedded.db().entity(RelationshipMapping.getReference("r1")));
+            XtdbDocument proxy = embedded.db().entity(EntityProxyMapping.getReference("e3"));
+            assertNotNull(proxy, "Expected a proxy for the entity outside the archive.");
+            assertEquals(proxy.get(EntityProxyMapping.ENTITY_PROXY_ONLY_MARKER), true);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+
+    }
+
+    @Test
+    void testRun() {
+        try (IXtdb embedded = IXtdb.startNode()) {
+
+            File config = File.createTempFile("extdb", ".json");
+            config.deleteOnExit();
+            FileWriter fw = new FileWriter(config);
+            fw.write(CONFIG);
+            fw.close();
+            File types = File.createTempFile("types", ".json");
+            types.deleteOnExit();
+            new ObjectMapper().writeValue(types, getArchive());
+            File instances = File.createTempFile("instances", ".json");
+            instances.deleteOnExit();
+            OpenMetadataArchive archive = getArchive(getEntity("e1", ENTITY_TYPE_GUID));
+            archive.setArchiveTypeStore(null);
+            new ObjectMapper().writeValue(instances, archive);
+            File invalid = File.createTempFile("invalid", ".json");
+            invalid.deleteOnExit();
+            new ObjectMapper().writeValue(invalid, getArchive(getEntity("e2", "unknown-type-guid")));
+
+            assertEquals(ArchiveLoader.run(new String[]{ config.getCanonicalPath() }), 1, "Expected a failure when no archives are given.");
+            assertEquals(ArchiveLoader.run(new String[]{ config.getCanonicalPath(), types.getCanonicalPath(), "10", "unknown" }), 1,
+                    "Expected a failure for an unknown embedded encoding.");
+            assertEquals(ArchiveLoader.run(new String[]{ config.getCanonicalPath(), types.getCanonicalPath() + "," + instances.getCanonicalPath(), "10" }), 0,
+                    "Expected the archives to be loaded into the configured node.");
+
+            String[] files = new String[]{ types.getCanonicalPath(), invalid.getCanonicalPath() };
+            assertEquals(ArchiveLoader.run(embedded, files, 10, 1), 1, "Expected a failure when any instance is invalid.");
+            assertNull(embedded.db().entity(EntityDetailMapping.getReference("e2")), "Expected nothing to be loaded when any instance is invalid.");
+            assertEquals(PersistenceLayer.getVersion(embedded), -1L, "Expected the persistence layer version not to be set when nothing is loaded.");
+
+            files = new String[]{ types.getCanonicalPath(), instances.getCanonicalPath() };
+            assertEquals(ArchiveLoader.run(embedded, files, 10, 1), 0, "Expected the archives to be loaded.");
+            XtdbDocument entity = embedded.db().entity(EntityDetailMapping.getReference("e1"));
+            assertNotNull(entity, "Expected the entity to be loaded.");
+            assertEquals(entity.get(InstanceAuditHeaderMapping.METADATA_COLLECTION_ID), MCID);
+            assertEquals(PersistenceLayer.getVersion(embedded), PersistenceLayer.LATEST_VERSION, "Expected the persistence layer version to be set.");
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
+    private static OpenMetadataArchive getArchive(EntityDetail... entities) {
+
+        PrimitiveDef string = new PrimitiveDef(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        string.setGUID(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING.getGUID());
+        string.setName(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING.getName());
+        TypeDefAttribute name = new TypeDefAttribute();
+        name.setAttributeName("name");
+        name.setAttributeType(string);
+
+        EntityDef entityDef = new EntityDef();
+        entityDef.setGUID(ENTITY_TYPE_GUID);
+        entityDef.setName("LoadedEntity");
+        entityDef.setPropertiesDefinition(List.of(name));
+        RelationshipDef relationshipDef = new RelationshipDef();
+        relationshipDef.setGUID(RELATIONSHIP_TYPE_GUID);
+        relationshipDef.setName("LoadedRelationship");
+
+        OpenMetadataArchiveTypeStore typeStore = new OpenMetadataArchiveTypeStore();
+        typeStore.setAttributeTypeDefs(List.of(string));
+        typeStore.setNewTypeDefs(List.of(entityDef, relationshipDef));
+        OpenMetadataArchive archive = new OpenMetadataArchive();
+        archive.setArchiveTypeStore(typeStore);
+        if (entities.length > 0) {
+            OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+            instanceStore.setEntities(Arrays.asList(entities));
+            archive.setArchiveInstanceStore(instanceStore);
+        }
+        return archive;
+
+    }
+
+    private static EntityDetail getEntity(String guid, String typeGUID) {
+        EntityDetail entity = new EntityDetail();
+        setHeader(entity, guid, typeGUID, "LoadedEntity", TypeDefCategory.ENTITY_DEF);
+        InstanceProperties properties = new InstanceProperties();
+        PrimitivePropertyValue value = new PrimitivePropertyValue();
+        value.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        value.setPrimitiveValue("Entity " + guid);
+        properties.setProperty("name", value);
+        entity.setProperties(properties);
+        return entity;
+    }
+
+    private static Relationship getRelationship(String guid, String one, String two) {
+        Relationship relationship = new Relationship();
+        setHeader(relationship, guid, RELATIONSHIP_TYPE_GUID, "LoadedRelationship", TypeDefCategory.RELATIONSHIP_DEF);
+        relationship.setEntityOneProxy(getProxy(one));
+        relationship.setEntityTwoProxy(getProxy(two));
+        return relationship;
+    }
+
+    private static EntityProxy getProxy(String guid) {
+        EntityProxy proxy = new EntityProxy();
+        setHeader(proxy, guid, ENTITY_TYPE_GUID, "LoadedEntity", TypeDefCategory.ENTITY_DEF);
+        return proxy;
+    }
+
+    private static void setHeader(InstanceHeader instance, String guid, String typeGUID, String typeName, TypeDefCategory category) {
+        InstanceType type = new InstanceType();
+        type.setTypeDefGUID(typeGUID);
+        type.setTypeDefName(typeName);
+        type.setTypeDefCategory(category);
+        instance.setGUID(guid);
+        instance.setType(type);
+        instance.setMetadataCollectionId(MCID);
+        instance.setInstanceProvenanceType(InstanceProvenanceType.CONTENT_PACK);
+        instance.setStatus(InstanceStatus.ACTIVE);
+        instance.setVersion(1L);
+        instance.setCreatedBy("loader");
+        instance.setCreateTime(CREATED);
+        instance.setUpdateTime(UPDATED);
+    }
+
+}
@@ -0,0 +1,87 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.egeria.connectors.juxt.xtdb.migration.model;
+
+import org.odpi.egeria.connectors.juxt.xtdb.model.PersistenceLayer;
+import org.testng.annotations.Test;
+import xtdb.api.IXtdb;
+import xtdb.api.XtdbDocument;
+import xtdb.api.tx.Transaction;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.odpi.egeria.connectors.juxt.xtdb.migration.model.UpgradeInitialTo2.TYPE_DEF_GUID;
+import static org.odpi.egeria.connectors.juxt.xtdb.migration.model.UpgradeInitialTo2.TYPE_DEF_GUIDS;
+import static org.testng.Assert.*;
+
+/**
+ * Test the parallel application of an upgrade, resuming from a checkpoint.
+ */
+public class UpgradeResumeTest {
+
+    private static final int INSTANCES = 30;
+    private static final int ALREADY_MIGRATED = 10;
+
+    @Test
+    void testResume() {
+
+        try (IXtdb embedded = IXtdb.startNode()) {
+
+            // Two versions of every instance, as of a day apart
+            Date earlier = new Date(System.currentTimeMillis() - 86400000L);
+            Date later = new Date();
+            List<String> docIds = new ArrayList<>();
+            Transaction.Builder builder = Transaction.builder();
+            for (int i = 0; i < INSTANCES; i++) {
+                String docId = String.format("e_%03d", i);
+                docIds.add(docId);
+                builder.put(getEntity(docId, 1), earlier);
+                builder.put(getEntity(docId, 2), later);
+            }
+            // ... and a checkpoint claiming that the first of them have already been migrated
+            Transaction.Builder checkpoint = Transaction.builder();
+            new MigrationCheckpoint(-1, 2, docIds.get(ALREADY_MIGRATED - 1), ALREADY_MIGRATED, ALREADY_MIGRATED * 2L).addTo(checkpoint);
+            embedded.submitTx(builder.build());
+            embedded.awaitTx(embedded.submitTx(checkpoint.build()), null);
+
+            UpgradeInitialTo2 upgrade = new UpgradeInitialTo2(embedded, 7);
+            upgrade.setWorkers(4);
+            upgrade.setMaxInFlight(2);
+            upgrade.migrate();
+
+            assertEquals(upgrade.getMigratedInstances(), INSTANCES, "Expected every instance to be counted as migrated.");
+            assertEquals(upgrade.getMigratedVersions(), INSTANCES * 2L, "Expected every version to be counted as migrated.");
+            assertNull(MigrationCheckpoint.load(embedded, -1, 2), "Expected the checkpoint to be removed once the upgrade is complete.");
+            assertEquals(PersistenceLayer.getVersion(embedded), 2L, "Expected persistence to be at the upgraded version.");
+
+            for (int i = 0; i < INSTANCES; i++) {
+                String docId = docIds.get(i);
+                for (Date asOf : new Date[]{ earlier, later }) {
+                    XtdbDocument doc = embedded.db(asOf).entity(docId);
+                    if (i < ALREADY_MIGRATED) {
+                        assertNotNull(doc.get(TYPE_DEF_GUID), "Expected instances before the checkpoint not to be migrated again.");
+                    } else {
+                        assertNull(doc.get(TYPE_DEF_GUID), "Expected instances after the checkpoint to be migrated.");
+                        assertNotNull(doc.get(TYPE_DEF_GUIDS), "Expected every version of the instances after the checkpoint to be migrated.");
+                    }
+                }
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+
+    }
+
+    private XtdbDocument getEntity(String docId, long version) {
+        XtdbDocument.Builder builder = XtdbDocument.builder(docId);
+        builder.put("version", version);
+        builder.put("metadataCollectionId", "d4882da8-5ef7-4a93-92b9-429c387b6d56");
+        builder.put(TYPE_DEF_GUID, "0db3e6ec-f5ef-4d75-ae38-b7ee6fd6ec0a");
+        return builder.build();
+    }
+
+}
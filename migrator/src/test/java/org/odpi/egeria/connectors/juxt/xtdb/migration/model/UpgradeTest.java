@@ -9,6 +9,7 @@ import clojure.lang.PersistentVector;
 import xtdb.api.XtdbDocument;
 import xtdb.api.IXtdb;
 import xtdb.api.tx.Transaction;
+import org.odpi.egeria.connectors.juxt.xtdb.mapping.EmbeddedEncoding;
 import org.odpi.egeria.connectors.juxt.xtdb.model.PersistenceLayer;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
@@ -57,8 +58,29 @@ public class UpgradeTest {
             assertEquals(upgrade2.getToVersion(), 3L, "Expected to upgrade to version 3.");
             assertEquals(upgrade2.getBatchSize(), 1, "Expected batch size to match what was set explicitly.");
             upgrade2.migrate();
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            assertNull(e);
+        }
+    }
+
+    @Test(groups = { "three" }, dependsOnGroups = { "two" })
+    void testMigration3() {
+        try {
+
+            Upgrade3To4 upgrade3 = new Upgrade3To4(embedded, 1, EmbeddedEncoding.SMILE);
+            assertEquals(upgrade3.getFromVersion(), 3L, "Expected to upgrade from version 3.");
+            assertEquals(upgrade3.getToVersion(), 4L, "Expected to upgrade to version 4.");
+            assertEquals(upgrade3.getEncoding(), EmbeddedEncoding.SMILE, "Expected encoding to match what was set explicitly.");
+            upgrade3.migrate();
             assertTrue(PersistenceLayer.isLatestVersion(embedded), "Expected persistence to be at the latest version after migration.");
 
+            IPersistentMap embeddedValue = (IPersistentMap) embedded.db().entity(e1).get(QUALIFIED_NAME);
+            assertFalse(embeddedValue.containsKey(EmbeddedEncoding.JSON.getKeyword()), "Expected JSON value to have been re-encoded.");
+            assertTrue(embeddedValue.valAt(EmbeddedEncoding.SMILE.getKeyword()) instanceof byte[], "Expected value to have been re-encoded as Smile.");
+            assertEquals(EmbeddedEncoding.JSON.transcode(embeddedValue).valAt(EmbeddedEncoding.JSON.getKeyword()), QUALIFIED_NAME_JSON, "Expected re-encoded value to be unchanged.");
+
         } catch (Exception e) {
             e.printStackTrace();
             assertNull(e);
@@ -78,6 +100,9 @@ public class UpgradeTest {
     private static final String e2 = "e_term@abcdefgh-1234-ijkl-5678-mnopqrstuvwx:6662c0f2.e1b1ec6c.svu583pvk.3sr7b7n.mq748u.ru37pccq07437ncqvhvjs";
     private static final String r1 = "r_c4b46ea3-e429-4496-95c7-ad216ca8e64f";
 
+    private static final String QUALIFIED_NAME = "entityProperties/qualifiedName.json";
+    private static final String QUALIFIED_NAME_JSON = "{\"class\":\"PrimitivePropertyValue\",\"instancePropertyCategory\":\"PRIMITIVE\",\"primitiveDefCategory\":\"OM_PRIMITIVE_TYPE_STRING\",\"primitiveValue\":\"A Simple Term\"}";
+
     private XtdbDocument getEntityCreate(String guid) {
         XtdbDocument.Builder builder = XtdbDocument.builder(guid);
         builder.put("createdBy", "admin");
@@ -95,6 +120,7 @@ public class UpgradeTest {
         IPersistentMap map = PersistentHashMap.EMPTY;
         map = map.assoc(Keyword.intern("json"), "unused");
         builder.put("type", map);
+        builder.put(QUALIFIED_NAME, PersistentHashMap.EMPTY.assoc(Keyword.intern("json"), QUALIFIED_NAME_JSON));
         return builder.build();
     }
 